@@ -0,0 +1,116 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+
+/**
+ * Compares two JMH json result files (<code>-rf json</code>) and prints the change of each benchmark. Exits with non
+ * zero status when any benchmark regressed more than the allowed percentage, so that it can be used to gate builds.
+ * 
+ * <pre>
+ * java -cp benchmarks.jar com.automatics.benchmarks.BenchmarkResultComparator before.json after.json [threshold%]
+ * </pre>
+ *
+ */
+public class BenchmarkResultComparator {
+
+    /** Default allowed regression in percentage */
+    private static final double DEFAULT_THRESHOLD_PERCENT = 10.0;
+
+    private static final String MODE_THROUGHPUT = "thrpt";
+
+    public static void main(String[] args) throws IOException, JSONException {
+	if (args.length < 2) {
+	    System.err.println("Usage: BenchmarkResultComparator <before.json> <after.json> [threshold percent]");
+	    System.exit(2);
+	}
+	double threshold = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_THRESHOLD_PERCENT;
+	Map<String, JSONObject> before = readResults(new File(args[0]));
+	Map<String, JSONObject> after = readResults(new File(args[1]));
+
+	int regressions = 0;
+	System.out.println(String.format("%-90s %15s %15s %10s", "Benchmark", "Before", "After", "Change"));
+	for (Map.Entry<String, JSONObject> entry : after.entrySet()) {
+	    JSONObject afterMetric = entry.getValue().getJSONObject("primaryMetric");
+	    JSONObject beforeResult = before.get(entry.getKey());
+	    if (null == beforeResult) {
+		System.out.println(String.format("%-90s %15s %15.3f %10s", entry.getKey(), "-",
+			afterMetric.getDouble("score"), "new"));
+		continue;
+	    }
+	    double beforeScore = beforeResult.getJSONObject("primaryMetric").getDouble("score");
+	    double afterScore = afterMetric.getDouble("score");
+	    double change = beforeScore == 0 ? 0 : (afterScore - beforeScore) * 100.0 / beforeScore;
+	    // For throughput higher is better, for time based modes lower is better
+	    double regression = MODE_THROUGHPUT.equals(entry.getValue().getString("mode")) ? -change : change;
+	    boolean regressed = regression > threshold;
+	    if (regressed) {
+		regressions++;
+	    }
+	    System.out.println(String.format("%-90s %15.3f %15.3f %+9.1f%% %s", entry.getKey(), beforeScore,
+		    afterScore, change, afterMetric.optString("scoreUnit") + (regressed ? "  REGRESSION" : "")));
+	}
+	System.out.println(regressions + " benchmark(s) regressed more than " + threshold + "%");
+	System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    /**
+     * Reads JMH results keyed by benchmark name and parameters
+     * 
+     * @param resultFile
+     *            JMH json result file
+     * @return Results keyed by benchmark name and parameters
+     */
+    private static Map<String, JSONObject> readResults(File resultFile) throws IOException, JSONException {
+	Map<String, JSONObject> results = new LinkedHashMap<String, JSONObject>();
+	JSONArray resultArray = new JSONArray(
+		new String(Files.readAllBytes(resultFile.toPath()), StandardCharsets.UTF_8));
+	for (int index = 0; index < resultArray.length(); index++) {
+	    JSONObject result = resultArray.getJSONObject(index);
+	    results.put(getResultKey(result), result);
+	}
+	return results;
+    }
+
+    private static String getResultKey(JSONObject result) throws JSONException {
+	StringBuilder key = new StringBuilder(result.getString("benchmark"));
+	JSONObject params = result.optJSONObject("params");
+	if (null != params) {
+	    Map<String, String> sortedParams = new TreeMap<String, String>();
+	    Iterator<?> keys = params.keys();
+	    while (keys.hasNext()) {
+		String name = String.valueOf(keys.next());
+		sortedParams.put(name, params.getString(name));
+	    }
+	    key.append(sortedParams);
+	}
+	return key.toString();
+    }
+}
@@ -0,0 +1,99 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.automatics.logger.HtmlLogGenerator;
+import com.automatics.utils.AutomaticsUtils;
+
+/**
+ * Benchmarks html log generation from a synthetic framework log
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HtmlLogGeneratorBenchmark {
+
+    private static final String TEST_UID = "TC-AUTOMATICS-BENCH-1001";
+
+    @Param({ "5000", "50000" })
+    public int logLines;
+
+    private File workingDirectory;
+
+    private String logLocation;
+
+    private String destination;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+	workingDirectory = Files.createTempDirectory("automatics-bench").toFile();
+	// Html log generator derives image folder from mac address present in destination path
+	File destinationDirectory = new File(workingDirectory,
+		AutomaticsUtils.getCleanMac(SyntheticData.DEVICE_MAC) + File.separator + "html");
+	destinationDirectory.mkdirs();
+	destination = destinationDirectory.getAbsolutePath();
+	File logFile = new File(workingDirectory, TEST_UID + ".log");
+	Files.write(logFile.toPath(), SyntheticData.frameworkLog(logLines, TEST_UID).getBytes(StandardCharsets.UTF_8));
+	logLocation = logFile.getAbsolutePath();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+	deleteRecursively(workingDirectory);
+    }
+
+    @Benchmark
+    public void generateHtmlLog() {
+	new HtmlLogGenerator().parseAndGenerateHTMLLog(TEST_UID, SyntheticData.DEVICE_MAC, logLocation, destination,
+		"1", "BENCHMARK_FIRMWARE");
+    }
+
+    private static void deleteRecursively(File file) {
+	File[] children = file.listFiles();
+	if (null != children) {
+	    for (File child : children) {
+		deleteRecursively(child);
+	    }
+	}
+	file.delete();
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.automatics.image.imagick.MagickComparison;
+
+/**
+ * Benchmarks image comparison using ImageMagick against an in JVM RMSE comparison of the same frames. The
+ * <code>magickCompare</code> benchmark requires ImageMagick to be installed, it can be excluded using
+ * <code>-e magickCompare</code>.
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ImageComparisonBenchmark {
+
+    /** Frame dimensions similar to a cropped region of a 720p capture */
+    private static final int FRAME_WIDTH = 640;
+
+    private static final int FRAME_HEIGHT = 360;
+
+    private BufferedImage preCapturedImage;
+
+    private BufferedImage liveImage;
+
+    private MagickComparison magickComparison;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	preCapturedImage = SyntheticData.frame(FRAME_WIDTH, FRAME_HEIGHT, 1L);
+	liveImage = SyntheticData.frame(FRAME_WIDTH, FRAME_HEIGHT, 2L);
+	magickComparison = new MagickComparison();
+    }
+
+    @Benchmark
+    public boolean magickCompare() {
+	return magickComparison.compare(preCapturedImage, liveImage);
+    }
+
+    @Benchmark
+    public double inJvmRmse() {
+	return calculateRmse(preCapturedImage, liveImage);
+    }
+
+    /**
+     * Calculates normalized root mean square error across RGB channels
+     * 
+     * @param first
+     *            First image
+     * @param second
+     *            Second image
+     * @return RMSE in range 0 to 1
+     */
+    private static double calculateRmse(BufferedImage first, BufferedImage second) {
+	int width = first.getWidth();
+	int height = first.getHeight();
+	int[] firstPixels = first.getRGB(0, 0, width, height, null, 0, width);
+	int[] secondPixels = second.getRGB(0, 0, width, height, null, 0, width);
+	long squaredError = 0;
+	for (int index = 0; index < firstPixels.length; index++) {
+	    int firstPixel = firstPixels[index];
+	    int secondPixel = secondPixels[index];
+	    int red = ((firstPixel >> 16) & 0xFF) - ((secondPixel >> 16) & 0xFF);
+	    int green = ((firstPixel >> 8) & 0xFF) - ((secondPixel >> 8) & 0xFF);
+	    int blue = (firstPixel & 0xFF) - (secondPixel & 0xFF);
+	    squaredError += red * red + green * green + blue * blue;
+	}
+	return Math.sqrt((double) squaredError / (firstPixels.length * 3L)) / 255.0;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.automatics.utils.CommonMethods;
+
+/**
+ * Benchmarks for {@link CommonMethods#patternMatcher(String, String)} and
+ * {@link CommonMethods#patternFinder(String, String)} over typical device command output
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PatternMatcherBenchmark {
+
+    private final String commandResponse = SyntheticData.commandResponse(200);
+
+    private final String traceLine = SyntheticData.traceLine(42);
+
+    @Benchmark
+    public boolean patternMatcherOnTraceLine() {
+	return CommonMethods.patternMatcher(traceLine, SyntheticData.TRACE_MATCH_PATTERN);
+    }
+
+    @Benchmark
+    public boolean patternMatcherOnCommandResponse() {
+	return CommonMethods.patternMatcher(commandResponse, "Device.DeviceInfo.SoftwareVersion");
+    }
+
+    @Benchmark
+    public String patternFinderOnCommandResponse() {
+	return CommonMethods.patternFinder(commandResponse, "imagename:\\s*(\\S+)");
+    }
+}
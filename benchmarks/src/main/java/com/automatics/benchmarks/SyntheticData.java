@@ -0,0 +1,178 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.automatics.webpa.WebPaParameter;
+
+/**
+ * Synthetic stand-ins for device output used by the benchmarks. Data is generated with a fixed seed so that results of
+ * different runs are comparable.
+ *
+ */
+public final class SyntheticData {
+
+    /** Pattern matching the marker line inserted by {@link #traceLine(int)} */
+    public static final String TRACE_MATCH_PATTERN = "SYSTEM_BOOT_COMPLETE.*uptime=\\d+";
+
+    /** Fake device MAC used in synthetic logs */
+    public static final String DEVICE_MAC = "AA:BB:CC:DD:EE:FF";
+
+    private static final String[] COMPONENTS = { "CcspPandMSsp", "CcspWifiSsp", "PsmSsp", "webpa", "parodus" };
+
+    private SyntheticData() {
+    }
+
+    /**
+     * Generates a trace line, the marker line is generated for sequence numbers divisible by 1000
+     * 
+     * @param sequence
+     *            Line sequence number
+     * @return Trace line
+     */
+    public static String traceLine(int sequence) {
+	StringBuilder line = new StringBuilder("2024-01-01T10:");
+	line.append(String.format("%02d:%02d.%03d", (sequence / 60) % 60, sequence % 60, sequence % 1000));
+	line.append(' ').append(COMPONENTS[sequence % COMPONENTS.length]).append("[").append(1000 + sequence % 97)
+		.append("]: ");
+	if (sequence > 0 && sequence % 1000 == 0) {
+	    line.append("SYSTEM_BOOT_COMPLETE uptime=").append(sequence);
+	} else {
+	    line.append("RDK_LOG_INFO processing request id=").append(sequence).append(" status=OK");
+	}
+	return line.toString();
+    }
+
+    /**
+     * Generates multi line command output similar to version.txt and dmcli output
+     * 
+     * @param lines
+     *            Number of lines
+     * @return Command output
+     */
+    public static String commandResponse(int lines) {
+	StringBuilder response = new StringBuilder("imagename:TG1682_4.2p1s1_PROD_sey\nBRANCH=rdkb-2024q1\n");
+	for (int index = 0; index < lines; index++) {
+	    response.append("Parameter ").append(index).append(" name:Device.WiFi.AccessPoint.").append(index)
+		    .append(".Enable\ntype: bool, value: true\n");
+	}
+	response.append("Device.DeviceInfo.SoftwareVersion value: 4.2p1s1\n");
+	return response.toString();
+    }
+
+    /**
+     * Generates WebPA parameters of a table GET
+     * 
+     * @param count
+     *            Number of parameters
+     * @return WebPA parameters
+     */
+    public static List<WebPaParameter> webPaParameters(int count) {
+	List<WebPaParameter> parameters = new ArrayList<WebPaParameter>();
+	for (int index = 0; index < count; index++) {
+	    WebPaParameter parameter = new WebPaParameter();
+	    parameter.setName(webPaParameterName(index));
+	    parameter.setValue(index % 2 == 0 ? "true" : String.valueOf(index));
+	    parameter.setDataType(index % 2 == 0 ? 3 : 1);
+	    parameters.add(parameter);
+	}
+	return parameters;
+    }
+
+    /**
+     * Generates WebPA GET response json
+     * 
+     * @param count
+     *            Number of parameters
+     * @return WebPA response
+     */
+    public static String webPaResponse(int count) {
+	StringBuilder json = new StringBuilder("{\"parameters\":[");
+	for (int index = 0; index < count; index++) {
+	    if (index > 0) {
+		json.append(',');
+	    }
+	    json.append("{\"name\":\"").append(webPaParameterName(index)).append("\",\"value\":\"")
+		    .append(index % 2 == 0 ? "true" : String.valueOf(index)).append("\",\"dataType\":")
+		    .append(index % 2 == 0 ? 3 : 1).append(",\"parameterCount\":1,\"message\":\"Success\"}");
+	}
+	json.append("],\"statusCode\":200}");
+	return json.toString();
+    }
+
+    /**
+     * Generates framework log lines in the format parsed by the html log generator
+     * 
+     * @param count
+     *            Number of lines
+     * @param testUid
+     *            Test UID
+     * @return Log content
+     */
+    public static String frameworkLog(int count, String testUid) {
+	StringBuilder log = new StringBuilder();
+	for (int index = 0; index < count; index++) {
+	    String source = index % 3 == 0 ? "com.automatics.core.test.SampleTest" : "com.automatics.tap.AutomaticsTapApi";
+	    log.append(String.format("2024-01-01 10:%02d:%02d,%03d", (index / 60) % 60, index % 60, index % 1000))
+		    .append(" [main] INFO [").append(DEVICE_MAC).append('|').append(testUid).append(" : 1|")
+		    .append(source).append(":").append(100 + index % 50).append("] ");
+	    if (index % 50 == 0) {
+		log.append("[STB MAC : ").append(DEVICE_MAC).append("][ Manual test ID : ").append(testUid)
+			.append("] [step Number : s").append(index / 50).append("][ Execution status : PASS]");
+	    } else {
+		log.append("Executing command on device, attempt ").append(index);
+	    }
+	    log.append('\n');
+	}
+	return log.toString();
+    }
+
+    /**
+     * Generates a noisy RGB frame
+     * 
+     * @param width
+     *            Image width
+     * @param height
+     *            Image height
+     * @param seed
+     *            Random seed
+     * @return Image
+     */
+    public static BufferedImage frame(int width, int height, long seed) {
+	BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	Random random = new Random(seed);
+	for (int y = 0; y < height; y++) {
+	    for (int x = 0; x < width; x++) {
+		int base = (x * 255 / width) & 0xFF;
+		int noise = random.nextInt(8);
+		image.setRGB(x, y, ((base + noise) & 0xFF) << 16 | (((y * 255 / height) + noise) & 0xFF) << 8
+			| ((base / 2) & 0xFF));
+	    }
+	}
+	return image;
+    }
+
+    private static String webPaParameterName(int index) {
+	return "Device.WiFi.AccessPoint." + (10001 + index % 16) + ".X_CISCO_COM_MacFilterTable." + index
+		+ (index % 2 == 0 ? ".Enable" : ".MACAddress");
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.slf4j.helpers.NOPLogger;
+
+import com.automatics.device.Device;
+import com.automatics.device.Dut;
+import com.automatics.providers.connection.Connection;
+import com.automatics.providers.trace.AbstractTraceProviderImpl;
+
+/**
+ * Trace provider stand-in which is fed with synthetic trace lines instead of a device connection, so that the buffer
+ * and search logic of {@link AbstractTraceProviderImpl} can be measured in isolation.
+ *
+ */
+public class SyntheticTraceProvider extends AbstractTraceProviderImpl {
+
+    public SyntheticTraceProvider() {
+	clQueue = new ConcurrentLinkedQueue<String>();
+	deviceTraceLogger = NOPLogger.NOP_LOGGER;
+	bufferTrace = true;
+	monitoringStarted = true;
+    }
+
+    /**
+     * Adds trace line to buffer in the same way as the trace polling thread
+     * 
+     * @param eventData
+     *            Trace line
+     */
+    public void feed(String eventData) {
+	addToBufferSafely(eventData, "");
+    }
+
+    /**
+     * Resets the buffer and search mark
+     */
+    public void reset() {
+	clQueue.clear();
+	markOffset = 0;
+	previousLog = null;
+	consecutiveDuplicateLogsReceived = 0;
+    }
+
+    /**
+     * Resets the search mark to beginning of buffer
+     */
+    public void resetMark() {
+	markOffset = 0;
+    }
+
+    @Override
+    public void cleanupDeviceTrace() {
+	reset();
+    }
+
+    @Override
+    public void processTraceData(Dut device, String eventData) {
+	// No crash analysis for synthetic trace
+    }
+
+    @Override
+    public String getTraceStartCommand(Dut dut) {
+	return null;
+    }
+
+    @Override
+    public String getRegexForCrashDetection() {
+	return null;
+    }
+
+    @Override
+    public void writeDataToTraceOutputStream(Dut device, Connection connection, OutputStream outputStream,
+	    String eventData) throws IOException {
+	// Synthetic trace has no output stream
+    }
+
+    @Override
+    public boolean isTraceConnectionAlive(Device device) {
+	return true;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.automatics.enums.TR181AccessMethods;
+import com.automatics.enums.TR181DataType;
+import com.automatics.tr181.TR181Parameter;
+import com.automatics.utils.TR181Utils;
+import com.automatics.webpa.WebPaParameter;
+
+/**
+ * Benchmarks for TR-181 conversions performed on every WebPA and TR-181 operation
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TR181UtilsBenchmark {
+
+    @Param({ "10", "200", "10000" })
+    public int parameterCount;
+
+    private List<WebPaParameter> webPaParameters;
+
+    private List<TR181Parameter> tr181Parameters;
+
+    private List<String> dmcliParamNames;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	webPaParameters = SyntheticData.webPaParameters(parameterCount);
+	tr181Parameters = TR181Utils.convertWebPaToTR181ParamObject(webPaParameters);
+	dmcliParamNames = convertToDmcliParamNames();
+    }
+
+    @Benchmark
+    public List<TR181Parameter> convertWebPaToTR181() {
+	return TR181Utils.convertWebPaToTR181ParamObject(webPaParameters);
+    }
+
+    @Benchmark
+    public Map<String, String> convertTR181ResponseToMap() {
+	return TR181Utils.convertTR181ResponseToMap(tr181Parameters);
+    }
+
+    @Benchmark
+    public List<String> convertToDmcliParamNames() {
+	List<String> names = new ArrayList<String>(webPaParameters.size());
+	for (WebPaParameter parameter : webPaParameters) {
+	    names.add(TR181Utils.getProtocolParamName(parameter.getName(), TR181AccessMethods.DMCLI));
+	}
+	return names;
+    }
+
+    @Benchmark
+    public int resolveDmcliApplySettings() {
+	int applySettingsCount = 0;
+	for (String dmcliParamName : dmcliParamNames) {
+	    if (TR181Utils.isApplySettingsRequired(dmcliParamName)
+		    && null != TR181Utils.getDmcliApplySettingParamName(dmcliParamName)) {
+		applySettingsCount++;
+	    }
+	}
+	return applySettingsCount;
+    }
+
+    @Benchmark
+    public TR181DataType getTR181DataType() {
+	return TR181Utils.getTR181DataType("X_RDKCENTRAL-COM_Ipv4PingServerURI");
+    }
+}
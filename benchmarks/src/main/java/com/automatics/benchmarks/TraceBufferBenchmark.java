@@ -0,0 +1,94 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.benchmarks;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for trace buffering and regex search of trace providers
+ *
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TraceBufferBenchmark {
+
+    @Param({ "1000", "10000" })
+    public int bufferedLines;
+
+    private SyntheticTraceProvider searchProvider;
+
+    private SyntheticTraceProvider bufferProvider;
+
+    private String[] traceLines;
+
+    private int feedIndex;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+	traceLines = new String[bufferedLines];
+	for (int index = 0; index < bufferedLines; index++) {
+	    traceLines[index] = SyntheticData.traceLine(index + 1);
+	}
+	searchProvider = new SyntheticTraceProvider();
+	for (String line : traceLines) {
+	    searchProvider.feed(line);
+	}
+	bufferProvider = new SyntheticTraceProvider();
+    }
+
+    @Setup(Level.Iteration)
+    public void resetBuffer() {
+	bufferProvider.reset();
+	feedIndex = 0;
+    }
+
+    @Benchmark
+    public void addToBuffer() {
+	bufferProvider.feed(traceLines[feedIndex++ % traceLines.length]);
+    }
+
+    @Benchmark
+    public String searchFirstOccurrence() throws IOException {
+	searchProvider.resetMark();
+	return searchProvider.searchAndWaitForTrace(SyntheticData.TRACE_MATCH_PATTERN, 1000, true, true, false);
+    }
+
+    @Benchmark
+    public String searchLastOccurrence() throws IOException {
+	searchProvider.resetMark();
+	return searchProvider.searchAndWaitForTrace(SyntheticData.TRACE_MATCH_PATTERN, 1000, true, false, false);
+    }
+}
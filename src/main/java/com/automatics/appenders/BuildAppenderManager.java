@@ -19,7 +19,17 @@ package com.automatics.appenders;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
@@ -27,8 +37,10 @@ import org.slf4j.LoggerFactory;
 
 import com.automatics.constants.AutomaticsConstants;
 import com.automatics.device.Dut;
+import com.automatics.enums.BuildAppenderAction;
 import com.automatics.enums.ProcessRestartOption;
 import com.automatics.tap.AutomaticsTapApi;
+import com.automatics.utils.AutomaticsPropertyUtility;
 import com.automatics.utils.CommonMethods;
 
 /**
@@ -46,14 +58,22 @@ public class BuildAppenderManager {
     private static final int MAX_WAIT_TIME_IN_MILLIS = 300000;
     // SLF4j logger instance.
     private static final Logger LOGGER = LoggerFactory.getLogger(BuildAppenderManager.class);
-    // variable that keeps the reboot count for rebooting the box after setting RFC params.
+    // reboot counts added by appenders through getRebootCountList(), merged into the plan after applying appenders
     private ArrayList<Integer> rebootCountList = new ArrayList<Integer>();
-    // variable that keeps the list of process to be restarted after applying a particular RFC param
+    // processes added by appenders through getRestartProcessList(), merged into the plan after applying appenders
     private ArrayList<String> restartProcessList = new ArrayList<String>();
-    // variable that keeps the list of services to be restarted after applying a particular RFC param
+    // services added by appenders through getRestartServiceList(), merged into the plan after applying appenders
     private ArrayList<String> restartServiceList = new ArrayList<String>();
     // variable to hold the build manager instance
     private static BuildAppenderManager buildManager = null;
+    // property for maximum number of appenders of a group applied or verified in parallel on a device
+    private static final String PROP_PARALLEL_LIMIT = "build.appender.parallel.limit";
+    // default maximum number of appenders applied or verified in parallel, appenders are run one by one
+    private static final int DEFAULT_PARALLEL_LIMIT = 1;
+    // property for comma separated appender groups (RFC_POST, DEVICE_CONFIGURATION) whose appenders are thread safe
+    private static final String PROP_PARALLEL_GROUPS = "build.appender.parallel.groups";
+    // plans being applied, keyed by device mac, used to consolidate restart and reboot requests from appenders
+    private final Map<String, BuildAppenderPlan> activePlans = new ConcurrentHashMap<String, BuildAppenderPlan>();
     
     private BuildAppenderManager() {
 	LOGGER.info("Inside private constructor");
@@ -94,8 +114,49 @@ public class BuildAppenderManager {
     }
 
     /**
-     * Method that applies the RFC params mentioned by user as build Appender. Once params are applied, the box will be
-     * rebooted/services will be restarted based on configuration mentioned by user in stb.props
+     * Registers the reboot count required by an appender applied on the device
+     * 
+     * @param dut
+     * @param rebootCount
+     */
+    public void addRebootCount(Dut dut, int rebootCount) {
+	BuildAppenderPlan plan = activePlans.get(dut.getHostMacAddress());
+	if (null != plan) {
+	    plan.addRebootCount(rebootCount);
+	}
+    }
+
+    /**
+     * Registers the process to be restarted for an appender applied on the device
+     * 
+     * @param dut
+     * @param process
+     */
+    public void addRestartProcess(Dut dut, String process) {
+	BuildAppenderPlan plan = activePlans.get(dut.getHostMacAddress());
+	if (null != plan) {
+	    plan.addProcessToRestart(process);
+	}
+    }
+
+    /**
+     * Registers the service to be restarted for an appender applied on the device
+     * 
+     * @param dut
+     * @param service
+     */
+    public void addRestartService(Dut dut, String service) {
+	BuildAppenderPlan plan = activePlans.get(dut.getHostMacAddress());
+	if (null != plan) {
+	    plan.addServiceToRestart(service);
+	}
+    }
+
+    /**
+     * Method that applies the RFC params mentioned by user as build Appender. Appenders are applied one by one in the
+     * requested order, except consecutive appenders of groups marked safe in build.appender.parallel.groups. Once
+     * params are applied, the restarts and reboots requested by all appenders are merged and done once, based on
+     * configuration mentioned by user in stb.props
      * 
      * @param tapEnv
      * @param dut
@@ -103,33 +164,17 @@ public class BuildAppenderManager {
      * @return
      */
     public Map<String, String> applySettings(AutomaticsTapApi tapEnv, Dut dut, ArrayList<String> appenders) {
-	String statusMessage = "";
-	Map<String, String> statusMap = new HashMap<>();
-	boolean isRFCAppenderPresent = false;
-	// iterate the build appenders in the list and configure box accordingly
-	for (String buildAppender : appenders) {
-	    LOGGER.info("Going to configure " + buildAppender + " in device with MAC : " + dut.getHostMacAddress());
-	    
-	    BuildAppender buildAppenderInstance = BuildAppenderFactory.get(tapEnv, dut, buildAppender);
-	    if (buildAppenderInstance instanceof RFCBuildAppender) {
-		isRFCAppenderPresent = true;
-	    }
-	    if (null != buildAppenderInstance) {
-		// iterate each appender and apply whatever possible.. incase one fails, try with next. Verification is
-		// done further
-		statusMessage = buildAppenderInstance.applySettings(tapEnv, dut);
-		if (!statusMessage.equals(AutomaticsConstants.OK)) {
-		    statusMessage = "Failed to apply appender: " + buildAppender + " Reason : " + statusMessage;
-		}
-		statusMap.put(buildAppender, statusMessage);
-		LOGGER.info("Status of applying appender : " + buildAppender + ":" + statusMessage);
-	    } else {
-		// did not configure any appenders..
-		statusMap.put("default", "OK");
-		// continue with other build appenders
-		continue;
-	    }
+	BuildAppenderPlan plan = BuildAppenderPlan.create(tapEnv, dut, appenders);
+	Map<String, String> statusMap = null;
+	activePlans.put(dut.getHostMacAddress(), plan);
+	try {
+	    // apply whatever possible.. incase one fails, continue with others. Verification is done further
+	    statusMap = executeOnAppenders(tapEnv, dut, plan, AppenderOperation.APPLY);
+	    mergeListedRequests(plan);
+	} finally {
+	    activePlans.remove(dut.getHostMacAddress());
 	}
+	LOGGER.info("Build appender plan for device with MAC {} : {}", dut.getHostMacAddress(), plan);
 	// No need to reset the box to apply settings even if it failed to properly enable any one build appender
 	boolean applyAppender = false;
 	for (String result : statusMap.values()) {
@@ -140,117 +185,118 @@ public class BuildAppenderManager {
 		break;
 	    }
 	}
-    //DeviceConfig reset operations only applciable for RFC
-	if (applyAppender && isRFCAppenderPresent) {
-	    resetBoxToApplysettings(tapEnv, dut, statusMessage);
+	// DeviceConfig reset operations only applciable for RFC
+	if (applyAppender && plan.containsRfcAppender()) {
+	    resetBoxToApplysettings(tapEnv, dut, plan);
 	}
 	return statusMap;
     }
 
+    /**
+     * Method that moves the restarts and reboots added by appenders to the lists of this manager, as done before
+     * {@link #addRebootCount(Dut, int)}, {@link #addRestartProcess(Dut, String)} and
+     * {@link #addRestartService(Dut, String)}, into the plan. The lists are cleared once merged.
+     * 
+     * @param plan
+     */
+    private void mergeListedRequests(BuildAppenderPlan plan) {
+	synchronized (rebootCountList) {
+	    for (Integer rebootCount : rebootCountList) {
+		if (null != rebootCount) {
+		    plan.addRebootCount(rebootCount);
+		}
+	    }
+	    rebootCountList.clear();
+	}
+	synchronized (restartProcessList) {
+	    for (String process : restartProcessList) {
+		plan.addProcessToRestart(process);
+	    }
+	    restartProcessList.clear();
+	}
+	synchronized (restartServiceList) {
+	    for (String service : restartServiceList) {
+		plan.addServiceToRestart(service);
+	    }
+	    restartServiceList.clear();
+	}
+    }
+
     /**
      * Method that resets the box, either does some, reboots or restart a servive etc, so that whatever settings we
-     * enabled will be applied
+     * enabled will be applied. Restarts and reboots requested by all appenders in the plan are done once.
      * 
      * @param tapEnv
      * @param dut
-     * @param statusMessage
-     * @param rebootStatus
+     * @param plan
      * @return
      */
-    private String resetBoxToApplysettings(AutomaticsTapApi tapEnv, Dut dut, String statusMessage) {
+    private String resetBoxToApplysettings(AutomaticsTapApi tapEnv, Dut dut, BuildAppenderPlan plan) {
+	String statusMessage = AutomaticsConstants.OK;
 	boolean rebootStatus = false;
+	Set<BuildAppenderAction> deviceActions = plan.getDeviceActions();
+	LOGGER.info("Consolidated device actions after applying build appenders : " + deviceActions);
 	// First check if more than one reboot is required, 2 is considered as the maximum reboot count.
 	// Need to alter code if there is any difference
-	LOGGER.info("Contents of reboot/restart service/ restart process list : ");
-	LOGGER.info("Size of Reboot count list : " + this.rebootCountList.size());
-	LOGGER.info("Size of Restart process count list : " + this.restartProcessList.size());
-	LOGGER.info("Size of Reboot service list : " + this.restartServiceList.size());
-	if (this.rebootCountList.contains(MAX_REBOOT_COUNT)) {
-		// just do two reboots, with a wait time of 5 mins under the assumption that all other required settings will be enabled within the wait time frame.
-		// with this
-		for (int i = 0; i < MAX_REBOOT_COUNT; i++) {
-			rebootStatus = CommonMethods.waitForEstbIpAcquisition(tapEnv, dut);
-			if (!rebootStatus) {
-				statusMessage = "Failed to reboot the box after applying build appender.";
-				break;
-			}else {
-				try {
-					LOGGER.info("Going to Wait for 5 Mins to download RFC settings from the xconf");
-					Thread.sleep(MAX_WAIT_TIME_IN_MILLIS);
-				}catch (InterruptedException e) {
-					LOGGER.error("Thread Sleep Error"+e.getMessage());
-				}
-			}
-		}
-		if (rebootStatus) {
-			LOGGER.info("Successfully rebooted the box twice after applying build appender");
-		}
-	} else {
-	    // There are 3 use cases, as of now
-	    // 1. need to do one reboot
-	    // 2. need to restart given services alone
-	    // 3. need to restart given services and do a reboot
-
-	    // check if there are any services to be restarted, then just restart it, in case no reboots are
-	    // required.
-	    if (!restartProcessList.isEmpty()) {
-		LOGGER.info("Restart given process and then reboot the box if requried");
-		// restart the process and reboot the box, if user configured so, else just reboot the box.
-		// This would suffice
-		if (rebootCountList.size() > 0 && rebootCountList.contains(MIN_REBOOT_COUNT)) {
-		    statusMessage = restartProcess(tapEnv, dut);
-		    LOGGER.info("Going to reboot the box, after restarting given process");
-		    rebootStatus = CommonMethods.waitForEstbIpAcquisition(tapEnv, dut);
-		    if (rebootStatus) {
-			LOGGER.info("Successfully rebooted the box after restarting process");
-		    }
+	if (plan.getRebootCount() >= MAX_REBOOT_COUNT) {
+	    // just do two reboots, with a wait time of 5 mins under the assumption that all other required settings will
+	    // be enabled within the wait time frame.
+	    for (int i = 0; i < MAX_REBOOT_COUNT; i++) {
+		rebootStatus = CommonMethods.waitForEstbIpAcquisition(tapEnv, dut);
+		if (!rebootStatus) {
+		    statusMessage = "Failed to reboot the box after applying build appender.";
+		    break;
 		} else {
-		    statusMessage = restartProcess(tapEnv, dut);
-		    LOGGER.info("Successfully restarted given services.");
-		}
-
-	    } else if (!restartServiceList.isEmpty()) {
-		LOGGER.info("Restart given services and then reboot the box if requried");
-		// restart the service and reboot the box, if user configured so, else just reboot the box.
-		// This would suffice
-		if (rebootCountList.size() > 0 && rebootCountList.contains(MIN_REBOOT_COUNT)) {
-		    statusMessage = restartServices(tapEnv, dut);
-		    LOGGER.info("Going to reboot the box, after restarting given services");
-		    rebootStatus = CommonMethods.waitForEstbIpAcquisition(tapEnv, dut);
-		    if (rebootStatus) {
-			LOGGER.info("Successfully rebooted the box after restarting services");
+		    try {
+			LOGGER.info("Going to Wait for 5 Mins to download RFC settings from the xconf");
+			Thread.sleep(MAX_WAIT_TIME_IN_MILLIS);
+		    } catch (InterruptedException e) {
+			LOGGER.error("Thread Sleep Error" + e.getMessage());
 		    }
-		} else {
-		    statusMessage = restartServices(tapEnv, dut);
-		    LOGGER.info("Successfully restarted given services.");
 		}
-
-	    } else if (rebootCountList.size() > 0 && rebootCountList.contains(MIN_REBOOT_COUNT)) {
-		// just reboot the box if rebootCountList has entries in it and user has configured value 1
-		LOGGER.info("Going to Reboot the box, after applying RFC params");
+	    }
+	    if (rebootStatus) {
+		LOGGER.info("Successfully rebooted the box twice after applying build appender");
+	    }
+	} else {
+	    // Restart all requested process and services, then reboot once if any appender requires it
+	    if (deviceActions.contains(BuildAppenderAction.PROCESS_RESTART)) {
+		statusMessage = restartProcess(tapEnv, dut, plan.getProcessesToRestart());
+	    }
+	    if (deviceActions.contains(BuildAppenderAction.SERVICE_RESTART)) {
+		String serviceStatus = restartServices(tapEnv, dut, plan.getServicesToRestart());
+		if (!serviceStatus.equals(AutomaticsConstants.OK)) {
+		    statusMessage = statusMessage.equals(AutomaticsConstants.OK) ? serviceStatus
+			    : statusMessage + serviceStatus;
+		}
+	    }
+	    if (deviceActions.contains(BuildAppenderAction.REBOOT)) {
+		LOGGER.info("Going to Reboot the box, after applying build appenders");
 		rebootStatus = CommonMethods.waitForEstbIpAcquisition(tapEnv, dut);
 		if (rebootStatus) {
-		    LOGGER.info("Successfully rebooted the box after build params");
+		    LOGGER.info("Successfully rebooted the box after applying build appenders");
+		} else {
+		    statusMessage = "Failed to reboot the box after applying build appender.";
 		}
-	    } else {
+	    } else if (deviceActions.isEmpty()) {
 		LOGGER.info("Reboot count is not mentioned");
 	    }
-
 	}
 
 	return statusMessage;
     }
 
     /**
-     * Method that iterates the services stored in restartServiceList, and restart the mentioned services one by one
+     * Method that iterates the given process, and restart the mentioned process one by one
      * 
      * @param tapEnv
      * @param dut
+     * @param processes
      * @return OK, if restart was success, else return the corresponding error message
      */
-    private String restartProcess(AutomaticsTapApi tapEnv, Dut dut) {
+    private String restartProcess(AutomaticsTapApi tapEnv, Dut dut, List<String> processes) {
 	String statusMessage = AutomaticsConstants.OK;
-	for (String service : restartProcessList) {
+	for (String service : processes) {
 	    LOGGER.info("Restarting service : " + service);
 	    boolean restartServiceStatus = CommonMethods.restartProcess(dut, tapEnv, ProcessRestartOption.KILL_11,
 		    service);
@@ -264,16 +310,17 @@ public class BuildAppenderManager {
     }
 
     /**
-     * Method that iterates the services stored in restartServiceList, and restart the mentioned services one by one
+     * Method that iterates the given services, and restart the mentioned services one by one
      * 
      * @param tapEnv
      * @param dut
+     * @param services
      * @return OK, if restart was success, else return the corresponding error message
      */
-    private String restartServices(AutomaticsTapApi tapEnv, Dut dut) {
+    private String restartServices(AutomaticsTapApi tapEnv, Dut dut, List<String> services) {
 	String statusMessage = AutomaticsConstants.OK;
 	boolean restartServiceStatus = false;
-	for (String service : restartServiceList) {
+	for (String service : services) {
 	    LOGGER.info("Restarting service : " + service);
 	    restartServiceStatus = CommonMethods.restartService(tapEnv, dut, service);
 	    if (!restartServiceStatus) {
@@ -294,29 +341,8 @@ public class BuildAppenderManager {
      * @return OK, if verifications was success, else corresponding error message
      */
     public Map<String, String> verifySettings(AutomaticsTapApi tapEnv, Dut dut, ArrayList<String> appenders) {
-	String statusMessage = AutomaticsConstants.OK;
-	Map<String, String> statusMap = new HashMap<String, String>();
-	// iterate the build appenders in the list and configure box accordingly
-	for (String buildAppender : appenders) {
-	    LOGGER.info("Going to verify the appender : " + buildAppender + " in Box with MAC : "
-		    + dut.getHostMacAddress());
-	    BuildAppender buildAppenderInstance = BuildAppenderFactory.get(tapEnv, dut, buildAppender);
-	    if (null != buildAppenderInstance) {
-		statusMessage = buildAppenderInstance.verifySettings(tapEnv, dut);
-		if (!statusMessage.equals(AutomaticsConstants.OK)) {
-		    statusMessage = "Failed to verify application of appender: " + buildAppender + " Reason : "
-			    + statusMessage;
-		}
-		statusMap.put(buildAppender, statusMessage);
-		LOGGER.info("Status of verifying appender : " + buildAppender + ":" + statusMessage);
-	    } else {
-		// did not configure any appenders..
-		statusMap.put("default", "OK");
-		// continue with other build appenders
-		continue;
-	    }
-	}
-	return statusMap;
+	return executeOnAppenders(tapEnv, dut, BuildAppenderPlan.create(tapEnv, dut, appenders),
+		AppenderOperation.VERIFY);
     }
 
     /**
@@ -328,32 +354,22 @@ public class BuildAppenderManager {
      * @return OK, if verifications was success, else corresponding error message
      */
     public Map<String, String> resetSettings(AutomaticsTapApi tapEnv, Dut dut, ArrayList<String> appenders) {
-	String statusMessage = AutomaticsConstants.OK;
-	Map<String, String> statusMap = new HashMap<>();
 	boolean isRFCFeaturePresent = false;
-	// iterate the build appenders in the list and configure box accordingly
+	List<String> nonRfcAppenders = new ArrayList<String>();
 	for (String buildAppender : appenders) {
 	    // for RFC feature reset we don't have to iterate each and remove one by one. Instead we can do the same
 	    // using one rest call which will reboot the box after doing the rest call
 	    if (buildAppender.toLowerCase().contains("rfc")) {
 		isRFCFeaturePresent = true;
-		continue;
-	    }
-	    LOGGER.info("Going to reset the appender : " + buildAppender + " in Box with MAC : "
-		    + dut.getHostMacAddress());
-	    BuildAppender buildAppenderInstance = BuildAppenderFactory.get(tapEnv, dut, buildAppender);
-	    if (null != buildAppenderInstance) {
-		statusMessage = buildAppenderInstance.resetSettings(tapEnv, dut);
-		if (!statusMessage.equals(AutomaticsConstants.OK)) {
-		    statusMessage = "Failed to reset appender: " + buildAppender + " Reason : " + statusMessage;
-		}
-		LOGGER.info("Status of reset appender : " + buildAppender + ":" + statusMessage);
-		statusMap.put(buildAppender, statusMessage);
+	    } else {
+		nonRfcAppenders.add(buildAppender);
 	    }
 	}
+	Map<String, String> statusMap = executeOnAppenders(tapEnv, dut,
+		BuildAppenderPlan.create(tapEnv, dut, nonRfcAppenders), AppenderOperation.RESET);
 	// now check if we need to reset RFC settings
 	if (isRFCFeaturePresent) {
-	    statusMessage = disableEntireRFCFeatures(tapEnv, dut);
+	    disableEntireRFCFeatures(tapEnv, dut);
 	}
 	return statusMap;
     }
@@ -395,24 +411,190 @@ public class BuildAppenderManager {
      * @return OK, if reset verification was success, else corresponding error message
      */
     public Map<String, String> verifyResetSettings(AutomaticsTapApi tapEnv, Dut dut, ArrayList<String> appenders) {
-	String statusMessage = AutomaticsConstants.OK;
-	Map<String, String> statusMap = new HashMap<>();
-	// iterate the build appenders in the list and configure box accordingly
-	for (String buildAppender : appenders) {
-	    LOGGER.info("Going to verify the reset of appender : " + buildAppender + " in Box with MAC : "
-		    + dut.getHostMacAddress());
-	    BuildAppender buildAppenderInstance = BuildAppenderFactory.get(tapEnv, dut, buildAppender);
-	    if (null != buildAppenderInstance) {
-		statusMessage = buildAppenderInstance.verifyReset(tapEnv, dut);
-		if (!statusMessage.equals(AutomaticsConstants.OK)) {
-		    statusMessage = "Failed to verify reset of appender: " + buildAppender + " Reason : "
-			    + statusMessage;
+	return executeOnAppenders(tapEnv, dut, BuildAppenderPlan.create(tapEnv, dut, appenders),
+		AppenderOperation.VERIFY_RESET);
+    }
+
+    /**
+     * Method that runs the given operation on each appender in the plan, in the requested order. Consecutive appenders
+     * of a group listed in build.appender.parallel.groups are run in parallel, limited by
+     * build.appender.parallel.limit.
+     * 
+     * @param tapEnv
+     * @param dut
+     * @param plan
+     * @param operation
+     * @return Status of operation for each appender, OK on success else corresponding error message
+     */
+    private Map<String, String> executeOnAppenders(final AutomaticsTapApi tapEnv, final Dut dut,
+	    BuildAppenderPlan plan, final AppenderOperation operation) {
+	Map<String, String> statusMap = new HashMap<String, String>();
+	if (operation.isDefaultStatusRequired() && plan.getAppenders().containsValue(null)) {
+	    // did not configure any appenders..
+	    statusMap.put("default", "OK");
+	}
+	int parallelLimit = getParallelLimit();
+	Set<String> parallelGroups = getParallelGroups();
+	for (List<String> appenderNames : getConsecutiveGroups(plan)) {
+	    BuildAppenderAction group = plan.getGroup(appenderNames.get(0));
+	    int threads = parallelGroups.contains(group.name()) ? Math.min(parallelLimit, appenderNames.size()) : 1;
+	    Map<String, Future<String>> results = new LinkedHashMap<String, Future<String>>();
+	    ExecutorService executorService = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+	    try {
+		for (String appenderName : appenderNames) {
+		    final BuildAppender appender = plan.getAppenders().get(appenderName);
+		    LOGGER.info("Going to {} the appender : {} in Box with MAC : {}", operation.getDescription(),
+			    appenderName, dut.getHostMacAddress());
+		    Callable<String> task = new Callable<String>() {
+			@Override
+			public String call() {
+			    return operation.execute(appender, tapEnv, dut);
+			}
+		    };
+		    if (null != executorService) {
+			results.put(appenderName, executorService.submit(task));
+		    } else {
+			String statusMessage = null;
+			try {
+			    statusMessage = task.call();
+			} catch (Exception e) {
+			    statusMessage = String.valueOf(e.getMessage());
+			}
+			addStatus(statusMap, appenderName, statusMessage, operation);
+		    }
+		}
+		for (Map.Entry<String, Future<String>> result : results.entrySet()) {
+		    String statusMessage = null;
+		    try {
+			statusMessage = result.getValue().get();
+		    } catch (ExecutionException e) {
+			statusMessage = String.valueOf(e.getCause().getMessage());
+		    } catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			statusMessage = "Interrupted";
+		    }
+		    addStatus(statusMap, result.getKey(), statusMessage, operation);
+		}
+	    } finally {
+		if (null != executorService) {
+		    executorService.shutdownNow();
 		}
-		LOGGER.info("Status of verification of resetting appender : " + buildAppender + ":" + statusMessage);
-		statusMap.put(buildAppender, statusMessage);
 	    }
 	}
 	return statusMap;
     }
 
+    /**
+     * Splits the appenders of the plan, in the requested order, into runs of consecutive appenders of the same group.
+     * Appenders without implementation are left out.
+     * 
+     * @param plan
+     * @return Appender names of each run
+     */
+    private static List<List<String>> getConsecutiveGroups(BuildAppenderPlan plan) {
+	List<List<String>> runs = new ArrayList<List<String>>();
+	List<String> run = null;
+	BuildAppenderAction previousGroup = null;
+	for (String appenderName : plan.getAppenders().keySet()) {
+	    BuildAppenderAction group = plan.getGroup(appenderName);
+	    if (null == group) {
+		continue;
+	    }
+	    if (null == run || group != previousGroup) {
+		run = new ArrayList<String>();
+		runs.add(run);
+		previousGroup = group;
+	    }
+	    run.add(appenderName);
+	}
+	return runs;
+    }
+
+    private static void addStatus(Map<String, String> statusMap, String appenderName, String statusMessage,
+	    AppenderOperation operation) {
+	if (!AutomaticsConstants.OK.equals(statusMessage)) {
+	    statusMessage = operation.getFailurePrefix() + appenderName + " Reason : " + statusMessage;
+	}
+	statusMap.put(appenderName, statusMessage);
+	LOGGER.info("Status of {} appender : {}:{}", operation.getDescription(), appenderName, statusMessage);
+    }
+
+    private static Set<String> getParallelGroups() {
+	Set<String> parallelGroups = new HashSet<String>();
+	String groups = AutomaticsPropertyUtility.getProperty(PROP_PARALLEL_GROUPS, AutomaticsConstants.EMPTY_STRING);
+	if (CommonMethods.isNotNull(groups)) {
+	    for (String group : groups.split(",")) {
+		parallelGroups.add(group.trim().toUpperCase());
+	    }
+	}
+	return parallelGroups;
+    }
+
+    private static int getParallelLimit() {
+	int parallelLimit = DEFAULT_PARALLEL_LIMIT;
+	try {
+	    parallelLimit = Integer.parseInt(AutomaticsPropertyUtility.getProperty(PROP_PARALLEL_LIMIT,
+		    String.valueOf(DEFAULT_PARALLEL_LIMIT)));
+	} catch (NumberFormatException e) {
+	    LOGGER.error("Invalid value for " + PROP_PARALLEL_LIMIT + ", using default " + DEFAULT_PARALLEL_LIMIT);
+	}
+	return Math.max(1, parallelLimit);
+    }
+
+    /**
+     * Operations performed on build appenders
+     */
+    private enum AppenderOperation {
+
+	APPLY("apply", "Failed to apply appender: ", true) {
+	    @Override
+	    String execute(BuildAppender appender, AutomaticsTapApi tapEnv, Dut dut) {
+		return appender.applySettings(tapEnv, dut);
+	    }
+	},
+	VERIFY("verify", "Failed to verify application of appender: ", true) {
+	    @Override
+	    String execute(BuildAppender appender, AutomaticsTapApi tapEnv, Dut dut) {
+		return appender.verifySettings(tapEnv, dut);
+	    }
+	},
+	RESET("reset", "Failed to reset appender: ", false) {
+	    @Override
+	    String execute(BuildAppender appender, AutomaticsTapApi tapEnv, Dut dut) {
+		return appender.resetSettings(tapEnv, dut);
+	    }
+	},
+	VERIFY_RESET("verify the reset of", "Failed to verify reset of appender: ", false) {
+	    @Override
+	    String execute(BuildAppender appender, AutomaticsTapApi tapEnv, Dut dut) {
+		return appender.verifyReset(tapEnv, dut);
+	    }
+	};
+
+	private final String description;
+
+	private final String failurePrefix;
+
+	private final boolean isDefaultStatusRequired;
+
+	private AppenderOperation(String description, String failurePrefix, boolean isDefaultStatusRequired) {
+	    this.description = description;
+	    this.failurePrefix = failurePrefix;
+	    this.isDefaultStatusRequired = isDefaultStatusRequired;
+	}
+
+	abstract String execute(BuildAppender appender, AutomaticsTapApi tapEnv, Dut dut);
+
+	String getDescription() {
+	    return description;
+	}
+
+	String getFailurePrefix() {
+	    return failurePrefix;
+	}
+
+	boolean isDefaultStatusRequired() {
+	    return isDefaultStatusRequired;
+	}
+    }
 }
@@ -0,0 +1,198 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.appenders;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.automatics.device.Dut;
+import com.automatics.enums.BuildAppenderAction;
+import com.automatics.tap.AutomaticsTapApi;
+
+/**
+ * Plan for applying build appenders on a device. Appenders are resolved once and grouped by the kind of device action
+ * they need. Process restarts, service restarts and reboots requested by the appenders are merged, so that each of
+ * them is done once for the whole set of appenders.
+ * 
+ */
+public class BuildAppenderPlan {
+
+    /** Resolved appender instances, null for appenders without implementation */
+    private final Map<String, BuildAppender> appenders = new LinkedHashMap<String, BuildAppender>();
+
+    /** Appender names grouped by the device action they need */
+    private final Map<BuildAppenderAction, List<String>> appendersByAction = new EnumMap<BuildAppenderAction, List<String>>(
+	    BuildAppenderAction.class);
+
+    /** Processes to be restarted after applying appenders */
+    private final Set<String> processesToRestart = new LinkedHashSet<String>();
+
+    /** Services to be restarted after applying appenders */
+    private final Set<String> servicesToRestart = new LinkedHashSet<String>();
+
+    /** Number of reboots needed after applying appenders */
+    private int rebootCount = 0;
+
+    private BuildAppenderPlan() {
+    }
+
+    /**
+     * Creates the plan by resolving each appender from {@link BuildAppenderFactory}
+     * 
+     * @param tapEnv
+     * @param dut
+     * @param appenderNames
+     * @return Plan for the given appenders
+     */
+    public static BuildAppenderPlan create(AutomaticsTapApi tapEnv, Dut dut, Collection<String> appenderNames) {
+	BuildAppenderPlan plan = new BuildAppenderPlan();
+	for (String appenderName : appenderNames) {
+	    BuildAppender buildAppender = BuildAppenderFactory.get(tapEnv, dut, appenderName);
+	    plan.appenders.put(appenderName, buildAppender);
+	    if (null != buildAppender) {
+		plan.addToGroup(getAction(buildAppender), appenderName);
+	    }
+	}
+	return plan;
+    }
+
+    /**
+     * Adds a process to be restarted after applying appenders. Each process is restarted once, even if requested by
+     * multiple appenders.
+     * 
+     * @param process
+     */
+    public synchronized void addProcessToRestart(String process) {
+	processesToRestart.add(process);
+    }
+
+    /**
+     * Adds a service to be restarted after applying appenders. Each service is restarted once, even if requested by
+     * multiple appenders.
+     * 
+     * @param service
+     */
+    public synchronized void addServiceToRestart(String service) {
+	servicesToRestart.add(service);
+    }
+
+    /**
+     * Adds reboot count requested by an appender. Highest requested count is used for the whole set of appenders.
+     * 
+     * @param count
+     */
+    public synchronized void addRebootCount(int count) {
+	rebootCount = Math.max(rebootCount, count);
+    }
+
+    /**
+     * Gets the consolidated device actions needed after applying appenders
+     * 
+     * @return Set of {@link BuildAppenderAction#PROCESS_RESTART}, {@link BuildAppenderAction#SERVICE_RESTART} and
+     *         {@link BuildAppenderAction#REBOOT}
+     */
+    public synchronized Set<BuildAppenderAction> getDeviceActions() {
+	Set<BuildAppenderAction> actions = EnumSet.noneOf(BuildAppenderAction.class);
+	if (!processesToRestart.isEmpty()) {
+	    actions.add(BuildAppenderAction.PROCESS_RESTART);
+	}
+	if (!servicesToRestart.isEmpty()) {
+	    actions.add(BuildAppenderAction.SERVICE_RESTART);
+	}
+	if (rebootCount > 0) {
+	    actions.add(BuildAppenderAction.REBOOT);
+	}
+	return actions;
+    }
+
+    /**
+     * Gets resolved appender instances, keyed by appender name. Value is null if appender has no implementation.
+     * 
+     * @return Appenders in the requested order
+     */
+    public Map<String, BuildAppender> getAppenders() {
+	return appenders;
+    }
+
+    /**
+     * Gets names of appenders applied through the given action
+     * 
+     * @param action
+     *            {@link BuildAppenderAction#RFC_POST} or {@link BuildAppenderAction#DEVICE_CONFIGURATION}
+     * @return Appender names in the group, empty list if none
+     */
+    public List<String> getAppenders(BuildAppenderAction action) {
+	List<String> group = appendersByAction.get(action);
+	return null == group ? new ArrayList<String>() : new ArrayList<String>(group);
+    }
+
+    /**
+     * Gets the group of the given appender
+     * 
+     * @param appenderName
+     * @return {@link BuildAppenderAction#RFC_POST} or {@link BuildAppenderAction#DEVICE_CONFIGURATION}, null if
+     *         appender has no implementation
+     */
+    public BuildAppenderAction getGroup(String appenderName) {
+	BuildAppender buildAppender = appenders.get(appenderName);
+	return null == buildAppender ? null : getAction(buildAppender);
+    }
+
+    public boolean containsRfcAppender() {
+	return !getAppenders(BuildAppenderAction.RFC_POST).isEmpty();
+    }
+
+    public synchronized List<String> getProcessesToRestart() {
+	return new ArrayList<String>(processesToRestart);
+    }
+
+    public synchronized List<String> getServicesToRestart() {
+	return new ArrayList<String>(servicesToRestart);
+    }
+
+    public synchronized int getRebootCount() {
+	return rebootCount;
+    }
+
+    private static BuildAppenderAction getAction(BuildAppender buildAppender) {
+	return buildAppender instanceof RFCBuildAppender ? BuildAppenderAction.RFC_POST
+		: BuildAppenderAction.DEVICE_CONFIGURATION;
+    }
+
+    private void addToGroup(BuildAppenderAction action, String appenderName) {
+	List<String> group = appendersByAction.get(action);
+	if (null == group) {
+	    group = new ArrayList<String>();
+	    appendersByAction.put(action, group);
+	}
+	group.add(appenderName);
+    }
+
+    @Override
+    public synchronized String toString() {
+	return "BuildAppenderPlan [appendersByAction=" + appendersByAction + ", processesToRestart="
+		+ processesToRestart + ", servicesToRestart=" + servicesToRestart + ", rebootCount=" + rebootCount + "]";
+    }
+}
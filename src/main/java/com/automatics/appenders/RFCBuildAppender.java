@@ -551,18 +551,18 @@ public class RFCBuildAppender implements BuildAppender {
 			if (rfcParam.getRebootCount() > 0) {
 				LOGGER.info("Adding reboot count " + rfcParam.getRebootCount()
 						+ "to list");
-				manager.getRebootCountList().add(rfcParam.getRebootCount());
+				manager.addRebootCount(dut, rfcParam.getRebootCount());
 			}
 			if (CommonMethods.isNotNull(rfcParam.getRestartProcess())) {
 				LOGGER.info("Adding restart process "
 						+ rfcParam.getRestartProcess() + "to list");
-				manager.getRestartProcessList().add(
+				manager.addRestartProcess(dut,
 						rfcParam.getRestartProcess());
 			}
 			if (CommonMethods.isNotNull(rfcParam.getRestartService())) {
 				LOGGER.info("Adding restart service "
 						+ rfcParam.getRestartService() + "to list");
-				manager.getRestartServiceList().add(
+				manager.addRestartService(dut,
 						rfcParam.getRestartService());
 			}
 			LOGGER.info("postRfcSettingsToXconf() : RFC Param Details");
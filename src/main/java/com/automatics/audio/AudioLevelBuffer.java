@@ -0,0 +1,231 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.audio;
+
+import java.util.Arrays;
+
+/**
+ * Fixed size ring buffer of audio level samples. Levels and timestamps are held in primitive arrays, and the oldest
+ * sample is overwritten once the buffer is full. Statistics are computed over the samples of a trailing time window
+ * ending now, so a window holds no samples once sampling stopped for longer than the window. All methods are thread
+ * safe.
+ *
+ */
+public class AudioLevelBuffer {
+
+    private final double[] levels;
+
+    private final long[] timestamps;
+
+    /** Index at which next sample is written */
+    private int next = 0;
+
+    private int size = 0;
+
+    /**
+     * Creates the buffer
+     * 
+     * @param capacity
+     *            Maximum number of samples retained
+     */
+    public AudioLevelBuffer(int capacity) {
+	if (capacity <= 0) {
+	    throw new IllegalArgumentException("Buffer capacity must be positive: " + capacity);
+	}
+	levels = new double[capacity];
+	timestamps = new long[capacity];
+    }
+
+    /**
+     * Adds a sample, overwriting the oldest one if buffer is full
+     * 
+     * @param timestamp
+     *            Time of sample in millis
+     * @param level
+     *            Audio level in decibels
+     */
+    public synchronized void add(long timestamp, double level) {
+	levels[next] = level;
+	timestamps[next] = timestamp;
+	next = (next + 1) % levels.length;
+	if (size < levels.length) {
+	    size++;
+	}
+    }
+
+    /**
+     * @return Number of samples in buffer
+     */
+    public synchronized int size() {
+	return size;
+    }
+
+    /**
+     * @return Maximum number of samples retained
+     */
+    public int getCapacity() {
+	return levels.length;
+    }
+
+    /**
+     * Removes all samples
+     */
+    public synchronized void clear() {
+	next = 0;
+	size = 0;
+    }
+
+    /**
+     * @return Most recent sample, or NaN if buffer is empty
+     */
+    public synchronized double getLatest() {
+	return size == 0 ? Double.NaN : levels[(next - 1 + levels.length) % levels.length];
+    }
+
+    /**
+     * @return Timestamp of most recent sample, or zero if buffer is empty
+     */
+    public synchronized long getLatestTimestamp() {
+	return size == 0 ? 0 : timestamps[(next - 1 + levels.length) % levels.length];
+    }
+
+    /**
+     * Gets the samples of the trailing window, oldest first
+     * 
+     * @param windowInMillis
+     *            Window duration ending now
+     * @return Audio levels in the window
+     */
+    public synchronized double[] getWindow(long windowInMillis) {
+	int count = getWindowSize(windowInMillis);
+	double[] window = new double[count];
+	int start = (next - count + levels.length) % levels.length;
+	for (int index = 0; index < count; index++) {
+	    window[index] = levels[(start + index) % levels.length];
+	}
+	return window;
+    }
+
+    /**
+     * @param windowInMillis
+     *            Window duration ending now
+     * @return Minimum level in the window, or NaN if window is empty
+     */
+    public double getMin(long windowInMillis) {
+	double[] window = getWindow(windowInMillis);
+	double min = Double.NaN;
+	for (double level : window) {
+	    if (Double.isNaN(min) || level < min) {
+		min = level;
+	    }
+	}
+	return min;
+    }
+
+    /**
+     * @param windowInMillis
+     *            Window duration ending now
+     * @return Maximum level in the window, or NaN if window is empty
+     */
+    public double getMax(long windowInMillis) {
+	double[] window = getWindow(windowInMillis);
+	double max = Double.NaN;
+	for (double level : window) {
+	    if (Double.isNaN(max) || level > max) {
+		max = level;
+	    }
+	}
+	return max;
+    }
+
+    /**
+     * @param windowInMillis
+     *            Window duration ending now
+     * @return Mean level in the window, or NaN if window is empty
+     */
+    public double getMean(long windowInMillis) {
+	double[] window = getWindow(windowInMillis);
+	if (window.length == 0) {
+	    return Double.NaN;
+	}
+	double sum = 0;
+	for (double level : window) {
+	    sum += level;
+	}
+	return sum / window.length;
+    }
+
+    /**
+     * Gets the percentile of levels in the window using nearest rank
+     * 
+     * @param windowInMillis
+     *            Window duration ending now
+     * @param percentile
+     *            Percentile between 0 and 100
+     * @return Level at the percentile, or NaN if window is empty
+     */
+    public double getPercentile(long windowInMillis, double percentile) {
+	if (percentile < 0 || percentile > 100) {
+	    throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+	}
+	double[] window = getWindow(windowInMillis);
+	if (window.length == 0) {
+	    return Double.NaN;
+	}
+	Arrays.sort(window);
+	int rank = (int) Math.ceil(percentile / 100 * window.length);
+	return window[Math.max(0, rank - 1)];
+    }
+
+    /**
+     * Gets the fraction of samples in the window below the given level, for eg: to check for audio dropouts
+     * 
+     * @param windowInMillis
+     *            Window duration ending now
+     * @param thresholdLevel
+     *            Level in decibels
+     * @return Fraction between 0 and 1, or NaN if window is empty
+     */
+    public double getFractionBelow(long windowInMillis, double thresholdLevel) {
+	double[] window = getWindow(windowInMillis);
+	if (window.length == 0) {
+	    return Double.NaN;
+	}
+	int count = 0;
+	for (double level : window) {
+	    if (level < thresholdLevel) {
+		count++;
+	    }
+	}
+	return (double) count / window.length;
+    }
+
+    private int getWindowSize(long windowInMillis) {
+	if (size == 0) {
+	    return 0;
+	}
+	long windowStart = System.currentTimeMillis() - windowInMillis;
+	int count = 0;
+	int index = (next - 1 + levels.length) % levels.length;
+	while (count < size && timestamps[index] >= windowStart) {
+	    count++;
+	    index = (index - 1 + levels.length) % levels.length;
+	}
+	return count;
+    }
+}
@@ -0,0 +1,65 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.audio;
+
+import com.automatics.device.Dut;
+
+/**
+ * Receives audio events of a device detected by {@link AudioLevelStream}. Methods are invoked on the sampling thread
+ * and should return quickly.
+ *
+ */
+public interface AudioLevelListener {
+
+    /**
+     * Invoked when audio level stays below the silence threshold for the minimum silence duration
+     * 
+     * @param dut
+     *            Device
+     * @param startTime
+     *            Time of first silent sample
+     */
+    default void onSilenceStart(Dut dut, long startTime) {
+    }
+
+    /**
+     * Invoked when audio level rises above the silence threshold after a reported silence
+     * 
+     * @param dut
+     *            Device
+     * @param startTime
+     *            Time of first silent sample
+     * @param durationInMillis
+     *            Duration of silence
+     */
+    default void onSilenceEnd(Dut dut, long startTime, long durationInMillis) {
+    }
+
+    /**
+     * Invoked when audio level reaches the clipping threshold. Invoked again only after level drops below threshold.
+     * 
+     * @param dut
+     *            Device
+     * @param timestamp
+     *            Time of sample
+     * @param level
+     *            Audio level in decibels
+     */
+    default void onClipping(Dut dut, long timestamp, double level) {
+    }
+}
@@ -0,0 +1,210 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.audio;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Dut;
+import com.automatics.utils.AutomaticsPropertyUtility;
+
+/**
+ * Samples audio level of devices continuously. Each device has one {@link AudioLevelStream}, sampled periodically on a
+ * small scheduler thread pool shared by all devices. Tests subscribe to the stream and query windowed statistics of the
+ * recent samples, instead of polling the audio provider in loops. Audio providers offer no level subscription, so each
+ * sample is a remote read; the default interval of two seconds keeps the load on the audio service low, shorter
+ * intervals can be configured for tests that need to detect short dropouts.
+ *
+ */
+public class AudioLevelMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AudioLevelMonitor.class);
+
+    /** Property for number of scheduler threads shared by all devices */
+    private static final String PROP_THREADS = "audio.monitor.threads";
+
+    /** Property for sampling interval */
+    private static final String PROP_INTERVAL = "audio.monitor.interval.ms";
+
+    /** Property for number of samples retained per device */
+    private static final String PROP_BUFFER_SIZE = "audio.monitor.buffer.size";
+
+    /** Property for audio level in decibels below which audio is considered silent */
+    private static final String PROP_SILENCE_THRESHOLD = "audio.monitor.silence.threshold.db";
+
+    /** Property for minimum duration of silence reported to listeners */
+    private static final String PROP_MIN_SILENCE_DURATION = "audio.monitor.silence.min.duration.ms";
+
+    /** Property for audio level in decibels at or above which audio is considered clipping */
+    private static final String PROP_CLIPPING_THRESHOLD = "audio.monitor.clipping.threshold.db";
+
+    /** Property for number of consecutive failed reads after which samples of a device are stale */
+    private static final String PROP_MAX_FAILURES = "audio.monitor.max.consecutive.failures";
+
+    private static final int DEFAULT_THREADS = 2;
+
+    private static final long DEFAULT_INTERVAL = 2000;
+
+    private static final int DEFAULT_BUFFER_SIZE = 3000;
+
+    private static final double DEFAULT_SILENCE_THRESHOLD = -60.0;
+
+    private static final long DEFAULT_MIN_SILENCE_DURATION = 1000;
+
+    private static final double DEFAULT_CLIPPING_THRESHOLD = 0.0;
+
+    private static final int DEFAULT_MAX_FAILURES = 3;
+
+    private static AudioLevelMonitor instance = null;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, AudioLevelStream> streams = new ConcurrentHashMap<String, AudioLevelStream>();
+
+    private final long interval;
+
+    private final int bufferSize;
+
+    private final double silenceThreshold;
+
+    private final long minSilenceDuration;
+
+    private final double clippingThreshold;
+
+    private final int maxConsecutiveFailures;
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private AudioLevelMonitor() {
+	final AtomicInteger threadCount = new AtomicInteger();
+	scheduler = Executors.newScheduledThreadPool(
+		(int) AutomaticsPropertyUtility.getLongProperty(PROP_THREADS, DEFAULT_THREADS), new ThreadFactory() {
+		    @Override
+		    public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "AudioMonitor-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		    }
+		});
+	interval = Math.max(1, AutomaticsPropertyUtility.getLongProperty(PROP_INTERVAL, DEFAULT_INTERVAL));
+	bufferSize = (int) Math.max(1,
+		AutomaticsPropertyUtility.getLongProperty(PROP_BUFFER_SIZE, DEFAULT_BUFFER_SIZE));
+	silenceThreshold = getDoubleProperty(PROP_SILENCE_THRESHOLD, DEFAULT_SILENCE_THRESHOLD);
+	minSilenceDuration = AutomaticsPropertyUtility.getLongProperty(PROP_MIN_SILENCE_DURATION,
+		DEFAULT_MIN_SILENCE_DURATION);
+	clippingThreshold = getDoubleProperty(PROP_CLIPPING_THRESHOLD, DEFAULT_CLIPPING_THRESHOLD);
+	maxConsecutiveFailures = (int) AutomaticsPropertyUtility.getLongProperty(PROP_MAX_FAILURES,
+		DEFAULT_MAX_FAILURES);
+    }
+
+    /**
+     * Gets the instance of audio level monitor
+     * 
+     * @return AudioLevelMonitor
+     */
+    public static synchronized AudioLevelMonitor get() {
+	if (null == instance) {
+	    instance = new AudioLevelMonitor();
+	}
+	return instance;
+    }
+
+    /**
+     * Starts sampling audio level of the device, if not already started
+     * 
+     * @param dut
+     *            Device to sample
+     * @return Audio level stream of the device
+     */
+    public synchronized AudioLevelStream start(Dut dut) {
+	AudioLevelStream stream = streams.get(dut.getHostMacAddress());
+	if (null == stream || !stream.isRunning()) {
+	    stream = new AudioLevelStream(dut, bufferSize, silenceThreshold, minSilenceDuration, clippingThreshold,
+		    maxConsecutiveFailures);
+	    stream.setTask(scheduler.scheduleWithFixedDelay(stream, 0, interval, TimeUnit.MILLISECONDS));
+	    streams.put(dut.getHostMacAddress(), stream);
+	    LOGGER.info("Started audio level sampling of device {} every {} ms", dut.getHostMacAddress(), interval);
+	}
+	return stream;
+    }
+
+    /**
+     * Starts sampling audio level of the device and registers the listener
+     * 
+     * @param dut
+     *            Device to sample
+     * @param listener
+     *            Listener for silence and clipping events
+     * @return Audio level stream of the device
+     */
+    public AudioLevelStream subscribe(Dut dut, AudioLevelListener listener) {
+	AudioLevelStream stream = start(dut);
+	stream.addListener(listener);
+	return stream;
+    }
+
+    /**
+     * Gets the audio level stream of the device
+     * 
+     * @param dut
+     *            Device
+     * @return Audio level stream, null if sampling is not started for the device
+     */
+    public AudioLevelStream getStream(Dut dut) {
+	return streams.get(dut.getHostMacAddress());
+    }
+
+    /**
+     * Stops sampling audio level of the device and discards its samples
+     * 
+     * @param dut
+     *            Device
+     */
+    public synchronized void stop(Dut dut) {
+	AudioLevelStream stream = streams.remove(dut.getHostMacAddress());
+	if (null != stream) {
+	    stream.stop();
+	    LOGGER.info("Stopped audio level sampling of device {}", dut.getHostMacAddress());
+	}
+    }
+
+    /**
+     * @return Sampling interval in millis
+     */
+    public long getInterval() {
+	return interval;
+    }
+
+    private static double getDoubleProperty(String propertyName, double defaultValue) {
+	try {
+	    return Double
+		    .parseDouble(AutomaticsPropertyUtility.getProperty(propertyName, String.valueOf(defaultValue)));
+	} catch (NumberFormatException e) {
+	    return defaultValue;
+	}
+    }
+}
@@ -0,0 +1,286 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.audio;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Dut;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.rack.AudioProvider;
+import com.automatics.utils.AVMonitoringUtils;
+
+/**
+ * Continuous audio level samples of a device. Samples are read periodically by {@link AudioLevelMonitor} and kept in
+ * an {@link AudioLevelBuffer}, so that audio checks query the recent samples locally instead of polling the audio
+ * provider. Silence and clipping are detected as samples arrive and reported to the registered listeners. The stream
+ * is marked stale after consecutive failed reads, and audio checks report neither silence nor audio until a read
+ * succeeds again.
+ *
+ */
+public class AudioLevelStream implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AudioLevelStream.class);
+
+    /** Metric name for audio level sampling */
+    private static final String METRIC_AUDIO_SAMPLE = "audio.sample";
+
+    private final Dut dut;
+
+    private final AudioLevelBuffer buffer;
+
+    private final double silenceThreshold;
+
+    private final long minSilenceDuration;
+
+    private final double clippingThreshold;
+
+    /** Number of consecutive failed reads after which the stream is stale */
+    private final int maxConsecutiveFailures;
+
+    private int consecutiveFailures = 0;
+
+    private volatile boolean isStale = false;
+
+    private final List<AudioLevelListener> listeners = new CopyOnWriteArrayList<AudioLevelListener>();
+
+    private volatile ScheduledFuture<?> task;
+
+    /** Time of first sample of current silence, -1 if audio is not silent */
+    private long silenceStart = -1;
+
+    private boolean isSilenceReported = false;
+
+    private boolean isClipping = false;
+
+    AudioLevelStream(Dut dut, int bufferSize, double silenceThreshold, long minSilenceDuration,
+	    double clippingThreshold, int maxConsecutiveFailures) {
+	this.dut = dut;
+	this.buffer = new AudioLevelBuffer(bufferSize);
+	this.silenceThreshold = silenceThreshold;
+	this.minSilenceDuration = minSilenceDuration;
+	this.clippingThreshold = clippingThreshold;
+	this.maxConsecutiveFailures = Math.max(1, maxConsecutiveFailures);
+    }
+
+    /**
+     * @return Device whose audio is sampled
+     */
+    public Dut getDut() {
+	return dut;
+    }
+
+    /**
+     * @return Buffer holding the recent samples
+     */
+    public AudioLevelBuffer getBuffer() {
+	return buffer;
+    }
+
+    /**
+     * Registers a listener for silence and clipping events
+     * 
+     * @param listener
+     *            Listener to add
+     */
+    public void addListener(AudioLevelListener listener) {
+	listeners.add(listener);
+    }
+
+    /**
+     * @param listener
+     *            Listener to remove
+     */
+    public void removeListener(AudioLevelListener listener) {
+	listeners.remove(listener);
+    }
+
+    /**
+     * @return true if samples are still being read
+     */
+    public boolean isRunning() {
+	return null != task && !task.isDone();
+    }
+
+    /**
+     * @return true if the recent reads of audio level failed, so the samples do not reflect the current audio
+     */
+    public boolean isStale() {
+	return isStale;
+    }
+
+    /**
+     * Checks whether audio was silent through the trailing window
+     * 
+     * @param windowInMillis
+     *            Window duration ending now
+     * @return true if the stream is not stale and the window has samples and all of them are below the silence
+     *         threshold
+     */
+    public boolean isSilent(long windowInMillis) {
+	double max = buffer.getMax(windowInMillis);
+	return !isStale && !Double.isNaN(max) && max < silenceThreshold;
+    }
+
+    /**
+     * Checks whether audio was present through the trailing window
+     * 
+     * @param windowInMillis
+     *            Window duration ending now
+     * @return true if the stream is not stale and the window has samples and none of them are below the silence
+     *         threshold
+     */
+    public boolean isAudioPresent(long windowInMillis) {
+	double min = buffer.getMin(windowInMillis);
+	return !isStale && !Double.isNaN(min) && min >= silenceThreshold;
+    }
+
+    @Override
+    public void run() {
+	List<Double> levels = null;
+	try {
+	    levels = readLevels();
+	} catch (Exception e) {
+	    LOGGER.error("Failed to read audio level of device {}: {}", dut.getHostMacAddress(), e.getMessage());
+	}
+	int sampleCount = 0;
+	if (null != levels) {
+	    long timestamp = System.currentTimeMillis();
+	    for (Double level : levels) {
+		if (null != level && !level.isNaN()) {
+		    addSample(timestamp, level);
+		    sampleCount++;
+		}
+	    }
+	}
+	Map<String, String> tags = MetricsRegistry.tags(dut, METRIC_AUDIO_SAMPLE);
+	tags.put(MetricsRegistry.TAG_RESULT, sampleCount > 0 ? "success" : "failure");
+	MetricsRegistry.get().counter(METRIC_AUDIO_SAMPLE, tags).increment();
+	updateStaleness(sampleCount > 0);
+    }
+
+    /**
+     * Marks the stream stale after consecutive failed reads, and valid again after a successful read
+     * 
+     * @param isReadSuccess
+     *            true if the last read gave samples
+     */
+    private void updateStaleness(boolean isReadSuccess) {
+	if (isReadSuccess) {
+	    consecutiveFailures = 0;
+	    if (isStale) {
+		isStale = false;
+		LOGGER.info("Audio level of device {} is read again", dut.getHostMacAddress());
+	    }
+	} else if (++consecutiveFailures >= maxConsecutiveFailures && !isStale) {
+	    isStale = true;
+	    LOGGER.error("Audio level of device {} could not be read {} times in a row, samples are stale",
+		    dut.getHostMacAddress(), consecutiveFailures);
+	}
+    }
+
+    void setTask(ScheduledFuture<?> task) {
+	this.task = task;
+    }
+
+    void stop() {
+	if (null != task) {
+	    task.cancel(false);
+	}
+    }
+
+    /**
+     * Adds a sample to the buffer and notifies listeners of silence and clipping transitions
+     * 
+     * @param timestamp
+     *            Time of sample in millis
+     * @param level
+     *            Audio level in decibels
+     */
+    synchronized void addSample(long timestamp, double level) {
+	buffer.add(timestamp, level);
+	if (level < silenceThreshold) {
+	    if (silenceStart < 0) {
+		silenceStart = timestamp;
+	    }
+	    if (!isSilenceReported && timestamp - silenceStart >= minSilenceDuration) {
+		isSilenceReported = true;
+		LOGGER.info("Audio of device {} silent since {}", dut.getHostMacAddress(), silenceStart);
+		for (AudioLevelListener listener : listeners) {
+		    try {
+			listener.onSilenceStart(dut, silenceStart);
+		    } catch (Exception e) {
+			LOGGER.error("Audio listener failed: {}", e.getMessage());
+		    }
+		}
+	    }
+	} else {
+	    if (isSilenceReported) {
+		LOGGER.info("Audio of device {} restored after {} ms silence", dut.getHostMacAddress(),
+			timestamp - silenceStart);
+		for (AudioLevelListener listener : listeners) {
+		    try {
+			listener.onSilenceEnd(dut, silenceStart, timestamp - silenceStart);
+		    } catch (Exception e) {
+			LOGGER.error("Audio listener failed: {}", e.getMessage());
+		    }
+		}
+	    }
+	    silenceStart = -1;
+	    isSilenceReported = false;
+	}
+	if (level >= clippingThreshold) {
+	    if (!isClipping) {
+		LOGGER.info("Audio of device {} clipping at {} dB", dut.getHostMacAddress(), level);
+		for (AudioLevelListener listener : listeners) {
+		    try {
+			listener.onClipping(dut, timestamp, level);
+		    } catch (Exception e) {
+			LOGGER.error("Audio listener failed: {}", e.getMessage());
+		    }
+		}
+	    }
+	    isClipping = true;
+	} else {
+	    isClipping = false;
+	}
+    }
+
+    /**
+     * Reads audio level from the audio provider of the device. Devices without audio provider are read through the
+     * AV analysis provider, which may return several levels per call.
+     * 
+     * @return Audio levels read
+     */
+    private List<Double> readLevels() {
+	List<Double> levels = null;
+	AudioProvider audioProvider = dut.getAudio();
+	if (null != audioProvider) {
+	    levels = Collections.singletonList(audioProvider.getCurrentAudioDecibelLevel());
+	} else {
+	    levels = AVMonitoringUtils.getAudioDBLevelValue(dut);
+	}
+	return levels;
+    }
+}
@@ -60,6 +60,24 @@ public class AVConstants {
      */
     public static final double RMSE_ERROR_CLOSED_CAPTION = 0.020;  
 
+    /**
+     * Holds the RMSE error between consecutive frames up to which they are considered identical, allowing for
+     * capture noise, when verifying frozen screen.
+     */
+    public static final double RMSE_ERROR_FROZEN_SCREEN = 0.005;
+
+    /** Minimum percentage of black pixels for the screen to be considered black. */
+    public static final double BLACK_SCREEN_MIN_PERCENTAGE = 99.0;
+
+    /** Minimum percentage of blue pixels for the screen to be considered the no input signal screen. */
+    public static final double NO_INPUT_SIGNAL_MIN_BLUE_PERCENTAGE = 90.0;
+
+    /**
+     * Holds the mean color difference of screen grid cells up to which two screens captured apart are considered
+     * frozen.
+     */
+    public static final double FROZEN_SCREEN_SIGNATURE_TOLERANCE = 0.01;
+
     /** Image compare properties file name. */
     public static final String IMAGE_COMPARE_PROPERTIES_FILE_NAME = "imagecompare.properties";
 
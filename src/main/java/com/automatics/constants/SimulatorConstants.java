@@ -0,0 +1,67 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.constants;
+
+/**
+ * Holds the constants used by the local device simulator.
+ *
+ */
+public class SimulatorConstants {
+
+    /** Property (system or automatics property) to enable device simulator */
+    public static final String PROP_SIMULATOR_ENABLED = "simulator.enabled";
+
+    /** Property for number of devices pre-created by simulator */
+    public static final String PROP_SIMULATOR_DEVICE_COUNT = "simulator.device.count";
+
+    /** Property for model name of simulated devices */
+    public static final String PROP_SIMULATOR_DEVICE_MODEL = "simulator.device.model";
+
+    /** Property for number of trace lines generated per second per device */
+    public static final String PROP_SIMULATOR_TRACE_RATE = "simulator.trace.lines.per.second";
+
+    /** Property for latency added to each simulated command, webpa and rack request */
+    public static final String PROP_SIMULATOR_LATENCY = "simulator.response.latency.ms";
+
+    /** Property for port of simulator http server, 0 selects a free port */
+    public static final String PROP_SIMULATOR_HTTP_PORT = "simulator.http.port";
+
+    /** Default number of simulated devices */
+    public static final int DEFAULT_DEVICE_COUNT = 100;
+
+    /** Default model of simulated devices */
+    public static final String DEFAULT_DEVICE_MODEL = "SIMULATED_GW";
+
+    /** Default trace lines per second per device */
+    public static final int DEFAULT_TRACE_RATE = 10;
+
+    /** Host address simulator http server binds to */
+    public static final String SIMULATOR_HOST = "127.0.0.1";
+
+    /** Mac address prefix of simulated devices, locally administered range */
+    public static final String SIMULATED_MAC_PREFIX = "02:AE:00";
+
+    /** Path of simulated rack device management api */
+    public static final String DEVICE_MANAGEMENT_PATH = "/deviceManagement";
+
+    /** Path of simulated webpa api, device mac is appended by webpa connection handler */
+    public static final String WEBPA_PATH = "/webpa/api/v2/device/mac:";
+
+    /** Firmware version reported by simulated devices */
+    public static final String SIMULATED_FIRMWARE_VERSION = "SIMULATED_4.2p1s1_DEV_sey";
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.dataobjects;
+
+import com.automatics.enums.AVMonitorEventType;
+
+/**
+ * Event reported while AV monitoring is running, for eg: a video freeze or audio loss region
+ *
+ */
+public class AVMonitorEvent {
+
+    private AVMonitorEventType type;
+
+    private String deviceName;
+
+    private String monitorName;
+
+    private long startTime;
+
+    private long endTime;
+
+    private long duration;
+
+    private Double audioLevel;
+
+    public AVMonitorEvent() {
+
+    }
+
+    /**
+     * Constructor for event of a freeze region
+     * 
+     * @param type
+     * @param monitorName
+     * @param region
+     */
+    public AVMonitorEvent(AVMonitorEventType type, String monitorName, AVFreezeRegion region) {
+	this.type = type;
+	this.monitorName = monitorName;
+	this.deviceName = region.getDeviceName();
+	this.startTime = region.getStartTime();
+	this.endTime = region.getEndTime();
+	this.duration = region.getDuration();
+    }
+
+    /**
+     * @return the type
+     */
+    public AVMonitorEventType getType() {
+	return type;
+    }
+
+    /**
+     * @param type
+     *            the type to set
+     */
+    public void setType(AVMonitorEventType type) {
+	this.type = type;
+    }
+
+    /**
+     * @return the deviceName
+     */
+    public String getDeviceName() {
+	return deviceName;
+    }
+
+    /**
+     * @param deviceName
+     *            the deviceName to set
+     */
+    public void setDeviceName(String deviceName) {
+	this.deviceName = deviceName;
+    }
+
+    /**
+     * @return the monitorName
+     */
+    public String getMonitorName() {
+	return monitorName;
+    }
+
+    /**
+     * @param monitorName
+     *            the monitorName to set
+     */
+    public void setMonitorName(String monitorName) {
+	this.monitorName = monitorName;
+    }
+
+    /**
+     * @return the startTime
+     */
+    public long getStartTime() {
+	return startTime;
+    }
+
+    /**
+     * @param startTime
+     *            the startTime to set
+     */
+    public void setStartTime(long startTime) {
+	this.startTime = startTime;
+    }
+
+    /**
+     * @return the endTime
+     */
+    public long getEndTime() {
+	return endTime;
+    }
+
+    /**
+     * @param endTime
+     *            the endTime to set
+     */
+    public void setEndTime(long endTime) {
+	this.endTime = endTime;
+    }
+
+    /**
+     * @return the duration
+     */
+    public long getDuration() {
+	return duration;
+    }
+
+    /**
+     * @param duration
+     *            the duration to set
+     */
+    public void setDuration(long duration) {
+	this.duration = duration;
+    }
+
+    /**
+     * @return the audio level in decibels, for audio level events
+     */
+    public Double getAudioLevel() {
+	return audioLevel;
+    }
+
+    /**
+     * @param audioLevel
+     *            the audioLevel to set
+     */
+    public void setAudioLevel(Double audioLevel) {
+	this.audioLevel = audioLevel;
+    }
+
+    /**
+     * @return true if event is a video freeze or audio loss
+     */
+    public boolean isFailure() {
+	return null != type && type.isFailure();
+    }
+
+    /**
+     * Converts the event to freeze region
+     * 
+     * @return Freeze region, null if event is not a video freeze or audio loss
+     */
+    public AVFreezeRegion toFreezeRegion() {
+	AVFreezeRegion region = null;
+	if (isFailure()) {
+	    region = new AVFreezeRegion();
+	    region.setDeviceName(deviceName);
+	    region.setStartTime(startTime);
+	    region.setEndTime(endTime);
+	    region.setDuration(duration);
+	}
+	return region;
+    }
+
+    @Override
+    public String toString() {
+	StringBuilder data = new StringBuilder();
+	data.append("{type=").append(type).append(",deviceName=").append(deviceName).append(",monitorName=")
+		.append(monitorName).append(",startTime=").append(startTime).append(",endTime=").append(endTime)
+		.append(",duration=").append(duration);
+	if (null != audioLevel) {
+	    data.append(",audioLevel=").append(audioLevel);
+	}
+	return data.append("}").toString();
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.dataobjects;
+
+/**
+ * Dataobject class to hold the result of a command executed on a device as part of a batch
+ * 
+ */
+public class DeviceCommandResultDO {
+
+    /** Holds the mac address */
+    private String macAddress;
+
+    /** Holds the command response */
+    private String response;
+
+    /** Holds whether execution completed without error */
+    private boolean success;
+
+    /** Holds whether execution was stopped after device deadline */
+    private boolean timedOut;
+
+    /** Holds the error message if execution failed */
+    private String errorMessage;
+
+    /** Holds the execution time */
+    private long durationInMillis;
+
+    public DeviceCommandResultDO(String macAddress) {
+	this.macAddress = macAddress;
+    }
+
+    public String getMacAddress() {
+	return macAddress;
+    }
+
+    public String getResponse() {
+	return response;
+    }
+
+    public void setResponse(String response) {
+	this.response = response;
+    }
+
+    public boolean isSuccess() {
+	return success;
+    }
+
+    public void setSuccess(boolean success) {
+	this.success = success;
+    }
+
+    public boolean isTimedOut() {
+	return timedOut;
+    }
+
+    public void setTimedOut(boolean timedOut) {
+	this.timedOut = timedOut;
+    }
+
+    public String getErrorMessage() {
+	return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+	this.errorMessage = errorMessage;
+    }
+
+    public long getDurationInMillis() {
+	return durationInMillis;
+    }
+
+    public void setDurationInMillis(long durationInMillis) {
+	this.durationInMillis = durationInMillis;
+    }
+
+    @Override
+    public String toString() {
+	return "DeviceCommandResultDO [macAddress=" + macAddress + ", success=" + success + ", timedOut=" + timedOut
+		+ ", durationInMillis=" + durationInMillis + ", errorMessage=" + errorMessage + ", response="
+		+ response + "]";
+    }
+}
@@ -0,0 +1,276 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.dataobjects;
+
+/**
+ * Single entry of the test duration history. An entry either represents a complete test execution or one test step
+ * within it, identified by test UID, device model and firmware version.
+ *
+ */
+public class TestDurationRecordDO {
+
+    /** Record type for a complete test execution */
+    public static final String TYPE_TEST = "T";
+
+    /** Record type for a test step */
+    public static final String TYPE_STEP = "S";
+
+    /** Field separator used in the history file */
+    public static final String FIELD_SEPARATOR = "\t";
+
+    /** Number of fields in a serialized record */
+    private static final int FIELD_COUNT = 10;
+
+    private String recordType;
+
+    private long startTime;
+
+    private long duration;
+
+    private long sleepDuration;
+
+    private String status;
+
+    private String testUid;
+
+    private String stepNumber;
+
+    private String model;
+
+    private String firmwareVersion;
+
+    private String macAddress;
+
+    /**
+     * @return the recordType
+     */
+    public String getRecordType() {
+	return recordType;
+    }
+
+    /**
+     * @param recordType
+     *            the recordType to set
+     */
+    public void setRecordType(String recordType) {
+	this.recordType = recordType;
+    }
+
+    /**
+     * @return true if the record represents a complete test execution
+     */
+    public boolean isTestRecord() {
+	return TYPE_TEST.equals(recordType);
+    }
+
+    /**
+     * @return the startTime in epoch milliseconds
+     */
+    public long getStartTime() {
+	return startTime;
+    }
+
+    /**
+     * @param startTime
+     *            the startTime to set
+     */
+    public void setStartTime(long startTime) {
+	this.startTime = startTime;
+    }
+
+    /**
+     * @return the duration in milliseconds
+     */
+    public long getDuration() {
+	return duration;
+    }
+
+    /**
+     * @param duration
+     *            the duration to set
+     */
+    public void setDuration(long duration) {
+	this.duration = duration;
+    }
+
+    /**
+     * @return the time spent in sleeps in milliseconds
+     */
+    public long getSleepDuration() {
+	return sleepDuration;
+    }
+
+    /**
+     * @param sleepDuration
+     *            the sleepDuration to set
+     */
+    public void setSleepDuration(long sleepDuration) {
+	this.sleepDuration = sleepDuration;
+    }
+
+    /**
+     * @return the time not spent in sleeps (device I/O and processing) in milliseconds
+     */
+    public long getActiveDuration() {
+	return Math.max(0, duration - sleepDuration);
+    }
+
+    /**
+     * @return the status
+     */
+    public String getStatus() {
+	return status;
+    }
+
+    /**
+     * @param status
+     *            the status to set
+     */
+    public void setStatus(String status) {
+	this.status = status;
+    }
+
+    /**
+     * @return the testUid
+     */
+    public String getTestUid() {
+	return testUid;
+    }
+
+    /**
+     * @param testUid
+     *            the testUid to set
+     */
+    public void setTestUid(String testUid) {
+	this.testUid = testUid;
+    }
+
+    /**
+     * @return the stepNumber
+     */
+    public String getStepNumber() {
+	return stepNumber;
+    }
+
+    /**
+     * @param stepNumber
+     *            the stepNumber to set
+     */
+    public void setStepNumber(String stepNumber) {
+	this.stepNumber = stepNumber;
+    }
+
+    /**
+     * @return the model
+     */
+    public String getModel() {
+	return model;
+    }
+
+    /**
+     * @param model
+     *            the model to set
+     */
+    public void setModel(String model) {
+	this.model = model;
+    }
+
+    /**
+     * @return the firmwareVersion
+     */
+    public String getFirmwareVersion() {
+	return firmwareVersion;
+    }
+
+    /**
+     * @param firmwareVersion
+     *            the firmwareVersion to set
+     */
+    public void setFirmwareVersion(String firmwareVersion) {
+	this.firmwareVersion = firmwareVersion;
+    }
+
+    /**
+     * @return the macAddress
+     */
+    public String getMacAddress() {
+	return macAddress;
+    }
+
+    /**
+     * @param macAddress
+     *            the macAddress to set
+     */
+    public void setMacAddress(String macAddress) {
+	this.macAddress = macAddress;
+    }
+
+    /**
+     * Serializes the record into a single tab separated line
+     * 
+     * @return Serialized record
+     */
+    public String toRecordLine() {
+	StringBuilder line = new StringBuilder();
+	line.append(recordType).append(FIELD_SEPARATOR).append(startTime).append(FIELD_SEPARATOR).append(duration)
+		.append(FIELD_SEPARATOR).append(sleepDuration).append(FIELD_SEPARATOR).append(clean(status))
+		.append(FIELD_SEPARATOR).append(clean(testUid)).append(FIELD_SEPARATOR).append(clean(stepNumber))
+		.append(FIELD_SEPARATOR).append(clean(model)).append(FIELD_SEPARATOR).append(clean(firmwareVersion))
+		.append(FIELD_SEPARATOR).append(clean(macAddress));
+	return line.toString();
+    }
+
+    /**
+     * Parses a record from a line written by {@link #toRecordLine()}
+     * 
+     * @param line
+     *            Serialized record
+     * @return Parsed record, null if the line is not a valid record
+     */
+    public static TestDurationRecordDO fromRecordLine(String line) {
+	TestDurationRecordDO record = null;
+	if (null != line) {
+	    String[] fields = line.split(FIELD_SEPARATOR, -1);
+	    if (fields.length == FIELD_COUNT) {
+		try {
+		    record = new TestDurationRecordDO();
+		    record.setRecordType(fields[0]);
+		    record.setStartTime(Long.parseLong(fields[1]));
+		    record.setDuration(Long.parseLong(fields[2]));
+		    record.setSleepDuration(Long.parseLong(fields[3]));
+		    record.setStatus(fields[4]);
+		    record.setTestUid(fields[5]);
+		    record.setStepNumber(fields[6]);
+		    record.setModel(fields[7]);
+		    record.setFirmwareVersion(fields[8]);
+		    record.setMacAddress(fields[9]);
+		} catch (NumberFormatException e) {
+		    record = null;
+		}
+	    }
+	}
+	return record;
+    }
+
+    /**
+     * Removes characters that would break the line format
+     */
+    private static String clean(String value) {
+	return null == value ? "" : value.replaceAll("[\\t\\r\\n]", " ").trim();
+    }
+}
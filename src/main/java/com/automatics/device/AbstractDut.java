@@ -42,6 +42,7 @@ import com.automatics.providers.rack.VideoSelectionProvider;
 import com.automatics.providers.rack.exceptions.PowerProviderException;
 import com.automatics.providers.rack.exceptions.RFControlProviderException;
 import com.automatics.providers.rack.exceptions.SNMPException;
+import com.automatics.providers.rack.impl.LocalMotionDetectionProviderImpl;
 import com.automatics.providers.trace.ConnectionTraceProvider;
 import com.automatics.providers.trace.TraceProvider;
 
@@ -475,31 +476,31 @@ public class AbstractDut implements Dut {
     }
 
     public void setMotionDetectionDiffImageSaveLocation(String location) {
-	this.motionDetectionProvider.setMotionDetectionDiffImageSaveLocation(location);
+	getMotionDetector().setMotionDetectionDiffImageSaveLocation(location);
     }
 
     public void setColorTolerance(float colorTolerancePct) {
-	this.motionDetectionProvider.setColorTolerance(colorTolerancePct);
+	getMotionDetector().setColorTolerance(colorTolerancePct);
     }
 
     public void setLocationTolerance(float locationTolerancePct) {
-	this.motionDetectionProvider.setLocationTolerance(locationTolerancePct);
+	getMotionDetector().setLocationTolerance(locationTolerancePct);
     }
 
     public void setMotionTolerance(float motionTolerancePct) {
-	this.motionDetectionProvider.setMotionTolerance(motionTolerancePct);
+	getMotionDetector().setMotionTolerance(motionTolerancePct);
     }
 
     public float getMotionTolerance() {
-	return this.motionDetectionProvider.getMotionTolerance();
+	return getMotionDetector().getMotionTolerance();
     }
 
     public float getLocationTolerance() {
-	return this.motionDetectionProvider.getLocationTolerance();
+	return getMotionDetector().getLocationTolerance();
     }
 
     public float getColorTolerance() {
-	return this.motionDetectionProvider.getColorTolerance();
+	return getMotionDetector().getColorTolerance();
     }
 
     // public EASProvider getEASProvider() {
@@ -740,24 +741,32 @@ public class AbstractDut implements Dut {
     }
 
     public boolean detectMotion(long paramLong) {
-	// TODO Auto-generated method stub
-	return false;
+	return getMotionDetector().detectMotion(paramLong);
     }
 
     public boolean detectMotion(long paramLong1, long paramLong2) {
-	// TODO Auto-generated method stub
-	return false;
+	return getMotionDetector().detectMotion(paramLong1, paramLong2);
     }
 
     public boolean detectMotion(int paramInt1, int paramInt2, int paramInt3, int paramInt4, long paramLong1,
 	    long paramLong2) {
-	// TODO Auto-generated method stub
-	return false;
+	return getMotionDetector().detectMotion(paramInt1, paramInt2, paramInt3, paramInt4, paramLong1, paramLong2);
     }
 
     public boolean detectMotion(int paramInt1, int paramInt2, int paramInt3, int paramInt4, long paramLong) {
-	// TODO Auto-generated method stub
-	return false;
+	return getMotionDetector().detectMotion(paramInt1, paramInt2, paramInt3, paramInt4, paramLong);
+    }
+
+    /**
+     * Gets the motion detection provider, motion is detected locally on the device frames if no provider is configured
+     * 
+     * @return Motion detection provider
+     */
+    private synchronized MotionDetectionProvider getMotionDetector() {
+	if (null == this.motionDetectionProvider) {
+	    this.motionDetectionProvider = new LocalMotionDetectionProviderImpl(this);
+	}
+	return this.motionDetectionProvider;
     }
 
     public Map<Class<? extends BaseProvider>, BaseProvider> getAdditionalProviders() {
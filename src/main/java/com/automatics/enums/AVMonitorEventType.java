@@ -0,0 +1,57 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.enums;
+
+/**
+ * 
+ * Type of event reported while AV monitoring is running
+ */
+public enum AVMonitorEventType {
+
+    VIDEO_FREEZE("Video Freeze", AVState.NO_MOTION),
+    AUDIO_LOSS("Audio Loss", AVState.NO_AUDIO),
+    AUDIO_LEVEL("Audio Level", null),
+    MONITOR_STOPPED("Monitoring Stopped", null);
+
+    private String type;
+
+    private AVState avState;
+
+    private AVMonitorEventType(String type, AVState avState) {
+	this.type = type;
+	this.avState = avState;
+    }
+
+    public String getType() {
+	return type;
+    }
+
+    /**
+     * @return AV state of the freeze regions reported by this event type, null if event is not a freeze region
+     */
+    public AVState getAvState() {
+	return avState;
+    }
+
+    /**
+     * @return true if event is a video freeze or audio loss
+     */
+    public boolean isFailure() {
+	return null != avState;
+    }
+}
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.enums;
+
+/**
+ * Kinds of device action needed to apply a build appender
+ * 
+ */
+public enum BuildAppenderAction {
+
+    /** Appender posts RFC settings to xconf */
+    RFC_POST,
+    /** Appender modifies device configuration directly, like editing files in device */
+    DEVICE_CONFIGURATION,
+    /** Process restart needed to apply appender settings */
+    PROCESS_RESTART,
+    /** Service restart needed to apply appender settings */
+    SERVICE_RESTART,
+    /** Device reboot needed to apply appender settings */
+    REBOOT;
+}
@@ -0,0 +1,34 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.enums;
+
+/**
+ * Probes used to check whether a device is available
+ * 
+ */
+public enum DeviceAvailabilityProbe {
+
+    /** Uses the configured device access validator, same as CommonMethods.isSTBAccessible */
+    ACCESS_VALIDATOR,
+    /** Opens a TCP connection to ssh port of device */
+    SSH_PORT,
+    /** Checks whether device ip is reachable */
+    PING,
+    /** Reads a parameter from device using WebPA */
+    WEBPA;
+}
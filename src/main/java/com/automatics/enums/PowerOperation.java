@@ -0,0 +1,35 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.enums;
+
+/**
+ * 
+ * Power operations which can be performed on a batch of devices
+ *
+ */
+public enum PowerOperation {
+
+    /** Power on the device outlet */
+    ON,
+    /** Power off the device outlet */
+    OFF,
+    /** Power off and on the device outlet */
+    POWER_CYCLE,
+    /** Read the power status of the device outlet */
+    POWER_STATUS;
+}
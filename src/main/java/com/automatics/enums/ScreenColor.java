@@ -0,0 +1,48 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.enums;
+
+/**
+ * 
+ * Named colors used to classify screen pixels
+ *
+ */
+public enum ScreenColor {
+
+    BLACK("black"),
+    WHITE("white"),
+    GRAY("gray"),
+    RED("red"),
+    ORANGE("orange"),
+    YELLOW("yellow"),
+    GREEN("green"),
+    CYAN("cyan"),
+    BLUE("blue"),
+    MAGENTA("magenta");
+
+    private String colorName;
+
+    private ScreenColor(String name) {
+	colorName = name;
+    }
+
+    public String getColorName() {
+	return colorName;
+    }
+
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.executor;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.dataobjects.DeviceCommandResultDO;
+import com.automatics.device.Dut;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.tap.AutomaticsTapApi;
+import com.automatics.utils.AutomaticsPropertyUtility;
+
+/**
+ * Executes commands or device operations on multiple devices in parallel. Number of devices handled at a time is
+ * bounded by a concurrency budget and execution on each device is stopped once its deadline expires. Commands are
+ * executed through the device connection provider, so pooled connections are reused where the provider supports it.
+ *
+ */
+public class BatchCommandExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchCommandExecutor.class);
+
+    /** Property for maximum number of devices on which commands are executed in parallel */
+    private static final String PROP_MAX_PARALLEL = "batch.command.max.parallel";
+
+    /** Property for maximum execution time per device */
+    private static final String PROP_DEADLINE_MILLIS = "batch.command.deadline.millis";
+
+    private static final int DEFAULT_MAX_PARALLEL = 10;
+
+    private static final long DEFAULT_DEADLINE_MILLIS = 60000;
+
+    /** Metric name for batch command execution on a device */
+    private static final String METRIC_BATCH_COMMAND = "batch.command";
+
+    /** Scheduler cancelling device executions after deadline */
+    private static final ScheduledExecutorService DEADLINE_SCHEDULER = Executors
+	    .newSingleThreadScheduledExecutor(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable runnable) {
+		    Thread thread = new Thread(runnable, "BatchCommandDeadline");
+		    thread.setDaemon(true);
+		    return thread;
+		}
+	    });
+
+    /**
+     * Operation to be executed on each device of the batch
+     */
+    public interface DeviceOperation {
+
+	/**
+	 * Executes the operation on the device
+	 * 
+	 * @param dut
+	 *            Device on which operation is executed
+	 * @return Response of the operation
+	 * @throws Exception
+	 *             if operation fails
+	 */
+	String execute(Dut dut) throws Exception;
+    }
+
+    private final int maxParallel;
+
+    private final long deadlineInMillis;
+
+    /**
+     * Creates batch executor with concurrency budget and device deadline from batch.command.max.parallel and
+     * batch.command.deadline.millis properties
+     */
+    public BatchCommandExecutor() {
+	this((int) AutomaticsPropertyUtility.getLongProperty(PROP_MAX_PARALLEL, DEFAULT_MAX_PARALLEL),
+		AutomaticsPropertyUtility.getLongProperty(PROP_DEADLINE_MILLIS, DEFAULT_DEADLINE_MILLIS));
+    }
+
+    /**
+     * Creates batch executor
+     * 
+     * @param maxParallel
+     *            Maximum number of devices on which commands are executed in parallel
+     * @param deadlineInMillis
+     *            Maximum execution time per device, counted from the start of execution on the device
+     */
+    public BatchCommandExecutor(int maxParallel, long deadlineInMillis) {
+	this.maxParallel = Math.max(1, maxParallel);
+	this.deadlineInMillis = deadlineInMillis;
+    }
+
+    /**
+     * Executes the commands on all devices using ssh
+     * 
+     * @param tapEnv
+     *            {@link AutomaticsTapApi}
+     * @param devices
+     *            Devices on which commands are executed
+     * @param commands
+     *            Linux commands
+     * @return Result of execution keyed by device mac, in the order of given devices
+     */
+    public Map<String, DeviceCommandResultDO> executeCommands(final AutomaticsTapApi tapEnv,
+	    Collection<Dut> devices, final String... commands) {
+	return execute(devices, new DeviceOperation() {
+	    @Override
+	    public String execute(Dut dut) {
+		return 1 == commands.length ? tapEnv.executeCommandUsingSsh(dut, commands[0], deadlineInMillis)
+			: tapEnv.executeCommandUsingSsh(dut, commands);
+	    }
+	});
+    }
+
+    /**
+     * Executes the operation on all devices
+     * 
+     * @param devices
+     *            Devices on which operation is executed
+     * @param operation
+     *            Operation to execute
+     * @return Result of execution keyed by device mac, in the order of given devices
+     */
+    public Map<String, DeviceCommandResultDO> execute(Collection<Dut> devices, final DeviceOperation operation) {
+	Map<String, DeviceCommandResultDO> results = new LinkedHashMap<String, DeviceCommandResultDO>();
+	if (null == devices || devices.isEmpty()) {
+	    return results;
+	}
+	final AtomicInteger threadCount = new AtomicInteger();
+	ExecutorService executorService = Executors.newFixedThreadPool(Math.min(maxParallel, devices.size()),
+		new ThreadFactory() {
+		    @Override
+		    public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "BatchCommand-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		    }
+		});
+	Map<Dut, DeviceTask> tasks = new LinkedHashMap<Dut, DeviceTask>();
+	try {
+	    for (final Dut dut : devices) {
+		DeviceTask task = new DeviceTask(new Callable<String>() {
+		    @Override
+		    public String call() throws Exception {
+			return operation.execute(dut);
+		    }
+		});
+		tasks.put(dut, task);
+		executorService.execute(task);
+	    }
+	    for (Map.Entry<Dut, DeviceTask> task : tasks.entrySet()) {
+		results.put(task.getKey().getHostMacAddress(), collectResult(task.getKey(), task.getValue()));
+	    }
+	} finally {
+	    executorService.shutdownNow();
+	}
+	return results;
+    }
+
+    private DeviceCommandResultDO collectResult(Dut dut, DeviceTask task) {
+	DeviceCommandResultDO result = new DeviceCommandResultDO(dut.getHostMacAddress());
+	try {
+	    result.setResponse(task.get());
+	    result.setSuccess(true);
+	} catch (CancellationException e) {
+	    result.setTimedOut(true);
+	    result.setErrorMessage("Execution not completed within " + deadlineInMillis + " ms");
+	} catch (ExecutionException e) {
+	    result.setErrorMessage(String.valueOf(e.getCause().getMessage()));
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    task.cancel(true);
+	    result.setErrorMessage("Interrupted while waiting for execution");
+	}
+	result.setDurationInMillis(task.getDurationInMillis());
+	Map<String, String> tags = MetricsRegistry.tags(dut, "execute");
+	tags.put(MetricsRegistry.TAG_RESULT, result.isSuccess() ? "success" : result.isTimedOut() ? "timeout" : "failure");
+	MetricsRegistry.get().timer(METRIC_BATCH_COMMAND, tags).record(result.getDurationInMillis());
+	if (!result.isSuccess()) {
+	    LOGGER.error("Batch execution failed on device {} : {}", dut.getHostMacAddress(), result.getErrorMessage());
+	}
+	return result;
+    }
+
+    /**
+     * Task executing operation on a device, cancelled once the deadline expires after the task starts
+     */
+    private class DeviceTask extends FutureTask<String> {
+
+	private volatile long startTime = 0;
+
+	private volatile long endTime = 0;
+
+	DeviceTask(Callable<String> callable) {
+	    super(callable);
+	}
+
+	@Override
+	public void run() {
+	    startTime = System.currentTimeMillis();
+	    ScheduledFuture<?> deadline = DEADLINE_SCHEDULER.schedule(new Runnable() {
+		@Override
+		public void run() {
+		    cancel(true);
+		}
+	    }, deadlineInMillis, TimeUnit.MILLISECONDS);
+	    try {
+		super.run();
+	    } finally {
+		deadline.cancel(false);
+	    }
+	}
+
+	@Override
+	protected void done() {
+	    endTime = System.currentTimeMillis();
+	}
+
+	long getDurationInMillis() {
+	    return 0 == startTime ? 0 : endTime - startTime;
+	}
+    }
+
+}
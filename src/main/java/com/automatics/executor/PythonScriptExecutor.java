@@ -23,6 +23,7 @@ import com.automatics.device.Dut;
 import com.automatics.providers.objects.DeviceObject;
 import com.automatics.tap.AutomaticsTapApi;
 import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.AutomaticsUtils;
 import com.automatics.utils.TestUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -32,10 +33,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 /**
  *
@@ -45,73 +57,235 @@ public class PythonScriptExecutor {
     /** SLF4j logger instance. */
     private static final Logger LOGGER = LoggerFactory.getLogger(PythonScriptExecutor.class);
 
+    /** Property for maximum number of python processes executed in parallel */
+    private static final String PROP_PYTHON_EXEC_MAX_PARALLEL = "Python.exec.max.parallel";
+
+    /** Property for maximum execution time of python process per device */
+    private static final String PROP_PYTHON_EXEC_TIMEOUT_MINUTES = "Python.exec.timeout.minutes";
+
+    /** Default maximum number of python processes executed in parallel */
+    private static final int DEFAULT_MAX_PARALLEL = 10;
+
+    /** Default maximum execution time of python process per device */
+    private static final long DEFAULT_TIMEOUT_MINUTES = 720;
+
+    /** Exit code reported when python process could not be started or executed */
+    public static final int EXIT_CODE_EXECUTION_FAILED = -1;
+
+    /** Exit code reported when python process is killed after timeout */
+    public static final int EXIT_CODE_TIMED_OUT = -2;
+
+    /** Folder under target where python logs are saved per device */
+    private static final String PYTHON_LOG_FOLDER = "python_logs";
+
     /**
      * This method will execute the python test case
-     * created either in python or using pytest
+     * created either in python or using pytest. Python process for each device is executed in parallel,
+     * limited by Python.exec.max.parallel. Stdout and stderr of each process are saved to per device log files
+     * under target/python_logs.
      *
      * @param lockedDevices
      * @param isTcPyTest
+     * @return Exit code of python process for each device mac, negative if execution failed or timed out
      * @throws IOException
      * @throws InterruptedException
      */
-    public void executePythonScriptUsingProcess(boolean isTcPyTest, List<Dut> lockedDevices)
+    public Map<String, Integer> executePythonScriptUsingProcess(boolean isTcPyTest, List<Dut> lockedDevices)
 	    throws IOException, InterruptedException, JSONException {
+	Map<String, Integer> exitCodes = new LinkedHashMap<String, Integer>();
 	try {
+	    /**
+	     * In some VM's the python command will be different. It can either be python or python3
+	     * or a different command all together. So to bring flexibility this command is made
+	     * configurable in automatics properties under the property "Python.exec.command".
+	     * Also the wrapper python script name is also made configurable in automatics peops
+	     * under the property "Python.wrapper.script"
+	     */
+	    final String pyCommandString = AutomaticsPropertyUtility.getProperty("Python.exec.command");
+	    final String pyWrapperScript = AutomaticsPropertyUtility.getProperty("Python.wrapper.script");
+	    String rdkbExecJarname = AutomaticsPropertyUtility.getProperty("Python.rdkb.exec.jar.name");
+	    String rdkvExecJarname = AutomaticsPropertyUtility.getProperty("Python.rdkv.exec.jar.name");
+	    String pythonScriptCheckoutFolder = AutomaticsPropertyUtility.getProperty("Python.script.checkout.folder.name");
 
-	    for (final Dut device : lockedDevices) {
-
-		String deviceJson = convertDeviceToJson((Device) device);
-		LOGGER.info("Going to execute python script for the device {}",
-			 device.getHostMacAddress());
-		/**
-		 * In some VM's the python command will be different. It can either be python or python3
-		 * or a different command all together. So to bring flexibility this command is made
-		 * configurable in automatics properties under the property "Python.exec.command".
-		 * Also the wrapper python script name is also made configurable in automatics peops
-		 * under the property "Python.wrapper.script"
-		 */
-		String pyCommandString = AutomaticsPropertyUtility.getProperty("Python.exec.command");
-		String pyWrapperScript = AutomaticsPropertyUtility.getProperty("Python.wrapper.script");
-		String rdkbExecJarname = AutomaticsPropertyUtility.getProperty("Python.rdkb.exec.jar.name");
-		String rdkvExecJarname = AutomaticsPropertyUtility.getProperty("Python.rdkv.exec.jar.name");
-		String pythonScriptCheckoutFolder = AutomaticsPropertyUtility.getProperty("Python.script.checkout.folder.name");
-
-		JSONObject jsonObject = new JSONObject();
-				jsonObject.put("automaticsPropsUrl",System.getProperty("automatics.properties.file"));
-		jsonObject.put("isPyTestTc", Boolean.toString(isTcPyTest));
-		if("RDKB".equalsIgnoreCase(AutomaticsTapApi.getInstance().getCurrentExecutionMode())){
-		    jsonObject.put("execJarPath", System.getProperty(
-			    ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR + "target/" + rdkbExecJarname);
-		} else if("RDKV".equalsIgnoreCase(AutomaticsTapApi.getInstance().getCurrentExecutionMode())){
-		    jsonObject.put("execJarPath", System.getProperty(
-			    ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR + "target/" + rdkvExecJarname);
-		}
-		jsonObject.put("filterTestCaseIds",System.getProperty(AutomaticsConstants.SYSTEM_PROPERTY_FILTER_TEST_ID));
-		jsonObject.put("pythonTestScriptDir",System.getProperty(
-			ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR + pythonScriptCheckoutFolder + "/**");
-		LOGGER.info("Sending JSON String {} to python wrapper script : --->{}",jsonObject.toString(), pyWrapperScript);
-		ProcessBuilder processBuilder = new ProcessBuilder(pyCommandString, "-m", pyWrapperScript, jsonObject.toString(), deviceJson);
-		processBuilder.redirectErrorStream(true);
-
-		Process process = processBuilder.start();
-		BufferedReader testScriptOut = new BufferedReader(new InputStreamReader(process.getInputStream()));
-		String testScriptLogs = null;
-		LOGGER.info("Response from python script : ");
-		while ((testScriptLogs = testScriptOut.readLine())!=null){
-		    LOGGER.info(testScriptLogs);
+	    JSONObject jsonObject = new JSONObject();
+	    jsonObject.put("automaticsPropsUrl",System.getProperty("automatics.properties.file"));
+	    jsonObject.put("isPyTestTc", Boolean.toString(isTcPyTest));
+	    if("RDKB".equalsIgnoreCase(AutomaticsTapApi.getInstance().getCurrentExecutionMode())){
+		jsonObject.put("execJarPath", System.getProperty(
+			ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR + "target/" + rdkbExecJarname);
+	    } else if("RDKV".equalsIgnoreCase(AutomaticsTapApi.getInstance().getCurrentExecutionMode())){
+		jsonObject.put("execJarPath", System.getProperty(
+			ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR + "target/" + rdkvExecJarname);
+	    }
+	    jsonObject.put("filterTestCaseIds",System.getProperty(AutomaticsConstants.SYSTEM_PROPERTY_FILTER_TEST_ID));
+	    jsonObject.put("pythonTestScriptDir",System.getProperty(
+		    ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR + pythonScriptCheckoutFolder + "/**");
+	    final String executionDetails = jsonObject.toString();
+	    LOGGER.info("Sending JSON String {} to python wrapper script : --->{}", executionDetails, pyWrapperScript);
+
+	    final long timeoutInMinutes = AutomaticsPropertyUtility.getLongProperty(PROP_PYTHON_EXEC_TIMEOUT_MINUTES,
+		    DEFAULT_TIMEOUT_MINUTES);
+	    int maxParallel = (int) AutomaticsPropertyUtility.getLongProperty(PROP_PYTHON_EXEC_MAX_PARALLEL,
+		    DEFAULT_MAX_PARALLEL);
+	    maxParallel = Math.max(1, Math.min(maxParallel, lockedDevices.size()));
+	    LOGGER.info("Executing python script for {} devices, {} in parallel, timeout {} minutes",
+		    lockedDevices.size(), maxParallel, timeoutInMinutes);
+
+	    ExecutorService executorService = Executors.newFixedThreadPool(maxParallel);
+	    Map<String, Future<Integer>> results = new LinkedHashMap<String, Future<Integer>>();
+	    try {
+		for (final Dut device : lockedDevices) {
+		    final String deviceJson = convertDeviceToJson((Device) device);
+		    results.put(device.getHostMacAddress(), executorService.submit(new Callable<Integer>() {
+			@Override
+			public Integer call() {
+			    return executeForDevice(device, pyCommandString, pyWrapperScript, executionDetails,
+				    deviceJson, timeoutInMinutes);
+			}
+		    }));
 		}
-		BufferedReader testScriptError = new BufferedReader(new InputStreamReader(process.getErrorStream()));
-		String testScriptErrorLogs = null;
-		while ((testScriptErrorLogs = testScriptError.readLine())!=null){
-		    LOGGER.error("Error from python script : " + testScriptErrorLogs);
+		for (Map.Entry<String, Future<Integer>> result : results.entrySet()) {
+		    try {
+			exitCodes.put(result.getKey(), result.getValue().get());
+		    } catch (ExecutionException e) {
+			LOGGER.error("Python execution failed for device {}", result.getKey(), e.getCause());
+			exitCodes.put(result.getKey(), EXIT_CODE_EXECUTION_FAILED);
+		    }
 		}
-
-		int exitCode = process.waitFor();
+	    } finally {
+		executorService.shutdownNow();
 	    }
+	    logExecutionSummary(exitCodes);
 	} catch (Exception e) {
 	    LOGGER.error(e.getMessage());
 	    throw e;
 	}
+	return exitCodes;
+    }
+
+    /**
+     * Executes python wrapper script for a device. Stdout and stderr are pumped on separate threads to device log
+     * files so that the process never blocks on a full pipe.
+     *
+     * @return Exit code of python process
+     */
+    private int executeForDevice(Dut device, String pyCommandString, String pyWrapperScript,
+	    String executionDetails, String deviceJson, long timeoutInMinutes) {
+	String macAddress = device.getHostMacAddress();
+	LOGGER.info("Going to execute python script for the device {}", macAddress);
+	File logFolder = new File(System.getProperty(ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR
+		+ AutomaticsConstants.TARGET_FOLDER + AutomaticsConstants.PATH_SEPARATOR + PYTHON_LOG_FOLDER);
+	logFolder.mkdirs();
+	String logFilePrefix = AutomaticsUtils.getCleanMac(macAddress) + "_python";
+
+	Process process = null;
+	Thread outputPump = null;
+	Thread errorPump = null;
+	try {
+	    ProcessBuilder processBuilder = new ProcessBuilder(pyCommandString, "-m", pyWrapperScript,
+		    executionDetails, deviceJson);
+	    process = processBuilder.start();
+	    outputPump = startStreamPump(process.getInputStream(), new File(logFolder, logFilePrefix + ".log"),
+		    macAddress, false);
+	    errorPump = startStreamPump(process.getErrorStream(), new File(logFolder, logFilePrefix + "_error.log"),
+		    macAddress, true);
+
+	    if (!process.waitFor(timeoutInMinutes, TimeUnit.MINUTES)) {
+		LOGGER.error("Python script for device {} did not complete in {} minutes, terminating", macAddress,
+			timeoutInMinutes);
+		process.destroyForcibly();
+		return EXIT_CODE_TIMED_OUT;
+	    }
+	    int exitCode = process.exitValue();
+	    LOGGER.info("Python script for the device {} completed with exit code {}", macAddress, exitCode);
+	    return exitCode;
+	} catch (IOException e) {
+	    LOGGER.error("Failed to start python script for device {}", macAddress, e);
+	    return EXIT_CODE_EXECUTION_FAILED;
+	} catch (InterruptedException e) {
+	    LOGGER.error("Interrupted while executing python script for device {}", macAddress);
+	    if (null != process) {
+		process.destroyForcibly();
+	    }
+	    Thread.currentThread().interrupt();
+	    return EXIT_CODE_EXECUTION_FAILED;
+	} finally {
+	    joinStreamPump(outputPump);
+	    joinStreamPump(errorPump);
+	}
+    }
+
+    /**
+     * Starts a thread copying process stream to device log file and framework log
+     */
+    private Thread startStreamPump(final InputStream inputStream, final File logFile, final String macAddress,
+	    final boolean isErrorStream) {
+	Thread pump = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream));
+		BufferedWriter writer = null;
+		try {
+		    writer = new BufferedWriter(new FileWriter(logFile, true));
+		    String line = null;
+		    while ((line = reader.readLine()) != null) {
+			writer.write(line);
+			writer.newLine();
+			if (isErrorStream) {
+			    LOGGER.error("[{}] Error from python script : {}", macAddress, line);
+			} else {
+			    LOGGER.info("[{}] {}", macAddress, line);
+			}
+		    }
+		} catch (IOException e) {
+		    LOGGER.error("Failed to read python script output for device {}", macAddress, e);
+		} finally {
+		    try {
+			reader.close();
+			if (null != writer) {
+			    writer.close();
+			}
+		    } catch (IOException e) {
+			LOGGER.error("Failed to close python log {}", logFile, e);
+		    }
+		}
+	    }
+	}, "PythonOutput_" + (isErrorStream ? "err_" : "out_") + macAddress);
+	pump.setDaemon(true);
+	pump.start();
+	return pump;
+    }
+
+    private static void joinStreamPump(Thread pump) {
+	if (null != pump) {
+	    try {
+		pump.join(AutomaticsConstants.TEN_SECONDS);
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+	    }
+	}
+    }
+
+    /**
+     * Logs exit status of python execution on all devices
+     */
+    private static void logExecutionSummary(Map<String, Integer> exitCodes) {
+	int passed = 0;
+	StringBuilder summary = new StringBuilder("Python execution summary:");
+	for (Map.Entry<String, Integer> exitCode : exitCodes.entrySet()) {
+	    String status = "FAILED";
+	    if (exitCode.getValue() == 0) {
+		status = "SUCCESS";
+		passed++;
+	    } else if (exitCode.getValue() == EXIT_CODE_TIMED_OUT) {
+		status = "TIMED OUT";
+	    }
+	    summary.append(AutomaticsConstants.NEW_LINE).append(exitCode.getKey()).append(" : ").append(status)
+		    .append(" (exit code ").append(exitCode.getValue()).append(")");
+	}
+	summary.append(AutomaticsConstants.NEW_LINE).append(passed).append("/").append(exitCodes.size())
+		.append(" devices completed successfully");
+	LOGGER.info(summary.toString());
     }
 
     /**
@@ -23,6 +23,7 @@ import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.net.ConnectException;
 import java.net.HttpURLConnection;
 import java.net.URI;
@@ -32,9 +33,11 @@ import java.nio.charset.Charset;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPOutputStream;
 
 import org.slf4j.Logger;
 
+import com.automatics.utils.AutomaticsPropertyUtility;
 import com.automatics.utils.CommonMethods;
 
 /**
@@ -44,6 +47,15 @@ import com.automatics.utils.CommonMethods;
  */
 public class ServerCommunicator {
 
+    /** Property to enable gzip compression of file uploads */
+    private static final String PROP_UPLOAD_GZIP_ENABLED = "http.upload.gzip.enabled";
+
+    /** Size of buffer used for streaming file uploads and reading responses */
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    /** Size of chunk used for chunked transfer encoding of compressed uploads */
+    private static final int CHUNK_SIZE = 64 * 1024;
+
     private Logger LOGGER;
     private boolean isLogRequired = true;
 
@@ -68,6 +80,7 @@ public class ServerCommunicator {
 	    long timeoutInMilliSeconds, Map<String, String> headers) {
 
 	int responseCode = -1;
+	boolean isResponseConsumed = false;
 	HttpURLConnection connection = null;
 	DataOutputStream out = null;
 	ServerResponse serverResponse = null;
@@ -167,7 +180,9 @@ public class ServerCommunicator {
 		serverResponse.setResponseStatus(readResponseFromInputStream(inputStream));
 	    } else {
 		serverResponse.setResponseStatus("application/octet-stream");
+		drainResponse(connection, responseCode);
 	    }
+	    isResponseConsumed = true;
 
 	    serverResponse.setTimeTaken(timeTaken);
 
@@ -192,8 +207,8 @@ public class ServerCommunicator {
 		}
 	    }
 
-	    // close the connection
-	    if (connection != null) {
+	    // response stream closed after reading is reused by keep-alive cache, otherwise close the connection
+	    if (!isResponseConsumed && connection != null) {
 		connection.disconnect();
 	    }
 	}
@@ -212,12 +227,32 @@ public class ServerCommunicator {
      */
     public ServerResponse postFileToServer(String target, File content, String requestType, long timeoutInMilliSeconds,
 	    Map<String, String> headers) {
+	return postFileToServer(target, content, requestType, timeoutInMilliSeconds, headers,
+		Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_UPLOAD_GZIP_ENABLED, "false")));
+    }
+
+    /**
+     * Method to post the file data to server. File is streamed to the server in large blocks, with fixed length
+     * streaming mode for plain uploads and chunked transfer encoding for gzip compressed uploads.
+     * 
+     * @param target
+     * @param content
+     * @param requestType
+     * @param timeoutInMilliSeconds
+     * @param headers
+     * @param isCompressionRequired
+     *            true to gzip compress the request body
+     * @return
+     */
+    public ServerResponse postFileToServer(String target, File content, String requestType, long timeoutInMilliSeconds,
+	    Map<String, String> headers, boolean isCompressionRequired) {
 
 	int responseCode = -1;
-	int thisLine;
+	boolean isResponseConsumed = false;
 
 	HttpURLConnection connection = null;
-	DataOutputStream out = null;
+	OutputStream out = null;
+	FileInputStream fin = null;
 	ServerResponse serverResponse = null;
 
 	try {
@@ -235,22 +270,28 @@ public class ServerCommunicator {
 	    }
 
 	    InputStream inputStream = null;
-	    FileInputStream fin = null;
 
 	    long startTime = System.currentTimeMillis();
 	    long endTime = -1;
 	    long timeTaken = -1;
 
-	    // Write out the bytes of the content string to the stream.
+	    // Stream the file content to the server.
 	    if (CommonMethods.isNotNull(requestType) && requestType.equalsIgnoreCase("POST")) {
 		if (content != null) {
-		    out = new DataOutputStream(connection.getOutputStream());
+		    if (isCompressionRequired) {
+			connection.setRequestProperty("Content-Encoding", "gzip");
+			connection.setChunkedStreamingMode(CHUNK_SIZE);
+			out = new GZIPOutputStream(connection.getOutputStream(), TRANSFER_BUFFER_SIZE);
+		    } else {
+			connection.setFixedLengthStreamingMode(content.length());
+			out = connection.getOutputStream();
+		    }
 
 		    fin = new FileInputStream(content);
-
-		    while ((thisLine = fin.read()) != -1) {
-			out.writeByte(thisLine);
-			out.flush();
+		    byte[] buffer = new byte[TRANSFER_BUFFER_SIZE];
+		    int bytesRead;
+		    while ((bytesRead = fin.read(buffer)) != -1) {
+			out.write(buffer, 0, bytesRead);
 		    }
 
 		    out.close();
@@ -311,7 +352,9 @@ public class ServerCommunicator {
 		serverResponse.setResponseStatus(readResponseFromInputStream(inputStream));
 	    } else {
 		serverResponse.setResponseStatus("application/octet-stream");
+		drainResponse(connection, responseCode);
 	    }
+	    isResponseConsumed = true;
 
 	    serverResponse.setTimeTaken(timeTaken);
 
@@ -335,8 +378,19 @@ public class ServerCommunicator {
 		}
 	    }
 
-	    // close the connection
-	    if (connection != null) {
+	    if (fin != null) {
+		try {
+		    fin.close();
+		} catch (IOException e) {
+		    if (isLogRequired) {
+			LOGGER.debug("EXCEPTION WHILE CLOSING THE FILE INPUT STREAM...!!!");
+			LOGGER.debug(e.getMessage());
+		    }
+		}
+	    }
+
+	    // response stream closed after reading is reused by keep-alive cache, otherwise close the connection
+	    if (!isResponseConsumed && connection != null) {
 		connection.disconnect();
 	    }
 	}
@@ -360,12 +414,13 @@ public class ServerCommunicator {
 	try {
 	    if (inputStream != null) {
 
-		int thisLine;
+		int bytesRead;
+		byte[] readBuffer = new byte[TRANSFER_BUFFER_SIZE];
 		ByteArrayOutputStream bos = new ByteArrayOutputStream();
 
 		try {
-		    while ((thisLine = inputStream.read()) != -1) {
-			bos.write(thisLine);
+		    while ((bytesRead = inputStream.read(readBuffer)) != -1) {
+			bos.write(readBuffer, 0, bytesRead);
 		    }
 
 		    bos.flush();
@@ -422,7 +477,7 @@ public class ServerCommunicator {
 	/*
 	 * if(responseType != null){ headers.put("Accept", responseType.getContentType()); }
 	 */
-	headers.put("Connection", "Close");
+	headers.put("Connection", "keep-alive");
 
 	Set<String> keys = headers.keySet();
 	for (String key : keys) {
@@ -431,4 +486,39 @@ public class ServerCommunicator {
 
 	return conn;
     }
+
+    /**
+     * Reads and discards the response which is not returned to the caller, so that the underlying socket can be reused
+     * by keep-alive cache for subsequent requests to the same server.
+     * 
+     * @param connection
+     * @param responseCode
+     */
+    private void drainResponse(HttpURLConnection connection, int responseCode) {
+	InputStream responseStream = null;
+	try {
+	    responseStream = (responseCode >= 200 && responseCode < 300) ? connection.getInputStream()
+		    : connection.getErrorStream();
+	    if (responseStream != null) {
+		byte[] drainBuffer = new byte[TRANSFER_BUFFER_SIZE];
+		while (responseStream.read(drainBuffer) != -1) {
+		    // discard unread response data
+		}
+	    }
+	} catch (IOException e) {
+	    if (isLogRequired) {
+		LOGGER.debug("Unable to drain response: " + e.getMessage());
+	    }
+	} finally {
+	    if (responseStream != null) {
+		try {
+		    responseStream.close();
+		} catch (IOException e) {
+		    if (isLogRequired) {
+			LOGGER.debug("EXCEPTION WHILE CLOSING THE RESPONSE STREAM...!!!");
+		    }
+		}
+	    }
+	}
+    }
 }
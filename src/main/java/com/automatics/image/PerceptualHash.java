@@ -0,0 +1,201 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.image;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * Difference hash (dHash) of an image region. The region is reduced to a grid of mean luminance values, and each bit
+ * tells whether a cell is darker than its right neighbour. Visually identical regions give identical hashes, and the
+ * number of differing bits grows with the visual difference, so the hash can be used both as a cache key and to detect
+ * screen changes without comparing pixels.
+ *
+ */
+public class PerceptualHash {
+
+    /** Hash size giving 64 bit hashes */
+    public static final int DEFAULT_HASH_SIZE = 8;
+
+    /** Maximum number of pixels sampled per row and rows sampled per region */
+    private static final int MAX_SAMPLES = 256;
+
+    private final int hashSize;
+
+    private final int regionWidth;
+
+    private final int regionHeight;
+
+    private final long[] bits;
+
+    /** Mean luminance of the region, which the hash bits do not reflect */
+    private final double meanLuminance;
+
+    private PerceptualHash(int hashSize, int regionWidth, int regionHeight, long[] bits, double meanLuminance) {
+	this.hashSize = hashSize;
+	this.regionWidth = regionWidth;
+	this.regionHeight = regionHeight;
+	this.bits = bits;
+	this.meanLuminance = meanLuminance;
+    }
+
+    /**
+     * Computes the 64 bit hash of the image region
+     * 
+     * @param image
+     *            Image
+     * @param region
+     *            Region of the image, null for the whole image
+     * @return Hash of the region
+     */
+    public static PerceptualHash compute(BufferedImage image, Rectangle region) {
+	return compute(image, region, DEFAULT_HASH_SIZE);
+    }
+
+    /**
+     * Computes the hash of the image region. Larger hash sizes tell apart smaller changes, like a changed character in
+     * a text region.
+     * 
+     * @param image
+     *            Image
+     * @param region
+     *            Region of the image, null for the whole image
+     * @param hashSize
+     *            Number of hash bits per row and rows, the hash has hashSize x hashSize bits
+     * @return Hash of the region
+     */
+    public static PerceptualHash compute(BufferedImage image, Rectangle region, int hashSize) {
+	Rectangle bounds = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+	if (null != region) {
+	    bounds = bounds.intersection(region);
+	}
+
+	int columns = hashSize + 1;
+	long[] cellSums = new long[columns * hashSize];
+	int[] cellCounts = new int[columns * hashSize];
+	if (!bounds.isEmpty()) {
+	    int stepX = Math.max(1, bounds.width / MAX_SAMPLES);
+	    int stepY = Math.max(1, bounds.height / MAX_SAMPLES);
+	    int[] row = new int[bounds.width];
+	    for (int y = 0; y < bounds.height; y += stepY) {
+		image.getRGB(bounds.x, bounds.y + y, bounds.width, 1, row, 0, bounds.width);
+		int rowOffset = (y * hashSize / bounds.height) * columns;
+		for (int x = 0; x < bounds.width; x += stepX) {
+		    int rgb = row[x];
+		    // Integer approximation of luma 0.299 R + 0.587 G + 0.114 B
+		    int luminance = (((rgb >> 16) & 0xFF) * 77 + ((rgb >> 8) & 0xFF) * 150 + (rgb & 0xFF) * 29) >> 8;
+		    int cell = rowOffset + (x * columns / bounds.width);
+		    cellSums[cell] += luminance;
+		    cellCounts[cell]++;
+		}
+	    }
+	}
+
+	long totalSum = 0;
+	long totalCount = 0;
+	for (int cell = 0; cell < cellSums.length; cell++) {
+	    totalSum += cellSums[cell];
+	    totalCount += cellCounts[cell];
+	}
+
+	long[] bits = new long[(hashSize * hashSize + 63) / 64];
+	int bitIndex = 0;
+	for (int y = 0; y < hashSize; y++) {
+	    for (int x = 0; x < hashSize; x++) {
+		int cell = y * columns + x;
+		if (mean(cellSums, cellCounts, cell) < mean(cellSums, cellCounts, cell + 1)) {
+		    bits[bitIndex >> 6] |= 1L << (bitIndex & 63);
+		}
+		bitIndex++;
+	    }
+	}
+	return new PerceptualHash(hashSize, bounds.width, bounds.height, bits,
+		0 == totalCount ? 0 : (double) totalSum / totalCount);
+    }
+
+    private static long mean(long[] cellSums, int[] cellCounts, int cell) {
+	return 0 == cellCounts[cell] ? 0 : cellSums[cell] / cellCounts[cell];
+    }
+
+    /**
+     * Gets the number of differing bits from the other hash. Hashes of different size or of regions with different
+     * dimensions differ in all bits.
+     * 
+     * @param other
+     *            Other hash
+     * @return Hamming distance
+     */
+    public int distance(PerceptualHash other) {
+	if (null == other || other.hashSize != hashSize || other.regionWidth != regionWidth
+		|| other.regionHeight != regionHeight) {
+	    return getBitCount();
+	}
+	int distance = 0;
+	for (int index = 0; index < bits.length; index++) {
+	    distance += Long.bitCount(bits[index] ^ other.bits[index]);
+	}
+	return distance;
+    }
+
+    /**
+     * Gets the mean luminance of the region. The hash only reflects luminance differences between neighbouring cells,
+     * so a uniform change of brightness or colour is visible only in the mean luminance.
+     * 
+     * @return Mean luminance from 0 to 255
+     */
+    public double getMeanLuminance() {
+	return meanLuminance;
+    }
+
+    /**
+     * Gets the number of bits of the hash
+     * 
+     * @return Number of bits
+     */
+    public int getBitCount() {
+	return hashSize * hashSize;
+    }
+
+    @Override
+    public boolean equals(Object object) {
+	if (this == object) {
+	    return true;
+	}
+	if (!(object instanceof PerceptualHash)) {
+	    return false;
+	}
+	PerceptualHash other = (PerceptualHash) object;
+	return hashSize == other.hashSize && regionWidth == other.regionWidth && regionHeight == other.regionHeight
+		&& Arrays.equals(bits, other.bits);
+    }
+
+    @Override
+    public int hashCode() {
+	return 31 * (31 * (31 * hashSize + regionWidth) + regionHeight) + Arrays.hashCode(bits);
+    }
+
+    @Override
+    public String toString() {
+	StringBuilder builder = new StringBuilder();
+	for (int index = bits.length - 1; index >= 0; index--) {
+	    builder.append(String.format("%016x", bits[index]));
+	}
+	return builder.toString();
+    }
+}
@@ -0,0 +1,186 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.image;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.region.RegionInfo;
+import com.automatics.utils.AutomaticsPropertyUtility;
+
+/**
+ * Detects whether an image region changed since it was last checked, using a perceptual hash and the mean luminance
+ * of the region. The local image region polling enabled with image.region.poll.local uses it to run full image
+ * comparison only when the region actually changed. The last hash is kept per key, usually device MAC and region
+ * name.
+ *
+ */
+public class RegionChangeDetector {
+
+    /** Property for hash size, the hash has size x size bits */
+    private static final String PROP_HASH_SIZE = "image.change.hash.size";
+
+    /** Property for the number of hash bits that may differ for a region to be considered unchanged */
+    private static final String PROP_DISTANCE_THRESHOLD = "image.change.hash.distance.threshold";
+
+    /** Property for the mean luminance difference, from 0 to 255, up to which a region is considered unchanged */
+    private static final String PROP_MEAN_THRESHOLD = "image.change.mean.threshold";
+
+    private static final long DEFAULT_HASH_SIZE = 16;
+
+    private static final long DEFAULT_DISTANCE_THRESHOLD = 0;
+
+    private static final long DEFAULT_MEAN_THRESHOLD = 2;
+
+    private final String name;
+
+    private final int hashSize;
+
+    private final int distanceThreshold;
+
+    private final int meanThreshold;
+
+    private final Map<String, PerceptualHash> lastHashes = new ConcurrentHashMap<String, PerceptualHash>();
+
+    private final AtomicLong changedCount = new AtomicLong();
+
+    private final AtomicLong skippedCount = new AtomicLong();
+
+    /**
+     * Creates detector with hash size, distance threshold and mean luminance threshold from properties
+     * 
+     * @param name
+     *            Name of the detector, used as operation tag of the metrics
+     */
+    public RegionChangeDetector(String name) {
+	this(name, (int) AutomaticsPropertyUtility.getLongProperty(PROP_HASH_SIZE, DEFAULT_HASH_SIZE),
+		(int) AutomaticsPropertyUtility.getLongProperty(PROP_DISTANCE_THRESHOLD, DEFAULT_DISTANCE_THRESHOLD),
+		(int) AutomaticsPropertyUtility.getLongProperty(PROP_MEAN_THRESHOLD, DEFAULT_MEAN_THRESHOLD));
+    }
+
+    /**
+     * Creates detector
+     * 
+     * @param name
+     *            Name of the detector, used as operation tag of the metrics
+     * @param hashSize
+     *            Hash size, the hash has hashSize x hashSize bits
+     * @param distanceThreshold
+     *            Number of hash bits that may differ for a region to be considered unchanged
+     * @param meanThreshold
+     *            Mean luminance difference, from 0 to 255, up to which a region is considered unchanged
+     */
+    public RegionChangeDetector(String name, int hashSize, int distanceThreshold, int meanThreshold) {
+	this.name = name;
+	this.hashSize = hashSize;
+	this.distanceThreshold = distanceThreshold;
+	this.meanThreshold = meanThreshold;
+    }
+
+    /**
+     * Checks whether the region of the image changed since the last check with the same key, either in its hash or in
+     * its mean luminance, as a uniform change of colour does not change the hash. The first check of a key always
+     * reports a change.
+     * 
+     * @param key
+     *            Key identifying device and region
+     * @param image
+     *            Current image
+     * @param region
+     *            Region of the image, null for the whole image
+     * @return true if the region changed
+     */
+    public boolean hasChanged(String key, BufferedImage image, Rectangle region) {
+	PerceptualHash hash = PerceptualHash.compute(image, region, hashSize);
+	PerceptualHash lastHash = lastHashes.put(key, hash);
+	boolean isChanged = null == lastHash || lastHash.distance(hash) > distanceThreshold
+		|| Math.abs(lastHash.getMeanLuminance() - hash.getMeanLuminance()) > meanThreshold;
+	if (isChanged) {
+	    changedCount.incrementAndGet();
+	} else {
+	    skippedCount.incrementAndGet();
+	}
+	MetricsRegistry.get()
+		.counter("image.change", MetricsRegistry.tags(MetricsRegistry.TAG_RESULT,
+			isChanged ? "changed" : "skipped", name))
+		.increment();
+	return isChanged;
+    }
+
+    /**
+     * Checks whether the region, extended by its x and y tolerance, changed since the last check with the same key
+     * 
+     * @param key
+     *            Key identifying device and region
+     * @param image
+     *            Current image
+     * @param regionInfo
+     *            Region info
+     * @return true if the region changed
+     */
+    public boolean hasChanged(String key, BufferedImage image, RegionInfo regionInfo) {
+	return hasChanged(key, image, getBounds(regionInfo));
+    }
+
+    /**
+     * Forgets the last hash of the key, so the next check reports a change
+     * 
+     * @param key
+     *            Key identifying device and region
+     */
+    public void reset(String key) {
+	lastHashes.remove(key);
+    }
+
+    /**
+     * Gets the number of checks which found the region changed
+     * 
+     * @return Changed count
+     */
+    public long getChangedCount() {
+	return changedCount.get();
+    }
+
+    /**
+     * Gets the number of checks which found the region unchanged, ie comparisons skipped
+     * 
+     * @return Skipped count
+     */
+    public long getSkippedCount() {
+	return skippedCount.get();
+    }
+
+    /**
+     * Gets the bounds of the region extended by its x and y tolerance
+     * 
+     * @param regionInfo
+     *            Region info
+     * @return Region bounds
+     */
+    public static Rectangle getBounds(RegionInfo regionInfo) {
+	int xTolerance = null != regionInfo.getXTolerance() ? regionInfo.getXTolerance() : 0;
+	int yTolerance = null != regionInfo.getYTolerance() ? regionInfo.getYTolerance() : 0;
+	return new Rectangle(regionInfo.getX() - xTolerance, regionInfo.getY() - yTolerance,
+		regionInfo.getWidth() + 2 * xTolerance, regionInfo.getHeight() + 2 * yTolerance);
+    }
+
+}
@@ -40,6 +40,8 @@ import org.slf4j.LoggerFactory;
 
 import com.automatics.error.GeneralError;
 import com.automatics.exceptions.FailedTransitionException;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.metrics.Timer.TimerContext;
 
 /**
  * Class which holds the ImageMagick comparison utilities for crop, compare, standard deviation, color space conversion
@@ -71,6 +73,9 @@ public class MagickComparison {
     /** <code>Log4j</code> logger for {@link MagickComparison} class. */
     private static final Logger LOGGER = LoggerFactory.getLogger(MagickComparison.class);
 
+    /** Metric name for image comparison */
+    private static final String METRIC_IMAGE_COMPARE = "image.magick.compare";
+
     /** NCC comparison exit code pattern. */
     private static final Pattern NCC_PATTERN = Pattern
 	    .compile("org.im4java.core.CommandException:\\s*([0-9]+\\.?[0-9]*)");
@@ -103,18 +108,24 @@ public class MagickComparison {
      */
     public boolean compare(BufferedImage preCapturedImg, BufferedImage liveImg) {
 	boolean compareStatus = false;
-	double sigma = getSigmaOfImage(preCapturedImg) * 100;
-
-	if (sigma < 1) {
-	    compareStatus = doRmseComparison(preCapturedImg, liveImg);
-	} else {
+	TimerContext timerContext = MetricsRegistry.get()
+		.timer(METRIC_IMAGE_COMPARE, MetricsRegistry.tags("compare")).start();
+	try {
+	    double sigma = getSigmaOfImage(preCapturedImg) * 100;
 
-	    if (doHighlightColorComparison(preCapturedImg, liveImg)) {
-		LOGGER.info("Highlight color comparison passed");
-		compareStatus = doNccComparison(preCapturedImg, liveImg);
+	    if (sigma < 1) {
+		compareStatus = doRmseComparison(preCapturedImg, liveImg);
 	    } else {
-		LOGGER.info("Highlight color comparison failed");
+
+		if (doHighlightColorComparison(preCapturedImg, liveImg)) {
+		    LOGGER.info("Highlight color comparison passed");
+		    compareStatus = doNccComparison(preCapturedImg, liveImg);
+		} else {
+		    LOGGER.info("Highlight color comparison failed");
+		}
 	    }
+	} finally {
+	    timerContext.stop();
 	}
 
 	LOGGER.info("ImageMagick comparison status :" + compareStatus);
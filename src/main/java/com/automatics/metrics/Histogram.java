@@ -0,0 +1,158 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed bucket histogram. Recording a value only increments a bucket counter, so histograms can stay enabled on hot
+ * paths.
+ *
+ */
+public class Histogram {
+
+    /** Default bucket upper bounds, suitable for durations in milliseconds */
+    public static final long[] DEFAULT_BUCKETS = { 1, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000, 30000,
+	    60000, 300000 };
+
+    private final long[] bucketBounds;
+
+    /** One counter per bucket plus the overflow bucket */
+    private final AtomicLongArray bucketCounts;
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Creates histogram with default buckets
+     */
+    public Histogram() {
+	this(DEFAULT_BUCKETS);
+    }
+
+    /**
+     * Creates histogram with given bucket upper bounds
+     * 
+     * @param bucketBounds
+     *            Bucket upper bounds in ascending order
+     */
+    public Histogram(long[] bucketBounds) {
+	this.bucketBounds = bucketBounds.clone();
+	this.bucketCounts = new AtomicLongArray(bucketBounds.length + 1);
+    }
+
+    /**
+     * Records a value
+     * 
+     * @param value
+     *            Value to be recorded
+     */
+    public void record(long value) {
+	int index = 0;
+	while (index < bucketBounds.length && value > bucketBounds[index]) {
+	    index++;
+	}
+	bucketCounts.incrementAndGet(index);
+	count.increment();
+	sum.add(value);
+
+	long currentMax = max.get();
+	while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+	    currentMax = max.get();
+	}
+    }
+
+    /**
+     * @return number of recorded values
+     */
+    public long getCount() {
+	return count.sum();
+    }
+
+    /**
+     * @return sum of recorded values
+     */
+    public long getSum() {
+	return sum.sum();
+    }
+
+    /**
+     * @return maximum recorded value, 0 if nothing is recorded
+     */
+    public long getMax() {
+	long currentMax = max.get();
+	return currentMax == Long.MIN_VALUE ? 0 : currentMax;
+    }
+
+    /**
+     * @return mean of recorded values, 0 if nothing is recorded
+     */
+    public double getMean() {
+	long currentCount = getCount();
+	return currentCount == 0 ? 0 : (double) getSum() / currentCount;
+    }
+
+    /**
+     * @return bucket upper bounds
+     */
+    public long[] getBucketBounds() {
+	return bucketBounds.clone();
+    }
+
+    /**
+     * Gets the counts per bucket. The last entry holds values above the highest bound.
+     * 
+     * @return Non-cumulative bucket counts
+     */
+    public long[] getBucketCounts() {
+	long[] counts = new long[bucketCounts.length()];
+	for (int index = 0; index < counts.length; index++) {
+	    counts[index] = bucketCounts.get(index);
+	}
+	return counts;
+    }
+
+    /**
+     * Estimates the value at given percentile from the bucket counts
+     * 
+     * @param percentile
+     *            Percentile between 0 and 100
+     * @return Upper bound of the bucket holding the percentile, maximum value for the overflow bucket
+     */
+    public long getPercentile(double percentile) {
+	long[] counts = getBucketCounts();
+	long total = 0;
+	for (long bucketCount : counts) {
+	    total += bucketCount;
+	}
+	long threshold = (long) Math.ceil(total * percentile / 100.0);
+	long cumulative = 0;
+	for (int index = 0; index < bucketBounds.length; index++) {
+	    cumulative += counts[index];
+	    if (cumulative >= threshold && cumulative > 0) {
+		return Math.min(bucketBounds[index], getMax());
+	    }
+	}
+	return getMax();
+    }
+}
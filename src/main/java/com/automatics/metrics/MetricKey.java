@@ -0,0 +1,98 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * Identifies a metric by its name and tags. Tags are kept sorted so that the same set of tags always maps to the same
+ * metric irrespective of insertion order.
+ *
+ */
+public final class MetricKey {
+
+    private final String name;
+
+    private final SortedMap<String, String> tags;
+
+    private final int hashCode;
+
+    /**
+     * Constructor
+     * 
+     * @param name
+     *            Metric name
+     * @param tags
+     *            Metric tags, can be null
+     */
+    public MetricKey(String name, Map<String, String> tags) {
+	if (null == name || name.isEmpty()) {
+	    throw new IllegalArgumentException("Metric name cannot be null or empty");
+	}
+	this.name = name;
+	SortedMap<String, String> sortedTags = new TreeMap<String, String>();
+	if (null != tags) {
+	    for (Map.Entry<String, String> tag : tags.entrySet()) {
+		if (null != tag.getKey() && null != tag.getValue()) {
+		    sortedTags.put(tag.getKey(), tag.getValue());
+		}
+	    }
+	}
+	this.tags = Collections.unmodifiableSortedMap(sortedTags);
+	this.hashCode = 31 * name.hashCode() + this.tags.hashCode();
+    }
+
+    /**
+     * @return the metric name
+     */
+    public String getName() {
+	return name;
+    }
+
+    /**
+     * @return the metric tags
+     */
+    public SortedMap<String, String> getTags() {
+	return tags;
+    }
+
+    @Override
+    public int hashCode() {
+	return hashCode;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+	if (this == obj) {
+	    return true;
+	}
+	if (!(obj instanceof MetricKey)) {
+	    return false;
+	}
+	MetricKey other = (MetricKey) obj;
+	return name.equals(other.name) && tags.equals(other.tags);
+    }
+
+    @Override
+    public String toString() {
+	return name + tags;
+    }
+}
@@ -0,0 +1,253 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.metrics;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.constants.ReportsConstants;
+
+/**
+ * Exports the metrics in {@link MetricsRegistry} as JSON and as Prometheus text exposition format
+ *
+ */
+public class MetricsExporter {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsExporter.class);
+
+    /** JSON export file name */
+    public static final String JSON_FILE_NAME = "automatics_metrics.json";
+
+    /** Prometheus text export file name */
+    public static final String PROMETHEUS_FILE_NAME = "automatics_metrics.prom";
+
+    /** Prefix for all exported Prometheus metric names */
+    private static final String PROMETHEUS_PREFIX = "automatics_";
+
+    private final MetricsRegistry registry;
+
+    /**
+     * Creates exporter for the framework registry
+     */
+    public MetricsExporter() {
+	this(MetricsRegistry.get());
+    }
+
+    /**
+     * Creates exporter for the given registry
+     * 
+     * @param registry
+     *            Metrics registry
+     */
+    public MetricsExporter(MetricsRegistry registry) {
+	this.registry = registry;
+    }
+
+    /**
+     * Writes JSON and Prometheus exports to the target folder
+     */
+    public void exportToFiles() {
+	String targetDirectory = System.getProperty(ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR
+		+ AutomaticsConstants.TARGET_FOLDER;
+	try {
+	    writeFile(new File(targetDirectory, JSON_FILE_NAME), toJson());
+	} catch (JSONException e) {
+	    LOGGER.error("Failed to format metrics as json", e);
+	}
+	writeFile(new File(targetDirectory, PROMETHEUS_FILE_NAME), toPrometheusText());
+    }
+
+    /**
+     * Formats the metrics as JSON
+     * 
+     * @return JSON string
+     * @throws JSONException
+     */
+    public String toJson() throws JSONException {
+	JSONObject metrics = new JSONObject();
+
+	JSONArray counters = new JSONArray();
+	for (Map.Entry<MetricKey, Counter> entry : registry.getCounters().entrySet()) {
+	    JSONObject counter = createJsonMetric(entry.getKey());
+	    counter.put("count", entry.getValue().getCount());
+	    counters.put(counter);
+	}
+	metrics.put("counters", counters);
+
+	JSONArray timers = new JSONArray();
+	for (Map.Entry<MetricKey, Timer> entry : registry.getTimers().entrySet()) {
+	    timers.put(createJsonHistogram(entry.getKey(), entry.getValue().getHistogram()));
+	}
+	metrics.put("timers", timers);
+
+	JSONArray histograms = new JSONArray();
+	for (Map.Entry<MetricKey, Histogram> entry : registry.getHistograms().entrySet()) {
+	    histograms.put(createJsonHistogram(entry.getKey(), entry.getValue()));
+	}
+	metrics.put("histograms", histograms);
+	return metrics.toString();
+    }
+
+    /**
+     * Formats the metrics in Prometheus text exposition format. Timers are exported as histograms in milliseconds.
+     * Metrics with the same name are written as one family, with HELP and TYPE lines followed by the samples of every
+     * tag set.
+     * 
+     * @return Prometheus text
+     */
+    public String toPrometheusText() {
+	StringBuilder text = new StringBuilder();
+
+	Map<String, Map<MetricKey, Counter>> counterFamilies = new TreeMap<String, Map<MetricKey, Counter>>();
+	for (Map.Entry<MetricKey, Counter> entry : registry.getCounters().entrySet()) {
+	    getFamily(counterFamilies, getPrometheusName(entry.getKey().getName()) + "_total").put(entry.getKey(),
+		    entry.getValue());
+	}
+	for (Map.Entry<String, Map<MetricKey, Counter>> family : counterFamilies.entrySet()) {
+	    String name = family.getKey();
+	    appendPrometheusHeader(text, name, family.getValue().keySet().iterator().next(), "counter");
+	    for (Map.Entry<MetricKey, Counter> entry : family.getValue().entrySet()) {
+		text.append(name).append(formatLabels(entry.getKey(), null)).append(' ')
+			.append(entry.getValue().getCount()).append(AutomaticsConstants.NEW_LINE);
+	    }
+	}
+
+	Map<String, Map<MetricKey, Histogram>> histogramFamilies = new TreeMap<String, Map<MetricKey, Histogram>>();
+	for (Map.Entry<MetricKey, Timer> entry : registry.getTimers().entrySet()) {
+	    getFamily(histogramFamilies, getPrometheusName(entry.getKey().getName()) + "_milliseconds")
+		    .put(entry.getKey(), entry.getValue().getHistogram());
+	}
+	for (Map.Entry<MetricKey, Histogram> entry : registry.getHistograms().entrySet()) {
+	    getFamily(histogramFamilies, getPrometheusName(entry.getKey().getName())).put(entry.getKey(),
+		    entry.getValue());
+	}
+	for (Map.Entry<String, Map<MetricKey, Histogram>> family : histogramFamilies.entrySet()) {
+	    appendPrometheusHeader(text, family.getKey(), family.getValue().keySet().iterator().next(), "histogram");
+	    for (Map.Entry<MetricKey, Histogram> entry : family.getValue().entrySet()) {
+		appendPrometheusHistogram(text, family.getKey(), entry.getKey(), entry.getValue());
+	    }
+	}
+	return text.toString();
+    }
+
+    private JSONObject createJsonMetric(MetricKey key) throws JSONException {
+	JSONObject metric = new JSONObject();
+	metric.put("name", key.getName());
+	metric.put("tags", new JSONObject(key.getTags()));
+	return metric;
+    }
+
+    private JSONObject createJsonHistogram(MetricKey key, Histogram histogram) throws JSONException {
+	JSONObject metric = createJsonMetric(key);
+	metric.put("count", histogram.getCount());
+	metric.put("sum", histogram.getSum());
+	metric.put("mean", histogram.getMean());
+	metric.put("max", histogram.getMax());
+	metric.put("p50", histogram.getPercentile(50));
+	metric.put("p95", histogram.getPercentile(95));
+	metric.put("p99", histogram.getPercentile(99));
+	return metric;
+    }
+
+    private static <T> Map<MetricKey, T> getFamily(Map<String, Map<MetricKey, T>> families, String name) {
+	Map<MetricKey, T> family = families.get(name);
+	if (null == family) {
+	    family = new LinkedHashMap<MetricKey, T>();
+	    families.put(name, family);
+	}
+	return family;
+    }
+
+    private static void appendPrometheusHeader(StringBuilder text, String name, MetricKey key, String type) {
+	text.append("# HELP ").append(name).append(' ').append(key.getName()).append(AutomaticsConstants.NEW_LINE);
+	text.append("# TYPE ").append(name).append(' ').append(type).append(AutomaticsConstants.NEW_LINE);
+    }
+
+    private void appendPrometheusHistogram(StringBuilder text, String name, MetricKey key, Histogram histogram) {
+	long[] bounds = histogram.getBucketBounds();
+	long[] counts = histogram.getBucketCounts();
+	long cumulative = 0;
+	for (int index = 0; index < counts.length; index++) {
+	    cumulative += counts[index];
+	    String bound = index < bounds.length ? String.valueOf(bounds[index]) : "+Inf";
+	    text.append(name).append("_bucket").append(formatLabels(key, bound)).append(' ').append(cumulative)
+		    .append(AutomaticsConstants.NEW_LINE);
+	}
+	text.append(name).append("_sum").append(formatLabels(key, null)).append(' ').append(histogram.getSum())
+		.append(AutomaticsConstants.NEW_LINE);
+	text.append(name).append("_count").append(formatLabels(key, null)).append(' ').append(histogram.getCount())
+		.append(AutomaticsConstants.NEW_LINE);
+    }
+
+    private static String formatLabels(MetricKey key, String bucketBound) {
+	StringBuilder labels = new StringBuilder();
+	for (Map.Entry<String, String> tag : key.getTags().entrySet()) {
+	    labels.append(labels.length() == 0 ? "" : ",").append(sanitize(tag.getKey())).append("=\"")
+		    .append(escapeLabelValue(tag.getValue())).append('"');
+	}
+	if (null != bucketBound) {
+	    labels.append(labels.length() == 0 ? "" : ",").append("le=\"").append(bucketBound).append('"');
+	}
+	return labels.length() == 0 ? "" : "{" + labels + "}";
+    }
+
+    private static String getPrometheusName(String name) {
+	return PROMETHEUS_PREFIX + sanitize(name);
+    }
+
+    private static String sanitize(String name) {
+	return name.replaceAll("[^a-zA-Z0-9_]", "_");
+    }
+
+    private static String escapeLabelValue(String value) {
+	return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static void writeFile(File file, String content) {
+	BufferedWriter writer = null;
+	try {
+	    file.getParentFile().mkdirs();
+	    writer = new BufferedWriter(new FileWriter(file));
+	    writer.write(content);
+	    LOGGER.info("Metrics exported to {}", file.getAbsolutePath());
+	} catch (IOException e) {
+	    LOGGER.error("Failed to export metrics to {}", file, e);
+	} finally {
+	    if (null != writer) {
+		try {
+		    writer.close();
+		} catch (IOException e) {
+		    LOGGER.error("Failed to close metrics file {}", file, e);
+		}
+	    }
+	}
+    }
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+
+import org.codehaus.jettison.json.JSONException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.CommonMethods;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Optional local HTTP endpoint serving the metrics for scraping. Started only when the port is configured via
+ * {@link #PROPERTY_METRICS_HTTP_PORT}. Prometheus text is served on /metrics and JSON on /metrics.json.
+ *
+ */
+public class MetricsHttpEndpoint {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(MetricsHttpEndpoint.class);
+
+    /** Property for the local port of the metrics endpoint */
+    public static final String PROPERTY_METRICS_HTTP_PORT = "metrics.http.port";
+
+    /** Property for the bind address of the metrics endpoint, defaults to loopback */
+    public static final String PROPERTY_METRICS_HTTP_HOST = "metrics.http.host";
+
+    private static HttpServer server = null;
+
+    /**
+     * Starts the endpoint if the port is configured and the endpoint is not running already
+     */
+    public static synchronized void startIfConfigured() {
+	String port = AutomaticsPropertyUtility.getProperty(PROPERTY_METRICS_HTTP_PORT);
+	if (null != server || CommonMethods.isNull(port)) {
+	    return;
+	}
+	String host = AutomaticsPropertyUtility.getProperty(PROPERTY_METRICS_HTTP_HOST, "127.0.0.1");
+	try {
+	    server = HttpServer.create(new InetSocketAddress(null != host ? host : "127.0.0.1",
+		    Integer.parseInt(port.trim())), 0);
+	    final MetricsExporter exporter = new MetricsExporter();
+	    server.createContext("/metrics", new HttpHandler() {
+		@Override
+		public void handle(HttpExchange exchange) throws IOException {
+		    String body = null;
+		    String contentType = "text/plain; version=0.0.4";
+		    if (exchange.getRequestURI().getPath().endsWith(".json")) {
+			contentType = "application/json";
+			try {
+			    body = exporter.toJson();
+			} catch (JSONException e) {
+			    body = "{}";
+			}
+		    } else {
+			body = exporter.toPrometheusText();
+		    }
+		    byte[] response = body.getBytes(StandardCharsets.UTF_8);
+		    exchange.getResponseHeaders().set("Content-Type", contentType);
+		    exchange.sendResponseHeaders(200, response.length);
+		    OutputStream outputStream = exchange.getResponseBody();
+		    try {
+			outputStream.write(response);
+		    } finally {
+			outputStream.close();
+		    }
+		}
+	    });
+	    server.start();
+	    LOGGER.info("Metrics endpoint started on {}:{}", host, port);
+	} catch (IOException | IllegalArgumentException e) {
+	    LOGGER.error("Failed to start metrics endpoint on port {}", port, e);
+	    server = null;
+	}
+    }
+
+    /**
+     * Stops the endpoint if running
+     */
+    public static synchronized void stop() {
+	if (null != server) {
+	    server.stop(0);
+	    server = null;
+	    LOGGER.info("Metrics endpoint stopped");
+	}
+    }
+}
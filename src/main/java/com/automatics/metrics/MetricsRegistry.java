@@ -0,0 +1,224 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.metrics;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.automatics.device.Dut;
+
+/**
+ * Framework wide registry of counters, timers and histograms. Metrics are identified by name and tags such as device
+ * MAC, model and operation, and are created on first use.
+ * 
+ * <pre>
+ * TimerContext context = MetricsRegistry.get().timer("webpa.request", MetricsRegistry.tags(dut, "GET")).start();
+ * try {
+ *     ...
+ * } finally {
+ *     context.stop();
+ * }
+ * </pre>
+ *
+ */
+public class MetricsRegistry {
+
+    /** Tag for device MAC address */
+    public static final String TAG_MAC = "mac";
+
+    /** Tag for device model */
+    public static final String TAG_MODEL = "model";
+
+    /** Tag for operation */
+    public static final String TAG_OPERATION = "operation";
+
+    /** Tag for host name or IP address, used when device details are not available */
+    public static final String TAG_HOST = "host";
+
+    /** Tag for operation result */
+    public static final String TAG_RESULT = "result";
+
+    /** Singleton instance */
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    private final ConcurrentMap<MetricKey, Counter> counters = new ConcurrentHashMap<MetricKey, Counter>();
+
+    private final ConcurrentMap<MetricKey, Timer> timers = new ConcurrentHashMap<MetricKey, Timer>();
+
+    private final ConcurrentMap<MetricKey, Histogram> histograms = new ConcurrentHashMap<MetricKey, Histogram>();
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private MetricsRegistry() {
+	// Private constructor
+    }
+
+    /**
+     * Get singleton instance for {@link MetricsRegistry}.
+     *
+     * @return The singleton instance of {@link MetricsRegistry}.
+     */
+    public static MetricsRegistry get() {
+	return REGISTRY;
+    }
+
+    /**
+     * Gets or creates the counter
+     * 
+     * @param name
+     *            Metric name
+     * @param tags
+     *            Metric tags
+     * @return Counter
+     */
+    public Counter counter(String name, Map<String, String> tags) {
+	MetricKey key = new MetricKey(name, tags);
+	Counter counter = counters.get(key);
+	if (null == counter) {
+	    counters.putIfAbsent(key, new Counter());
+	    counter = counters.get(key);
+	}
+	return counter;
+    }
+
+    /**
+     * Gets or creates the timer
+     * 
+     * @param name
+     *            Metric name
+     * @param tags
+     *            Metric tags
+     * @return Timer
+     */
+    public Timer timer(String name, Map<String, String> tags) {
+	MetricKey key = new MetricKey(name, tags);
+	Timer timer = timers.get(key);
+	if (null == timer) {
+	    timers.putIfAbsent(key, new Timer());
+	    timer = timers.get(key);
+	}
+	return timer;
+    }
+
+    /**
+     * Gets or creates the histogram with default buckets
+     * 
+     * @param name
+     *            Metric name
+     * @param tags
+     *            Metric tags
+     * @return Histogram
+     */
+    public Histogram histogram(String name, Map<String, String> tags) {
+	MetricKey key = new MetricKey(name, tags);
+	Histogram histogram = histograms.get(key);
+	if (null == histogram) {
+	    histograms.putIfAbsent(key, new Histogram());
+	    histogram = histograms.get(key);
+	}
+	return histogram;
+    }
+
+    /**
+     * @return all counters
+     */
+    public Map<MetricKey, Counter> getCounters() {
+	return Collections.unmodifiableMap(counters);
+    }
+
+    /**
+     * @return all timers
+     */
+    public Map<MetricKey, Timer> getTimers() {
+	return Collections.unmodifiableMap(timers);
+    }
+
+    /**
+     * @return all histograms
+     */
+    public Map<MetricKey, Histogram> getHistograms() {
+	return Collections.unmodifiableMap(histograms);
+    }
+
+    /**
+     * Removes all metrics
+     */
+    public void clear() {
+	counters.clear();
+	timers.clear();
+	histograms.clear();
+    }
+
+    /**
+     * Creates tags for the device and operation
+     * 
+     * @param dut
+     *            Device, can be null
+     * @param operation
+     *            Operation name, can be null
+     * @return Tags
+     */
+    public static Map<String, String> tags(Dut dut, String operation) {
+	Map<String, String> tags = new HashMap<String, String>();
+	if (null != dut) {
+	    tags.put(TAG_MAC, dut.getHostMacAddress());
+	    tags.put(TAG_MODEL, dut.getModel());
+	}
+	if (null != operation) {
+	    tags.put(TAG_OPERATION, operation);
+	}
+	return tags;
+    }
+
+    /**
+     * Creates tags holding only the operation
+     * 
+     * @param operation
+     *            Operation name
+     * @return Tags
+     */
+    public static Map<String, String> tags(String operation) {
+	return tags(TAG_OPERATION, operation, null);
+    }
+
+    /**
+     * Creates tags with a single tag and operation
+     * 
+     * @param tagName
+     *            Tag name
+     * @param tagValue
+     *            Tag value
+     * @param operation
+     *            Operation name, can be null
+     * @return Tags
+     */
+    public static Map<String, String> tags(String tagName, String tagValue, String operation) {
+	Map<String, String> tags = new HashMap<String, String>();
+	if (null != tagValue) {
+	    tags.put(tagName, tagValue);
+	}
+	if (null != operation) {
+	    tags.put(TAG_OPERATION, operation);
+	}
+	return tags;
+    }
+}
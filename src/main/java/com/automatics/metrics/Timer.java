@@ -0,0 +1,94 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.metrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timer recording durations in milliseconds into a {@link Histogram}
+ *
+ */
+public class Timer {
+
+    private final Histogram histogram = new Histogram();
+
+    /**
+     * Records a duration
+     * 
+     * @param durationInMillis
+     *            Duration in milliseconds
+     */
+    public void record(long durationInMillis) {
+	histogram.record(durationInMillis);
+    }
+
+    /**
+     * Starts timing an operation. The returned context must be stopped, typically in a finally block.
+     * 
+     * @return Timer context
+     */
+    public TimerContext start() {
+	return new TimerContext(this);
+    }
+
+    /**
+     * @return histogram holding recorded durations
+     */
+    public Histogram getHistogram() {
+	return histogram;
+    }
+
+    /**
+     * Measures a single timed operation
+     */
+    public static class TimerContext {
+
+	private final Timer timer;
+
+	private final long startTime;
+
+	private boolean stopped = false;
+
+	TimerContext(Timer timer) {
+	    this.timer = timer;
+	    this.startTime = System.nanoTime();
+	}
+
+	/**
+	 * Stops the timing and records the elapsed duration. Subsequent calls have no effect.
+	 * 
+	 * @return Elapsed duration in milliseconds
+	 */
+	public long stop() {
+	    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+	    if (!stopped) {
+		stopped = true;
+		timer.record(elapsed);
+	    }
+	    return elapsed;
+	}
+
+	/**
+	 * Stops the timing without recording a duration, for eg: when the operation is abandoned. Subsequent calls to
+	 * {@link #stop()} have no effect.
+	 */
+	public void discard() {
+	    stopped = true;
+	}
+    }
+}
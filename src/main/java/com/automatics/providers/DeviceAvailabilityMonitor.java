@@ -0,0 +1,385 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Device;
+import com.automatics.device.Dut;
+import com.automatics.enums.DeviceAvailabilityProbe;
+import com.automatics.enums.DeviceAvailabilityState;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.tap.AutomaticsTapApi;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.CommonMethods;
+
+/**
+ * Monitors availability of devices, for eg: while waiting for a device to go down and come up during reboot. Waits of
+ * all devices share a small scheduler thread pool used only for timing the probes, the probes themselves may block and
+ * are executed on a separate pool growing on demand, so that a slow probe of one device does not delay the others. The
+ * probe interval starts small and grows gradually while the device stays in the same state, so that a state change is
+ * detected within a few seconds without probing the device continuously.
+ *
+ */
+public class DeviceAvailabilityMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceAvailabilityMonitor.class);
+
+    /** Property for default availability probe */
+    private static final String PROP_PROBE = "availability.monitor.probe";
+
+    /** Property for number of scheduler threads timing the probes of all waits */
+    private static final String PROP_THREADS = "availability.monitor.threads";
+
+    /** Property for initial probe interval */
+    private static final String PROP_MIN_INTERVAL = "availability.monitor.min.interval.ms";
+
+    /** Property for maximum probe interval */
+    private static final String PROP_MAX_INTERVAL = "availability.monitor.max.interval.ms";
+
+    /** Property for ssh port probed by {@link DeviceAvailabilityProbe#SSH_PORT} */
+    private static final String PROP_SSH_PORT = "availability.monitor.ssh.port";
+
+    private static final int DEFAULT_THREADS = 1;
+
+    private static final long DEFAULT_MIN_INTERVAL = 1000;
+
+    private static final long DEFAULT_MAX_INTERVAL = 10000;
+
+    private static final int DEFAULT_SSH_PORT = 22;
+
+    /** Factor by which probe interval grows while device state is unchanged */
+    private static final double INTERVAL_GROWTH_FACTOR = 1.5;
+
+    /** Timeout for network probes */
+    private static final int PROBE_TIMEOUT_MILLIS = 2000;
+
+    /** Maximum duration of a probe, access validator probe may execute a command on the device */
+    private static final long MAX_PROBE_DURATION_MILLIS = 60000;
+
+    /** Parameter read from device by {@link DeviceAvailabilityProbe#WEBPA} */
+    private static final String WEBPA_PROBE_PARAMETER = "Device.DeviceInfo.UpTime";
+
+    /** Metric name for time taken by device to reach the expected state */
+    private static final String METRIC_AVAILABILITY_WAIT = "device.availability.wait";
+
+    private static DeviceAvailabilityMonitor instance = null;
+
+    private final ScheduledExecutorService scheduler;
+
+    /** Executor for blocking probes, so that probes do not hold the scheduler threads */
+    private final ExecutorService probeExecutor;
+
+    private final DeviceAvailabilityProbe defaultProbe;
+
+    private final long minInterval;
+
+    private final long maxInterval;
+
+    private final int sshPort;
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private DeviceAvailabilityMonitor() {
+	final AtomicInteger threadCount = new AtomicInteger();
+	scheduler = Executors.newScheduledThreadPool(
+		(int) AutomaticsPropertyUtility.getLongProperty(PROP_THREADS, DEFAULT_THREADS), new ThreadFactory() {
+		    @Override
+		    public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "AvailabilityMonitor-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		    }
+		});
+	final AtomicInteger probeThreadCount = new AtomicInteger();
+	probeExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+	    @Override
+	    public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "AvailabilityProbe-" + probeThreadCount.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	    }
+	});
+	DeviceAvailabilityProbe probe = DeviceAvailabilityProbe.ACCESS_VALIDATOR;
+	try {
+	    probe = DeviceAvailabilityProbe.valueOf(AutomaticsPropertyUtility
+		    .getProperty(PROP_PROBE, DeviceAvailabilityProbe.ACCESS_VALIDATOR.name()).trim().toUpperCase());
+	} catch (IllegalArgumentException | NullPointerException e) {
+	    LOGGER.error("Invalid value for {}, using {}", PROP_PROBE, probe);
+	}
+	defaultProbe = probe;
+	minInterval = AutomaticsPropertyUtility.getLongProperty(PROP_MIN_INTERVAL, DEFAULT_MIN_INTERVAL);
+	maxInterval = Math.max(minInterval,
+		AutomaticsPropertyUtility.getLongProperty(PROP_MAX_INTERVAL, DEFAULT_MAX_INTERVAL));
+	sshPort = (int) AutomaticsPropertyUtility.getLongProperty(PROP_SSH_PORT, DEFAULT_SSH_PORT);
+    }
+
+    /**
+     * Gets the instance of device availability monitor
+     * 
+     * @return DeviceAvailabilityMonitor
+     */
+    public static synchronized DeviceAvailabilityMonitor get() {
+	if (null == instance) {
+	    instance = new DeviceAvailabilityMonitor();
+	}
+	return instance;
+    }
+
+    /**
+     * Waits asynchronously for the device to reach the given state using the default probe
+     * 
+     * @param dut
+     *            Device to monitor
+     * @param state
+     *            Expected state
+     * @param timeoutInMillis
+     *            Maximum wait time. Device is probed at least once even if timeout is zero
+     * @return Future completed with true when device reaches the state, false if timeout expires
+     */
+    public CompletableFuture<Boolean> awaitState(Dut dut, DeviceAvailabilityState state, long timeoutInMillis) {
+	return awaitState(dut, state, defaultProbe, timeoutInMillis);
+    }
+
+    /**
+     * Waits asynchronously for the device to reach the given state
+     * 
+     * @param dut
+     *            Device to monitor
+     * @param state
+     *            Expected state
+     * @param probe
+     *            Probe used to check availability
+     * @param timeoutInMillis
+     *            Maximum wait time. Device is probed at least once even if timeout is zero
+     * @return Future completed with true when device reaches the state, false if timeout expires
+     */
+    public CompletableFuture<Boolean> awaitState(Dut dut, DeviceAvailabilityState state,
+	    DeviceAvailabilityProbe probe, long timeoutInMillis) {
+	StateWaiter waiter = new StateWaiter(dut, state, probe, timeoutInMillis);
+	scheduler.execute(waiter);
+	return waiter.result;
+    }
+
+    /**
+     * Waits asynchronously for the device to go down and come up again, for eg: after initiating a reboot
+     * 
+     * @param dut
+     *            Device to monitor
+     * @param downTimeoutInMillis
+     *            Maximum wait time for device to go down
+     * @param upTimeoutInMillis
+     *            Maximum wait time for device to come up, after it went down
+     * @return Future completed with true when device is up after going down, false otherwise
+     */
+    public CompletableFuture<Boolean> awaitReboot(final Dut dut, long downTimeoutInMillis,
+	    final long upTimeoutInMillis) {
+	final CompletableFuture<Boolean> rebootResult = new CompletableFuture<Boolean>();
+	awaitState(dut, DeviceAvailabilityState.UNAVAILABLE, downTimeoutInMillis).thenAccept(
+		new Consumer<Boolean>() {
+		    @Override
+		    public void accept(Boolean isDown) {
+			if (!isDown) {
+			    LOGGER.error("Device {} did not go down", dut.getHostMacAddress());
+			    rebootResult.complete(false);
+			} else {
+			    awaitState(dut, DeviceAvailabilityState.AVAILABLE, upTimeoutInMillis).thenAccept(
+				    new Consumer<Boolean>() {
+					@Override
+					public void accept(Boolean isUp) {
+					    rebootResult.complete(isUp);
+					}
+				    });
+			}
+		    }
+		});
+	return rebootResult;
+    }
+
+    /**
+     * Waits for the device to reach the given state using the default probe. Calling thread is blocked until the state
+     * is reached or timeout expires, probing is done on the shared probe executor.
+     * 
+     * @param dut
+     *            Device to monitor
+     * @param state
+     *            Expected state
+     * @param timeoutInMillis
+     *            Maximum wait time
+     * @return true if device reached the state
+     */
+    public boolean waitForState(Dut dut, DeviceAvailabilityState state, long timeoutInMillis) {
+	return getResult(awaitState(dut, state, timeoutInMillis), timeoutInMillis);
+    }
+
+    /**
+     * Checks the availability of device once
+     * 
+     * @param dut
+     *            Device to check
+     * @param probe
+     *            Probe used to check availability
+     * @return true if device is available
+     */
+    public boolean isAvailable(Dut dut, DeviceAvailabilityProbe probe) {
+	boolean isAvailable = false;
+	String ipAddress = (dut instanceof Device) ? ((Device) dut).getHostIpAddress() : null;
+	if (DeviceAvailabilityProbe.ACCESS_VALIDATOR != probe && DeviceAvailabilityProbe.WEBPA != probe
+		&& CommonMethods.isNull(ipAddress)) {
+	    // Network probes need device ip
+	    probe = DeviceAvailabilityProbe.ACCESS_VALIDATOR;
+	}
+	switch (probe) {
+	case SSH_PORT:
+	    Socket socket = new Socket();
+	    try {
+		socket.connect(new InetSocketAddress(ipAddress, sshPort), PROBE_TIMEOUT_MILLIS);
+		isAvailable = true;
+	    } catch (IOException e) {
+		isAvailable = false;
+	    } finally {
+		try {
+		    socket.close();
+		} catch (IOException e) {
+		    LOGGER.trace("Failed to close probe socket");
+		}
+	    }
+	    break;
+	case PING:
+	    try {
+		isAvailable = InetAddress.getByName(ipAddress).isReachable(PROBE_TIMEOUT_MILLIS);
+	    } catch (IOException e) {
+		isAvailable = false;
+	    }
+	    break;
+	case WEBPA:
+	    isAvailable = CommonMethods.isNotNull(
+		    AutomaticsTapApi.getInstance().executeWebPaCommand(dut, WEBPA_PROBE_PARAMETER));
+	    break;
+	default:
+	    isAvailable = CommonMethods.isSTBAccessible(dut);
+	    break;
+	}
+	return isAvailable;
+    }
+
+    private static boolean getResult(CompletableFuture<Boolean> future, long timeoutInMillis) {
+	boolean result = false;
+	try {
+	    // Probe in progress at timeout is allowed to complete
+	    result = future.get(timeoutInMillis + MAX_PROBE_DURATION_MILLIS, TimeUnit.MILLISECONDS);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	} catch (ExecutionException | TimeoutException e) {
+	    LOGGER.error("Failed to get device availability: {}", e.getMessage());
+	}
+	return result;
+    }
+
+    /**
+     * Probes the device until the expected state is reached or timeout expires. Runs on the scheduler when next probe
+     * is due and hands over the probe to the probe executor.
+     */
+    private class StateWaiter implements Runnable {
+
+	private final Dut dut;
+
+	private final DeviceAvailabilityState state;
+
+	private final DeviceAvailabilityProbe probe;
+
+	private final long startTime;
+
+	private final long endTime;
+
+	private long interval;
+
+	private int probeCount = 0;
+
+	private final CompletableFuture<Boolean> result = new CompletableFuture<Boolean>();
+
+	StateWaiter(Dut dut, DeviceAvailabilityState state, DeviceAvailabilityProbe probe, long timeoutInMillis) {
+	    this.dut = dut;
+	    this.state = state;
+	    this.probe = probe;
+	    this.startTime = System.currentTimeMillis();
+	    this.endTime = startTime + timeoutInMillis;
+	    this.interval = minInterval;
+	}
+
+	@Override
+	public void run() {
+	    if (result.isDone()) {
+		return;
+	    }
+	    probeExecutor.execute(new Runnable() {
+		@Override
+		public void run() {
+		    probe();
+		}
+	    });
+	}
+
+	private void probe() {
+	    probeCount++;
+	    boolean isAvailable = false;
+	    try {
+		isAvailable = isAvailable(dut, probe);
+	    } catch (Exception e) {
+		LOGGER.error("Availability probe failed for device {}: {}", dut.getHostMacAddress(), e.getMessage());
+	    }
+	    boolean isStateReached = (DeviceAvailabilityState.AVAILABLE == state) == isAvailable;
+	    long now = System.currentTimeMillis();
+	    if (isStateReached || now >= endTime) {
+		complete(isStateReached, now);
+	    } else {
+		long delay = Math.min(interval, endTime - now);
+		interval = Math.min(maxInterval, (long) (interval * INTERVAL_GROWTH_FACTOR));
+		scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+	    }
+	}
+
+	private void complete(boolean isStateReached, long now) {
+	    Map<String, String> tags = MetricsRegistry.tags(dut, state.name().toLowerCase());
+	    tags.put(MetricsRegistry.TAG_RESULT, isStateReached ? "reached" : "timeout");
+	    MetricsRegistry.get().timer(METRIC_AVAILABILITY_WAIT, tags).record(now - startTime);
+	    LOGGER.info("Device {} {} {} after {} ms and {} probes using {}", dut.getHostMacAddress(),
+		    isStateReached ? "reached state" : "did not reach state", state, now - startTime, probeCount,
+		    probe);
+	    result.complete(isStateReached);
+	}
+    }
+}
@@ -0,0 +1,333 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Dut;
+import com.automatics.enums.DeviceAvailabilityState;
+import com.automatics.enums.PowerOperation;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.objects.PowerOperationResult;
+import com.automatics.providers.rack.PowerProvider;
+import com.automatics.providers.rack.exceptions.PowerProviderException;
+import com.automatics.utils.AutomaticsPropertyUtility;
+
+/**
+ * Performs power operations on a batch of devices, for eg: power cycling all devices of a home account or rack. The
+ * power provider calls of the devices run in parallel within a concurrency budget, and completion of the operation on
+ * the device is awaited through {@link DeviceAvailabilityMonitor} without holding a thread per device. Power on and
+ * power cycle can be staggered, so devices sharing a PDU are not powered up at the same instant. Staggered devices wait
+ * for their start time on a scheduler, not on the threads of the concurrency budget.
+ *
+ */
+public class PowerBatchExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PowerBatchExecutor.class);
+
+    /** Property for maximum number of power provider calls in parallel */
+    private static final String PROP_MAX_CONCURRENCY = "power.batch.max.concurrency";
+
+    /** Property for minimum time between starting power on or power cycle of two devices */
+    private static final String PROP_STAGGER = "power.batch.stagger.ms";
+
+    /** Property for maximum wait for a device to go down after power off or power cycle */
+    private static final String PROP_DOWN_TIMEOUT = "power.batch.down.timeout.ms";
+
+    /** Property for maximum wait for a device to come up after power on or power cycle */
+    private static final String PROP_UP_TIMEOUT = "power.batch.up.timeout.ms";
+
+    private static final long DEFAULT_MAX_CONCURRENCY = 8;
+
+    private static final long DEFAULT_STAGGER = 0;
+
+    private static final long DEFAULT_DOWN_TIMEOUT = 120000;
+
+    private static final long DEFAULT_UP_TIMEOUT = 600000;
+
+    private static final String METRIC_POWER_BATCH = "power.batch";
+
+    private static PowerBatchExecutor instance = null;
+
+    private final ExecutorService executor;
+
+    /** Scheduler releasing staggered devices to the executor at their start time */
+    private final ScheduledExecutorService staggerScheduler;
+
+    private final long staggerInMillis;
+
+    private final long downTimeout;
+
+    private final long upTimeout;
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private PowerBatchExecutor() {
+	final AtomicInteger threadCount = new AtomicInteger();
+	executor = Executors.newFixedThreadPool(
+		(int) Math.max(1,
+			AutomaticsPropertyUtility.getLongProperty(PROP_MAX_CONCURRENCY, DEFAULT_MAX_CONCURRENCY)),
+		new ThreadFactory() {
+		    @Override
+		    public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "PowerBatch-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		    }
+		});
+	staggerScheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+	    @Override
+	    public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "PowerBatchStagger");
+		thread.setDaemon(true);
+		return thread;
+	    }
+	});
+	staggerInMillis = AutomaticsPropertyUtility.getLongProperty(PROP_STAGGER, DEFAULT_STAGGER);
+	downTimeout = AutomaticsPropertyUtility.getLongProperty(PROP_DOWN_TIMEOUT, DEFAULT_DOWN_TIMEOUT);
+	upTimeout = AutomaticsPropertyUtility.getLongProperty(PROP_UP_TIMEOUT, DEFAULT_UP_TIMEOUT);
+    }
+
+    /**
+     * Gets the instance of power batch executor
+     * 
+     * @return PowerBatchExecutor
+     */
+    public static synchronized PowerBatchExecutor get() {
+	if (null == instance) {
+	    instance = new PowerBatchExecutor();
+	}
+	return instance;
+    }
+
+    /**
+     * Performs the power operation on the devices and waits for the results
+     * 
+     * @param duts
+     *            Devices
+     * @param operation
+     *            Power operation
+     * @param awaitCompletion
+     *            true to wait until the devices are down after power off, up after power on, and down and up again
+     *            after power cycle
+     * @return Result of each device, in the order of the devices
+     */
+    public List<PowerOperationResult> execute(List<Dut> duts, PowerOperation operation, boolean awaitCompletion) {
+	return submit(duts, operation, awaitCompletion).join();
+    }
+
+    /**
+     * Starts the power operation on the devices
+     * 
+     * @param duts
+     *            Devices
+     * @param operation
+     *            Power operation
+     * @param awaitCompletion
+     *            true to complete the result of a device only when it reached the expected availability state
+     * @return Future completed with the result of each device, in the order of the devices
+     */
+    public CompletableFuture<List<PowerOperationResult>> submit(List<Dut> duts, final PowerOperation operation,
+	    final boolean awaitCompletion) {
+	LOGGER.info("Starting {} on {} devices", operation, duts.size());
+	final boolean isStaggered = staggerInMillis > 0
+		&& (PowerOperation.ON == operation || PowerOperation.POWER_CYCLE == operation);
+	final long[] nextStartTime = { 0 };
+
+	final List<CompletableFuture<PowerOperationResult>> futures;
+	futures = new ArrayList<CompletableFuture<PowerOperationResult>>(duts.size());
+	for (final Dut dut : duts) {
+	    CompletableFuture<PowerOperationResult> future = startOperation(dut, operation,
+		    isStaggered ? nextStartTime : null)
+		    .thenCompose(new Function<PowerOperationResult, CompletableFuture<PowerOperationResult>>() {
+			@Override
+			public CompletableFuture<PowerOperationResult> apply(PowerOperationResult result) {
+			    return awaitCompletion && result.isSuccess() ? awaitState(result)
+				    : CompletableFuture.completedFuture(result);
+			}
+		    }).exceptionally(new Function<Throwable, PowerOperationResult>() {
+			@Override
+			public PowerOperationResult apply(Throwable throwable) {
+			    // Failure of one device must not hide the results of the other devices
+			    LOGGER.error("{} failed for {}: {}", operation, dut.getHostMacAddress(),
+				    throwable.getMessage());
+			    PowerOperationResult result = new PowerOperationResult(dut, operation);
+			    result.setErrorMsg(throwable.getMessage());
+			    return result;
+			}
+		    });
+	    futures.add(future);
+	}
+
+	return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()]))
+		.thenApply(new Function<Void, List<PowerOperationResult>>() {
+		    @Override
+		    public List<PowerOperationResult> apply(Void ignored) {
+			List<PowerOperationResult> results = new ArrayList<PowerOperationResult>(futures.size());
+			int completed = 0;
+			for (CompletableFuture<PowerOperationResult> future : futures) {
+			    PowerOperationResult result = future.join();
+			    results.add(result);
+			    if (result.isCompleted()) {
+				completed++;
+			    }
+			}
+			LOGGER.info("Completed {} on {} of {} devices", operation, completed, results.size());
+			return results;
+		    }
+		});
+    }
+
+    /**
+     * Starts the power operation of the device on the executor. When staggered, the device reserves a start time when
+     * its turn comes on the executor, and if the start time is not reached yet, the thread is released and the device
+     * is handed back to the executor by the stagger scheduler at its start time.
+     * 
+     * @param nextStartTime
+     *            Earliest start time of the next staggered device, null if not staggered
+     */
+    private CompletableFuture<PowerOperationResult> startOperation(final Dut dut, final PowerOperation operation,
+	    final long[] nextStartTime) {
+	final CompletableFuture<PowerOperationResult> future = new CompletableFuture<PowerOperationResult>();
+	executor.execute(new Runnable() {
+
+	    private long startTime = 0;
+
+	    @Override
+	    public void run() {
+		if (null != nextStartTime && 0 == startTime) {
+		    startTime = reserveStartSlot(nextStartTime);
+		}
+		long waitTime = startTime - System.currentTimeMillis();
+		if (waitTime > 0) {
+		    final Runnable operationTask = this;
+		    staggerScheduler.schedule(new Runnable() {
+			@Override
+			public void run() {
+			    executor.execute(operationTask);
+			}
+		    }, waitTime, TimeUnit.MILLISECONDS);
+		} else {
+		    future.complete(performOperation(dut, operation));
+		}
+	    }
+	});
+	return future;
+    }
+
+    /**
+     * Reserves the start time of a device, starts are spaced by the stagger interval
+     */
+    private long reserveStartSlot(long[] nextStartTime) {
+	long startTime;
+	synchronized (nextStartTime) {
+	    startTime = Math.max(System.currentTimeMillis(), nextStartTime[0]);
+	    nextStartTime[0] = startTime + staggerInMillis;
+	}
+	return startTime;
+    }
+
+    /**
+     * Performs the power operation on the device through its power provider
+     */
+    private PowerOperationResult performOperation(Dut dut, PowerOperation operation) {
+	PowerOperationResult result = new PowerOperationResult(dut, operation);
+	long startTime = System.currentTimeMillis();
+	PowerProvider power = dut.getPower();
+	if (null == power) {
+	    result.setErrorMsg("Power provider not available");
+	} else {
+	    try {
+		switch (operation) {
+		case ON:
+		    result.setSuccess(power.powerOn());
+		    break;
+		case OFF:
+		    result.setSuccess(power.powerOff());
+		    break;
+		case POWER_CYCLE:
+		    result.setSuccess(power.reboot());
+		    break;
+		case POWER_STATUS:
+		    result.setPowerStatus(power.getPowerStatus());
+		    result.setSuccess(null != result.getPowerStatus());
+		    break;
+		default:
+		    break;
+		}
+	    } catch (PowerProviderException | RuntimeException e) {
+		// Runtime exceptions include failures of rest power providers, for eg: ProcessingException
+		LOGGER.error("{} failed for {}: {}", operation, dut.getHostMacAddress(), e.getMessage());
+		result.setErrorMsg(e.getMessage());
+	    }
+	}
+	result.setDurationInMillis(System.currentTimeMillis() - startTime);
+
+	Map<String, String> tags = MetricsRegistry.tags(dut, operation.name());
+	tags.put(MetricsRegistry.TAG_RESULT, result.isSuccess() ? "success" : "failure");
+	MetricsRegistry.get().timer(METRIC_POWER_BATCH, tags).record(result.getDurationInMillis());
+	return result;
+    }
+
+    /**
+     * Waits through availability monitor for the device to reach the state expected after the operation
+     */
+    private CompletableFuture<PowerOperationResult> awaitState(final PowerOperationResult result) {
+	final long startTime = System.currentTimeMillis() - result.getDurationInMillis();
+	DeviceAvailabilityMonitor monitor = DeviceAvailabilityMonitor.get();
+	CompletableFuture<Boolean> stateReached;
+	switch (result.getOperation()) {
+	case ON:
+	    stateReached = monitor.awaitState(result.getDevice(), DeviceAvailabilityState.AVAILABLE, upTimeout);
+	    break;
+	case OFF:
+	    stateReached = monitor.awaitState(result.getDevice(), DeviceAvailabilityState.UNAVAILABLE, downTimeout);
+	    break;
+	case POWER_CYCLE:
+	    stateReached = monitor.awaitReboot(result.getDevice(), downTimeout, upTimeout);
+	    break;
+	default:
+	    return CompletableFuture.completedFuture(result);
+	}
+	return stateReached.thenApply(new Function<Boolean, PowerOperationResult>() {
+	    @Override
+	    public PowerOperationResult apply(Boolean isStateReached) {
+		result.setStateReached(isStateReached);
+		result.setDurationInMillis(System.currentTimeMillis() - startTime);
+		LOGGER.info("{} on {} completed: {} in {} ms", result.getOperation(),
+			result.getDevice().getHostMacAddress(), isStateReached, result.getDurationInMillis());
+		return result;
+	    }
+	});
+    }
+
+}
@@ -17,11 +17,14 @@
  */
 package com.automatics.providers.avanlyzer;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import com.automatics.dataobjects.AVFreezeRegion;
+import com.automatics.dataobjects.AVMonitorEvent;
 import com.automatics.dataobjects.AVMonitorData;
 import com.automatics.device.Dut;
+import com.automatics.enums.AVMonitorEventType;
 import com.automatics.enums.AVState;
 import com.automatics.enums.VideoMetrics;
 
@@ -66,6 +69,36 @@ public interface AVAnalysisProvider {
     List<AVFreezeRegion> getAVFreezeRegions(Dut dut, AVState avStatus, String avMonitorTaskName, long durationInSecs,
 	    long startTime, long endTime);
 
+    /**
+     * Gets the events of a running AV monitor that ended after the given time. Providers supporting a streaming or
+     * long-poll channel may block up to the wait time until events are available. By default video freeze and audio
+     * loss regions are read using {@link #getAVFreezeRegions(Dut, AVState, String, long, long, long)} without
+     * waiting.
+     * 
+     * @param dut
+     * @param monitorTaskName
+     * @param minFreezeDurationInSecs
+     * @param sinceTime
+     * @param waitInMillis
+     * @return Events reported since the given time
+     */
+    default List<AVMonitorEvent> getAVMonitorEvents(Dut dut, String monitorTaskName, long minFreezeDurationInSecs,
+	    long sinceTime, long waitInMillis) {
+	List<AVMonitorEvent> events = new ArrayList<AVMonitorEvent>();
+	long now = System.currentTimeMillis();
+	for (AVMonitorEventType type : new AVMonitorEventType[] { AVMonitorEventType.VIDEO_FREEZE,
+		AVMonitorEventType.AUDIO_LOSS }) {
+	    List<AVFreezeRegion> regions = getAVFreezeRegions(dut, type.getAvState(), monitorTaskName,
+		    minFreezeDurationInSecs, sinceTime, now);
+	    if (null != regions) {
+		for (AVFreezeRegion region : regions) {
+		    events.add(new AVMonitorEvent(type, monitorTaskName, region));
+		}
+	    }
+	}
+	return events;
+    }
+
     /**
      * Get audio DB level value
      * 
@@ -0,0 +1,36 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.avanlyzer;
+
+import com.automatics.dataobjects.AVMonitorEvent;
+
+/**
+ * Receives events of a running AV monitor from {@link AVMonitorEventStream}. Methods are invoked on the stream thread
+ * and should return quickly.
+ *
+ */
+public interface AVMonitorEventListener {
+
+    /**
+     * Invoked for each new event, and again when a failure region is returned with a later end time
+     * 
+     * @param event
+     *            AV monitor event
+     */
+    void onEvent(AVMonitorEvent event);
+}
@@ -0,0 +1,300 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.avanlyzer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.dataobjects.AVMonitorEvent;
+import com.automatics.device.Dut;
+import com.automatics.enums.AVMonitorEventType;
+import com.automatics.utils.AutomaticsPropertyUtility;
+
+/**
+ * Streams the events of a running AV monitor, so that video freeze and audio loss are detected while monitoring is in
+ * progress instead of after it is stopped. Events are read continuously with
+ * {@link AVAnalysisProvider#getAVMonitorEvents(Dut, String, long, long, long)} on a background thread, passed to the
+ * registered listeners and retained for {@link #getEvents()}. Tests can wait for the first failure with
+ * {@link #waitForFailure(long)} and stop a long monitor early.
+ *
+ */
+public class AVMonitorEventStream implements Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AVMonitorEventStream.class);
+
+    /** Property for maximum time a poll waits on AV analyzer for new events */
+    private static final String PROP_POLL_WAIT = "av.monitor.events.wait.ms";
+
+    /** Property for minimum time between polls, applies when AV analyzer responds without waiting */
+    private static final String PROP_POLL_INTERVAL = "av.monitor.events.poll.interval.ms";
+
+    private static final long DEFAULT_POLL_WAIT = 30000;
+
+    private static final long DEFAULT_POLL_INTERVAL = 5000;
+
+    /** Threads of all streams, a stream holds its thread while waiting on AV analyzer */
+    private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+	private final AtomicInteger threadCount = new AtomicInteger();
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+	    Thread thread = new Thread(runnable, "AVMonitorEvents-" + threadCount.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    });
+
+    private final AVAnalysisProvider provider;
+
+    private final Dut dut;
+
+    private final String monitorName;
+
+    private final long minFreezeDurationInSecs;
+
+    private final long endTime;
+
+    private final long pollWait;
+
+    private final long pollInterval;
+
+    private final List<AVMonitorEventListener> listeners = new CopyOnWriteArrayList<AVMonitorEventListener>();
+
+    private final List<AVMonitorEvent> events = new ArrayList<AVMonitorEvent>();
+
+    /** Failure events already reported by key, a region may be returned again by later polls */
+    private final Map<String, AVMonitorEvent> reportedEvents = new HashMap<String, AVMonitorEvent>();
+
+    private volatile boolean isRunning = false;
+
+    /**
+     * Creates the event stream
+     * 
+     * @param provider
+     *            AV analysis provider
+     * @param dut
+     *            Device being monitored
+     * @param monitorName
+     *            Name of the AV monitor task
+     * @param minFreezeDurationInSecs
+     *            Minimum duration of freeze regions reported
+     * @param durationInMillis
+     *            Maximum duration for which events are read
+     */
+    public AVMonitorEventStream(AVAnalysisProvider provider, Dut dut, String monitorName,
+	    long minFreezeDurationInSecs, long durationInMillis) {
+	this.provider = provider;
+	this.dut = dut;
+	this.monitorName = monitorName;
+	this.minFreezeDurationInSecs = minFreezeDurationInSecs;
+	this.endTime = System.currentTimeMillis() + durationInMillis;
+	this.pollWait = AutomaticsPropertyUtility.getLongProperty(PROP_POLL_WAIT, DEFAULT_POLL_WAIT);
+	this.pollInterval = AutomaticsPropertyUtility.getLongProperty(PROP_POLL_INTERVAL, DEFAULT_POLL_INTERVAL);
+    }
+
+    /**
+     * Registers a listener for new events
+     * 
+     * @param listener
+     *            Listener to add
+     */
+    public void addListener(AVMonitorEventListener listener) {
+	listeners.add(listener);
+    }
+
+    /**
+     * @param listener
+     *            Listener to remove
+     */
+    public void removeListener(AVMonitorEventListener listener) {
+	listeners.remove(listener);
+    }
+
+    /**
+     * Starts reading events on a background thread
+     * 
+     * @return This stream
+     */
+    public synchronized AVMonitorEventStream start() {
+	if (!isRunning) {
+	    isRunning = true;
+	    EXECUTOR.execute(this);
+	}
+	return this;
+    }
+
+    /**
+     * Stops reading events. Events read so far are retained.
+     */
+    public synchronized void stop() {
+	isRunning = false;
+	notifyAll();
+    }
+
+    /**
+     * @return true if events are still being read
+     */
+    public boolean isRunning() {
+	return isRunning;
+    }
+
+    /**
+     * @return Device being monitored
+     */
+    public Dut getDut() {
+	return dut;
+    }
+
+    /**
+     * @return Name of the AV monitor task
+     */
+    public String getMonitorName() {
+	return monitorName;
+    }
+
+    /**
+     * @return Events read so far, in the order received
+     */
+    public synchronized List<AVMonitorEvent> getEvents() {
+	return new ArrayList<AVMonitorEvent>(events);
+    }
+
+    /**
+     * Waits until a video freeze or audio loss is reported, the stream stops or the timeout expires
+     * 
+     * @param timeoutInMillis
+     *            Maximum wait time
+     * @return First failure event, null if none was reported
+     */
+    public synchronized AVMonitorEvent waitForFailure(long timeoutInMillis) {
+	long waitEnd = System.currentTimeMillis() + timeoutInMillis;
+	AVMonitorEvent failure = getFirstFailure();
+	long remaining = timeoutInMillis;
+	while (null == failure && isRunning && remaining > 0) {
+	    try {
+		wait(remaining);
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		break;
+	    }
+	    failure = getFirstFailure();
+	    remaining = waitEnd - System.currentTimeMillis();
+	}
+	return failure;
+    }
+
+    @Override
+    public void run() {
+	long sinceTime = System.currentTimeMillis();
+	LOGGER.info("Started reading events of AV monitor {} for device {}", monitorName, dut.getHostMacAddress());
+	while (isRunning && System.currentTimeMillis() < endTime) {
+	    long pollStart = System.currentTimeMillis();
+	    try {
+		List<AVMonitorEvent> newEvents = provider.getAVMonitorEvents(dut, monitorName,
+			minFreezeDurationInSecs, sinceTime, Math.min(pollWait, endTime - pollStart));
+		if (null != newEvents) {
+		    for (AVMonitorEvent event : newEvents) {
+			addEvent(event);
+		    }
+		}
+		// Regions still in progress are returned again once they end
+		sinceTime = pollStart;
+	    } catch (Exception e) {
+		LOGGER.error("Failed to read events of AV monitor {}: {}", monitorName, e.getMessage());
+	    }
+	    long delay = Math.min(pollInterval - (System.currentTimeMillis() - pollStart),
+		    endTime - System.currentTimeMillis());
+	    if (delay > 0) {
+		synchronized (this) {
+		    if (isRunning) {
+			try {
+			    wait(delay);
+			} catch (InterruptedException e) {
+			    Thread.currentThread().interrupt();
+			    break;
+			}
+		    }
+		}
+	    }
+	}
+	AVMonitorEvent stopEvent = new AVMonitorEvent();
+	stopEvent.setType(AVMonitorEventType.MONITOR_STOPPED);
+	stopEvent.setDeviceName(dut.getHostMacAddress());
+	stopEvent.setMonitorName(monitorName);
+	stopEvent.setEndTime(System.currentTimeMillis());
+	notifyListeners(stopEvent);
+	synchronized (this) {
+	    isRunning = false;
+	    notifyAll();
+	}
+	LOGGER.info("Stopped reading events of AV monitor {}, {} events received", monitorName, getEvents().size());
+    }
+
+    private void addEvent(AVMonitorEvent event) {
+	String key = event.getType() + "_" + event.getStartTime();
+	synchronized (this) {
+	    AVMonitorEvent reported = event.isFailure() ? reportedEvents.get(key) : null;
+	    if (null == reported) {
+		events.add(event);
+	    } else if (event.getEndTime() > reported.getEndTime()) {
+		// Region reported while in progress is returned again with its final end time
+		events.set(events.indexOf(reported), event);
+	    } else {
+		return;
+	    }
+	    if (event.isFailure()) {
+		reportedEvents.put(key, event);
+	    }
+	    notifyAll();
+	}
+	if (event.isFailure()) {
+	    LOGGER.info("AV monitor {} reported {}", monitorName, event);
+	}
+	notifyListeners(event);
+    }
+
+    private void notifyListeners(AVMonitorEvent event) {
+	for (AVMonitorEventListener listener : listeners) {
+	    try {
+		listener.onEvent(event);
+	    } catch (Exception e) {
+		LOGGER.error("AV monitor event listener failed: {}", e.getMessage());
+	    }
+	}
+    }
+
+    private AVMonitorEvent getFirstFailure() {
+	for (AVMonitorEvent event : events) {
+	    if (event.isFailure()) {
+		return event;
+	    }
+	}
+	return null;
+    }
+
+}
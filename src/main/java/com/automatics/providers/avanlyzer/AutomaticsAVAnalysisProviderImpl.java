@@ -33,8 +33,10 @@ import org.slf4j.LoggerFactory;
 
 import com.automatics.constants.AutomaticsConstants;
 import com.automatics.dataobjects.AVFreezeRegion;
+import com.automatics.dataobjects.AVMonitorEvent;
 import com.automatics.dataobjects.AVMonitorData;
 import com.automatics.device.Dut;
+import com.automatics.enums.AVMonitorEventType;
 import com.automatics.enums.AVMonitorStatus;
 import com.automatics.enums.AVState;
 import com.automatics.enums.VideoMetrics;
@@ -60,6 +62,7 @@ public class AutomaticsAVAnalysisProviderImpl implements AVAnalysisProvider {
     private static String START_AV_MONITOR = "/avAnalyzer/startAVMonitor";
     private static String STOP_AV_MONITOR = "/avAnalyzer/stopAVMonitor";
     private static String GET_AV_FREEZE = "/avAnalyzer/getAVFreezeRegions";
+    private static String GET_AV_MONITOR_EVENTS = "/avAnalyzer/getAVMonitorEvents";
     private static String GET_AUDIO_DB_LEVEL = "/avAnalyzer/getAudioDbValue";
     private static String SUBMIT_VIDEO_QUALITY_CHECK = "/avAnalyzer/submitVideoAnalyzerJob";
     private static String GET_VIDEO_QUALITY_JOB_STATUS = "/avAnalyzer/getVideoAnalyzerJobStatus";
@@ -68,6 +71,9 @@ public class AutomaticsAVAnalysisProviderImpl implements AVAnalysisProvider {
     private static String STOP_VIDEO_CAPTURE = "/avAnalyzer/stopVideoCapture";
     private static String BASE_URL;
 
+    /** Set to false once AV analyzer reports that long-poll of monitor events is not supported */
+    private static volatile boolean isEventPollSupported = true;
+
     /**
      * Constructor for
      */
@@ -208,6 +214,73 @@ public class AutomaticsAVAnalysisProviderImpl implements AVAnalysisProvider {
 	return freezeRegionList;
     }
 
+    /**
+     * Get AV monitor events. Events are long-polled from AV analyzer, which responds as soon as events are available
+     * or the wait time expires. If AV analyzer does not support it, freeze regions are read instead.
+     */
+    @Override
+    public List<AVMonitorEvent> getAVMonitorEvents(Dut dut, String monitorTaskName, long minFreezeDurationInSecs,
+	    long sinceTime, long waitInMillis) {
+	if (!isEventPollSupported) {
+	    return AVAnalysisProvider.super.getAVMonitorEvents(dut, monitorTaskName, minFreezeDurationInSecs, sinceTime,
+		    waitInMillis);
+	}
+
+	List<AVMonitorEvent> events = new ArrayList<AVMonitorEvent>();
+	JSONObject jsonObject = new JSONObject();
+	try {
+	    jsonObject.put("mac", dut.getHostMacAddress());
+	    jsonObject.put("monitorTaskName", monitorTaskName);
+	    jsonObject.put("durationInSecs", minFreezeDurationInSecs);
+	    jsonObject.put("sinceTime", sinceTime);
+	    jsonObject.put("waitInMillis", waitInMillis);
+
+	    RestEasyClientImpl restClient = new RestEasyClientImpl();
+
+	    String url = CommonMethods.getNormalizedUrl(BASE_URL + GET_AV_MONITOR_EVENTS);
+	    LOGGER.debug("Sending request to get AV monitor events: {} \n {}", url, jsonObject);
+
+	    RestRequest request = new RestRequest(url, HttpRequestMethod.POST, null);
+	    request.setTimeoutInMilliSeconds(CONNECTION_TIMEOUT + waitInMillis);
+	    request.setMediaType(MediaType.APPLICATION_JSON_TYPE);
+	    request.setContent(jsonObject.toString());
+
+	    RestResponse response = restClient.executeAndGetResponse(request);
+
+	    if (null != response) {
+		int responseCode = response.getResponseCode();
+		if (responseCode == HttpStatus.SC_OK) {
+		    String data = response.getResponseBody();
+		    if (CommonMethods.isNotNull(data)) {
+			JSONArray jsonArray = new JSONObject(data).getJSONArray("events");
+			for (int i = 0; i < jsonArray.length(); i++) {
+			    AVMonitorEvent event = parseAVMonitorEvent(jsonArray.getJSONObject(i), monitorTaskName);
+			    if (null != event) {
+				events.add(event);
+			    }
+			}
+		    }
+		} else if (responseCode == HttpStatus.SC_METHOD_NOT_ALLOWED
+			|| responseCode == HttpStatus.SC_NOT_IMPLEMENTED || (responseCode == HttpStatus.SC_NOT_FOUND
+				&& isEndpointNotFound(response.getResponseBody()))) {
+		    LOGGER.info("AV analyzer does not support monitor events, reading freeze regions instead");
+		    isEventPollSupported = false;
+		    events = AVAnalysisProvider.super.getAVMonitorEvents(dut, monitorTaskName, minFreezeDurationInSecs,
+			    sinceTime, waitInMillis);
+		} else {
+		    LOGGER.error("Response code when getting AV monitor events: {}", responseCode);
+		}
+	    } else {
+		LOGGER.error("Error getting av monitor events");
+	    }
+	} catch (JSONException e) {
+	    LOGGER.error("Error parsing av monitor events", e);
+	} catch (RestClientException e) {
+	    LOGGER.error("Error getting av monitor events", e);
+	}
+	return events;
+    }
+
     /**
      * Get audio DB level value
      */
@@ -529,4 +602,46 @@ public class AutomaticsAVAnalysisProviderImpl implements AVAnalysisProvider {
 	return videoCaptureUrl;
     }
 
+    /**
+     * Checks whether a not found response is for the monitor events endpoint itself rather than for the device or
+     * monitor task. An empty or non JSON body, or an error body with the endpoint path, comes from the server.
+     * 
+     * @param responseBody
+     *            Body of the not found response
+     * @return true if the endpoint is not available in AV analyzer
+     */
+    private static boolean isEndpointNotFound(String responseBody) {
+	boolean isEndpointNotFound = true;
+	if (CommonMethods.isNotNull(responseBody) && responseBody.trim().startsWith("{")) {
+	    try {
+		String path = new JSONObject(responseBody).optString("path");
+		isEndpointNotFound = CommonMethods.isNotNull(path) && path.endsWith(GET_AV_MONITOR_EVENTS);
+	    } catch (JSONException e) {
+		LOGGER.debug("Not found response is not JSON: {}", responseBody);
+	    }
+	}
+	return isEndpointNotFound;
+    }
+
+    private static AVMonitorEvent parseAVMonitorEvent(JSONObject jsonObj, String monitorTaskName)
+	    throws JSONException {
+	AVMonitorEvent event = null;
+	try {
+	    event = new AVMonitorEvent();
+	    event.setType(AVMonitorEventType.valueOf(jsonObj.getString("type")));
+	    event.setMonitorName(monitorTaskName);
+	    event.setDeviceName(jsonObj.optString("deviceName"));
+	    event.setStartTime(jsonObj.optLong("startTime"));
+	    event.setEndTime(jsonObj.optLong("endTime"));
+	    event.setDuration(jsonObj.optLong("duration"));
+	    if (jsonObj.has("audioLevel")) {
+		event.setAudioLevel(jsonObj.getDouble("audioLevel"));
+	    }
+	} catch (IllegalArgumentException e) {
+	    LOGGER.debug("Ignoring AV monitor event of unknown type: {}", jsonObj);
+	    event = null;
+	}
+	return event;
+    }
+
 }
@@ -0,0 +1,127 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.connection;
+
+/**
+ * Holds the outcome of a single file transfer performed by {@link SftpTransferService}
+ *
+ */
+public class SftpTransferResult {
+
+    /** Source path of the transfer */
+    private String source;
+
+    /** Destination path of the transfer */
+    private String destination;
+
+    /** Whether transfer completed successfully */
+    private boolean success;
+
+    /** Number of bytes transferred in this attempt, excluding resumed bytes */
+    private long bytesTransferred;
+
+    /** Offset from which the transfer was resumed, zero for full transfer */
+    private long resumedFromOffset;
+
+    /** Time taken for the transfer */
+    private long durationInMillis;
+
+    /** Whether checksum of source and destination was compared and matched */
+    private boolean checksumVerified;
+
+    /** Error message if transfer failed */
+    private String errorMessage;
+
+    public SftpTransferResult(String source, String destination) {
+	this.source = source;
+	this.destination = destination;
+    }
+
+    public String getSource() {
+	return source;
+    }
+
+    public String getDestination() {
+	return destination;
+    }
+
+    public boolean isSuccess() {
+	return success;
+    }
+
+    public void setSuccess(boolean success) {
+	this.success = success;
+    }
+
+    public long getBytesTransferred() {
+	return bytesTransferred;
+    }
+
+    public void setBytesTransferred(long bytesTransferred) {
+	this.bytesTransferred = bytesTransferred;
+    }
+
+    public long getResumedFromOffset() {
+	return resumedFromOffset;
+    }
+
+    public void setResumedFromOffset(long resumedFromOffset) {
+	this.resumedFromOffset = resumedFromOffset;
+    }
+
+    public long getDurationInMillis() {
+	return durationInMillis;
+    }
+
+    public void setDurationInMillis(long durationInMillis) {
+	this.durationInMillis = durationInMillis;
+    }
+
+    public boolean isChecksumVerified() {
+	return checksumVerified;
+    }
+
+    public void setChecksumVerified(boolean checksumVerified) {
+	this.checksumVerified = checksumVerified;
+    }
+
+    public String getErrorMessage() {
+	return errorMessage;
+    }
+
+    public void setErrorMessage(String errorMessage) {
+	this.errorMessage = errorMessage;
+    }
+
+    /**
+     * Gets the throughput of the transfer
+     * 
+     * @return Throughput in kilobytes per second
+     */
+    public long getThroughputInKbps() {
+	return durationInMillis > 0 ? (bytesTransferred * 1000L / 1024L) / durationInMillis : bytesTransferred / 1024L;
+    }
+
+    @Override
+    public String toString() {
+	return "SftpTransferResult [source=" + source + ", destination=" + destination + ", success=" + success
+		+ ", bytesTransferred=" + bytesTransferred + ", resumedFromOffset=" + resumedFromOffset
+		+ ", durationInMillis=" + durationInMillis + ", throughputInKbps=" + getThroughputInKbps()
+		+ ", checksumVerified=" + checksumVerified + ", errorMessage=" + errorMessage + "]";
+    }
+}
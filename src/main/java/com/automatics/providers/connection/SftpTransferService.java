@@ -0,0 +1,584 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.connection;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.CommonMethods;
+import com.jcraft.jsch.ChannelExec;
+import com.jcraft.jsch.ChannelSftp;
+import com.jcraft.jsch.JSchException;
+import com.jcraft.jsch.Session;
+import com.jcraft.jsch.SftpATTRS;
+import com.jcraft.jsch.SftpException;
+import com.jcraft.jsch.SftpProgressMonitor;
+
+/**
+ * Transfers files over SFTP using a pool of channels opened on a single SSH session. Channels are reused across
+ * transfers, multiple files can be transferred concurrently and checksum of source and destination can be compared
+ * once the transfer completes. Destination files are overwritten, partially transferred files are resumed from the
+ * existing offset only when the caller asks for it.
+ *
+ */
+public class SftpTransferService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SftpTransferService.class);
+
+    /** Property for maximum number of sftp channels opened per session */
+    private static final String PROP_MAX_CHANNELS_PER_SESSION = "sftp.max.channels.per.session";
+
+    /** Default maximum number of sftp channels opened per session */
+    private static final int DEFAULT_MAX_CHANNELS_PER_SESSION = 4;
+
+    /** Metric name for sftp transfer duration */
+    private static final String METRIC_SFTP_TRANSFER = "sftp.transfer";
+
+    /** Metric name for sftp transfer throughput in kilobytes per second */
+    private static final String METRIC_SFTP_THROUGHPUT = "sftp.transfer.throughput.kbps";
+
+    /** Metric name for resumed sftp transfers */
+    private static final String METRIC_SFTP_RESUMED = "sftp.transfer.resumed";
+
+    private static final String OPERATION_DOWNLOAD = "download";
+
+    private static final String OPERATION_UPLOAD = "upload";
+
+    private final Session session;
+
+    private final int maxChannels;
+
+    private final Semaphore channelPermits;
+
+    private final LinkedBlockingQueue<ChannelSftp> idleChannels = new LinkedBlockingQueue<ChannelSftp>();
+
+    /**
+     * Creates transfer service for the given connected session
+     * 
+     * @param session
+     *            Connected SSH session
+     */
+    public SftpTransferService(Session session) {
+	this.session = session;
+	int channels = DEFAULT_MAX_CHANNELS_PER_SESSION;
+	try {
+	    channels = Integer.parseInt(AutomaticsPropertyUtility.getProperty(PROP_MAX_CHANNELS_PER_SESSION,
+		    String.valueOf(DEFAULT_MAX_CHANNELS_PER_SESSION)));
+	} catch (NumberFormatException e) {
+	    LOGGER.warn("Invalid value for {}, using default {}", PROP_MAX_CHANNELS_PER_SESSION, channels);
+	}
+	this.maxChannels = Math.max(1, channels);
+	this.channelPermits = new Semaphore(maxChannels, true);
+    }
+
+    /**
+     * Gets the session used by this service
+     * 
+     * @return SSH session
+     */
+    public Session getSession() {
+	return session;
+    }
+
+    /**
+     * Copies remote file to local machine, overwriting the local file if it exists. Wildcard remote paths and local
+     * directories are transferred without checksum verification.
+     * 
+     * @param remoteFile
+     *            Remote file
+     * @param localFile
+     *            Local destination, can be a file or a directory
+     * @param verifyChecksum
+     *            true to compare md5 checksum of remote and local file after transfer
+     * @return Transfer result
+     * @throws JSchException
+     *             connection error
+     * @throws SftpException
+     *             sftp error
+     */
+    public SftpTransferResult download(String remoteFile, String localFile, boolean verifyChecksum)
+	    throws JSchException, SftpException {
+	return download(remoteFile, localFile, verifyChecksum, false);
+    }
+
+    /**
+     * Copies remote file to local machine. If resume is allowed and local file is a partial copy of the remote file,
+     * ie it is smaller and was modified after the remote file, transfer is resumed from the local file size and the
+     * size of the result is verified. Otherwise the local file is overwritten. Wildcard remote paths and local
+     * directories are transferred without resume or checksum verification.
+     * 
+     * @param remoteFile
+     *            Remote file
+     * @param localFile
+     *            Local destination, can be a file or a directory
+     * @param verifyChecksum
+     *            true to compare md5 checksum of remote and local file after transfer
+     * @param isResumeAllowed
+     *            true to resume transfer of a partial local file
+     * @return Transfer result
+     * @throws JSchException
+     *             connection error
+     * @throws SftpException
+     *             sftp error
+     */
+    public SftpTransferResult download(String remoteFile, String localFile, boolean verifyChecksum,
+	    boolean isResumeAllowed) throws JSchException, SftpException {
+	SftpTransferResult result = new SftpTransferResult(remoteFile, localFile);
+	ByteCountingMonitor monitor = new ByteCountingMonitor();
+	long startTime = System.currentTimeMillis();
+	ChannelSftp sftp = borrowChannel();
+	boolean isChannelReusable = false;
+	try {
+	    if (isPattern(remoteFile) || new File(localFile).isDirectory()) {
+		sftp.get(remoteFile, localFile, monitor);
+	    } else {
+		SftpATTRS remoteAttrs = sftp.stat(remoteFile);
+		File local = new File(localFile);
+		if (isResumeAllowed && isPartialCopy(local.length(), local.lastModified(), remoteAttrs.getSize(),
+			remoteAttrs.getMTime() * 1000L)) {
+		    long localSize = local.length();
+		    LOGGER.info("Resuming download of {} from offset {}", remoteFile, localSize);
+		    result.setResumedFromOffset(localSize);
+		    sftp.get(remoteFile, localFile, monitor, ChannelSftp.RESUME);
+		} else {
+		    sftp.get(remoteFile, localFile, monitor);
+		}
+	    }
+	    isChannelReusable = true;
+	} finally {
+	    releaseChannel(sftp, isChannelReusable);
+	}
+	completeResult(result, monitor, startTime, OPERATION_DOWNLOAD);
+	if (!isPattern(remoteFile) && !new File(localFile).isDirectory()) {
+	    if (result.getResumedFromOffset() > 0) {
+		verifySize(result, new File(localFile).length(), stat(remoteFile));
+	    }
+	    if (verifyChecksum && result.isSuccess()) {
+		verifyChecksum(result, localFile, remoteFile);
+	    }
+	    if (!result.isSuccess()) {
+		// Corrupt local copy would otherwise be resumed on the next attempt
+		new File(localFile).delete();
+	    }
+	}
+	return result;
+    }
+
+    /**
+     * Transfers local file to remote location, overwriting the remote file if it exists. Wildcard local paths and
+     * remote directories are transferred without checksum verification.
+     * 
+     * @param localFile
+     *            Local file
+     * @param remoteFile
+     *            Remote destination, can be a file or a directory
+     * @param verifyChecksum
+     *            true to compare md5 checksum of local and remote file after transfer
+     * @return Transfer result
+     * @throws JSchException
+     *             connection error
+     * @throws SftpException
+     *             sftp error
+     */
+    public SftpTransferResult upload(String localFile, String remoteFile, boolean verifyChecksum)
+	    throws JSchException, SftpException {
+	return upload(localFile, remoteFile, verifyChecksum, false);
+    }
+
+    /**
+     * Transfers local file to remote location. If resume is allowed and remote file is a partial copy of the local
+     * file, ie it is smaller and was modified after the local file, transfer is resumed from the remote file size and
+     * the size of the result is verified. Otherwise the remote file is overwritten. Wildcard local paths and remote
+     * directories are transferred without resume or checksum verification.
+     * 
+     * @param localFile
+     *            Local file
+     * @param remoteFile
+     *            Remote destination, can be a file or a directory
+     * @param verifyChecksum
+     *            true to compare md5 checksum of local and remote file after transfer
+     * @param isResumeAllowed
+     *            true to resume transfer of a partial remote file
+     * @return Transfer result
+     * @throws JSchException
+     *             connection error
+     * @throws SftpException
+     *             sftp error
+     */
+    public SftpTransferResult upload(String localFile, String remoteFile, boolean verifyChecksum,
+	    boolean isResumeAllowed) throws JSchException, SftpException {
+	SftpTransferResult result = new SftpTransferResult(localFile, remoteFile);
+	ByteCountingMonitor monitor = new ByteCountingMonitor();
+	long startTime = System.currentTimeMillis();
+	boolean isPlainTransfer = isPattern(localFile);
+	ChannelSftp sftp = borrowChannel();
+	boolean isChannelReusable = false;
+	try {
+	    SftpATTRS remoteAttrs = isPlainTransfer ? null : statIfExists(sftp, remoteFile);
+	    if (null != remoteAttrs && remoteAttrs.isDir()) {
+		isPlainTransfer = true;
+	    }
+	    File local = new File(localFile);
+	    if (isResumeAllowed && !isPlainTransfer && null != remoteAttrs && isPartialCopy(remoteAttrs.getSize(),
+		    remoteAttrs.getMTime() * 1000L, local.length(), local.lastModified())) {
+		LOGGER.info("Resuming upload of {} from offset {}", localFile, remoteAttrs.getSize());
+		result.setResumedFromOffset(remoteAttrs.getSize());
+		sftp.put(localFile, remoteFile, monitor, ChannelSftp.RESUME);
+	    } else {
+		sftp.put(localFile, remoteFile, monitor);
+	    }
+	    isChannelReusable = true;
+	} finally {
+	    releaseChannel(sftp, isChannelReusable);
+	}
+	completeResult(result, monitor, startTime, OPERATION_UPLOAD);
+	if (!isPlainTransfer && result.getResumedFromOffset() > 0) {
+	    verifySize(result, new File(localFile).length(), stat(remoteFile));
+	}
+	if (verifyChecksum && !isPlainTransfer && result.isSuccess()) {
+	    verifyChecksum(result, localFile, remoteFile);
+	}
+	return result;
+    }
+
+    /**
+     * Transfers the content of given stream to remote file
+     * 
+     * @param source
+     *            Stream to be copied
+     * @param remoteFile
+     *            Remote destination file
+     * @throws JSchException
+     *             connection error
+     * @throws SftpException
+     *             sftp error
+     */
+    public void upload(InputStream source, String remoteFile) throws JSchException, SftpException {
+	ChannelSftp sftp = borrowChannel();
+	boolean isChannelReusable = false;
+	try {
+	    sftp.put(source, remoteFile);
+	    isChannelReusable = true;
+	} finally {
+	    releaseChannel(sftp, isChannelReusable);
+	}
+    }
+
+    /**
+     * Checks whether remote path exists
+     * 
+     * @param remotePath
+     *            Remote file or directory
+     * @return Attributes of remote path, null if path does not exist
+     * @throws JSchException
+     *             connection error
+     * @throws SftpException
+     *             sftp error
+     */
+    public SftpATTRS stat(String remotePath) throws JSchException, SftpException {
+	ChannelSftp sftp = borrowChannel();
+	boolean isChannelReusable = false;
+	try {
+	    SftpATTRS attrs = statIfExists(sftp, remotePath);
+	    isChannelReusable = true;
+	    return attrs;
+	} finally {
+	    releaseChannel(sftp, isChannelReusable);
+	}
+    }
+
+    /**
+     * Copies multiple remote files to local machine concurrently, using up to the configured number of channels
+     * 
+     * @param remoteToLocalFiles
+     *            Map of remote file to local destination
+     * @param verifyChecksum
+     *            true to compare md5 checksum after each transfer
+     * @return Transfer result of each file, in the iteration order of the given map
+     */
+    public List<SftpTransferResult> downloadAll(Map<String, String> remoteToLocalFiles, boolean verifyChecksum) {
+	return transferAll(remoteToLocalFiles, verifyChecksum, true);
+    }
+
+    /**
+     * Transfers multiple local files to remote location concurrently, using up to the configured number of channels
+     * 
+     * @param localToRemoteFiles
+     *            Map of local file to remote destination
+     * @param verifyChecksum
+     *            true to compare md5 checksum after each transfer
+     * @return Transfer result of each file, in the iteration order of the given map
+     */
+    public List<SftpTransferResult> uploadAll(Map<String, String> localToRemoteFiles, boolean verifyChecksum) {
+	return transferAll(localToRemoteFiles, verifyChecksum, false);
+    }
+
+    /**
+     * Disconnects all idle channels. Channels in use are disconnected when they are released.
+     */
+    public void close() {
+	ChannelSftp sftp = null;
+	while ((sftp = idleChannels.poll()) != null) {
+	    sftp.disconnect();
+	}
+    }
+
+    private List<SftpTransferResult> transferAll(Map<String, String> files, final boolean verifyChecksum,
+	    final boolean isDownload) {
+	List<SftpTransferResult> results = new ArrayList<SftpTransferResult>();
+	if (null == files || files.isEmpty()) {
+	    return results;
+	}
+	ExecutorService executorService = Executors.newFixedThreadPool(Math.min(maxChannels, files.size()));
+	List<Future<SftpTransferResult>> futures = new ArrayList<Future<SftpTransferResult>>();
+	List<String[]> transfers = new ArrayList<String[]>();
+	try {
+	    for (final Map.Entry<String, String> file : files.entrySet()) {
+		transfers.add(new String[] { file.getKey(), file.getValue() });
+		futures.add(executorService.submit(new Callable<SftpTransferResult>() {
+		    @Override
+		    public SftpTransferResult call() throws Exception {
+			return isDownload ? download(file.getKey(), file.getValue(), verifyChecksum)
+				: upload(file.getKey(), file.getValue(), verifyChecksum);
+		    }
+		}));
+	    }
+	    for (int index = 0; index < futures.size(); index++) {
+		String[] transfer = transfers.get(index);
+		try {
+		    results.add(futures.get(index).get());
+		} catch (ExecutionException e) {
+		    LOGGER.error("Failed to transfer {} to {}", transfer[0], transfer[1], e.getCause());
+		    SftpTransferResult failedResult = new SftpTransferResult(transfer[0], transfer[1]);
+		    failedResult.setErrorMessage(String.valueOf(e.getCause().getMessage()));
+		    results.add(failedResult);
+		} catch (InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		    SftpTransferResult failedResult = new SftpTransferResult(transfer[0], transfer[1]);
+		    failedResult.setErrorMessage("Transfer interrupted");
+		    results.add(failedResult);
+		}
+	    }
+	} finally {
+	    executorService.shutdownNow();
+	}
+	return results;
+    }
+
+    private ChannelSftp borrowChannel() throws JSchException {
+	try {
+	    channelPermits.acquire();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    throw new JSchException("Interrupted while waiting for sftp channel");
+	}
+	ChannelSftp sftp = null;
+	while ((sftp = idleChannels.poll()) != null) {
+	    if (sftp.isConnected()) {
+		return sftp;
+	    }
+	}
+	try {
+	    sftp = (ChannelSftp) session.openChannel("sftp");
+	    sftp.connect();
+	    return sftp;
+	} catch (JSchException e) {
+	    channelPermits.release();
+	    throw e;
+	}
+    }
+
+    private void releaseChannel(ChannelSftp sftp, boolean isReusable) {
+	if (isReusable && sftp.isConnected() && session.isConnected()) {
+	    idleChannels.offer(sftp);
+	} else {
+	    sftp.disconnect();
+	}
+	channelPermits.release();
+    }
+
+    private static SftpATTRS statIfExists(ChannelSftp sftp, String remotePath) throws SftpException {
+	try {
+	    return sftp.stat(remotePath);
+	} catch (SftpException e) {
+	    if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
+		return null;
+	    }
+	    throw e;
+	}
+    }
+
+    private static boolean isPattern(String path) {
+	return path.indexOf('*') != -1 || path.indexOf('?') != -1;
+    }
+
+    private void completeResult(SftpTransferResult result, ByteCountingMonitor monitor, long startTime,
+	    String operation) {
+	result.setDurationInMillis(System.currentTimeMillis() - startTime);
+	result.setBytesTransferred(monitor.getCount());
+	result.setSuccess(true);
+	Map<String, String> tags = MetricsRegistry.tags(MetricsRegistry.TAG_HOST, session.getHost(), operation);
+	MetricsRegistry.get().timer(METRIC_SFTP_TRANSFER, tags).record(result.getDurationInMillis());
+	MetricsRegistry.get().histogram(METRIC_SFTP_THROUGHPUT, tags).record(result.getThroughputInKbps());
+	if (result.getResumedFromOffset() > 0) {
+	    MetricsRegistry.get().counter(METRIC_SFTP_RESUMED, tags).increment();
+	}
+	LOGGER.info("Completed {} of {} to {}: {} bytes in {} ms ({} KB/s)", operation, result.getSource(),
+		result.getDestination(), result.getBytesTransferred(), result.getDurationInMillis(),
+		result.getThroughputInKbps());
+    }
+
+    /**
+     * Checks whether destination is a partial copy of the source, ie it is smaller than the source and was written
+     * after the source was last modified
+     */
+    private static boolean isPartialCopy(long destinationSize, long destinationModifiedTime, long sourceSize,
+	    long sourceModifiedTime) {
+	return destinationSize > 0 && destinationSize < sourceSize && destinationModifiedTime >= sourceModifiedTime;
+    }
+
+    private static void verifySize(SftpTransferResult result, long localSize, SftpATTRS remoteAttrs) {
+	long remoteSize = null == remoteAttrs ? -1 : remoteAttrs.getSize();
+	if (localSize != remoteSize) {
+	    LOGGER.error("Size mismatch after resumed transfer of {}: local {} remote {}", result.getSource(),
+		    localSize, remoteSize);
+	    result.setSuccess(false);
+	    result.setErrorMessage("Size mismatch between " + result.getSource() + " and " + result.getDestination());
+	}
+    }
+
+    private void verifyChecksum(SftpTransferResult result, String localFile, String remoteFile) {
+	String localChecksum = getLocalMd5Checksum(localFile);
+	String remoteChecksum = getRemoteMd5Checksum(remoteFile);
+	if (CommonMethods.isNull(localChecksum) || CommonMethods.isNull(remoteChecksum)) {
+	    LOGGER.warn("Unable to compute checksum for {}, skipping verification", remoteFile);
+	} else if (localChecksum.equalsIgnoreCase(remoteChecksum)) {
+	    result.setChecksumVerified(true);
+	} else {
+	    LOGGER.error("Checksum mismatch for {}: local {} remote {}", remoteFile, localChecksum, remoteChecksum);
+	    result.setSuccess(false);
+	    result.setErrorMessage("Checksum mismatch between " + localFile + " and " + remoteFile);
+	}
+    }
+
+    private static String getLocalMd5Checksum(String localFile) {
+	String checksum = null;
+	InputStream inputStream = null;
+	try {
+	    MessageDigest digest = MessageDigest.getInstance("MD5");
+	    inputStream = new FileInputStream(localFile);
+	    byte[] buffer = new byte[64 * 1024];
+	    int bytesRead;
+	    while ((bytesRead = inputStream.read(buffer)) != -1) {
+		digest.update(buffer, 0, bytesRead);
+	    }
+	    StringBuilder hex = new StringBuilder();
+	    for (byte eachByte : digest.digest()) {
+		hex.append(String.format("%02x", eachByte));
+	    }
+	    checksum = hex.toString();
+	} catch (IOException | NoSuchAlgorithmException e) {
+	    LOGGER.error("Failed to compute checksum of {}: {}", localFile, e.getMessage());
+	} finally {
+	    if (null != inputStream) {
+		try {
+		    inputStream.close();
+		} catch (IOException e) {
+		    LOGGER.trace("Failed to close {}", localFile);
+		}
+	    }
+	}
+	return checksum;
+    }
+
+    private String getRemoteMd5Checksum(String remoteFile) {
+	String checksum = null;
+	ChannelExec channelExec = null;
+	try {
+	    channelExec = (ChannelExec) session.openChannel("exec");
+	    channelExec.setCommand("md5sum '" + remoteFile + "'");
+	    InputStream inputStream = channelExec.getInputStream();
+	    channelExec.connect(AutomaticsConstants.THIRTY_SECONDS_INT);
+	    ByteArrayOutputStream output = new ByteArrayOutputStream();
+	    byte[] buffer = new byte[1024];
+	    int bytesRead;
+	    while ((bytesRead = inputStream.read(buffer)) != -1) {
+		output.write(buffer, 0, bytesRead);
+	    }
+	    String response = output.toString().trim();
+	    // md5sum prints checksum followed by file name, error message is printed if file is missing
+	    if (response.matches("(?s)^[0-9a-fA-F]{32}\\s.*")) {
+		checksum = response.split("\\s+")[0];
+	    }
+	} catch (JSchException | IOException e) {
+	    LOGGER.error("Failed to compute checksum of remote file {}: {}", remoteFile, e.getMessage());
+	} finally {
+	    if (null != channelExec) {
+		channelExec.disconnect();
+	    }
+	}
+	return checksum;
+    }
+
+    /**
+     * Progress monitor counting the bytes transferred
+     */
+    private static class ByteCountingMonitor implements SftpProgressMonitor {
+
+	private long count;
+
+	@Override
+	public void init(int op, String src, String dest, long max) {
+	}
+
+	@Override
+	public boolean count(long bytes) {
+	    count += bytes;
+	    return true;
+	}
+
+	@Override
+	public void end() {
+	}
+
+	public long getCount() {
+	    return count;
+	}
+    }
+}
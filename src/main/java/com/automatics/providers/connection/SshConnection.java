@@ -28,6 +28,8 @@ import org.slf4j.LoggerFactory;
 import com.automatics.constants.AutomaticsConstants;
 import com.automatics.error.GeneralError;
 import com.automatics.exceptions.FailedTransitionException;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.metrics.Timer.TimerContext;
 import com.automatics.providers.connection.auth.Credential;
 import com.automatics.providers.connection.auth.ICrypto;
 import com.automatics.utils.AutomaticsPropertyUtility;
@@ -56,6 +58,9 @@ public class SshConnection implements Connection {
 
     private static final org.slf4j.Logger LOGGER = LoggerFactory.getLogger(SshConnection.class);
 
+    /** Metric name for ssh command round trip, from sending the command until its response is read. */
+    private static final String METRIC_SSH_SEND = "ssh.send";
+
     /** Custom port number. */
     protected int portNumber = 0;
 
@@ -71,6 +76,9 @@ public class SshConnection implements Connection {
     /** The host name. */
     private String hostName = null;
 
+    /** Timer of the command in progress, stopped when its response is read */
+    private TimerContext sendTimer = null;
+
     /** location of the private key. */
     private String privateKeyLocation = null;
 
@@ -87,6 +95,9 @@ public class SshConnection implements Connection {
 
     protected StringBuffer commandResponse = new StringBuffer();
 
+    /** Sftp transfer service reusing channels of current session */
+    private SftpTransferService transferService = null;
+
     public SshConnection() {
 	try {
 	    crypto = BeanUtils.getCredentialCrypto();
@@ -523,6 +534,13 @@ public class SshConnection implements Connection {
 	    LOGGER.trace("With in SSHConnection Disconnect method channelExec disconnected");
 	}
 
+	synchronized (this) {
+	    if (null != transferService) {
+		transferService.close();
+		transferService = null;
+	    }
+	}
+
 	session.disconnect();
 	LOGGER.trace("With in SSHConnection Session disconnected" + session.isConnected());
 
@@ -587,27 +605,62 @@ public class SshConnection implements Connection {
      */
     private void doSend(String command, String type, int sleepTime)
 	    throws IOException, InterruptedException, JSchException {
-	if ("root".equals(type)) {
-	    channelExec = session.openChannel("exec");
-	    ((ChannelExec) channelExec).setPty(true);
-	    ((ChannelExec) channelExec).setCommand(command);
-	    inputStream = channelExec.getInputStream();
-	    errorInputStream = ((ChannelExec) channel).getErrStream();
-	    outputStream = channelExec.getOutputStream();
-	    channelExec.connect(sleepTime);
-	} else {
-	    channel = session.openChannel("exec");
-	    ((ChannelExec) channel).setPty(true);
-	    ((ChannelExec) channel).setCommand(command);
-	    defaultInputStream = channel.getInputStream();
-	    defaultErrorInputStream = ((ChannelExec) channel).getErrStream();
-	    defaultOutputStream = channel.getOutputStream();
-	    channel.connect(sleepTime);
+	startSendTimer(type);
+	boolean isSent = false;
+	try {
+	    if ("root".equals(type)) {
+		channelExec = session.openChannel("exec");
+		((ChannelExec) channelExec).setPty(true);
+		((ChannelExec) channelExec).setCommand(command);
+		inputStream = channelExec.getInputStream();
+		errorInputStream = ((ChannelExec) channel).getErrStream();
+		outputStream = channelExec.getOutputStream();
+		channelExec.connect(sleepTime);
+	    } else {
+		channel = session.openChannel("exec");
+		((ChannelExec) channel).setPty(true);
+		((ChannelExec) channel).setCommand(command);
+		defaultInputStream = channel.getInputStream();
+		defaultErrorInputStream = ((ChannelExec) channel).getErrStream();
+		defaultOutputStream = channel.getOutputStream();
+		channel.connect(sleepTime);
+	    }
+	    // ATOM Side SSH takes some time to establish the connection, so we are getting
+	    // partial response, which causing test case failure.
+	    if (command.contains("sshtoatom") || command.contains("sshtoqtn")) {
+		Thread.sleep(3 * AutomaticsConstants.ONE_SECOND);
+	    }
+	    isSent = true;
+	} finally {
+	    if (!isSent) {
+		stopSendTimer();
+	    }
 	}
-	// ATOM Side SSH takes some time to establish the connection, so we are getting
-	// partial response, which causing test case failure.
-	if (command.contains("sshtoatom") || command.contains("sshtoqtn")) {
-	    Thread.sleep(3 * AutomaticsConstants.ONE_SECOND);
+    }
+
+    /**
+     * Starts timing a command execution. The timer is stopped when the response of the command is read, so that it
+     * covers the full round trip.
+     * 
+     * @param type
+     *            Type of command, used as operation tag
+     */
+    private synchronized void startSendTimer(String type) {
+	if (null != sendTimer) {
+	    // Response of previous command was never read
+	    sendTimer.discard();
+	}
+	sendTimer = MetricsRegistry.get()
+		.timer(METRIC_SSH_SEND, MetricsRegistry.tags(MetricsRegistry.TAG_HOST, hostName, type)).start();
+    }
+
+    /**
+     * Stops timing of the command in progress, if any
+     */
+    private synchronized void stopSendTimer() {
+	if (null != sendTimer) {
+	    sendTimer.stop();
+	    sendTimer = null;
 	}
     }
 
@@ -693,6 +746,7 @@ public class SshConnection implements Connection {
 		break;
 	    }
 	}
+	stopSendTimer();
 
 	return builder.toString();
     }
@@ -761,6 +815,7 @@ public class SshConnection implements Connection {
 	} catch (IOException ioex) {
 	    LOGGER.error("Exception occured while executing the command - " + ioex.getLocalizedMessage());
 	}
+	stopSendTimer();
 
 	return builder.toString();
     }
@@ -878,6 +933,7 @@ public class SshConnection implements Connection {
 	} catch (InterruptedException e) {
 	    LOGGER.trace(" Read  operation interrupted.");
 	}
+	stopSendTimer();
 	LOGGER.debug("Response from reader thread " + commandResponse.toString());
 	return commandResponse.toString().replaceAll(AutomaticsConstants.ANSI_REGEX, AutomaticsConstants.EMPTY_STRING)
 		.replaceAll(AutomaticsConstants.EMPTY_LINE_REMOVER_REGEX, AutomaticsConstants.EMPTY_STRING)
@@ -898,10 +954,7 @@ public class SshConnection implements Connection {
      *             sftp error
      */
     public void getFile(String remoteFile, String localFile) throws JSchException, SftpException {
-	ChannelSftp sftp = (ChannelSftp) session.openChannel("sftp");
-	sftp.connect();
-	sftp.get(remoteFile, localFile);
-	sftp.disconnect();
+	getTransferService().download(remoteFile, localFile, false);
     }
 
     /**
@@ -918,10 +971,23 @@ public class SshConnection implements Connection {
      *             sftp error
      */
     public void putFile(String localFile, String remoteFile) throws JSchException, SftpException {
-	ChannelSftp sftp = (ChannelSftp) session.openChannel("sftp");
-	sftp.connect();
-	sftp.put(localFile, remoteFile);
-	sftp.disconnect();
+	getTransferService().upload(localFile, remoteFile, false);
+    }
+
+    /**
+     * Gets the sftp transfer service for the current session. Sftp channels opened by the service are reused across
+     * transfers until the connection is disconnected.
+     *
+     * @return Sftp transfer service
+     */
+    public synchronized SftpTransferService getTransferService() {
+	if (null == transferService || transferService.getSession() != session) {
+	    if (null != transferService) {
+		transferService.close();
+	    }
+	    transferService = new SftpTransferService(session);
+	}
+	return transferService;
     }
 
     /**
@@ -1017,17 +1083,17 @@ public class SshConnection implements Connection {
 	LOGGER.debug("Inside doCopy ");
 	boolean copyStatus = false;
 	try {
-	    channel = (ChannelSftp) session.openChannel("sftp");
-	    channel.connect();
+	    SftpTransferService sftpTransferService = getTransferService();
 	    LOGGER.info("Copying file to " + remoteLocation);
-	    SftpATTRS attrs = ((ChannelSftp) channel).stat(remoteLocation);
+	    SftpATTRS attrs = sftpTransferService.stat(remoteLocation);
 	    try {
 		if (attrs != null && attrs.isDir()) {
-		    ((ChannelSftp) channel).cd(remoteLocation);
 		    InputStream resourceInputStream = (CommonMethods.class.getClassLoader()
 			    .getResourceAsStream(remoteFileName));
-		    ((ChannelSftp) channel).put(resourceInputStream, remoteFileName);
-		    ((ChannelSftp) channel).ls(remoteLocation + remoteFileName);
+		    sftpTransferService.upload(resourceInputStream, remoteLocation + remoteFileName);
+		    if (null == sftpTransferService.stat(remoteLocation + remoteFileName)) {
+			throw new SftpException(ChannelSftp.SSH_FX_NO_SUCH_FILE, remoteLocation + remoteFileName);
+		    }
 		    copyStatus = true;
 		} else {
 		    LOGGER.error(
@@ -1037,12 +1103,7 @@ public class SshConnection implements Connection {
 		LOGGER.error("Caught exceptin while trying to copy sftp: [{}:{}]", e1.id, e1.getMessage());
 	    }
 	} catch (SftpException e) {
-	    if (e.id == ChannelSftp.SSH_FX_NO_SUCH_FILE) {
-		LOGGER.error(
-			"Selenium home folder seems to be missing.Please re-check Selenium configurations manually");
-	    } else {
-		LOGGER.error("Unexpected exception during ls files on sftp: [{}:{}]", e.id, e.getMessage());
-	    }
+	    LOGGER.error("Unexpected exception during ls files on sftp: [{}:{}]", e.id, e.getMessage());
 	} catch (JSchException e) {
 	    LOGGER.error("Unexpected exception during ls files on sftp: {}", e.getMessage());
 	}
@@ -1064,6 +1125,7 @@ public class SshConnection implements Connection {
      */
     public void sendCommand(String command, int connectionTimeout) throws IOException, JSchException {
 	int retry = 5;
+	startSendTimer("user");
 	channel = session.openChannel("exec");
 	((ChannelExec) channel).setPty(true);
 	// ((ChannelExec) channel).setPtyType("dumb");
@@ -1206,6 +1268,7 @@ public class SshConnection implements Connection {
 	} catch (InterruptedException e) {
 	    LOGGER.trace(" Read  operation interrupted.");
 	}
+	stopSendTimer();
 	LOGGER.debug("Response from reader thread " + commandResponse.toString());
 	// return commandResponse.toString().replaceAll(AutomaticsConstants.ANSI_REGEX,
 	// AutomaticsConstants.EMPTY_STRING)
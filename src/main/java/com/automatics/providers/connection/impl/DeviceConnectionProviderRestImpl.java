@@ -42,6 +42,7 @@ import com.automatics.providers.objects.DeviceConnProviderResponse;
 import com.automatics.providers.objects.DeviceInfo;
 import com.automatics.providers.objects.ExecuteCommandRequest;
 import com.automatics.resource.IServer;
+import com.automatics.utils.JsonMapperUtils;
 import com.automatics.utils.TestUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -88,7 +89,7 @@ public class DeviceConnectionProviderRestImpl extends AbstractDeviceConnectionPr
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			deviceResponse = mapper.readValue(respData, DeviceConnProviderResponse.class);
 			if (deviceResponse.getData() != null) {
@@ -139,7 +140,7 @@ public class DeviceConnectionProviderRestImpl extends AbstractDeviceConnectionPr
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			deviceResponse = mapper.readValue(respData, DeviceConnProviderResponse.class);
 			if (deviceResponse.getData() != null) {
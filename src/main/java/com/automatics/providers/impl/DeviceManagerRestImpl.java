@@ -44,6 +44,7 @@ import com.automatics.providers.objects.DeviceUpdateDurationRequest;
 import com.automatics.providers.objects.StatusResponse;
 import com.automatics.providers.rack.DeviceProvider;
 import com.automatics.utils.CommonMethods;
+import com.automatics.utils.JsonMapperUtils;
 import com.automatics.utils.TestUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -88,7 +89,7 @@ public class DeviceManagerRestImpl implements DeviceProvider {
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			deviceResponse = mapper.readValue(respData, DeviceResponse.class);
 
@@ -124,7 +125,7 @@ public class DeviceManagerRestImpl implements DeviceProvider {
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			accountResponse = mapper.readValue(respData, DeviceAccountResponse.class);
 
@@ -209,7 +210,7 @@ public class DeviceManagerRestImpl implements DeviceProvider {
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			allocResponse = mapper.readValue(respData, DeviceAllocationResponse.class);
 			LOGGER.info("DeviceConfig allocation status", request.getMac(),
@@ -243,7 +244,7 @@ public class DeviceManagerRestImpl implements DeviceProvider {
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			statusResponse = mapper.readValue(respData, StatusResponse.class);
 		    } catch (JsonProcessingException e) {
@@ -275,7 +276,7 @@ public class DeviceManagerRestImpl implements DeviceProvider {
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			statusResponse = mapper.readValue(respData, StatusResponse.class);
 
@@ -306,7 +307,7 @@ public class DeviceManagerRestImpl implements DeviceProvider {
 		LOGGER.info("Response: {}", respData);
 
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			statusResponse = mapper.readValue(respData, StatusResponse.class);
 		    } catch (JsonProcessingException e) {
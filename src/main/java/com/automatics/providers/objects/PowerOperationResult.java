@@ -0,0 +1,150 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.objects;
+
+import com.automatics.device.Dut;
+import com.automatics.enums.PowerOperation;
+
+/**
+ * Result of a power operation on one device of a batch
+ *
+ */
+public class PowerOperationResult {
+
+    private final Dut device;
+
+    private final PowerOperation operation;
+
+    private boolean success;
+
+    private String powerStatus;
+
+    private Boolean stateReached;
+
+    private String errorMsg;
+
+    private long durationInMillis;
+
+    public PowerOperationResult(Dut device, PowerOperation operation) {
+	this.device = device;
+	this.operation = operation;
+    }
+
+    /**
+     * @return the device
+     */
+    public Dut getDevice() {
+	return device;
+    }
+
+    /**
+     * @return the operation
+     */
+    public PowerOperation getOperation() {
+	return operation;
+    }
+
+    /**
+     * @return true if the power provider performed the operation
+     */
+    public boolean isSuccess() {
+	return success;
+    }
+
+    /**
+     * @param success
+     *            the success to set
+     */
+    public void setSuccess(boolean success) {
+	this.success = success;
+    }
+
+    /**
+     * @return the power status, set for {@link PowerOperation#POWER_STATUS}
+     */
+    public String getPowerStatus() {
+	return powerStatus;
+    }
+
+    /**
+     * @param powerStatus
+     *            the powerStatus to set
+     */
+    public void setPowerStatus(String powerStatus) {
+	this.powerStatus = powerStatus;
+    }
+
+    /**
+     * @return true if the device reached the expected availability state after the operation, null if not awaited
+     */
+    public Boolean getStateReached() {
+	return stateReached;
+    }
+
+    /**
+     * @param stateReached
+     *            the stateReached to set
+     */
+    public void setStateReached(Boolean stateReached) {
+	this.stateReached = stateReached;
+    }
+
+    /**
+     * @return the errorMsg
+     */
+    public String getErrorMsg() {
+	return errorMsg;
+    }
+
+    /**
+     * @param errorMsg
+     *            the errorMsg to set
+     */
+    public void setErrorMsg(String errorMsg) {
+	this.errorMsg = errorMsg;
+    }
+
+    /**
+     * @return the time taken by the operation including the availability wait
+     */
+    public long getDurationInMillis() {
+	return durationInMillis;
+    }
+
+    /**
+     * @param durationInMillis
+     *            the durationInMillis to set
+     */
+    public void setDurationInMillis(long durationInMillis) {
+	this.durationInMillis = durationInMillis;
+    }
+
+    /**
+     * @return true if the operation succeeded and the device reached the expected state when awaited
+     */
+    public boolean isCompleted() {
+	return success && !Boolean.FALSE.equals(stateReached);
+    }
+
+    @Override
+    public String toString() {
+	return "PowerOperationResult [device=" + (null != device ? device.getHostMacAddress() : null) + ", operation="
+		+ operation + ", success=" + success + ", powerStatus=" + powerStatus + ", stateReached="
+		+ stateReached + ", errorMsg=" + errorMsg + ", durationInMillis=" + durationInMillis + "]";
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.objects;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sequence of remote keys sent as one macro. Each key has a delay passed to the remote service with the key, as in
+ * pressKeyAndHold, and a gap to wait after the key is sent before the next key.
+ *
+ */
+public class RemoteKeyMacro {
+
+    private final List<String> commands = new ArrayList<String>();
+
+    private final List<Integer> delays = new ArrayList<Integer>();
+
+    private final List<Long> gaps = new ArrayList<Long>();
+
+    /** Attempts per key when the keys are sent one by one */
+    private int keySendAttempts = 1;
+
+    /** Whether sending key by key stops at the first key which could not be sent */
+    private boolean isStopOnFailure = true;
+
+    /**
+     * Adds a key without delay and gap
+     * 
+     * @param command
+     *            Remote key
+     * @return This macro
+     */
+    public RemoteKeyMacro addKey(String command) {
+	return addKey(command, null, 0);
+    }
+
+    /**
+     * Adds a key
+     * 
+     * @param command
+     *            Remote key
+     * @param delay
+     *            Delay in milliseconds passed with the key, null to press the key without delay
+     * @param gapInMillis
+     *            Time to wait after the key is sent before the next key
+     * @return This macro
+     */
+    public RemoteKeyMacro addKey(String command, Integer delay, long gapInMillis) {
+	commands.add(command);
+	delays.add(delay);
+	gaps.add(gapInMillis);
+	return this;
+    }
+
+    /**
+     * Adds keys with the same delay and gap
+     * 
+     * @param commands
+     *            Remote keys
+     * @param delay
+     *            Delay in milliseconds passed with each key, null to press the keys without delay
+     * @param gapInMillis
+     *            Time to wait after each key is sent
+     * @return This macro
+     */
+    public RemoteKeyMacro addKeys(List<String> commands, Integer delay, long gapInMillis) {
+	for (String command : commands) {
+	    addKey(command, delay, gapInMillis);
+	}
+	return this;
+    }
+
+    /**
+     * Gets the macro starting at the given key, used to resume a partially sent macro
+     * 
+     * @param fromIndex
+     *            Index of the first key
+     * @return Remaining macro
+     */
+    public RemoteKeyMacro subMacro(int fromIndex) {
+	RemoteKeyMacro macro = new RemoteKeyMacro();
+	for (int index = fromIndex; index < commands.size(); index++) {
+	    macro.addKey(commands.get(index), delays.get(index), gaps.get(index));
+	}
+	macro.setKeySendAttempts(keySendAttempts);
+	macro.setStopOnFailure(isStopOnFailure);
+	return macro;
+    }
+
+    /**
+     * @return the commands
+     */
+    public List<String> getCommands() {
+	return Collections.unmodifiableList(commands);
+    }
+
+    /**
+     * @return the delays in milliseconds, null entries for keys without delay
+     */
+    public List<Integer> getDelays() {
+	return Collections.unmodifiableList(delays);
+    }
+
+    /**
+     * @return the gaps in milliseconds after each key
+     */
+    public List<Long> getGaps() {
+	return Collections.unmodifiableList(gaps);
+    }
+
+    /**
+     * @return the attempts per key when the keys are sent one by one
+     */
+    public int getKeySendAttempts() {
+	return keySendAttempts;
+    }
+
+    /**
+     * @param keySendAttempts
+     *            the attempts per key when the keys are sent one by one
+     */
+    public void setKeySendAttempts(int keySendAttempts) {
+	this.keySendAttempts = Math.max(1, keySendAttempts);
+    }
+
+    /**
+     * @return true if sending key by key stops at the first key which could not be sent, false to continue with the
+     *         next key
+     */
+    public boolean isStopOnFailure() {
+	return isStopOnFailure;
+    }
+
+    /**
+     * @param isStopOnFailure
+     *            true to stop sending key by key at the first key which could not be sent, false to continue with the
+     *            next key
+     */
+    public void setStopOnFailure(boolean isStopOnFailure) {
+	this.isStopOnFailure = isStopOnFailure;
+    }
+
+    /**
+     * @return the number of keys
+     */
+    public int size() {
+	return commands.size();
+    }
+
+    @Override
+    public String toString() {
+	return commands.toString();
+    }
+}
@@ -40,6 +40,10 @@ public class RemoteProviderRequest {
     private Integer repeatCount;
     
     private List<String> commandList;
+
+    private List<Integer> delayList;
+
+    private List<Long> gapList;
     
     private RemoteControlType remoteControlType;
     
@@ -166,6 +170,36 @@ public class RemoteProviderRequest {
 	this.commandList = commandList;
     }
 
+    /**
+     * @return the delayList
+     */
+    public List<Integer> getDelayList() {
+	return delayList;
+    }
+
+    /**
+     * @param delayList
+     *            the delayList to set
+     */
+    public void setDelayList(List<Integer> delayList) {
+	this.delayList = delayList;
+    }
+
+    /**
+     * @return the gapList
+     */
+    public List<Long> getGapList() {
+	return gapList;
+    }
+
+    /**
+     * @param gapList
+     *            the gapList to set
+     */
+    public void setGapList(List<Long> gapList) {
+	this.gapList = gapList;
+    }
+
     /**
      * @return the remoteControlType
      */
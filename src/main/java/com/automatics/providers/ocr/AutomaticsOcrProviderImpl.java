@@ -17,25 +17,25 @@
  */
 package com.automatics.providers.ocr;
 
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import java.io.File;
-import java.io.IOException;
-
-import javax.imageio.ImageIO;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.automatics.constants.AutomaticsConstants;
-import com.automatics.device.Dut;
 import com.automatics.providers.rack.AbstractOcrProvider;
 import com.automatics.providers.rack.exceptions.OcrException;
 import com.automatics.region.OcrRegionInfo;
-import com.automatics.tap.AutomaticsTapApi;
+import com.automatics.utils.AutomaticsPropertyUtility;
 import com.automatics.utils.AutomaticsUtils;
 import com.automatics.utils.BeanUtils;
-import com.automatics.utils.CommonMethods;
 import com.automatics.utils.NonRackUtils;
+import com.automatics.video.ScreenColorAnalyzer;
+import com.automatics.video.VideoFrameGrabberManager;
 
 /**
  * 
@@ -50,6 +50,12 @@ public class AutomaticsOcrProviderImpl extends AbstractOcrProvider {
 
     static final Logger LOGGER = LoggerFactory.getLogger(AutomaticsOcrProviderImpl.class);
 
+    /** Property to delegate waiting for OCR region to the OCR service, false to poll locally */
+    private static final String PROP_WAIT_FOR_REGION_REMOTE = "ocr.wait.remote";
+
+    /** Interval between reads of the region while waiting for OCR region */
+    private static final long WAIT_POLL_INTERVAL = 500;
+
     /**
      * Initialize OcrService Provider
      */
@@ -96,7 +102,36 @@ public class AutomaticsOcrProviderImpl extends AbstractOcrProvider {
     }
 
     /**
-     * Wait for OCR region
+     * Gets OCR text of several regions of given image in a single OCR request
+     */
+    @Override
+    public List<String> getOcrTextFromImage(List<OcrRegionInfo> ocrRegionInfos, BufferedImage image) {
+	List<String> ocrTexts = new ArrayList<String>(Collections.nCopies(ocrRegionInfos.size(),
+		AutomaticsConstants.EMPTY_STRING));
+	if (NonRackUtils.isDeskBoxTesting()) {
+	    LOGGER.error("Skiping Rack OCR operation for Desk box");
+	    return ocrTexts;
+	}
+
+	List<Rectangle> regions = new ArrayList<Rectangle>(ocrRegionInfos.size());
+	for (OcrRegionInfo ocrRegionInfo : ocrRegionInfos) {
+	    regions.add(getRegion(ocrRegionInfo, image, false));
+	}
+	try {
+	    ocrTexts = readText(image, regions);
+	} catch (OcrException e) {
+	    LOGGER.error(e.getMessage(), e);
+	}
+	LOGGER.info("OCR text read for device {} on {} regions : {}", device.getHostMacAddress(), regions.size(),
+		ocrTexts);
+	return ocrTexts;
+    }
+
+    /**
+     * Wait for OCR region. Waiting is delegated to the OCR service unless ocr.wait.remote is false, then the region,
+     * extended by its x and y tolerance, is read from the current screen until the expected text is found or the
+     * region timeout in seconds expires. Reads of a region whose pixels did not change are answered from the OCR
+     * result cache.
      */
     @Override
     public boolean waitForOcrRegion(OcrRegionInfo ocrRegion) {
@@ -105,38 +140,60 @@ public class AutomaticsOcrProviderImpl extends AbstractOcrProvider {
 	if (null == ocrServiceProvider) {
 	    initOcrServiceProvider();
 	}
-	if (null != ocrServiceProvider) {
-	    regionFound = ocrServiceProvider.waitForOcrRegion(device, ocrRegion);
+	if (null == ocrServiceProvider) {
+	    return regionFound;
+	}
+	if (Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_WAIT_FOR_REGION_REMOTE, "true"))) {
+	    return ocrServiceProvider.waitForOcrRegion(device, ocrRegion);
 	}
+
+	int timeout = null != ocrRegion.getTimeout() ? ocrRegion.getTimeout() : OcrRegionInfo.DEFAULT_TIMEOUT;
+	int successTolerance = null != ocrRegion.getSuccessTolerance() ? ocrRegion.getSuccessTolerance()
+		: OcrRegionInfo.DEFAULT_SUCCESS_TOLERANCE;
+	int xTolerance = null != ocrRegion.getXTolerance() ? ocrRegion.getXTolerance() : 0;
+	int yTolerance = null != ocrRegion.getYTolerance() ? ocrRegion.getYTolerance() : 0;
+	long endTime = System.currentTimeMillis() + timeout * 1000L;
+	do {
+	    BufferedImage image = VideoFrameGrabberManager.get().captureImage(device);
+	    if (null != image) {
+		Rectangle region = getRegion(ocrRegion, image, false);
+		region.grow(xTolerance, yTolerance);
+		String textRead = AutomaticsConstants.EMPTY_STRING;
+		try {
+		    textRead = readText(image, Collections.singletonList(region)).get(0);
+		} catch (OcrException e) {
+		    LOGGER.error(e.getMessage(), e);
+		}
+		LOGGER.debug("TEXT READ :" + textRead);
+		regionFound = isTextMatching(ocrRegion.getExpectedText(), textRead, successTolerance);
+	    }
+	    if (!regionFound && System.currentTimeMillis() + WAIT_POLL_INTERVAL < endTime) {
+		AutomaticsUtils.sleep(WAIT_POLL_INTERVAL);
+	    }
+	} while (!regionFound && System.currentTimeMillis() < endTime);
+
+	LOGGER.info("OCR region {} found: {}", ocrRegion.getName(), regionFound);
 	return regionFound;
     }
 
     /**
-     * Gets color from current image
+     * Gets color from current image. Colors are classified locally by {@link ScreenColorAnalyzer}, the OCR service is
+     * used only for text.
      */
     @Override
     public String extractColorFromGivenImage(OcrRegionInfo ocrRegionInfo, BufferedImage image) {
 	String colorRead = AutomaticsConstants.EMPTY_STRING;
-	String[] colorRegionSize = null;
-	String imageLocation = null;
-	try {
-	    imageLocation = saveImage(device, image);
-
-	    colorRegionSize = imageSize(imageLocation);
-	    String[] colorRegionCoordinates = getRegionCoordinates(ocrRegionInfo);
-
-	    if (null == ocrServiceProvider) {
-		initOcrServiceProvider();
-	    }
-	    if (null != ocrServiceProvider) {
-		colorRead = ocrServiceProvider.extractColorFromGivenImageRegion(device, colorRegionSize,
-			colorRegionCoordinates, imageLocation);
+	if (null != image) {
+	    Rectangle region = null;
+	    if (null != ocrRegionInfo) {
+		int width = (int) ocrRegionInfo.getWidth();
+		int height = (int) ocrRegionInfo.getHeight();
+		region = new Rectangle((int) ocrRegionInfo.getX(), (int) ocrRegionInfo.getY(),
+			width > 0 ? width : image.getWidth(), height > 0 ? height : image.getHeight());
 	    }
-	} catch (IOException e) {
-	    LOGGER.error(e.getMessage(), e);
-	} catch (Exception e) {
-	    LOGGER.error(e.getMessage(), e);
+	    colorRead = ScreenColorAnalyzer.analyze(image, region).toString();
 	}
+	LOGGER.info("COLOR READ :" + colorRead);
 	return colorRead;
     }
 
@@ -149,11 +206,11 @@ public class AutomaticsOcrProviderImpl extends AbstractOcrProvider {
     public String readTextFromCurrentImage(OcrRegionInfo ocrRegionInfo, boolean readFullImageRegion) {
 	String textRead = AutomaticsConstants.EMPTY_STRING;
 
-	try {
-	    String imageLocation = captureCurrentScreenAndSave();
-	    textRead = readText(ocrRegionInfo, imageLocation, readFullImageRegion);
-	} catch (Exception e) {
-	    LOGGER.error(e.getMessage(), e);
+	BufferedImage image = VideoFrameGrabberManager.get().captureImage(device);
+	if (null != image) {
+	    textRead = readTextFromGivenImage(ocrRegionInfo, image, readFullImageRegion);
+	} else {
+	    LOGGER.error("Image could not be captured for OCR processing");
 	}
 
 	return textRead;
@@ -173,44 +230,10 @@ public class AutomaticsOcrProviderImpl extends AbstractOcrProvider {
      */
     public String readTextFromGivenImage(OcrRegionInfo ocrRegionInfo, BufferedImage image, boolean readFullImageRegion) {
 	String textRead = AutomaticsConstants.EMPTY_STRING;
-	String imageLocation = null;
 	try {
-	    imageLocation = saveImage(device, image);
-	    textRead = readText(ocrRegionInfo, imageLocation, readFullImageRegion);
-	} catch (Exception e) {
-	    LOGGER.error(e.getMessage(), e);
-	}
-	return textRead;
-    }
-
-    /**
-     * Reads text from given image
-     * 
-     * @param ocrRegionInfo
-     * @param imageLocation
-     * @param readFullImageRegion
-     * @return
-     */
-    private String readText(OcrRegionInfo ocrRegionInfo, String imageLocation, boolean readFullImageRegion) {
-	String textRead = AutomaticsConstants.EMPTY_STRING;
-	String[] textRegionSize = null;
-	boolean isReadFromRegion = !(readFullImageRegion);
-	try {
-	    if (isReadFromRegion) {
-		textRegionSize = getRegionSize(ocrRegionInfo);
-	    } else {
-		textRegionSize = imageSize(imageLocation);
-	    }
-
-	    String[] textRegionCoordinates = getRegionCoordinates(ocrRegionInfo);
-	    if (null == ocrServiceProvider) {
-		initOcrServiceProvider();
-	    }
-	    if (null != ocrServiceProvider) {
-		textRead = ocrServiceProvider.readTextFromGivenImageRegion(device, textRegionSize,
-			textRegionCoordinates, imageLocation);
-	    }
-	} catch (OcrException | IOException e) {
+	    textRead = readText(image, Collections.singletonList(getRegion(ocrRegionInfo, image, readFullImageRegion)))
+		    .get(0);
+	} catch (OcrException e) {
 	    LOGGER.error(e.getMessage(), e);
 	}
 	LOGGER.info("TEXT READ :" + textRead);
@@ -218,91 +241,94 @@ public class AutomaticsOcrProviderImpl extends AbstractOcrProvider {
     }
 
     /**
-     * Save the image for ocr processing
+     * Reads text of the regions of the image through the OCR request pipeline
      * 
-     * @param dut
-     * @param bufferedImage
-     * @return
-     * @throws Exception
+     * @param image
+     * @param regions
+     * @return Text of each region
+     * @throws OcrException
      */
-    private String saveImage(Dut dut, BufferedImage bufferedImage) throws Exception {
-
-	String imageName = System.currentTimeMillis() + "_" + AutomaticsUtils.getCleanMac(dut.getHostMacAddress())
-		+ "_OCR_PROCESSING_IN";
-	String storedImage = AutomaticsTapApi.saveImages(dut, bufferedImage, imageName);
-	LOGGER.info("Image location : " + storedImage);
-	File image = new File(storedImage);
-	if (image.exists() && image.isFile()) {
-	    return storedImage;
-	} else {
-	    throw new Exception("Image could not be captured for OCR processing");
+    private List<String> readText(BufferedImage image, List<Rectangle> regions) throws OcrException {
+	if (null == ocrServiceProvider) {
+	    initOcrServiceProvider();
 	}
+	if (null == ocrServiceProvider) {
+	    return new ArrayList<String>(Collections.nCopies(regions.size(), AutomaticsConstants.EMPTY_STRING));
+	}
+	return OcrRequestPipeline.get().readText(device, ocrServiceProvider, image, regions);
     }
 
     /**
-     * Gets the image size
-     * 
-     * @param imageLocation
-     * @return Gets the image size
-     * @throws IOException
-     */
-    private String[] imageSize(String imageLocation) throws IOException {
-	BufferedImage buffImage = ImageIO.read(new File(imageLocation));
-	LOGGER.info(" IMAGE WIDTH : {} HEIGHT : {}", buffImage.getWidth(), buffImage.getHeight());
-	return new String[] { String.valueOf(buffImage.getWidth()), String.valueOf(buffImage.getHeight()) };
-    }
-
-    /**
-     * Gets the region coordinates
+     * Gets the image region to be read. When full image region is read, the region starts at the region coordinates
+     * and extends to the image size.
      * 
      * @param ocrRegionInfo
-     * @return Gets the region coordinates
+     * @param image
+     * @param readFullImageRegion
+     * @return Region to be read
      */
-    private String[] getRegionCoordinates(OcrRegionInfo ocrRegionInfo) {
+    private Rectangle getRegion(OcrRegionInfo ocrRegionInfo, BufferedImage image, boolean readFullImageRegion) {
 	int x = 0;
 	int y = 0;
+	int width = image.getWidth();
+	int height = image.getHeight();
 	if (ocrRegionInfo != null) {
 	    x = (int) ocrRegionInfo.getX();
 	    y = (int) ocrRegionInfo.getY();
+	    if (!readFullImageRegion) {
+		width = (int) ocrRegionInfo.getWidth();
+		height = (int) ocrRegionInfo.getHeight();
+	    }
 	}
-	LOGGER.info(" REGION COORDINATES : X = {} Y = {}", x, y);
-	return new String[] { String.valueOf(x), String.valueOf(y) };
+	LOGGER.debug(" REGION : X = {} Y = {} W = {} H = {}", x, y, width, height);
+	return new Rectangle(x, y, width, height);
     }
 
     /**
-     * Gets the region size
+     * Checks whether the text read contains the expected text, or is similar to it by at least the tolerance
+     * percentage. Case and whitespace are ignored.
      * 
-     * @param ocrRegionInfo
-     * @return Gets the region size
+     * @param expectedText
+     * @param textRead
+     * @param successTolerance
+     * @return true if text matches
      */
-    private String[] getRegionSize(OcrRegionInfo ocrRegionInfo) {
-	int width = 0;
-	int height = 0;
-	if (ocrRegionInfo != null) {
-	    width = (int) ocrRegionInfo.getWidth();
-	    height = (int) ocrRegionInfo.getHeight();
+    private static boolean isTextMatching(String expectedText, String textRead, int successTolerance) {
+	if (null == expectedText || null == textRead) {
+	    return false;
+	}
+	String expected = expectedText.replaceAll("\\s+", AutomaticsConstants.EMPTY_STRING).toLowerCase();
+	String actual = textRead.replaceAll("\\s+", AutomaticsConstants.EMPTY_STRING).toLowerCase();
+	if (actual.contains(expected)) {
+	    return true;
 	}
-	LOGGER.info(" REGION SIZE COORDINATES : W = {} H = {}", width, height);
-	return new String[] { String.valueOf(width), String.valueOf(height) };
+	int maxLength = Math.max(expected.length(), actual.length());
+	int similarity = 100 * (maxLength - getEditDistance(expected, actual)) / maxLength;
+	LOGGER.debug("OCR text similarity of '{}' and '{}' : {}%", expectedText, textRead, similarity);
+	return similarity >= successTolerance;
     }
 
     /**
-     * Capture the current screen for ocr processing
-     *
-     * @return
-     * @throws Exception
+     * Gets the Levenshtein distance of the texts
      */
-    private String captureCurrentScreenAndSave() throws Exception {
-
-	String imageName = AutomaticsUtils.getCleanMac(device.getHostMacAddress()) + "_OCR_PROCESSING_IN";
-	String storedImage = AutomaticsTapApi.getInstance().captureAndSaveImage(device, imageName);
-
-	if (CommonMethods.isNotNull(storedImage)) {
-	    LOGGER.info("Stored Image Location : " + storedImage);
-	    return storedImage;
-	} else {
-	    throw new Exception("Image could not be captured for OCR processing");
+    private static int getEditDistance(String first, String second) {
+	int[] previous = new int[second.length() + 1];
+	int[] current = new int[second.length() + 1];
+	for (int index = 0; index <= second.length(); index++) {
+	    previous[index] = index;
+	}
+	for (int row = 1; row <= first.length(); row++) {
+	    current[0] = row;
+	    for (int column = 1; column <= second.length(); column++) {
+		int cost = first.charAt(row - 1) == second.charAt(column - 1) ? 0 : 1;
+		current[column] = Math.min(Math.min(current[column - 1] + 1, previous[column] + 1),
+			previous[column - 1] + cost);
+	    }
+	    int[] swap = previous;
+	    previous = current;
+	    current = swap;
 	}
+	return previous[second.length()];
     }
 
 }
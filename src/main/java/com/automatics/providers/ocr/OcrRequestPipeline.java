@@ -0,0 +1,204 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.ocr;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.device.Dut;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.rack.exceptions.OcrException;
+import com.automatics.utils.AutomaticsPropertyUtility;
+
+/**
+ * Reads text of image regions through the OCR service. Regions are cropped in memory and the crops of a frame not
+ * found in the cache are passed together to {@link OcrServiceProvider#readTextFromImages(Dut, List)}, identical crops
+ * being read once. Results are cached by a digest of the crop pixels, so reading a region whose pixels did not change
+ * does not reach the OCR service, while any change of the pixels, however small, is read again.
+ *
+ */
+public class OcrRequestPipeline {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OcrRequestPipeline.class);
+
+    /** Property for maximum number of cached OCR results */
+    private static final String PROP_CACHE_SIZE = "ocr.cache.size";
+
+    private static final long DEFAULT_CACHE_SIZE = 512;
+
+    private static OcrRequestPipeline instance = null;
+
+    /** Digest algorithm of the cache key */
+    private static final String CACHE_KEY_ALGORITHM = "SHA-256";
+
+    private final Map<String, String> cache;
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private OcrRequestPipeline() {
+	final int cacheSize = (int) AutomaticsPropertyUtility.getLongProperty(PROP_CACHE_SIZE, DEFAULT_CACHE_SIZE);
+	cache = new LinkedHashMap<String, String>(16, 0.75f, true) {
+
+	    private static final long serialVersionUID = 1L;
+
+	    @Override
+	    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+		return size() > cacheSize;
+	    }
+	};
+    }
+
+    /**
+     * Get singleton instance for {@link OcrRequestPipeline}.
+     *
+     * @return The singleton instance of {@link OcrRequestPipeline}.
+     */
+    public static synchronized OcrRequestPipeline get() {
+	if (null == instance) {
+	    instance = new OcrRequestPipeline();
+	}
+	return instance;
+    }
+
+    /**
+     * Reads text of the regions of the image
+     * 
+     * @param dut
+     *            Device under test
+     * @param ocrServiceProvider
+     *            OCR service
+     * @param image
+     *            Image
+     * @param regions
+     *            Regions of the image to be read
+     * @return Text of each region, in the order of the regions. Regions outside the image give empty text.
+     * @throws OcrException
+     *             if the OCR service fails
+     */
+    public List<String> readText(Dut dut, OcrServiceProvider ocrServiceProvider, BufferedImage image,
+	    List<Rectangle> regions) throws OcrException {
+	String[] texts = new String[regions.size()];
+	Rectangle imageBounds = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+
+	// Crops not cached, identical crops of one frame are read once
+	List<BufferedImage> crops = new ArrayList<BufferedImage>();
+	List<String> cropKeys = new ArrayList<String>();
+	List<List<Integer>> cropRegionIndexes = new ArrayList<List<Integer>>();
+	Map<String, List<Integer>> regionIndexes = new HashMap<String, List<Integer>>();
+	int hits = 0;
+
+	for (int index = 0; index < texts.length; index++) {
+	    Rectangle bounds = imageBounds.intersection(regions.get(index));
+	    if (bounds.isEmpty()) {
+		texts[index] = AutomaticsConstants.EMPTY_STRING;
+		continue;
+	    }
+	    String key = getCacheKey(image, bounds);
+	    String cachedText;
+	    synchronized (cache) {
+		cachedText = cache.get(key);
+	    }
+	    if (null != cachedText) {
+		texts[index] = cachedText;
+		hits++;
+		continue;
+	    }
+	    List<Integer> indexes = regionIndexes.get(key);
+	    if (null == indexes) {
+		indexes = new ArrayList<Integer>(1);
+		regionIndexes.put(key, indexes);
+		crops.add(image.getSubimage(bounds.x, bounds.y, bounds.width, bounds.height));
+		cropKeys.add(key);
+		cropRegionIndexes.add(indexes);
+	    }
+	    indexes.add(index);
+	}
+
+	MetricsRegistry.get().counter("ocr.cache", MetricsRegistry.tags(MetricsRegistry.TAG_RESULT, "hit", "READ"))
+		.increment(hits);
+
+	if (!crops.isEmpty()) {
+	    MetricsRegistry.get().counter("ocr.cache", MetricsRegistry.tags(MetricsRegistry.TAG_RESULT, "miss", "READ"))
+		    .increment(crops.size());
+	    long startTime = System.currentTimeMillis();
+	    List<String> readTexts = ocrServiceProvider.readTextFromImages(dut, crops);
+	    MetricsRegistry.get().timer("ocr.request", MetricsRegistry.tags(dut, "READ"))
+		    .record(System.currentTimeMillis() - startTime);
+	    LOGGER.debug("Read {} regions from OCR service, {} from cache", crops.size(), hits);
+
+	    for (int cropIndex = 0; cropIndex < crops.size(); cropIndex++) {
+		String text = cropIndex < readTexts.size() ? readTexts.get(cropIndex) : null;
+		if (null == text) {
+		    text = AutomaticsConstants.EMPTY_STRING;
+		} else {
+		    synchronized (cache) {
+			cache.put(cropKeys.get(cropIndex), text);
+		    }
+		}
+		for (Integer index : cropRegionIndexes.get(cropIndex)) {
+		    texts[index] = text;
+		}
+	    }
+	}
+	return Arrays.asList(texts);
+    }
+
+    /**
+     * Clears the cached OCR results
+     */
+    public void clearCache() {
+	synchronized (cache) {
+	    cache.clear();
+	}
+    }
+
+    /**
+     * Gets the cache key of the region, a digest of its size and pixels, so that regions differing in any pixel have
+     * different keys
+     */
+    private static String getCacheKey(BufferedImage image, Rectangle bounds) {
+	int[] pixels = image.getRGB(bounds.x, bounds.y, bounds.width, bounds.height, null, 0, bounds.width);
+	ByteBuffer buffer = ByteBuffer.allocate((pixels.length + 2) * 4);
+	buffer.putInt(bounds.width).putInt(bounds.height);
+	buffer.asIntBuffer().put(pixels);
+	try {
+	    StringBuilder key = new StringBuilder();
+	    for (byte value : MessageDigest.getInstance(CACHE_KEY_ALGORITHM).digest(buffer.array())) {
+		key.append(String.format("%02x", value));
+	    }
+	    return key.toString();
+	} catch (NoSuchAlgorithmException e) {
+	    throw new IllegalStateException(CACHE_KEY_ALGORITHM + " not available", e);
+	}
+    }
+
+}
@@ -17,6 +17,14 @@
  */
 package com.automatics.providers.ocr;
 
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
 import com.automatics.device.Dut;
 import com.automatics.providers.rack.exceptions.OcrException;
 import com.automatics.region.OcrRegionInfo;
@@ -75,4 +83,38 @@ public interface OcrServiceProvider {
      */
     public boolean waitForOcrRegion(Dut dut, OcrRegionInfo ocrRegionInfo) throws OcrException;
 
+    /**
+     * Reads text from several in-memory images, usually regions cropped from one frame. The default implementation
+     * writes each image to a temporary file and reads it with
+     * {@link #readTextFromGivenImageRegion(Dut, String[], String[], String)}, one request per image. Service
+     * implementations that accept several images in one request should override this method.
+     * 
+     * @param dut
+     *            Device under test
+     * @param images
+     *            Images to be read
+     * @return Text read from each image, in the order of the images
+     * @throws OcrException
+     */
+    public default List<String> readTextFromImages(Dut dut, List<BufferedImage> images) throws OcrException {
+	List<String> texts = new ArrayList<String>(images.size());
+	for (BufferedImage image : images) {
+	    File imageFile = null;
+	    try {
+		imageFile = File.createTempFile("ocr_region_", ".png");
+		ImageIO.write(image, "png", imageFile);
+		texts.add(readTextFromGivenImageRegion(dut,
+			new String[] { String.valueOf(image.getWidth()), String.valueOf(image.getHeight()) },
+			new String[] { "0", "0" }, imageFile.getAbsolutePath()));
+	    } catch (IOException e) {
+		throw new OcrException("Failed to write image for OCR: " + e.getMessage());
+	    } finally {
+		if (null != imageFile) {
+		    imageFile.delete();
+		}
+	    }
+	}
+	return texts;
+    }
+
 }
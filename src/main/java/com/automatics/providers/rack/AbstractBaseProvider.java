@@ -17,7 +17,10 @@
  */
 package com.automatics.providers.rack;
 
+import java.awt.image.BufferedImage;
+
 import com.automatics.device.Dut;
+import com.automatics.video.VideoFrameGrabberManager;
 
 public abstract class AbstractBaseProvider implements BaseProvider {
 
@@ -40,4 +43,14 @@ public abstract class AbstractBaseProvider implements BaseProvider {
 	this.device = device;
     }
 
+    /**
+     * Captures the current screen of the device. Frames are read from the background frame grabber of the device when
+     * running, so that image compare, OCR and other providers share a single frame stream.
+     * 
+     * @return Captured image, null if not available
+     */
+    protected BufferedImage captureVideoImage() {
+	return VideoFrameGrabberManager.get().captureImage(device);
+    }
+
 }
@@ -18,6 +18,8 @@
 package com.automatics.providers.rack;
 
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
 
 import com.automatics.region.OcrRegionInfo;
 
@@ -58,6 +60,24 @@ public interface OcrProvider extends BaseProvider {
      */
     String getOcrTextFromImage(OcrRegionInfo ocrRegionInfo, BufferedImage image, boolean readFullImageRegion);
 
+    /**
+     * Gets text of several regions of given image. Implementations should read all regions in a single OCR request,
+     * the default implementation reads the regions one by one.
+     * 
+     * @param ocrRegionInfos
+     *            Regions to be read
+     * @param image
+     *            Image from which ocr is read
+     * @return Return text of each region, in the order of the regions
+     */
+    default List<String> getOcrTextFromImage(List<OcrRegionInfo> ocrRegionInfos, BufferedImage image) {
+	List<String> ocrTexts = new ArrayList<String>(ocrRegionInfos.size());
+	for (OcrRegionInfo ocrRegionInfo : ocrRegionInfos) {
+	    ocrTexts.add(getOcrTextFromImage(ocrRegionInfo, image, false));
+	}
+	return ocrTexts;
+    }
+
     /**
      * Extract screen color from given image
      * 
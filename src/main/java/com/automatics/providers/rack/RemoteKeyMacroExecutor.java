@@ -0,0 +1,104 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.rack;
+
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.enums.RemoteControlType;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.objects.RemoteKeyMacro;
+import com.automatics.utils.AutomaticsUtils;
+
+/**
+ * Sends a {@link RemoteKeyMacro} key by key through {@link RemoteProvider#pressKey(String, RemoteControlType)} and
+ * {@link RemoteProvider#pressKeyAndHold(String, Integer, RemoteControlType)}. Used by remote providers that do not
+ * support macro requests. Each key is attempted up to {@link RemoteKeyMacro#getKeySendAttempts()} times, and sending
+ * stops at the first failed key or continues with the next key as given by {@link RemoteKeyMacro#isStopOnFailure()}.
+ * The send latency of each key is recorded.
+ *
+ */
+public class RemoteKeyMacroExecutor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RemoteKeyMacroExecutor.class);
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private RemoteKeyMacroExecutor() {
+    }
+
+    /**
+     * Sends the keys of the macro in order
+     * 
+     * @param remote
+     *            Remote provider
+     * @param macro
+     *            Keys to be sent
+     * @param type
+     *            Remote control type
+     * @return Number of keys sent. When sending stops on failure, this is also the index of the failed key.
+     */
+    public static int execute(RemoteProvider remote, RemoteKeyMacro macro, RemoteControlType type) {
+	int sentKeys = 0;
+	for (int index = 0; index < macro.size(); index++) {
+	    String command = macro.getCommands().get(index);
+	    Integer delay = macro.getDelays().get(index);
+
+	    boolean sent = false;
+	    for (int attempt = 0; !sent && attempt < macro.getKeySendAttempts(); attempt++) {
+		long startTime = System.currentTimeMillis();
+		sent = null != delay ? remote.pressKeyAndHold(command, delay, type)
+			: remote.pressKey(command, type);
+		recordKeySend(remote, sent, System.currentTimeMillis() - startTime);
+		if (!sent) {
+		    LOGGER.error("{} attempt of [{}] key send failed", attempt + 1, command);
+		}
+	    }
+	    if (sent) {
+		sentKeys++;
+	    } else if (macro.isStopOnFailure()) {
+		break;
+	    }
+
+	    long gap = macro.getGaps().get(index);
+	    if (gap > 0) {
+		AutomaticsUtils.sleep(gap);
+	    }
+	}
+	return sentKeys;
+    }
+
+    /**
+     * Records the send latency of a key
+     * 
+     * @param remote
+     *            Remote provider
+     * @param sent
+     *            true if the key was sent
+     * @param latency
+     *            Send latency in milliseconds
+     */
+    static void recordKeySend(RemoteProvider remote, boolean sent, long latency) {
+	Map<String, String> tags = MetricsRegistry.tags(remote.getDevice(), "PRESS_KEY");
+	tags.put(MetricsRegistry.TAG_RESULT, sent ? "success" : "failure");
+	MetricsRegistry.get().timer("remote.key.send", tags).record(latency);
+    }
+}
@@ -18,6 +18,7 @@
 package com.automatics.providers.rack;
 
 import com.automatics.enums.RemoteControlType;
+import com.automatics.providers.objects.RemoteKeyMacro;
 
 /**
  * Interface that provides various remote operations
@@ -70,5 +71,21 @@ public abstract interface RemoteProvider extends BaseProvider {
      * @return boolean
      */
     public abstract boolean sendText(String paramString, RemoteControlType type);
-    
-}
\ No newline at end of file
+
+    /**
+     * Sends a sequence of keys with their delays as one macro, so the remote service can time the keys on its side.
+     * Providers supporting macro requests should override this method, the default implementation sends the keys one
+     * by one using {@link RemoteKeyMacroExecutor}.
+     * 
+     * @param macro
+     *            Keys with delays and gaps
+     * @param type
+     *            Remote control type
+     * @return Number of keys sent. Keys are sent in order, sending key by key stops at the first failure unless
+     *         {@link RemoteKeyMacro#isStopOnFailure()} is false.
+     */
+    public default int pressKeyMacro(RemoteKeyMacro macro, RemoteControlType type) {
+	return RemoteKeyMacroExecutor.execute(this, macro, type);
+    }
+
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.rack.impl;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+
+import javax.imageio.ImageIO;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Dut;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.rack.AbstractBaseProvider;
+import com.automatics.providers.rack.MotionDetectionProvider;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.CommonMethods;
+import com.automatics.video.MotionDetector;
+import com.automatics.video.VideoFrameGrabberManager;
+
+/**
+ * Motion detection provider that detects motion locally on the frames of the device screen, without a rack service.
+ * Frames are streamed from {@link VideoFrameGrabberManager} through a {@link MotionDetector} as they are captured.
+ * Detection durations are in milliseconds. When a diff image save location is set, the difference of the last two
+ * frames is saved there if no motion is detected.
+ *
+ */
+public class LocalMotionDetectionProviderImpl extends AbstractBaseProvider implements MotionDetectionProvider {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalMotionDetectionProviderImpl.class);
+
+    /** Property to enable processing of large frames in parallel */
+    private static final String PROP_PARALLEL = "motion.detection.parallel";
+
+    /** Metric name for motion detection */
+    private static final String METRIC_MOTION_DETECTION = "motion.detection";
+
+    private static final float DEFAULT_COLOR_TOLERANCE = 10.0f;
+
+    private static final float DEFAULT_LOCATION_TOLERANCE = 2.0f;
+
+    private static final float DEFAULT_MOTION_TOLERANCE = 1.0f;
+
+    private float colorTolerance = DEFAULT_COLOR_TOLERANCE;
+
+    private float locationTolerance = DEFAULT_LOCATION_TOLERANCE;
+
+    private float motionTolerance = DEFAULT_MOTION_TOLERANCE;
+
+    private String diffImageSaveLocation;
+
+    public LocalMotionDetectionProviderImpl() {
+    }
+
+    public LocalMotionDetectionProviderImpl(Dut device) {
+	super(device);
+    }
+
+    /**
+     * Detects motion on the full screen
+     * 
+     * @param durationInMillis
+     *            Duration for which frames are analysed
+     * @return true if motion is detected
+     */
+    @Override
+    public boolean detectMotion(long durationInMillis) {
+	return detectMotion(null, durationInMillis, 0);
+    }
+
+    /**
+     * Detects motion on the full screen
+     * 
+     * @param durationInMillis
+     *            Duration for which frames are analysed
+     * @param frameIntervalInMillis
+     *            Minimum time between analysed frames
+     * @return true if motion is detected
+     */
+    @Override
+    public boolean detectMotion(long durationInMillis, long frameIntervalInMillis) {
+	return detectMotion(null, durationInMillis, frameIntervalInMillis);
+    }
+
+    /**
+     * Detects motion in a region of the screen
+     * 
+     * @param x
+     *            X coordinate of region
+     * @param y
+     *            Y coordinate of region
+     * @param width
+     *            Width of region
+     * @param height
+     *            Height of region
+     * @param durationInMillis
+     *            Duration for which frames are analysed
+     * @param frameIntervalInMillis
+     *            Minimum time between analysed frames
+     * @return true if motion is detected
+     */
+    @Override
+    public boolean detectMotion(int x, int y, int width, int height, long durationInMillis,
+	    long frameIntervalInMillis) {
+	return detectMotion(new Rectangle(x, y, width, height), durationInMillis, frameIntervalInMillis);
+    }
+
+    /**
+     * Detects motion in a region of the screen
+     * 
+     * @param x
+     *            X coordinate of region
+     * @param y
+     *            Y coordinate of region
+     * @param width
+     *            Width of region
+     * @param height
+     *            Height of region
+     * @param durationInMillis
+     *            Duration for which frames are analysed
+     * @return true if motion is detected
+     */
+    @Override
+    public boolean detectMotion(int x, int y, int width, int height, long durationInMillis) {
+	return detectMotion(new Rectangle(x, y, width, height), durationInMillis, 0);
+    }
+
+    @Override
+    public void setColorTolerance(float colorTolerance) {
+	this.colorTolerance = colorTolerance;
+    }
+
+    @Override
+    public void setLocationTolerance(float locationTolerance) {
+	this.locationTolerance = locationTolerance;
+    }
+
+    @Override
+    public void setMotionTolerance(float motionTolerance) {
+	this.motionTolerance = motionTolerance;
+    }
+
+    @Override
+    public void setMotionDetectionDiffImageSaveLocation(String location) {
+	this.diffImageSaveLocation = location;
+    }
+
+    @Override
+    public float getMotionTolerance() {
+	return motionTolerance;
+    }
+
+    @Override
+    public float getLocationTolerance() {
+	return locationTolerance;
+    }
+
+    @Override
+    public float getColorTolerance() {
+	return colorTolerance;
+    }
+
+    private boolean detectMotion(Rectangle region, long durationInMillis, long frameIntervalInMillis) {
+	if (null == device) {
+	    LOGGER.error("Device not set for motion detection");
+	    return false;
+	}
+	long startTime = System.currentTimeMillis();
+	MotionDetector detector = new MotionDetector(region, colorTolerance, locationTolerance, motionTolerance,
+		frameIntervalInMillis, isParallelEnabled());
+	int frameCount = VideoFrameGrabberManager.get().sampleFrames(device, durationInMillis, frameIntervalInMillis,
+		detector);
+
+	Map<String, String> tags = MetricsRegistry.tags(device, METRIC_MOTION_DETECTION);
+	if (0 == detector.getComparisonCount()) {
+	    tags.put(MetricsRegistry.TAG_RESULT, "no_frames");
+	    MetricsRegistry.get().timer(METRIC_MOTION_DETECTION, tags).record(System.currentTimeMillis() - startTime);
+	    LOGGER.error("Motion detection on {} not possible, {} frames sampled in {} ms from {}",
+		    null == region ? "full screen" : region, frameCount, durationInMillis, device.getHostMacAddress());
+	    return false;
+	}
+
+	boolean isMotionDetected = detector.isMotionDetected();
+	tags.put(MetricsRegistry.TAG_RESULT, isMotionDetected ? "motion" : "no_motion");
+	MetricsRegistry.get().timer(METRIC_MOTION_DETECTION, tags).record(System.currentTimeMillis() - startTime);
+	LOGGER.info("Motion detection on {}: {} of {} frame pairs with motion, max {}% blocks changed, motion: {}",
+		null == region ? "full screen" : region, detector.getMotionCount(), detector.getComparisonCount(),
+		detector.getMaxMotionPercentage(), isMotionDetected);
+
+	if (!isMotionDetected) {
+	    saveDiffImage(detector);
+	}
+	return isMotionDetected;
+    }
+
+    private void saveDiffImage(MotionDetector detector) {
+	if (CommonMethods.isNull(diffImageSaveLocation)) {
+	    return;
+	}
+	BufferedImage diffImage = detector.createDiffImage();
+	if (null != diffImage) {
+	    File diffFile = new File(diffImageSaveLocation, "motion_diff_"
+		    + device.getHostMacAddress().replace(":", "") + "_" + System.currentTimeMillis() + ".png");
+	    try {
+		diffFile.getParentFile().mkdirs();
+		ImageIO.write(diffImage, "png", diffFile);
+		LOGGER.info("Saved motion diff image at {}", diffFile.getAbsolutePath());
+	    } catch (IOException e) {
+		LOGGER.error("Failed to save motion diff image: {}", e.getMessage());
+	    }
+	}
+    }
+
+    private static boolean isParallelEnabled() {
+	return Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_PARALLEL, "true"));
+    }
+}
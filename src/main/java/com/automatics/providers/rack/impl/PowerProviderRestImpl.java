@@ -36,6 +36,7 @@ import com.automatics.providers.objects.enums.StatusMessage;
 import com.automatics.providers.rack.AbstractPowerProvider;
 import com.automatics.providers.rack.exceptions.PowerProviderException;
 import com.automatics.utils.CommonMethods;
+import com.automatics.utils.JsonMapperUtils;
 import com.automatics.utils.TestUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -78,7 +79,7 @@ public class PowerProviderRestImpl extends AbstractPowerProvider {
 		if (response.getStatus() == HttpStatus.SC_OK) {
 		    String respData = response.readEntity(String.class);
 		    if (null != respData && !respData.isEmpty()) {
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 			try {
 			    LOGGER.info("Power on response: {}", respData);
 			    statusResponse = mapper.readValue(respData, StatusResponse.class);
@@ -127,7 +128,7 @@ public class PowerProviderRestImpl extends AbstractPowerProvider {
 		if (response.getStatus() == HttpStatus.SC_OK) {
 		    String respData = response.readEntity(String.class);
 		    if (null != respData && !respData.isEmpty()) {
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 			try {
 			    LOGGER.info("Reboot response: {}", respData);
 			    statusResponse = mapper.readValue(respData, StatusResponse.class);
@@ -175,7 +176,7 @@ public class PowerProviderRestImpl extends AbstractPowerProvider {
 		if (response.getStatus() == HttpStatus.SC_OK) {
 		    String respData = response.readEntity(String.class);
 		    if (null != respData && !respData.isEmpty()) {
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 			try {
 			    LOGGER.info("Power status response: {}", respData);
 			    statusResponse = mapper.readValue(respData, PowerStatusResponse.class);
@@ -227,7 +228,7 @@ public class PowerProviderRestImpl extends AbstractPowerProvider {
 		if (response.getStatus() == HttpStatus.SC_OK) {
 		    String respData = response.readEntity(String.class);
 		    if (null != respData && !respData.isEmpty()) {
-			ObjectMapper mapper = new ObjectMapper();
+			ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 			try {
 			    LOGGER.info("Power off response: {}", respData);
 			    statusResponse = mapper.readValue(respData, StatusResponse.class);
@@ -18,7 +18,11 @@
 package com.automatics.providers.rack.impl;
 
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.UnknownHostException;
+import java.util.Map;
 
+import javax.ws.rs.ProcessingException;
 import javax.ws.rs.client.Entity;
 import javax.ws.rs.core.Response;
 
@@ -30,10 +34,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.automatics.enums.RemoteControlType;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.objects.RemoteKeyMacro;
 import com.automatics.providers.objects.RemoteProviderRequest;
 import com.automatics.providers.objects.StatusResponse;
 import com.automatics.providers.rack.AbstractRemoteProvider;
+import com.automatics.providers.rack.RemoteKeyMacroExecutor;
 import com.automatics.utils.CommonMethods;
+import com.automatics.utils.JsonMapperUtils;
 import com.automatics.utils.TestUtils;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -50,6 +58,13 @@ public class RemoteProviderRestImpl extends AbstractRemoteProvider {
     private static String REMOTE_PRESS_KEY_AND_HOLD_PATH = "/remoteManagement/device/pressKeyAndHold";
     private static String REMOTE_SEND_TEXT_PATH = "/remoteManagement/device/sendText";
     private static String REMOTE_TUNE_PATH = "/remoteManagement/device/tune";
+    private static String REMOTE_PRESS_KEY_MACRO_PATH = "/remoteManagement/device/pressKeyMacro";
+
+    /** Cleared when the remote service does not provide the macro endpoint */
+    private static volatile boolean isMacroSupported = true;
+
+    /** Attempts of a macro request that could not reach the remote service */
+    private static final int MACRO_CONNECT_ATTEMPTS = 2;
 
     public RemoteProviderRestImpl() {
 	BASE_URL = TestUtils.getRackBaseUrl();
@@ -90,7 +105,7 @@ public class RemoteProviderRestImpl extends AbstractRemoteProvider {
 	    if (response.getStatus() == HttpStatus.SC_OK) {
 		String respData = response.readEntity(String.class);
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			statusResponse = mapper.readValue(respData, StatusResponse.class);
 			if (statusResponse != null && statusResponse.getStatus().name() != null
@@ -112,6 +127,84 @@ public class RemoteProviderRestImpl extends AbstractRemoteProvider {
 	return result;
     }
 
+    /**
+     * Sends the key sequence as one macro request. Falls back to sending key by key only when the remote service
+     * reports the macro endpoint as not supported, a failed macro request is not repeated key by key. The request is
+     * sent once more if it could not connect to the remote service, as no key was pressed then. Other failures are not
+     * retried, since keys of the macro may already have been pressed, so the key send attempts of the macro apply only
+     * when keys are sent one by one.
+     * 
+     * @param macro
+     * @param enum
+     * @return number of keys sent
+     */
+    @Override
+    public int pressKeyMacro(RemoteKeyMacro macro, RemoteControlType type) {
+	if (!isMacroSupported) {
+	    return RemoteKeyMacroExecutor.execute(this, macro, type);
+	}
+	int sentKeys = 0;
+	ResteasyClient client = getClient();
+	String url = CommonMethods.getNormalizedUrl(BASE_URL + REMOTE_PRESS_KEY_MACRO_PATH);
+	ResteasyWebTarget target = client.target(url);
+	RemoteProviderRequest request = new RemoteProviderRequest();
+	request.setMac(device.getHostMacAddress());
+	request.setKeySet(device.getRemoteType());
+	request.setCommandList(macro.getCommands());
+	request.setDelayList(macro.getDelays());
+	request.setGapList(macro.getGaps());
+	request.setRemoteControlType(type);
+	long startTime = System.currentTimeMillis();
+	Response response = null;
+	for (int attempt = 1; null == response && attempt <= MACRO_CONNECT_ATTEMPTS; attempt++) {
+	    try {
+		response = target.request().post(Entity.entity(request, "application/json"));
+	    } catch (ProcessingException e) {
+		LOGGER.error("Failed to do press Key macro {}: {}", request.getMac(), e.getMessage());
+		if (!(e.getCause() instanceof ConnectException || e.getCause() instanceof UnknownHostException)) {
+		    // Request may have reached the remote service
+		    break;
+		}
+	    }
+	}
+	if (null != response) {
+	    int status = response.getStatus();
+	    if (status == HttpStatus.SC_NOT_FOUND || status == HttpStatus.SC_METHOD_NOT_ALLOWED
+		    || status == HttpStatus.SC_NOT_IMPLEMENTED) {
+		LOGGER.info("Remote service does not support key macros, status {}. Sending keys one by one.", status);
+		isMacroSupported = false;
+		return RemoteKeyMacroExecutor.execute(this, macro, type);
+	    }
+	    if (status == HttpStatus.SC_OK) {
+		String respData = response.readEntity(String.class);
+		if (null != respData && !respData.isEmpty()) {
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
+		    try {
+			StatusResponse statusResponse = mapper.readValue(respData, StatusResponse.class);
+			if (statusResponse != null && statusResponse.getStatus().name() != null
+				&& statusResponse.getStatus().name().equals("SUCCESS")) {
+			    sentKeys = macro.size();
+			}
+		    } catch (IOException e) {
+			LOGGER.error("Exception parsing json for device press Key macro {} response via rest api",
+				request.getMac(), e);
+		    }
+		}
+	    } else {
+		LOGGER.info("Failed to do press Key macro {} ,status {}", request.getMac(), status);
+	    }
+	}
+	long latency = System.currentTimeMillis() - startTime;
+	Map<String, String> tags = MetricsRegistry.tags(device, "PRESS_KEY_MACRO");
+	tags.put(MetricsRegistry.TAG_RESULT, sentKeys == macro.size() ? "success" : "failure");
+	MetricsRegistry.get().timer("remote.key.macro", tags).record(latency);
+	if (macro.size() > 0) {
+	    MetricsRegistry.get().histogram("remote.key.macro.per.key", MetricsRegistry.tags(device, "PRESS_KEY_MACRO"))
+		    .record(latency / macro.size());
+	}
+	return sentKeys;
+    }
+
     /**
      * Does the pressKeyAndHold operations based on the command
      * 
@@ -139,7 +232,7 @@ public class RemoteProviderRestImpl extends AbstractRemoteProvider {
 	    if (response.getStatus() == HttpStatus.SC_OK) {
 		String respData = response.readEntity(String.class);
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			statusResponse = mapper.readValue(respData, StatusResponse.class);
 			if (statusResponse != null && statusResponse.getStatus().name() != null
@@ -186,7 +279,7 @@ public class RemoteProviderRestImpl extends AbstractRemoteProvider {
 	    if (response.getStatus() == HttpStatus.SC_OK) {
 		String respData = response.readEntity(String.class);
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			statusResponse = mapper.readValue(respData, StatusResponse.class);
 			if (statusResponse != null && statusResponse.getStatus().name() != null
@@ -237,7 +330,7 @@ public class RemoteProviderRestImpl extends AbstractRemoteProvider {
 	    if (response.getStatus() == HttpStatus.SC_OK) {
 		String respData = response.readEntity(String.class);
 		if (null != respData && !respData.isEmpty()) {
-		    ObjectMapper mapper = new ObjectMapper();
+		    ObjectMapper mapper = JsonMapperUtils.getObjectMapper();
 		    try {
 			statusResponse = mapper.readValue(respData, StatusResponse.class);
 			if (statusResponse != null && statusResponse.getStatus().name() != null
@@ -43,6 +43,7 @@ import com.automatics.core.SupportedModelHandler;
 import com.automatics.dataobjects.TestSessionDO;
 import com.automatics.device.Device;
 import com.automatics.device.Dut;
+import com.automatics.metrics.MetricsRegistry;
 import com.automatics.providers.connection.Connection;
 import com.automatics.providers.connection.DeviceConnectionProvider;
 import com.automatics.providers.connection.ExecuteCommandType;
@@ -70,6 +71,9 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 
     protected final static int MAX_LOG_REPETIONS_ALLOWABLE = 100;
 
+    /** Metric name for trace search */
+    private static final String METRIC_TRACE_SEARCH = "trace.search";
+
     protected volatile boolean loopAlive = false;
     protected volatile boolean disConnectFlag = false;
     protected volatile boolean keepPollingThreadAlive = true;
@@ -112,6 +116,9 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 
     protected ConcurrentLinkedQueue<String> clQueue;
 
+    /** Fan-out of the trace read from the device console to subscribers */
+    protected TraceFanout traceFanout;
+
     protected int markOffset;
 
     protected boolean bufferTrace = false;
@@ -177,6 +184,7 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 	connectionProvider = BeanUtils.getDeviceConnetionProvider();
 	this.dut = device;
 	clQueue = new ConcurrentLinkedQueue<String>();
+	traceFanout = TraceFanout.forConsole(device.getHostMacAddress());
 
 	// Trace for ATOM console initialized based on config in Automatics Props
 	additionalTraceLogger = new AdditionalTraceLogger(dut);
@@ -232,10 +240,16 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 
 	if (isTraceRequiredForConnectedGateway(dut)) {
 	    AbstractTraceProviderImpl connectedGatewayTraceProvider = getGatewayTraceProvider(dut);
-	    if (connectedGatewayTraceProvider != null && !connectedGatewayTraceProvider.loopAlive) {
-		LOGGER.info("Starting Trace for connected gateway");
-		connectedGatewayTraceProvider.startTrace();
-		LOGGER.info("Completed starting trace for connected gateway");
+	    if (connectedGatewayTraceProvider != null) {
+		// Gateway console trace is shared by all connected clients
+		int clientCount = connectedGatewayTraceProvider.addDependentClient(dut);
+		if (!connectedGatewayTraceProvider.loopAlive) {
+		    LOGGER.info("Starting Trace for connected gateway");
+		    connectedGatewayTraceProvider.startTrace();
+		    LOGGER.info("Completed starting trace for connected gateway");
+		} else {
+		    LOGGER.info("Sharing running trace of connected gateway with {} client(s)", clientCount);
+		}
 	    }
 	}
     }
@@ -281,7 +295,7 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 	monitoringStarted = false;
 	if (isTraceRequiredForConnectedGateway(dut)) {
 	    AbstractTraceProviderImpl provider = getGatewayTraceProvider(dut);
-	    if (provider != null)
+	    if (provider != null && provider.removeDependentClient(dut))
 		provider.stopTrace();
 	}
 
@@ -466,7 +480,10 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 	clQueue.clear();
 	monitoringStarted = false;
 	if (isTraceRequiredForConnectedGateway(dut)) {
-	    getGatewayTraceProvider(dut).stopTrace(isConnectionThread);
+	    AbstractTraceProviderImpl provider = getGatewayTraceProvider(dut);
+	    if (provider.removeDependentClient(dut)) {
+		provider.stopTrace(isConnectionThread);
+	    }
 	}
     }
 
@@ -519,6 +536,24 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 
     public String searchAndWaitForTrace(String regEx, long timeoutInMilliseconds, boolean start,
 	    boolean isFirstOccurrence, boolean shouldPrintLogs) throws IOException {
+	String matchingString = null;
+	long startTime = System.currentTimeMillis();
+	try {
+	    matchingString = doSearchAndWaitForTrace(regEx, timeoutInMilliseconds, start, isFirstOccurrence,
+		    shouldPrintLogs);
+	} finally {
+	    Map<String, String> tags = MetricsRegistry.tags(dut, "search");
+	    tags.put(MetricsRegistry.TAG_RESULT, null != matchingString ? "found" : "not_found");
+	    MetricsRegistry.get().timer(METRIC_TRACE_SEARCH, tags).record(System.currentTimeMillis() - startTime);
+	}
+	return matchingString;
+    }
+
+    /**
+     * Performs the trace search for {@link #searchAndWaitForTrace(String, long, boolean, boolean, boolean)}
+     */
+    private String doSearchAndWaitForTrace(String regEx, long timeoutInMilliseconds, boolean start,
+	    boolean isFirstOccurrence, boolean shouldPrintLogs) throws IOException {
 
 	if ((null == regEx) || regEx.isEmpty()) {
 	    throw new IllegalArgumentException("regEx cannot be null or empty");
@@ -834,6 +869,11 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 		    // Write the trace to file
 		    addToBufferSafely(eventData, formattedEventData);
 
+		    // Deliver the trace to subscribers of this console
+		    if (null != traceFanout) {
+			traceFanout.publish(eventData);
+		    }
+
 		    // Verify for crash in currently read trace
 		    if (enableCrashAnalysis) {
 			checkForCrash((Device) dut, eventData);
@@ -889,6 +929,45 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
 	return gatewayTraceProvider;
     }
 
+    /**
+     * Gets the fan-out of the device console trace. Subscribers receive each line read from the console through their
+     * own bounded queue.
+     * 
+     * @return Trace fan-out, null if trace is not initialized
+     */
+    public TraceFanout getTraceFanout() {
+	return traceFanout;
+    }
+
+    /**
+     * Registers client device using the trace of this gateway
+     * 
+     * @param client
+     *            Client device
+     * @return Number of clients using the trace
+     */
+    protected int addDependentClient(Dut client) {
+	return null != traceFanout ? traceFanout.addDependentDevice(client.getHostMacAddress()) : 1;
+    }
+
+    /**
+     * Removes client device using the trace of this gateway
+     * 
+     * @param client
+     *            Client device
+     * @return true if no other client uses the trace and gateway trace can be stopped
+     */
+    protected boolean removeDependentClient(Dut client) {
+	if (null == traceFanout) {
+	    return true;
+	}
+	int remainingClients = traceFanout.removeDependentDevice(client.getHostMacAddress());
+	if (remainingClients > 0) {
+	    LOGGER.info("Gateway trace still used by {} client(s), not stopping", remainingClients);
+	}
+	return remainingClients == 0;
+    }
+
     /**
      * 
      * This method prevents overflow of buffer with duplicate logs..If logs are flooding, after 100 count,they wont be
@@ -896,7 +975,7 @@ public abstract class AbstractTraceProviderImpl implements ConnectionTraceProvid
      * 
      * @param eventData
      */
-    private void addToBufferSafely(String eventData, String prefix) {
+    protected void addToBufferSafely(String eventData, String prefix) {
 	// LOGGER.info("Inside addToBufferSafely");
 	int maxLogsRepetetionAloowedValue = MAX_LOG_REPETIONS_ALLOWABLE;
 	String evenDataLogToCompare = stripOffTime(eventData);
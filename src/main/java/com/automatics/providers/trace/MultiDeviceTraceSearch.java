@@ -0,0 +1,294 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.trace;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Dut;
+import com.automatics.enums.TraceMatchMode;
+
+/**
+ * Searches trace of multiple devices concurrently. Devices whose trace provider publishes to a {@link TraceFanout} are
+ * matched through trace subscriptions, without polling the trace buffer. Other trace providers are searched on a
+ * worker thread. The search completes when the pattern is found on any device or on all devices, depending on the
+ * {@link TraceMatchMode}, or when the timeout expires.
+ *
+ */
+public class MultiDeviceTraceSearch {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MultiDeviceTraceSearch.class);
+
+    /** Scheduler completing searches on timeout */
+    private static final ScheduledExecutorService TIMEOUT_SCHEDULER = Executors
+	    .newSingleThreadScheduledExecutor(new DaemonThreadFactory("TraceSearchTimeout"));
+
+    /** Workers searching trace providers not publishing to a fan-out */
+    private static final ExecutorService SEARCH_EXECUTOR = Executors
+	    .newCachedThreadPool(new DaemonThreadFactory("TraceSearch"));
+
+    private final Map<Dut, String> devicePatterns;
+
+    private final TraceMatchMode matchMode;
+
+    private final boolean searchFromStart;
+
+    /** Match of each device, completed with matching line or null if not found */
+    private final Map<String, CompletableFuture<String>> deviceMatches = new LinkedHashMap<String, CompletableFuture<String>>();
+
+    /** Matching line of each device where pattern is found */
+    private final Map<String, String> matchedLines = new ConcurrentHashMap<String, String>();
+
+    private final Map<TraceSubscriber, TraceFanout> subscriptions = new ConcurrentHashMap<TraceSubscriber, TraceFanout>();
+
+    private final List<Future<?>> searchTasks = Collections.synchronizedList(new ArrayList<Future<?>>());
+
+    private final CompletableFuture<Map<String, String>> result = new CompletableFuture<Map<String, String>>();
+
+    private ScheduledFuture<?> timeoutTask = null;
+
+    /**
+     * Creates trace search for the given devices
+     * 
+     * @param devicePatterns
+     *            Regular expression to search for each device
+     * @param matchMode
+     *            Whether pattern should be found on any device or on all devices
+     * @param searchFromStart
+     *            true to search the existing trace buffer before waiting for new trace lines
+     */
+    public MultiDeviceTraceSearch(Map<Dut, String> devicePatterns, TraceMatchMode matchMode,
+	    boolean searchFromStart) {
+	this.devicePatterns = new LinkedHashMap<Dut, String>(devicePatterns);
+	this.matchMode = matchMode;
+	this.searchFromStart = searchFromStart;
+	for (Dut device : this.devicePatterns.keySet()) {
+	    deviceMatches.put(device.getHostMacAddress(), new CompletableFuture<String>());
+	}
+    }
+
+    /**
+     * Starts searching the trace of all devices
+     * 
+     * @param timeoutInMilliseconds
+     *            Maximum wait time for the whole search
+     * @return Future completed with the matching line of each device where pattern is found, keyed by device mac
+     */
+    public CompletableFuture<Map<String, String>> start(final long timeoutInMilliseconds) {
+	if (devicePatterns.isEmpty()) {
+	    result.complete(new LinkedHashMap<String, String>());
+	    return result;
+	}
+	timeoutTask = TIMEOUT_SCHEDULER.schedule(new Runnable() {
+	    @Override
+	    public void run() {
+		LOGGER.info("Trace search timed out after {} ms, matched devices {}", timeoutInMilliseconds,
+			matchedLines.keySet());
+		complete();
+	    }
+	}, timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+
+	for (Map.Entry<Dut, String> devicePattern : devicePatterns.entrySet()) {
+	    startSearch(devicePattern.getKey(), devicePattern.getValue(), timeoutInMilliseconds);
+	}
+	return result;
+    }
+
+    /**
+     * Gets the match of each device, completed as soon as the pattern is found on that device
+     * 
+     * @return Future of matching line keyed by device mac, completed with null if pattern is not found
+     */
+    public Map<String, CompletableFuture<String>> getDeviceMatches() {
+	return Collections.unmodifiableMap(deviceMatches);
+    }
+
+    /**
+     * Stops the search, completing it with the matches found so far
+     */
+    public void cancel() {
+	complete();
+    }
+
+    /**
+     * Checks whether the search result satisfies the match mode
+     * 
+     * @param matchedLines
+     *            Result of search
+     * @return true if pattern is found on any device for {@link TraceMatchMode#ANY_OF}, or on all devices for
+     *         {@link TraceMatchMode#ALL_OF}
+     */
+    public boolean isSatisfied(Map<String, String> matchedLines) {
+	return TraceMatchMode.ANY_OF == matchMode ? !matchedLines.isEmpty()
+		: matchedLines.size() == deviceMatches.size();
+    }
+
+    private void startSearch(final Dut device, final String regex, final long timeoutInMilliseconds) {
+	final String macAddress = device.getHostMacAddress();
+	final TraceProvider trace = device.getTrace();
+	if (null == trace) {
+	    LOGGER.error("Trace is not available for device {}", macAddress);
+	    onNoMatch(macAddress);
+	    return;
+	}
+	TraceFanout fanout = (trace instanceof AbstractTraceProviderImpl)
+		? ((AbstractTraceProviderImpl) trace).getTraceFanout() : null;
+	if (null != fanout) {
+	    TraceSubscriber subscriber = fanout.subscribe("search-" + macAddress, regex, new TraceListener() {
+		@Override
+		public void onTrace(String traceLine) {
+		    onMatch(macAddress, traceLine);
+		}
+	    });
+	    subscriptions.put(subscriber, fanout);
+	    if (result.isDone()) {
+		unsubscribeAll();
+	    } else {
+		/*
+		 * Lines buffered before subscription, from the start of the buffer or from the mark, are searched once. New
+		 * lines are delivered by the subscription.
+		 */
+		String bufferedMatch = searchTrace(trace, regex, 1, macAddress);
+		if (null != bufferedMatch) {
+		    onMatch(macAddress, bufferedMatch);
+		}
+	    }
+	} else {
+	    searchTasks.add(SEARCH_EXECUTOR.submit(new Runnable() {
+		@Override
+		public void run() {
+		    String traceLine = searchTrace(trace, regex, timeoutInMilliseconds, macAddress);
+		    if (null != traceLine) {
+			onMatch(macAddress, traceLine);
+		    } else {
+			onNoMatch(macAddress);
+		    }
+		}
+	    }));
+	}
+    }
+
+    private String searchTrace(TraceProvider trace, String regex, long timeoutInMilliseconds, String macAddress) {
+	String traceLine = null;
+	try {
+	    traceLine = trace.searchAndWaitForTrace(regex, timeoutInMilliseconds, searchFromStart, true, false);
+	} catch (IOException e) {
+	    LOGGER.error("Failed to search trace of device {}: {}", macAddress, e.getMessage());
+	}
+	return traceLine;
+    }
+
+    private void onMatch(String macAddress, String traceLine) {
+	CompletableFuture<String> deviceMatch = deviceMatches.get(macAddress);
+	if (null != deviceMatch && !deviceMatch.isDone() && null == matchedLines.putIfAbsent(macAddress, traceLine)) {
+	    deviceMatch.complete(traceLine);
+	    LOGGER.info("Trace matched on device {} : {}", macAddress, traceLine);
+	    if (TraceMatchMode.ANY_OF == matchMode || matchedLines.size() == deviceMatches.size()) {
+		complete();
+	    }
+	}
+    }
+
+    private void onNoMatch(String macAddress) {
+	CompletableFuture<String> deviceMatch = deviceMatches.get(macAddress);
+	if (null != deviceMatch && deviceMatch.complete(null)) {
+	    if (TraceMatchMode.ALL_OF == matchMode || isAllDevicesCompleted()) {
+		// Match on all devices is no longer possible or no device is left to match
+		complete();
+	    }
+	}
+    }
+
+    private boolean isAllDevicesCompleted() {
+	for (CompletableFuture<String> deviceMatch : deviceMatches.values()) {
+	    if (!deviceMatch.isDone()) {
+		return false;
+	    }
+	}
+	return true;
+    }
+
+    private void complete() {
+	if (result.isDone()) {
+	    return;
+	}
+	unsubscribeAll();
+	synchronized (searchTasks) {
+	    for (Future<?> searchTask : searchTasks) {
+		searchTask.cancel(true);
+	    }
+	}
+	if (null != timeoutTask) {
+	    timeoutTask.cancel(false);
+	}
+	Map<String, String> matches = new LinkedHashMap<String, String>();
+	for (Map.Entry<String, CompletableFuture<String>> deviceMatch : deviceMatches.entrySet()) {
+	    deviceMatch.getValue().complete(null);
+	    String traceLine = matchedLines.get(deviceMatch.getKey());
+	    if (null != traceLine) {
+		matches.put(deviceMatch.getKey(), traceLine);
+	    }
+	}
+	result.complete(matches);
+    }
+
+    private void unsubscribeAll() {
+	for (Map.Entry<TraceSubscriber, TraceFanout> subscription : subscriptions.entrySet()) {
+	    subscription.getValue().unsubscribe(subscription.getKey());
+	    subscriptions.remove(subscription.getKey());
+	}
+    }
+
+    /**
+     * Creates daemon threads so that pending searches do not block JVM exit
+     */
+    private static class DaemonThreadFactory implements ThreadFactory {
+
+	private final String namePrefix;
+
+	private final AtomicInteger count = new AtomicInteger();
+
+	DaemonThreadFactory(String namePrefix) {
+	    this.namePrefix = namePrefix;
+	}
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+	    Thread thread = new Thread(runnable, namePrefix + "-" + count.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    }
+}
@@ -0,0 +1,236 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.trace;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.AutomaticsUtils;
+
+/**
+ * Fans out the trace read from a single device console to multiple subscribers. There is one instance per physical
+ * console, shared by all trace providers of the device and by client devices which depend on the trace of their
+ * gateway. Each subscriber has its own bounded queue and dispatch thread.
+ *
+ */
+public class TraceFanout {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceFanout.class);
+
+    /** Property for queue capacity of trace subscribers */
+    private static final String PROP_SUBSCRIBER_QUEUE_CAPACITY = "trace.subscriber.queue.capacity";
+
+    /** Default queue capacity of trace subscribers */
+    private static final int DEFAULT_SUBSCRIBER_QUEUE_CAPACITY = 10000;
+
+    private static final Map<String, TraceFanout> FANOUTS = new ConcurrentHashMap<String, TraceFanout>();
+
+    private final String consoleId;
+
+    private final List<TraceSubscriber> subscribers = new CopyOnWriteArrayList<TraceSubscriber>();
+
+    private final Set<String> dependentDevices = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    private TraceFanout(String consoleId) {
+	this.consoleId = consoleId;
+    }
+
+    /**
+     * Gets the fan-out of the console of given device
+     * 
+     * @param macAddress
+     *            Mac address of device owning the console
+     * @return Trace fan-out for the console
+     */
+    public static TraceFanout forConsole(String macAddress) {
+	String consoleId = AutomaticsUtils.getCleanMac(macAddress).toUpperCase();
+	TraceFanout fanout = FANOUTS.get(consoleId);
+	if (null == fanout) {
+	    synchronized (FANOUTS) {
+		fanout = FANOUTS.get(consoleId);
+		if (null == fanout) {
+		    fanout = new TraceFanout(consoleId);
+		    FANOUTS.put(consoleId, fanout);
+		}
+	    }
+	}
+	return fanout;
+    }
+
+    /**
+     * Subscribes to all trace lines of the console with default queue capacity
+     * 
+     * @param name
+     *            Subscriber name
+     * @param listener
+     *            Listener receiving the lines
+     * @return Subscriber
+     */
+    public TraceSubscriber subscribe(String name, TraceListener listener) {
+	return subscribe(name, null, getDefaultCapacity(), listener);
+    }
+
+    /**
+     * Subscribes to trace lines matching the regex with default queue capacity
+     * 
+     * @param name
+     *            Subscriber name
+     * @param filterRegex
+     *            Only lines matching the regex are delivered, null to receive all lines
+     * @param listener
+     *            Listener receiving the lines
+     * @return Subscriber
+     */
+    public TraceSubscriber subscribe(String name, String filterRegex, TraceListener listener) {
+	return subscribe(name, filterRegex, getDefaultCapacity(), listener);
+    }
+
+    /**
+     * Subscribes to trace lines of the console
+     * 
+     * @param name
+     *            Subscriber name
+     * @param filterRegex
+     *            Only lines matching the regex are delivered, null to receive all lines
+     * @param capacity
+     *            Maximum number of lines queued for the subscriber
+     * @param listener
+     *            Listener receiving the lines
+     * @return Subscriber
+     */
+    public TraceSubscriber subscribe(String name, String filterRegex, int capacity, TraceListener listener) {
+	Pattern filter = null != filterRegex ? Pattern.compile(filterRegex) : null;
+	TraceSubscriber subscriber = new TraceSubscriber(consoleId, name, filter, capacity, listener);
+	subscribers.add(subscriber);
+	LOGGER.info("Trace subscriber {} added for console {}, total subscribers {}", name, consoleId,
+		subscribers.size());
+	return subscriber;
+    }
+
+    /**
+     * Removes the subscriber
+     * 
+     * @param subscriber
+     *            Subscriber to remove
+     */
+    public void unsubscribe(TraceSubscriber subscriber) {
+	if (null != subscriber && subscribers.remove(subscriber)) {
+	    subscriber.stop();
+	    LOGGER.info("Trace subscriber {} removed from console {}", subscriber.getName(), consoleId);
+	}
+    }
+
+    /**
+     * Publishes a line read from the console to all subscribers
+     * 
+     * @param traceLine
+     *            Trace line
+     */
+    public void publish(String traceLine) {
+	if (null == traceLine) {
+	    return;
+	}
+	for (TraceSubscriber subscriber : subscribers) {
+	    subscriber.offer(traceLine);
+	}
+    }
+
+    /**
+     * Waits for the next trace line matching the regex, without polling the trace buffer
+     * 
+     * @param regex
+     *            Regular expression to match
+     * @param timeoutInMilliseconds
+     *            Maximum wait time
+     * @return Matching line, null if not found within timeout
+     */
+    public String awaitMatch(String regex, long timeoutInMilliseconds) {
+	final AtomicReference<String> match = new AtomicReference<String>();
+	final CountDownLatch latch = new CountDownLatch(1);
+	TraceSubscriber subscriber = subscribe("waiter", regex, getDefaultCapacity(), new TraceListener() {
+	    @Override
+	    public void onTrace(String traceLine) {
+		if (match.compareAndSet(null, traceLine)) {
+		    latch.countDown();
+		}
+	    }
+	});
+	try {
+	    latch.await(timeoutInMilliseconds, TimeUnit.MILLISECONDS);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	} finally {
+	    unsubscribe(subscriber);
+	}
+	return match.get();
+    }
+
+    /**
+     * Registers a device depending on this console trace, for eg: a client device using trace of its gateway
+     * 
+     * @param macAddress
+     *            Mac address of dependent device
+     * @return Number of dependent devices
+     */
+    public int addDependentDevice(String macAddress) {
+	dependentDevices.add(macAddress);
+	return dependentDevices.size();
+    }
+
+    /**
+     * Removes a dependent device
+     * 
+     * @param macAddress
+     *            Mac address of dependent device
+     * @return Number of remaining dependent devices
+     */
+    public int removeDependentDevice(String macAddress) {
+	dependentDevices.remove(macAddress);
+	return dependentDevices.size();
+    }
+
+    public List<TraceSubscriber> getSubscribers() {
+	return Collections.unmodifiableList(subscribers);
+    }
+
+    public String getConsoleId() {
+	return consoleId;
+    }
+
+    private static int getDefaultCapacity() {
+	try {
+	    return Integer.parseInt(AutomaticsPropertyUtility.getProperty(PROP_SUBSCRIBER_QUEUE_CAPACITY,
+		    String.valueOf(DEFAULT_SUBSCRIBER_QUEUE_CAPACITY)));
+	} catch (NumberFormatException e) {
+	    return DEFAULT_SUBSCRIBER_QUEUE_CAPACITY;
+	}
+    }
+}
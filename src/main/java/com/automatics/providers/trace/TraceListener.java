@@ -0,0 +1,33 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.trace;
+
+/**
+ * Receives trace lines delivered by a {@link TraceSubscriber}
+ *
+ */
+public interface TraceListener {
+
+    /**
+     * Invoked on the subscriber dispatch thread for each trace line accepted by the subscriber
+     * 
+     * @param traceLine
+     *            Trace line read from device console
+     */
+    void onTrace(String traceLine);
+}
@@ -0,0 +1,188 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.providers.trace;
+
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.metrics.Counter;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.metrics.Timer;
+
+/**
+ * Subscriber of a {@link TraceFanout}. Accepted trace lines are queued in a bounded queue and delivered to the listener
+ * on a dedicated thread, so that a slow subscriber does not block the console reader. When the queue is full the
+ * oldest line is dropped.
+ *
+ */
+public class TraceSubscriber {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TraceSubscriber.class);
+
+    /** Metric name for time between reading a line and delivering it to subscriber */
+    private static final String METRIC_SUBSCRIBER_LAG = "trace.subscriber.lag";
+
+    /** Metric name for lines dropped due to full subscriber queue */
+    private static final String METRIC_SUBSCRIBER_DROPPED = "trace.subscriber.dropped";
+
+    /** Tag name for subscriber name */
+    private static final String TAG_SUBSCRIBER = "subscriber";
+
+    private final String name;
+
+    private final Pattern filter;
+
+    private final TraceListener listener;
+
+    private final BlockingQueue<QueuedLine> queue;
+
+    private final Timer lagTimer;
+
+    private final Counter droppedCounter;
+
+    private volatile boolean active = true;
+
+    private final Thread dispatchThread;
+
+    /**
+     * Creates and starts a subscriber
+     * 
+     * @param consoleId
+     *            Id of the console the subscriber is attached to
+     * @param name
+     *            Subscriber name used in thread name and metrics
+     * @param filter
+     *            Lines not matching the filter are skipped, null accepts all lines
+     * @param capacity
+     *            Maximum lines queued for the subscriber
+     * @param listener
+     *            Listener receiving the lines
+     */
+    TraceSubscriber(String consoleId, String name, Pattern filter, int capacity, TraceListener listener) {
+	this.name = name;
+	this.filter = filter;
+	this.listener = listener;
+	this.queue = new ArrayBlockingQueue<QueuedLine>(Math.max(1, capacity));
+
+	Map<String, String> tags = MetricsRegistry.tags(MetricsRegistry.TAG_MAC, consoleId, "fanout");
+	tags.put(TAG_SUBSCRIBER, name);
+	lagTimer = MetricsRegistry.get().timer(METRIC_SUBSCRIBER_LAG, tags);
+	droppedCounter = MetricsRegistry.get().counter(METRIC_SUBSCRIBER_DROPPED, tags);
+
+	dispatchThread = new Thread(new Runnable() {
+	    @Override
+	    public void run() {
+		dispatch();
+	    }
+	}, "TraceSubscriber_" + name + "_(" + consoleId + ")");
+	dispatchThread.setDaemon(true);
+	dispatchThread.start();
+    }
+
+    public String getName() {
+	return name;
+    }
+
+    /**
+     * Gets number of lines waiting to be delivered
+     * 
+     * @return Queue depth
+     */
+    public int getQueueDepth() {
+	return queue.size();
+    }
+
+    /**
+     * Gets number of lines dropped since the subscriber queue was full
+     * 
+     * @return Dropped line count
+     */
+    public long getDroppedCount() {
+	return droppedCounter.getCount();
+    }
+
+    public boolean isActive() {
+	return active;
+    }
+
+    /**
+     * Queues the line if accepted by the filter, drops the oldest queued line if the queue is full
+     * 
+     * @param traceLine
+     *            Trace line
+     */
+    void offer(String traceLine) {
+	if (!active || (null != filter && !filter.matcher(traceLine).find())) {
+	    return;
+	}
+	QueuedLine queuedLine = new QueuedLine(traceLine);
+	while (!queue.offer(queuedLine)) {
+	    if (null != queue.poll()) {
+		droppedCounter.increment();
+	    }
+	}
+    }
+
+    /**
+     * Stops delivery, queued lines are discarded
+     */
+    void stop() {
+	active = false;
+	dispatchThread.interrupt();
+	queue.clear();
+    }
+
+    private void dispatch() {
+	while (active) {
+	    try {
+		QueuedLine queuedLine = queue.poll(1, TimeUnit.SECONDS);
+		if (null != queuedLine) {
+		    lagTimer.record(System.currentTimeMillis() - queuedLine.queuedTime);
+		    listener.onTrace(queuedLine.traceLine);
+		}
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		break;
+	    } catch (Exception e) {
+		LOGGER.error("Trace subscriber {} failed to process line", name, e);
+	    }
+	}
+    }
+
+    /**
+     * Trace line with the time it was queued
+     */
+    private static class QueuedLine {
+
+	private final String traceLine;
+
+	private final long queuedTime;
+
+	QueuedLine(String traceLine) {
+	    this.traceLine = traceLine;
+	    this.queuedTime = System.currentTimeMillis();
+	}
+    }
+}
@@ -39,6 +39,8 @@ import com.automatics.enums.DeviceCategory;
 import com.automatics.enums.ExecuteOnType;
 import com.automatics.enums.JobStatusValue;
 import com.automatics.manager.device.DeviceManager;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.metrics.Timer.TimerContext;
 import com.automatics.providers.DeviceAccessValidator;
 import com.automatics.providers.rack.ImageCompareProvider;
 import com.automatics.providers.rack.OcrProvider;
@@ -67,6 +69,12 @@ public class RackDeviceValidationManager {
 
     private static final String RDKV_CLIENT_DEVICES = "rdkvClientDevices";
 
+    /** Metric name for rack device initialization */
+    private static final String METRIC_RACK_INITIALIZATION = "rack.device.initialization";
+
+    /** Metric name for devices failed during rack initialization */
+    private static final String METRIC_RACK_INITIALIZATION_FAILURES = "rack.device.initialization.failures";
+
     boolean isGatewayAvailableForIp = false;
 
     protected DeviceAccessValidator deviceAccessValidator;
@@ -123,18 +131,38 @@ public class RackDeviceValidationManager {
      */
     public List<DutInfo> manageSettopLocking(List<String> settopMacs) {
 
-	Map<String, Map<String, Dut>> deviceList = splitRdkvClientAndOtherDevices(settopMacs);
+	TimerContext timerContext = MetricsRegistry.get()
+		.timer(METRIC_RACK_INITIALIZATION, MetricsRegistry.tags("fetch_devices")).start();
+	Map<String, Map<String, Dut>> deviceList = null;
+	try {
+	    deviceList = splitRdkvClientAndOtherDevices(settopMacs);
+	} finally {
+	    timerContext.stop();
+	}
 
 	Map<String, Dut> nonClientDevices = deviceList.get(NON_RDKV_CLIENT_DEVICES);
 	if (null != nonClientDevices && !nonClientDevices.isEmpty()) {
-	    initializeNonClientDevices(nonClientDevices);
+	    timerContext = MetricsRegistry.get()
+		    .timer(METRIC_RACK_INITIALIZATION, MetricsRegistry.tags("initialize_non_client_devices")).start();
+	    try {
+		initializeNonClientDevices(nonClientDevices);
+	    } finally {
+		timerContext.stop();
+	    }
 	}
 
 	Map<String, Dut> clientDevices = deviceList.get(RDKV_CLIENT_DEVICES);
 	if (null != clientDevices && !clientDevices.isEmpty()) {
-	    initializeRdkvClientConnectedGatewayDevices(clientDevices);
-	    initializeClientDevices(clientDevices);
+	    timerContext = MetricsRegistry.get()
+		    .timer(METRIC_RACK_INITIALIZATION, MetricsRegistry.tags("initialize_client_devices")).start();
+	    try {
+		initializeRdkvClientConnectedGatewayDevices(clientDevices);
+		initializeClientDevices(clientDevices);
+	    } finally {
+		timerContext.stop();
+	    }
 	}
+	MetricsRegistry.get().counter(METRIC_RACK_INITIALIZATION_FAILURES, null).increment(failedSettopList.size());
 
 	rackInitializer.setBadSettopsWhichTriedToLock(failedSettopList);
 	return lockedSettopsAfterInitialization;
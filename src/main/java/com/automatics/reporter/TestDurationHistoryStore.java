@@ -0,0 +1,406 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.reporter;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.dataobjects.TestDurationRecordDO;
+import com.automatics.device.Dut;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.CommonMethods;
+
+/**
+ * Local append-only history of test and test step execution durations keyed by test UID, device model and firmware
+ * version. Each record is one tab separated line, so the file can be appended across runs and read back by
+ * {@link TestDurationReportGenerator} or by schedulers that need realistic cost estimates.
+ * 
+ * The history is read once per run and kept in memory. Only the latest records of each test or step on each model
+ * are kept, older records are removed from the file when it is first read.
+ *
+ */
+public class TestDurationHistoryStore {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestDurationHistoryStore.class);
+
+    /** Property to enable or disable the duration history */
+    public static final String PROPERTY_DURATION_HISTORY_ENABLED = "test.duration.history.enabled";
+
+    /** Property to configure the duration history file location */
+    public static final String PROPERTY_DURATION_HISTORY_FILE = "test.duration.history.file";
+
+    /** Property to configure the number of records kept per test or step and device model */
+    public static final String PROPERTY_DURATION_HISTORY_MAX_RECORDS = "test.duration.history.max.records";
+
+    /** Default duration history file name */
+    public static final String DEFAULT_DURATION_HISTORY_FILE_NAME = "test_duration_history.tsv";
+
+    /** Default number of records kept per test or step and device model */
+    private static final long DEFAULT_MAX_RECORDS = 20;
+
+    /** Singleton instance */
+    private static TestDurationHistoryStore historyStore = null;
+
+    /** Time spent in framework sleeps by the current thread */
+    private static final ThreadLocal<long[]> THREAD_SLEEP_DURATION = new ThreadLocal<long[]>() {
+	@Override
+	protected long[] initialValue() {
+	    return new long[1];
+	}
+    };
+
+    /** Tests in progress, keyed by device MAC */
+    private final Map<String, InProgressTest> inProgressTests = new ConcurrentHashMap<String, InProgressTest>();
+
+    /** History file */
+    private final File historyFile;
+
+    /** Number of records kept per test or step and device model */
+    private final int maxRecords;
+
+    /** Records kept in memory, keyed by record type, test UID, step number and model. Loaded on first use. */
+    private Map<String, LinkedList<TestDurationRecordDO>> records = null;
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private TestDurationHistoryStore() {
+	historyFile = new File(getHistoryFileLocation());
+	maxRecords = (int) Math.max(1, AutomaticsPropertyUtility.getLongProperty(PROPERTY_DURATION_HISTORY_MAX_RECORDS,
+		DEFAULT_MAX_RECORDS));
+    }
+
+    /**
+     * Get singleton instance for {@link TestDurationHistoryStore}.
+     *
+     * @return The singleton instance of {@link TestDurationHistoryStore}.
+     */
+    public static synchronized TestDurationHistoryStore get() {
+	if (null == historyStore) {
+	    historyStore = new TestDurationHistoryStore();
+	}
+	return historyStore;
+    }
+
+    /**
+     * Accumulates time spent in sleep for the current thread. Called from the common sleep utility.
+     * 
+     * @param milliseconds
+     *            Time slept in milliseconds
+     */
+    public static void recordSleep(long milliseconds) {
+	if (milliseconds > 0) {
+	    THREAD_SLEEP_DURATION.get()[0] += milliseconds;
+	}
+    }
+
+    /**
+     * Marks the start of a test execution on the device
+     * 
+     * @param dut
+     *            Device on which test is executed
+     * @param testUid
+     *            Test UID
+     */
+    public void markTestStart(Dut dut, String testUid) {
+	if (isEnabled() && null != dut) {
+	    inProgressTests.put(dut.getHostMacAddress(), new InProgressTest(testUid, currentSleepDuration()));
+	}
+    }
+
+    /**
+     * Records the duration of a test step, measured from the test start or from the previous step completion
+     * 
+     * @param dut
+     *            Device on which test is executed
+     * @param testUid
+     *            Test UID
+     * @param stepNumber
+     *            Step number
+     * @param status
+     *            Step execution status
+     */
+    public void markStepCompleted(Dut dut, String testUid, String stepNumber, String status) {
+	InProgressTest test = null != dut ? inProgressTests.get(dut.getHostMacAddress()) : null;
+	if (null != test) {
+	    long now = System.currentTimeMillis();
+	    long sleepNow = currentSleepDuration();
+	    append(createRecord(TestDurationRecordDO.TYPE_STEP, dut, testUid, stepNumber, status, test.stepStartTime,
+		    now - test.stepStartTime, sleepNow - test.stepSleepMark));
+	    test.stepStartTime = now;
+	    test.stepSleepMark = sleepNow;
+	}
+    }
+
+    /**
+     * Marks the completion of a test execution on the device and persists the test duration
+     * 
+     * @param dut
+     *            Device on which test is executed
+     * @param testUid
+     *            Test UID
+     * @param status
+     *            Test execution status
+     */
+    public void markTestCompleted(Dut dut, String testUid, String status) {
+	InProgressTest test = null != dut ? inProgressTests.remove(dut.getHostMacAddress()) : null;
+	if (null != test) {
+	    append(createRecord(TestDurationRecordDO.TYPE_TEST, dut,
+		    CommonMethods.isNotNull(testUid) ? testUid : test.testUid, null, status, test.startTime,
+		    System.currentTimeMillis() - test.startTime, currentSleepDuration() - test.sleepMark));
+	}
+    }
+
+    /**
+     * Gets all records of the history
+     * 
+     * @return List of records, empty list if history is not available
+     */
+    public synchronized List<TestDurationRecordDO> readRecords() {
+	List<TestDurationRecordDO> allRecords = new ArrayList<TestDurationRecordDO>();
+	for (List<TestDurationRecordDO> keyRecords : getRecords().values()) {
+	    allRecords.addAll(keyRecords);
+	}
+	return allRecords;
+    }
+
+    /**
+     * Gets the estimated duration of a test on a device model, based on the median of previous executions
+     * 
+     * @param testUid
+     *            Test UID
+     * @param model
+     *            Device model
+     * @return Estimated duration in milliseconds, -1 if no history is available
+     */
+    public synchronized long getEstimatedDuration(String testUid, String model) {
+	List<Long> durations = new ArrayList<Long>();
+	List<TestDurationRecordDO> testRecords = getRecords()
+		.get(getRecordKey(TestDurationRecordDO.TYPE_TEST, testUid, null, model));
+	if (null != testRecords) {
+	    for (TestDurationRecordDO record : testRecords) {
+		durations.add(record.getDuration());
+	    }
+	}
+	long estimate = -1;
+	if (!durations.isEmpty()) {
+	    Collections.sort(durations);
+	    estimate = durations.get(durations.size() / 2);
+	}
+	return estimate;
+    }
+
+    /**
+     * @return the history file
+     */
+    public File getHistoryFile() {
+	return historyFile;
+    }
+
+    /**
+     * Checks whether duration history is enabled. Enabled by default.
+     * 
+     * @return true if enabled
+     */
+    public static boolean isEnabled() {
+	return !Boolean.FALSE.toString().equalsIgnoreCase(
+		AutomaticsPropertyUtility.getProperty(PROPERTY_DURATION_HISTORY_ENABLED, Boolean.TRUE.toString()));
+    }
+
+    private TestDurationRecordDO createRecord(String recordType, Dut dut, String testUid, String stepNumber,
+	    String status, long startTime, long duration, long sleepDuration) {
+	TestDurationRecordDO record = new TestDurationRecordDO();
+	record.setRecordType(recordType);
+	record.setTestUid(testUid);
+	record.setStepNumber(stepNumber);
+	record.setStatus(status);
+	record.setStartTime(startTime);
+	record.setDuration(duration);
+	record.setSleepDuration(Math.min(sleepDuration, duration));
+	record.setModel(dut.getModel());
+	record.setFirmwareVersion(dut.getFirmwareVersion());
+	record.setMacAddress(dut.getHostMacAddress());
+	return record;
+    }
+
+    /**
+     * Appends the record to history file and to the records in memory
+     */
+    private synchronized void append(TestDurationRecordDO record) {
+	addRecord(getRecords(), record);
+	writeRecords(Collections.singletonList(record), true);
+    }
+
+    /**
+     * Gets the records in memory, reading the history file on first use. Records beyond the maximum per key are
+     * dropped and the file is rewritten without them.
+     */
+    private Map<String, LinkedList<TestDurationRecordDO>> getRecords() {
+	if (null == records) {
+	    records = new HashMap<String, LinkedList<TestDurationRecordDO>>();
+	    if (historyFile.isFile()) {
+		int lineCount = 0;
+		BufferedReader reader = null;
+		try {
+		    reader = new BufferedReader(new FileReader(historyFile));
+		    String line = null;
+		    while ((line = reader.readLine()) != null) {
+			lineCount++;
+			TestDurationRecordDO record = TestDurationRecordDO.fromRecordLine(line);
+			if (null != record) {
+			    addRecord(records, record);
+			}
+		    }
+		} catch (IOException e) {
+		    LOGGER.error("Failed to read test duration history from {}", historyFile, e);
+		} finally {
+		    closeQuietly(reader);
+		}
+
+		List<TestDurationRecordDO> keptRecords = new ArrayList<TestDurationRecordDO>();
+		for (List<TestDurationRecordDO> keyRecords : records.values()) {
+		    keptRecords.addAll(keyRecords);
+		}
+		if (keptRecords.size() < lineCount) {
+		    LOGGER.info("Removing {} old records from test duration history {}", lineCount - keptRecords.size(),
+			    historyFile);
+		    writeRecords(keptRecords, false);
+		}
+	    }
+	}
+	return records;
+    }
+
+    /**
+     * Adds the record to its key, dropping the oldest record of the key when the maximum is exceeded
+     */
+    private void addRecord(Map<String, LinkedList<TestDurationRecordDO>> recordMap, TestDurationRecordDO record) {
+	String key = getRecordKey(record.getRecordType(), record.getTestUid(), record.getStepNumber(),
+		record.getModel());
+	LinkedList<TestDurationRecordDO> keyRecords = recordMap.get(key);
+	if (null == keyRecords) {
+	    keyRecords = new LinkedList<TestDurationRecordDO>();
+	    recordMap.put(key, keyRecords);
+	}
+	keyRecords.add(record);
+	if (keyRecords.size() > maxRecords) {
+	    keyRecords.removeFirst();
+	}
+    }
+
+    /**
+     * Writes the records to history file
+     * 
+     * @param recordsToWrite
+     *            Records to be written
+     * @param isAppend
+     *            true to append to the file, false to replace its content
+     */
+    private void writeRecords(List<TestDurationRecordDO> recordsToWrite, boolean isAppend) {
+	BufferedWriter writer = null;
+	try {
+	    File parent = historyFile.getAbsoluteFile().getParentFile();
+	    if (null != parent && !parent.isDirectory()) {
+		parent.mkdirs();
+	    }
+	    writer = new BufferedWriter(new FileWriter(historyFile, isAppend));
+	    for (TestDurationRecordDO record : recordsToWrite) {
+		writer.write(record.toRecordLine());
+		writer.newLine();
+	    }
+	} catch (IOException e) {
+	    LOGGER.error("Failed to write test duration history to {}", historyFile, e);
+	} finally {
+	    closeQuietly(writer);
+	}
+    }
+
+    private static String getRecordKey(String recordType, String testUid, String stepNumber, String model) {
+	// Missing values are read back from the file as empty strings
+	StringBuilder key = new StringBuilder(recordType);
+	for (String value : new String[] { testUid, stepNumber, model }) {
+	    key.append(AutomaticsConstants.COLON)
+		    .append(null == value ? AutomaticsConstants.EMPTY_STRING : value.trim());
+	}
+	return key.toString();
+    }
+
+    private static long currentSleepDuration() {
+	return THREAD_SLEEP_DURATION.get()[0];
+    }
+
+    private static String getHistoryFileLocation() {
+	String location = AutomaticsPropertyUtility.getProperty(PROPERTY_DURATION_HISTORY_FILE);
+	if (CommonMethods.isNull(location)) {
+	    location = System.getProperty("user.home") + AutomaticsConstants.PATH_SEPARATOR + ".automatics"
+		    + AutomaticsConstants.PATH_SEPARATOR + DEFAULT_DURATION_HISTORY_FILE_NAME;
+	}
+	return location;
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+	if (null != closeable) {
+	    try {
+		closeable.close();
+	    } catch (IOException e) {
+		LOGGER.error("Failed to close test duration history stream", e);
+	    }
+	}
+    }
+
+    /**
+     * Book keeping for a test in progress
+     */
+    private static class InProgressTest {
+
+	private final String testUid;
+
+	private final long startTime;
+
+	private final long sleepMark;
+
+	private long stepStartTime;
+
+	private long stepSleepMark;
+
+	InProgressTest(String testUid, long sleepMark) {
+	    this.testUid = testUid;
+	    this.startTime = System.currentTimeMillis();
+	    this.sleepMark = sleepMark;
+	    this.stepStartTime = startTime;
+	    this.stepSleepMark = sleepMark;
+	}
+    }
+}
@@ -0,0 +1,246 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.reporter;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.constants.ReportsConstants;
+import com.automatics.dataobjects.TestDurationRecordDO;
+import com.automatics.utils.AutomaticsPropertyUtility;
+
+/**
+ * Generates the critical path report from the test duration history. The report lists the slowest tests and steps,
+ * the split between time spent in sleeps and the remaining (device I/O and processing) time, and tests which became
+ * slower between firmware builds of the same device model.
+ *
+ */
+public class TestDurationReportGenerator {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestDurationReportGenerator.class);
+
+    /** Property to configure the number of entries listed per report section */
+    public static final String PROPERTY_REPORT_TOP_COUNT = "test.duration.report.top.count";
+
+    /** Property to configure the percentage increase reported as regression */
+    public static final String PROPERTY_REGRESSION_THRESHOLD_PERCENT = "test.duration.regression.threshold.percent";
+
+    /** Report file name */
+    public static final String REPORT_FILE_NAME = "test_duration_report.txt";
+
+    /** Regressions smaller than this are ignored irrespective of the percentage */
+    private static final long MINIMUM_REGRESSION_MILLIS = AutomaticsConstants.FIVE_SECONDS;
+
+    private static final String KEY_SEPARATOR = " | ";
+
+    /**
+     * Generates the report from the history store and writes it to the target folder
+     * 
+     * @return Generated report file, null if report could not be written
+     */
+    public File generateReport() {
+	File reportFile = new File(System.getProperty(ReportsConstants.USR_DIR) + AutomaticsConstants.PATH_SEPARATOR
+		+ AutomaticsConstants.TARGET_FOLDER + AutomaticsConstants.PATH_SEPARATOR + REPORT_FILE_NAME);
+	List<TestDurationRecordDO> records = TestDurationHistoryStore.get().readRecords();
+	if (records.isEmpty()) {
+	    LOGGER.info("No test duration history available, skipping duration report");
+	    return null;
+	}
+
+	BufferedWriter writer = null;
+	try {
+	    reportFile.getParentFile().mkdirs();
+	    writer = new BufferedWriter(new FileWriter(reportFile));
+	    writer.write(buildReport(records));
+	    LOGGER.info("Test duration report generated at {}", reportFile.getAbsolutePath());
+	} catch (IOException e) {
+	    LOGGER.error("Failed to write test duration report", e);
+	    reportFile = null;
+	} finally {
+	    if (null != writer) {
+		try {
+		    writer.close();
+		} catch (IOException e) {
+		    LOGGER.error("Failed to close test duration report", e);
+		}
+	    }
+	}
+	return reportFile;
+    }
+
+    /**
+     * Builds the report content from the given records
+     * 
+     * @param records
+     *            Duration history records
+     * @return Report content
+     */
+    public String buildReport(List<TestDurationRecordDO> records) {
+	int topCount = (int) AutomaticsPropertyUtility.getLongProperty(PROPERTY_REPORT_TOP_COUNT, 20);
+	Map<String, DurationStats> testStats = new LinkedHashMap<String, DurationStats>();
+	Map<String, DurationStats> stepStats = new LinkedHashMap<String, DurationStats>();
+	Map<String, Map<String, DurationStats>> firmwareStats = new LinkedHashMap<String, Map<String, DurationStats>>();
+	DurationStats overall = new DurationStats("ALL TESTS");
+
+	for (TestDurationRecordDO record : records) {
+	    if (record.isTestRecord()) {
+		String key = record.getTestUid() + KEY_SEPARATOR + record.getModel();
+		getStats(testStats, key).add(record);
+		overall.add(record);
+
+		Map<String, DurationStats> perFirmware = firmwareStats.get(key);
+		if (null == perFirmware) {
+		    perFirmware = new LinkedHashMap<String, DurationStats>();
+		    firmwareStats.put(key, perFirmware);
+		}
+		getStats(perFirmware, record.getFirmwareVersion()).add(record);
+	    } else {
+		getStats(stepStats, record.getTestUid() + KEY_SEPARATOR + record.getStepNumber() + KEY_SEPARATOR
+			+ record.getModel()).add(record);
+	    }
+	}
+
+	StringBuilder report = new StringBuilder();
+	report.append("TEST DURATION REPORT (").append(records.size()).append(" records)")
+		.append(AutomaticsConstants.NEW_LINE).append(AutomaticsConstants.NEW_LINE);
+
+	report.append("Time split: total=").append(formatMillis(overall.total)).append(", sleep=")
+		.append(formatMillis(overall.sleep)).append(" (").append(overall.getSleepPercent())
+		.append("%), I/O and processing=").append(formatMillis(overall.total - overall.sleep))
+		.append(AutomaticsConstants.NEW_LINE).append(AutomaticsConstants.NEW_LINE);
+
+	appendSection(report, "SLOWEST TESTS [test uid | model]", testStats, topCount);
+	appendSection(report, "SLOWEST STEPS [test uid | step | model]", stepStats, topCount);
+	appendRegressions(report, firmwareStats);
+	return report.toString();
+    }
+
+    private void appendSection(StringBuilder report, String title, Map<String, DurationStats> stats, int topCount) {
+	List<DurationStats> sorted = new ArrayList<DurationStats>(stats.values());
+	Collections.sort(sorted, new Comparator<DurationStats>() {
+	    @Override
+	    public int compare(DurationStats first, DurationStats second) {
+		return Long.compare(second.getMean(), first.getMean());
+	    }
+	});
+
+	report.append(title).append(AutomaticsConstants.NEW_LINE);
+	for (DurationStats entry : sorted.subList(0, Math.min(topCount, sorted.size()))) {
+	    report.append(String.format("  %-60s runs=%-4d mean=%-10s max=%-10s sleep=%d%%", entry.key, entry.count,
+		    formatMillis(entry.getMean()), formatMillis(entry.max), entry.getSleepPercent()))
+		    .append(AutomaticsConstants.NEW_LINE);
+	}
+	report.append(AutomaticsConstants.NEW_LINE);
+    }
+
+    /**
+     * Compares the mean duration on the latest firmware against the previous firmware for each test and model
+     */
+    private void appendRegressions(StringBuilder report, Map<String, Map<String, DurationStats>> firmwareStats) {
+	int thresholdPercent = (int) AutomaticsPropertyUtility.getLongProperty(PROPERTY_REGRESSION_THRESHOLD_PERCENT,
+		20);
+	report.append("FIRMWARE REGRESSIONS (> ").append(thresholdPercent).append("% slower than previous build)")
+		.append(AutomaticsConstants.NEW_LINE);
+
+	for (Map.Entry<String, Map<String, DurationStats>> entry : firmwareStats.entrySet()) {
+	    List<DurationStats> builds = new ArrayList<DurationStats>(entry.getValue().values());
+	    if (builds.size() < 2) {
+		continue;
+	    }
+	    Collections.sort(builds, new Comparator<DurationStats>() {
+		@Override
+		public int compare(DurationStats first, DurationStats second) {
+		    return Long.compare(first.lastSeen, second.lastSeen);
+		}
+	    });
+	    DurationStats previous = builds.get(builds.size() - 2);
+	    DurationStats latest = builds.get(builds.size() - 1);
+	    long increase = latest.getMean() - previous.getMean();
+	    if (increase > MINIMUM_REGRESSION_MILLIS && increase * 100 > previous.getMean() * thresholdPercent) {
+		report.append(String.format("  %-60s %s (%s) -> %s (%s)", entry.getKey(), previous.key,
+			formatMillis(previous.getMean()), latest.key, formatMillis(latest.getMean())))
+			.append(AutomaticsConstants.NEW_LINE);
+	    }
+	}
+	report.append(AutomaticsConstants.NEW_LINE);
+    }
+
+    private static DurationStats getStats(Map<String, DurationStats> stats, String key) {
+	DurationStats entry = stats.get(key);
+	if (null == entry) {
+	    entry = new DurationStats(key);
+	    stats.put(key, entry);
+	}
+	return entry;
+    }
+
+    private static String formatMillis(long millis) {
+	return String.format("%.1fs", millis / 1000.0);
+    }
+
+    /**
+     * Aggregated durations for one report key
+     */
+    private static class DurationStats {
+
+	private final String key;
+
+	private int count;
+
+	private long total;
+
+	private long sleep;
+
+	private long max;
+
+	private long lastSeen;
+
+	DurationStats(String key) {
+	    this.key = key;
+	}
+
+	void add(TestDurationRecordDO record) {
+	    count++;
+	    total += record.getDuration();
+	    sleep += record.getSleepDuration();
+	    max = Math.max(max, record.getDuration());
+	    lastSeen = Math.max(lastSeen, record.getStartTime());
+	}
+
+	long getMean() {
+	    return count == 0 ? 0 : total / count;
+	}
+
+	long getSleepPercent() {
+	    return total == 0 ? 0 : sleep * 100 / total;
+	}
+    }
+}
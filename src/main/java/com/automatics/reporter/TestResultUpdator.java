@@ -41,6 +41,7 @@ import com.automatics.enums.ExecutionStatus;
 import com.automatics.enums.TestType;
 import com.automatics.http.ServerCommunicator;
 import com.automatics.http.ServerResponse;
+import com.automatics.metrics.MetricsRegistry;
 import com.automatics.tap.AutomaticsTapApi;
 import com.automatics.test.AutomaticsTestBase;
 import com.automatics.utils.AutomaticsPropertyUtility;
@@ -55,6 +56,9 @@ public class TestResultUpdator {
     /** SLF4j logger instance. */
     protected static final Logger LOGGER = LoggerFactory.getLogger(TestResultUpdator.class);
 
+    /** Metric name for execution result update requests */
+    private static final String METRIC_RESULT_UPDATE_POST = "result.update.post";
+
     /** TestPlanExcelReporter instance. */
     private static TestResultUpdator testPlanExcelReporter = null;
 
@@ -125,6 +129,8 @@ public class TestResultUpdator {
 
 	LOGGER.debug("Service Type to update DB " + serviceType);
 
+	TestDurationHistoryStore.get().markStepCompleted(dut, testId, testStepNumber, String.valueOf(status));
+
 	if (ExecuteOnType.GATEWAY.equals(((Device) dut).getExecuteOn())) {
 	    dut = (((Device) dut).getGateWaySettop());
 	    device = (Device) dut;
@@ -322,8 +328,7 @@ public class TestResultUpdator {
 		    shouldRetry = false;
 
 		    // Get the build parameter details from tets manager for the given id
-		    serverResponse = serverCommunicator.postDataToServer(targetUrl.toString(), contentValue, "POST",
-			    120000, null);
+		    serverResponse = postResultUpdate(serverCommunicator, targetUrl.toString(), contentValue);
 
 		    if (serverResponse != null) {
 			if (serverResponse.getResponseCode() == HttpStatus.SC_OK) {
@@ -424,8 +429,7 @@ public class TestResultUpdator {
 		    targetUrl.append("updateManualIdStepWithStatus.htm");
 
 		    // Get the build parameter details from tets manager for the given id
-		    serverResponse = serverCommunicator.postDataToServer(targetUrl.toString(), contentValue, "POST",
-			    120000, null);
+		    serverResponse = postResultUpdate(serverCommunicator, targetUrl.toString(), contentValue);
 
 		    if (serverResponse != null) {
 			if (serverResponse.getResponseCode() == HttpStatus.SC_OK) {
@@ -468,6 +472,8 @@ public class TestResultUpdator {
 
 	LOGGER.debug("Service Type to update DB " + serviceType);
 
+	TestDurationHistoryStore.get().markStepCompleted(dut, testId, testStepNumber, String.valueOf(status));
+
 	if (ExecuteOnType.GATEWAY.equals(((Device) dut).getExecuteOn())) {
 	    dut = (((Device) dut).getGateWaySettop());
 	    firmwareVersion = AutomaticsTapApi.getInstance().getFirmwareVersion(dut);
@@ -636,4 +642,30 @@ public class TestResultUpdator {
 	    invokeExecutionResultUpdate(executionResultStatusDO);
 	}
     }
+
+    /**
+     * Posts the execution result to Automatics and records the request duration
+     * 
+     * @param serverCommunicator
+     *            Server communicator
+     * @param targetUrl
+     *            Result update url
+     * @param contentValue
+     *            Result json
+     * @return Server response
+     */
+    private static ServerResponse postResultUpdate(ServerCommunicator serverCommunicator, String targetUrl,
+	    String contentValue) {
+	ServerResponse serverResponse = null;
+	long startTime = System.currentTimeMillis();
+	try {
+	    serverResponse = serverCommunicator.postDataToServer(targetUrl, contentValue, "POST", 120000, null);
+	} finally {
+	    Map<String, String> tags = MetricsRegistry.tags("update_result");
+	    tags.put(MetricsRegistry.TAG_RESULT,
+		    null != serverResponse ? String.valueOf(serverResponse.getResponseCode()) : "no_response");
+	    MetricsRegistry.get().timer(METRIC_RESULT_UPDATE_POST, tags).record(System.currentTimeMillis() - startTime);
+	}
+	return serverResponse;
+    }
 }
@@ -0,0 +1,255 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.SimulatorConstants;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.AutomaticsUtils;
+import com.automatics.utils.CommonMethods;
+
+/**
+ * Local device simulator for exercising the framework without rack hardware. Holds the simulated devices and the
+ * localhost http server serving the rack device management and WebPA apis. When enabled, the simulator spring context
+ * replaces the partner context so that device connection, trace and snmp data beans resolve to the simulated
+ * implementations.
+ * 
+ * <pre>
+ * -Dsimulator.enabled=true -Dsimulator.device.count=200 -Dsimulator.trace.lines.per.second=50
+ * </pre>
+ *
+ */
+public class DeviceSimulator {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeviceSimulator.class);
+
+    /** Property for device manager base url used by device manager rest implementation */
+    private static final String PROP_DEVICE_MANAGER_BASE_URL = "DEVICE_MANAGER_BASE_URL";
+
+    /** Property for webpa server url used by webpa connection handler */
+    private static final String PROP_WEBPA_SERVER_URL = "WEBPA_SERVER_URL";
+
+    private static DeviceSimulator instance = null;
+
+    private final Map<String, SimulatedDevice> devices = new ConcurrentHashMap<String, SimulatedDevice>();
+
+    private final AtomicInteger deviceIndex = new AtomicInteger();
+
+    private SimulatorHttpServer httpServer;
+
+    private String model;
+
+    private int traceLinesPerSecond;
+
+    private long latencyInMillis;
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private DeviceSimulator() {
+	model = getConfig(SimulatorConstants.PROP_SIMULATOR_DEVICE_MODEL, SimulatorConstants.DEFAULT_DEVICE_MODEL);
+	traceLinesPerSecond = getIntConfig(SimulatorConstants.PROP_SIMULATOR_TRACE_RATE,
+		SimulatorConstants.DEFAULT_TRACE_RATE);
+	latencyInMillis = getIntConfig(SimulatorConstants.PROP_SIMULATOR_LATENCY, 0);
+    }
+
+    /**
+     * Gets the device simulator instance
+     * 
+     * @return DeviceSimulator instance
+     */
+    public static synchronized DeviceSimulator get() {
+	if (null == instance) {
+	    instance = new DeviceSimulator();
+	}
+	return instance;
+    }
+
+    /**
+     * Verifies if device simulator is enabled via system property or automatics property
+     * 
+     * @return true if simulator is enabled
+     */
+    public static boolean isEnabled() {
+	return Boolean.parseBoolean(getConfig(SimulatorConstants.PROP_SIMULATOR_ENABLED, "false"));
+    }
+
+    /**
+     * Creates the simulated devices and starts the simulator http server. Device manager and WebPA urls are pointed to
+     * the simulator.
+     */
+    public synchronized void start() {
+	if (null != httpServer) {
+	    return;
+	}
+	int deviceCount = getIntConfig(SimulatorConstants.PROP_SIMULATOR_DEVICE_COUNT,
+		SimulatorConstants.DEFAULT_DEVICE_COUNT);
+	for (int index = 0; index < deviceCount; index++) {
+	    getDevice(getSimulatedMac(index + 1));
+	}
+
+	try {
+	    httpServer = new SimulatorHttpServer(this,
+		    getIntConfig(SimulatorConstants.PROP_SIMULATOR_HTTP_PORT, 0));
+	    httpServer.start();
+	} catch (IOException e) {
+	    LOGGER.error("Failed to start device simulator http server", e);
+	    httpServer = null;
+	    return;
+	}
+
+	AutomaticsPropertyUtility.setProperty(PROP_DEVICE_MANAGER_BASE_URL, httpServer.getBaseUrl());
+	AutomaticsPropertyUtility.setProperty(PROP_WEBPA_SERVER_URL,
+		httpServer.getBaseUrl() + SimulatorConstants.WEBPA_PATH);
+	LOGGER.info("Device simulator started with {} devices of model {} at {}, trace rate {}/s, latency {} ms",
+		deviceCount, model, httpServer.getBaseUrl(), traceLinesPerSecond, latencyInMillis);
+    }
+
+    /**
+     * Stops the simulator http server
+     */
+    public synchronized void stop() {
+	if (null != httpServer) {
+	    httpServer.stop();
+	    httpServer = null;
+	    LOGGER.info("Device simulator stopped");
+	}
+    }
+
+    /**
+     * Gets the simulated device for given mac, device is created if not present so that any mac passed for execution
+     * can be simulated
+     * 
+     * @param macAddress
+     *            Mac address with or without ':'
+     * @return Simulated device, null if mac is empty
+     */
+    public SimulatedDevice getDevice(String macAddress) {
+	if (CommonMethods.isNull(macAddress)) {
+	    return null;
+	}
+	String key = AutomaticsUtils.getCleanMac(macAddress).toUpperCase();
+	SimulatedDevice device = devices.get(key);
+	if (null == device) {
+	    synchronized (devices) {
+		device = devices.get(key);
+		if (null == device) {
+		    device = new SimulatedDevice(formatMac(key), deviceIndex.incrementAndGet(), model);
+		    devices.put(key, device);
+		}
+	    }
+	}
+	return device;
+    }
+
+    /**
+     * Gets mac addresses of all simulated devices, can be used as settop list for execution
+     * 
+     * @return List of mac addresses
+     */
+    public List<String> getDeviceMacAddresses() {
+	List<String> macAddresses = new ArrayList<String>();
+	for (SimulatedDevice device : devices.values()) {
+	    macAddresses.add(device.getHostMacAddress());
+	}
+	return macAddresses;
+    }
+
+    public int getTraceLinesPerSecond() {
+	return traceLinesPerSecond;
+    }
+
+    public long getLatencyInMillis() {
+	return latencyInMillis;
+    }
+
+    /**
+     * Gets base url of simulator http server
+     * 
+     * @return Base url, null if simulator is not started
+     */
+    public String getBaseUrl() {
+	return null != httpServer ? httpServer.getBaseUrl() : null;
+    }
+
+    /**
+     * Waits for configured response latency to simulate network and device processing time
+     */
+    public void simulateLatency() {
+	if (latencyInMillis > 0) {
+	    try {
+		Thread.sleep(latencyInMillis);
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+	    }
+	}
+    }
+
+    /**
+     * Gets mac address of simulated device at given index
+     * 
+     * @param index
+     *            Device index
+     * @return Mac address
+     */
+    public static String getSimulatedMac(int index) {
+	return String.format("%s:%02X:%02X:%02X", SimulatorConstants.SIMULATED_MAC_PREFIX, (index >> 16) & 0xFF,
+		(index >> 8) & 0xFF, index & 0xFF);
+    }
+
+    private static String formatMac(String cleanMac) {
+	if (cleanMac.length() != 12) {
+	    return cleanMac;
+	}
+	StringBuilder mac = new StringBuilder();
+	for (int index = 0; index < cleanMac.length(); index += 2) {
+	    if (index > 0) {
+		mac.append(':');
+	    }
+	    mac.append(cleanMac, index, index + 2);
+	}
+	return mac.toString();
+    }
+
+    private static String getConfig(String propertyName, String defaultValue) {
+	String value = System.getProperty(propertyName);
+	if (CommonMethods.isNull(value)) {
+	    value = AutomaticsPropertyUtility.getProperty(propertyName, defaultValue);
+	}
+	return CommonMethods.isNotNull(value) ? value : defaultValue;
+    }
+
+    private static int getIntConfig(String propertyName, int defaultValue) {
+	try {
+	    return Integer.parseInt(getConfig(propertyName, String.valueOf(defaultValue)).trim());
+	} catch (NumberFormatException e) {
+	    LOGGER.error("Invalid value for {}, using default {}", propertyName, defaultValue);
+	    return defaultValue;
+	}
+    }
+}
@@ -0,0 +1,69 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import com.automatics.providers.connection.Connection;
+
+/**
+ * Console connection to a simulated device. Input stream carries the device trace, input written to the console is
+ * discarded.
+ *
+ */
+public class SimulatedConnection implements Connection {
+
+    private final SimulatedTraceInputStream inputStream;
+
+    private final OutputStream outputStream = new OutputStream() {
+	@Override
+	public void write(int data) {
+	    // Console input is ignored by simulated device
+	}
+    };
+
+    public SimulatedConnection(SimulatedDevice device, int traceLinesPerSecond) {
+	inputStream = new SimulatedTraceInputStream(device, traceLinesPerSecond);
+    }
+
+    @Override
+    public OutputStream getDefaultOutputStream() {
+	return outputStream;
+    }
+
+    @Override
+    public InputStream getDefaultInputStream() {
+	return inputStream;
+    }
+
+    @Override
+    public void disconnect() {
+	inputStream.close();
+    }
+
+    @Override
+    public String getDefaultUsername() {
+	return "root";
+    }
+
+    @Override
+    public String getDefaultPassword() {
+	return "";
+    }
+}
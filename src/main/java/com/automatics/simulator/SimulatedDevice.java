@@ -0,0 +1,342 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.constants.SimulatorConstants;
+import com.automatics.providers.objects.DeviceObject;
+import com.automatics.utils.CommonMethods;
+
+/**
+ * State of a single simulated device. Holds TR-181 parameters served over simulated WebPA and dmcli, MIB values served
+ * by the simulated snmp agent and generates the device trace.
+ *
+ */
+public class SimulatedDevice {
+
+    /** Snmp oid of system description */
+    private static final String OID_SYS_DESCR = ".1.3.6.1.2.1.1.1.0";
+
+    /** Snmp oid of system up time */
+    private static final String OID_SYS_UPTIME = ".1.3.6.1.2.1.1.3.0";
+
+    /** Snmp oid of current software version */
+    private static final String OID_SW_CURRENT_VERSION = ".1.3.6.1.2.1.69.1.3.5.0";
+
+    /** Snmp oid of device serial number */
+    private static final String OID_SERIAL_NUMBER = ".1.3.6.1.2.1.69.1.1.4.0";
+
+    /** TR-181 parameter of device up time */
+    private static final String PARAM_UPTIME = "Device.DeviceInfo.UpTime";
+
+    private static final String[] TRACE_COMPONENTS = { "CcspPandMSsp", "CcspWifiSsp", "PsmSsp", "webpa", "parodus",
+	    "CcspTr069PaSsp" };
+
+    private final String hostMacAddress;
+
+    private final String hostIp4Address;
+
+    private final String model;
+
+    private final String serialNumber;
+
+    private volatile long bootTime;
+
+    private final Map<String, String> parameters = new ConcurrentSkipListMap<String, String>();
+
+    private final Map<String, String> mibValues = new ConcurrentHashMap<String, String>();
+
+    private final AtomicLong traceSequence = new AtomicLong();
+
+    /**
+     * Creates a simulated device
+     * 
+     * @param hostMacAddress
+     *            Mac address of device
+     * @param index
+     *            Index of device in simulated rack, used to derive ip address and serial number
+     * @param model
+     *            Model of device
+     */
+    public SimulatedDevice(String hostMacAddress, int index, String model) {
+	this.hostMacAddress = hostMacAddress.toUpperCase();
+	this.hostIp4Address = "10." + ((index >> 16) & 0xFF) + "." + ((index >> 8) & 0xFF) + "." + (index & 0xFF);
+	this.model = model;
+	this.serialNumber = "SIM" + String.format("%09d", index);
+	this.bootTime = System.currentTimeMillis();
+
+	parameters.put("Device.DeviceInfo.SoftwareVersion", SimulatorConstants.SIMULATED_FIRMWARE_VERSION);
+	parameters.put("Device.DeviceInfo.ModelName", model);
+	parameters.put("Device.DeviceInfo.SerialNumber", serialNumber);
+	parameters.put("Device.DeviceInfo.Manufacturer", "Automatics Simulator");
+	parameters.put("Device.DeviceInfo.X_COMCAST-COM_CM_MAC", this.hostMacAddress);
+	parameters.put("Device.X_CISCO_COM_DeviceControl.LanManagementEntry.1.LanIPAddress", "10.0.0.1");
+	for (int accessPoint = 10001; accessPoint <= 10002; accessPoint++) {
+	    parameters.put("Device.WiFi.AccessPoint." + accessPoint + ".Enable", "true");
+	    parameters.put("Device.WiFi.SSID." + accessPoint + ".SSID", "SIM-" + serialNumber + "-" + accessPoint);
+	    parameters.put("Device.WiFi.SSID." + accessPoint + ".Enable", "true");
+	}
+
+	mibValues.put(OID_SYS_DESCR, model + " simulated device");
+	mibValues.put(OID_SW_CURRENT_VERSION, SimulatorConstants.SIMULATED_FIRMWARE_VERSION);
+	mibValues.put(OID_SERIAL_NUMBER, serialNumber);
+    }
+
+    public String getHostMacAddress() {
+	return hostMacAddress;
+    }
+
+    public String getHostIp4Address() {
+	return hostIp4Address;
+    }
+
+    public String getModel() {
+	return model;
+    }
+
+    /**
+     * Gets the value of TR-181 parameter
+     * 
+     * @param name
+     *            Parameter name
+     * @return Value of parameter, null if parameter is not supported
+     */
+    public String getParameter(String name) {
+	if (PARAM_UPTIME.equals(name)) {
+	    return String.valueOf(getUptimeInSeconds());
+	}
+	return parameters.get(name);
+    }
+
+    /**
+     * Gets all parameters under given TR-181 object, for eg: Device.WiFi.SSID.
+     * 
+     * @param objectName
+     *            Object name ending with '.'
+     * @return Parameters and values under the object
+     */
+    public Map<String, String> getParameters(String objectName) {
+	Map<String, String> result = new TreeMap<String, String>();
+	for (Map.Entry<String, String> entry : parameters.entrySet()) {
+	    if (entry.getKey().startsWith(objectName)) {
+		result.put(entry.getKey(), entry.getValue());
+	    }
+	}
+	return result;
+    }
+
+    /**
+     * Sets the value of TR-181 parameter
+     * 
+     * @param name
+     *            Parameter name
+     * @param value
+     *            Parameter value
+     */
+    public void setParameter(String name, String value) {
+	parameters.put(name, value);
+    }
+
+    /**
+     * Simulates reboot by resetting up time
+     */
+    public void reboot() {
+	bootTime = System.currentTimeMillis();
+	traceSequence.set(0);
+    }
+
+    /**
+     * Gets device up time in seconds
+     * 
+     * @return Up time in seconds
+     */
+    public long getUptimeInSeconds() {
+	return (System.currentTimeMillis() - bootTime) / AutomaticsConstants.ONE_SECOND_IN_MILLIS;
+    }
+
+    /**
+     * Executes a command on simulated device console. Supports version, up time, echo, reboot, dmcli getv/setv and
+     * net-snmp commands; other commands return empty response.
+     * 
+     * @param command
+     *            Command to execute
+     * @return Command response
+     */
+    public String executeCommand(String command) {
+	if (CommonMethods.isNull(command)) {
+	    return AutomaticsConstants.EMPTY_STRING;
+	}
+	String trimmedCommand = command.trim();
+	if (trimmedCommand.startsWith("snmp")) {
+	    return executeSnmpCommand(trimmedCommand);
+	}
+	if (trimmedCommand.contains("dmcli")) {
+	    return executeDmcliCommand(trimmedCommand);
+	}
+	if (trimmedCommand.contains("version.txt")) {
+	    return "imagename:" + SimulatorConstants.SIMULATED_FIRMWARE_VERSION + "\nBRANCH=simulator\nVERSION="
+		    + SimulatorConstants.SIMULATED_FIRMWARE_VERSION + "\n";
+	}
+	if (trimmedCommand.contains("/proc/uptime")) {
+	    return getUptimeInSeconds() + ".00 " + getUptimeInSeconds() + ".00";
+	}
+	if (trimmedCommand.startsWith("uptime")) {
+	    return " up " + (getUptimeInSeconds() / 60) + " min,  load average: 0.10, 0.20, 0.30";
+	}
+	if (trimmedCommand.startsWith("reboot") || trimmedCommand.startsWith("/rebootNow.sh")) {
+	    reboot();
+	    return AutomaticsConstants.EMPTY_STRING;
+	}
+	if (trimmedCommand.startsWith("echo ")) {
+	    return trimmedCommand.substring(5).replaceAll("^[\"']|[\"']$", "");
+	}
+	return AutomaticsConstants.EMPTY_STRING;
+    }
+
+    /**
+     * Generates next trace line of the device
+     * 
+     * @return Trace line
+     */
+    public String nextTraceLine() {
+	long sequence = traceSequence.incrementAndGet();
+	String component = TRACE_COMPONENTS[(int) (sequence % TRACE_COMPONENTS.length)];
+	StringBuilder line = new StringBuilder(new SimpleDateFormat("yyMMdd-HH:mm:ss.SSS").format(new Date()));
+	line.append(" [mod=").append(component).append(", lvl=INFO] [tid=").append(1000 + sequence % 97)
+		.append("] ");
+	if (sequence == 1) {
+	    line.append("SYSTEM_BOOT_COMPLETE on ").append(model).append(" uptime=").append(getUptimeInSeconds());
+	} else {
+	    line.append("Processing request ").append(sequence).append(" for ").append(hostMacAddress)
+		    .append(" status=OK");
+	}
+	return line.toString();
+    }
+
+    /**
+     * Creates rack device object for device management responses
+     * 
+     * @return Device object
+     */
+    public DeviceObject toDeviceObject() {
+	DeviceObject deviceObject = new DeviceObject();
+	deviceObject.setId(serialNumber);
+	deviceObject.setName("simulated-" + serialNumber);
+	deviceObject.setHostMacAddress(hostMacAddress);
+	deviceObject.setEcmMacAddress(hostMacAddress);
+	deviceObject.setEstbMacAddress(hostMacAddress);
+	deviceObject.setHostIp4Address(hostIp4Address);
+	deviceObject.setEcmIpAddress(hostIp4Address);
+	deviceObject.setModel(model);
+	deviceObject.setManufacturer("Automatics Simulator");
+	deviceObject.setSerialNumber(serialNumber);
+	deviceObject.setRackName("SIMULATOR");
+	deviceObject.setStatus("GOOD");
+	return deviceObject;
+    }
+
+    /**
+     * Executes dmcli getv/setv command
+     */
+    private String executeDmcliCommand(String command) {
+	String[] tokens = command.split("\\s+");
+	StringBuilder response = new StringBuilder("CR component name is: eRT.com.cisco.spvtg.ccsp.CR\n");
+	for (int index = 0; index < tokens.length; index++) {
+	    if ("getv".equals(tokens[index])) {
+		StringBuilder values = new StringBuilder();
+		int parameterNumber = 1;
+		for (int paramIndex = index + 1; paramIndex < tokens.length; paramIndex++) {
+		    String name = tokens[paramIndex];
+		    String value = getParameter(name);
+		    if (null == value) {
+			return response.append("Execution fail(error code:CCSP_ERR_INVALID_PARAMETER_NAME(9005)).\n")
+				.toString();
+		    }
+		    values.append("Parameter    ").append(parameterNumber++).append(" name: ").append(name)
+			    .append("\n               type:     string,    value: ").append(value).append('\n');
+		}
+		return response.append("Execution succeed.\n").append(values).toString();
+	    }
+	    if ("setv".equals(tokens[index]) && index + 3 < tokens.length) {
+		setParameter(tokens[index + 1], tokens[index + 3].replaceAll("^[\"']|[\"']$", ""));
+		return response.append("Execution succeed.\n").toString();
+	    }
+	}
+	return response.append("Execution fail.\n").toString();
+    }
+
+    /**
+     * Executes net-snmp command (snmpget, snmpset, snmpwalk..) against simulated mib. Response is formatted as with
+     * -OQ option
+     */
+    private String executeSnmpCommand(String command) {
+	mibValues.put(OID_SYS_UPTIME, String.valueOf(getUptimeInSeconds() * 100));
+	String[] tokens = command.split("\\s+");
+	int oidIndex = -1;
+	for (int index = 0; index < tokens.length; index++) {
+	    if (tokens[index].matches("^(udp|tcp|udp6|tcp6):.*")) {
+		oidIndex = index + 1;
+		break;
+	    }
+	}
+	if (oidIndex < 0 || oidIndex >= tokens.length) {
+	    return "Timeout: No Response from simulated agent";
+	}
+	String oid = tokens[oidIndex];
+	if (!oid.startsWith(".")) {
+	    oid = "." + oid;
+	}
+
+	if (tokens[0].startsWith("snmpset") && oidIndex + 2 < tokens.length) {
+	    StringBuilder value = new StringBuilder();
+	    for (int index = oidIndex + 2; index < tokens.length; index++) {
+		value.append(index > oidIndex + 2 ? AutomaticsConstants.SPACE : AutomaticsConstants.EMPTY_STRING)
+			.append(tokens[index]);
+	    }
+	    mibValues.put(oid, value.toString().replaceAll("^[\"']|[\"']$", ""));
+	    return formatSnmpValue(oid, mibValues.get(oid));
+	}
+
+	if (tokens[0].contains("walk")) {
+	    StringBuilder response = new StringBuilder();
+	    for (Map.Entry<String, String> entry : new TreeMap<String, String>(mibValues).entrySet()) {
+		if (entry.getKey().startsWith(oid)) {
+		    response.append(formatSnmpValue(entry.getKey(), entry.getValue())).append('\n');
+		}
+	    }
+	    return response.length() > 0 ? response.toString()
+		    : oid + " = No Such Object available on this agent at this OID";
+	}
+
+	String value = mibValues.get(oid);
+	return null != value ? formatSnmpValue(oid, value)
+		: oid + " = No Such Object available on this agent at this OID";
+    }
+
+    private static String formatSnmpValue(String oid, String value) {
+	return "iso" + oid + " = \"" + value + "\"";
+    }
+}
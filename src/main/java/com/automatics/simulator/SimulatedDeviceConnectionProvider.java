@@ -0,0 +1,163 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.device.Device;
+import com.automatics.device.Dut;
+import com.automatics.providers.connection.AbstractDeviceConnectionProvider;
+import com.automatics.providers.connection.Connection;
+import com.automatics.providers.connection.DeviceConsoleType;
+import com.automatics.providers.connection.ExecuteCommandType;
+import com.automatics.resource.IServer;
+
+/**
+ * Device connection provider backed by the device simulator. Commands are answered by the simulated device after the
+ * configured latency and trace connections stream generated trace at the configured rate. Snmp commands issued by the
+ * snmp providers are answered by the simulated mib of the device.
+ *
+ */
+public class SimulatedDeviceConnectionProvider extends AbstractDeviceConnectionProvider {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulatedDeviceConnectionProvider.class);
+
+    private final DeviceSimulator simulator = DeviceSimulator.get();
+
+    @Override
+    public boolean copyFile(Device device, String fileToCopy, String remoteLocation) {
+	simulator.simulateLatency();
+	return null != simulator.getDevice(device.getHostMacAddress());
+    }
+
+    @Override
+    public Connection getConnection(Device device) {
+	SimulatedDevice simulatedDevice = simulator.getDevice(device.getHostMacAddress());
+	if (null == simulatedDevice) {
+	    LOGGER.error("No simulated device for {}", device.getHostMacAddress());
+	    return null;
+	}
+	return new SimulatedConnection(simulatedDevice, simulator.getTraceLinesPerSecond());
+    }
+
+    @Override
+    public String execute(Device device, String command) {
+	List<String> commandList = new ArrayList<String>();
+	commandList.add(command);
+	return execute(device, commandList);
+    }
+
+    @Override
+    public String execute(Device device, List<String> commandList) {
+	return executeOnDevice(device, commandList);
+    }
+
+    @Override
+    public String execute(Device device, ExecuteCommandType executeCommandType, List<String> commandList) {
+	return executeOnDevice(device, commandList);
+    }
+
+    @Override
+    public String execute(Dut dut, String command, String expectStr, String[] options) {
+	List<String> commandList = new ArrayList<String>();
+	commandList.add(command);
+	return executeOnDevice(dut, commandList);
+    }
+
+    @Override
+    public String executeInsideAtomConsoleUsingExpect(Dut dut, String atomServerIp, String command) {
+	List<String> commandList = new ArrayList<String>();
+	commandList.add(command);
+	return executeOnDevice(dut, commandList);
+    }
+
+    @Override
+    public String execute(Device device, String command, DeviceConsoleType consoleType, long timeOutMilliSecs) {
+	return execute(device, command);
+    }
+
+    @Override
+    public String execute(Device device, List<String> commandList, DeviceConsoleType consoleType) {
+	return executeOnDevice(device, commandList);
+    }
+
+    @Override
+    public String execute(Device device, List<String> commandList, DeviceConsoleType consoleType,
+	    long timeOutMilliSecs) {
+	return executeOnDevice(device, commandList);
+    }
+
+    @Override
+    public String execute(Device device, Connection deviceConnnection, String command) {
+	return execute(device, command);
+    }
+
+    @Override
+    public String execute(Device device, Connection deviceConnnection, ExecuteCommandType executeCommandType,
+	    String command) {
+	if (ExecuteCommandType.TRACE_INIT_COMMAND_GATEWAY == executeCommandType
+		|| ExecuteCommandType.ADDLN_TRACE_INIT_COMMAND_GATEWAY == executeCommandType) {
+	    // Simulated trace connection streams trace without an explicit start command
+	    return AutomaticsConstants.EMPTY_STRING;
+	}
+	return execute(device, command);
+    }
+
+    @Override
+    public String execute(IServer hostDetails, List<String> commands, long timeOutMilliSecs) {
+	simulator.simulateLatency();
+	return AutomaticsConstants.EMPTY_STRING;
+    }
+
+    @Override
+    public String execute(String hostIp, String command, long timeOutMilliSecs, String connectionType) {
+	simulator.simulateLatency();
+	return AutomaticsConstants.EMPTY_STRING;
+    }
+
+    /**
+     * Executes commands on simulated device
+     * 
+     * @param dut
+     *            Device
+     * @param commandList
+     *            Commands to execute
+     * @return Combined response of commands
+     */
+    private String executeOnDevice(Dut dut, List<String> commandList) {
+	SimulatedDevice simulatedDevice = simulator.getDevice(dut.getHostMacAddress());
+	if (null == simulatedDevice) {
+	    LOGGER.error("No simulated device for {}", dut.getHostMacAddress());
+	    return null;
+	}
+	simulator.simulateLatency();
+	StringBuilder response = new StringBuilder();
+	if (null != commandList) {
+	    for (String command : commandList) {
+		response.append(simulatedDevice.executeCommand(command));
+	    }
+	}
+	return response.toString();
+    }
+}
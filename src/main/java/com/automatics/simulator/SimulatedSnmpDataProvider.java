@@ -0,0 +1,50 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import com.automatics.device.Dut;
+import com.automatics.providers.snmp.SnmpDataProvider;
+import com.automatics.snmp.SnmpParams;
+import com.automatics.snmp.SnmpSecurityDetails;
+
+/**
+ * Snmp data provider for simulated devices. Targets the snmp request to the simulated device ip address with a fixed
+ * community string.
+ *
+ */
+public class SimulatedSnmpDataProvider implements SnmpDataProvider {
+
+    /** Community string accepted by simulated snmp agent */
+    private static final String SIMULATED_COMMUNITY = "simulator";
+
+    @Override
+    public SnmpSecurityDetails getSnmpAuthorization(Dut dut, SnmpParams snmpParams) {
+	SnmpSecurityDetails securityDetails = new SnmpSecurityDetails();
+	securityDetails.setCommunity(SIMULATED_COMMUNITY);
+	return securityDetails;
+    }
+
+    @Override
+    public SnmpParams updateSnmpParams(Dut dut, SnmpParams snmpParams) {
+	SimulatedDevice device = DeviceSimulator.get().getDevice(dut.getHostMacAddress());
+	if (null != device) {
+	    snmpParams.setIpAddress(device.getHostIp4Address());
+	}
+	return snmpParams;
+    }
+}
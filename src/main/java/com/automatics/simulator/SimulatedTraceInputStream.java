@@ -0,0 +1,125 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Input stream emitting the trace of a simulated device at a fixed line rate, stands in for the console stream of a
+ * trace connection.
+ *
+ */
+public class SimulatedTraceInputStream extends InputStream {
+
+    /** Maximum time a blocking read waits before checking for close */
+    private static final long MAX_WAIT_IN_MILLIS = 50;
+
+    private final SimulatedDevice device;
+
+    private final long intervalInNanos;
+
+    private long nextLineTime;
+
+    private byte[] currentLine = new byte[0];
+
+    private int position;
+
+    private volatile boolean closed;
+
+    /**
+     * Creates trace stream for device
+     * 
+     * @param device
+     *            Simulated device
+     * @param linesPerSecond
+     *            Trace lines emitted per second
+     */
+    public SimulatedTraceInputStream(SimulatedDevice device, int linesPerSecond) {
+	this.device = device;
+	this.intervalInNanos = 1000000000L / Math.max(1, linesPerSecond);
+	this.nextLineTime = System.nanoTime();
+    }
+
+    @Override
+    public synchronized int available() throws IOException {
+	if (closed) {
+	    return 0;
+	}
+	loadNextLineIfDue();
+	return currentLine.length - position;
+    }
+
+    @Override
+    public synchronized int read() throws IOException {
+	if (!waitForData()) {
+	    return -1;
+	}
+	return currentLine[position++] & 0xFF;
+    }
+
+    @Override
+    public synchronized int read(byte[] buffer, int offset, int length) throws IOException {
+	if (length == 0) {
+	    return 0;
+	}
+	if (!waitForData()) {
+	    return -1;
+	}
+	int count = Math.min(length, currentLine.length - position);
+	System.arraycopy(currentLine, position, buffer, offset, count);
+	position += count;
+	return count;
+    }
+
+    @Override
+    public void close() {
+	closed = true;
+    }
+
+    /**
+     * Waits until the next line is due
+     * 
+     * @return false if the stream is closed
+     */
+    private boolean waitForData() throws IOException {
+	while (!closed) {
+	    loadNextLineIfDue();
+	    if (position < currentLine.length) {
+		return true;
+	    }
+	    long waitInMillis = Math.min(MAX_WAIT_IN_MILLIS, (nextLineTime - System.nanoTime()) / 1000000L);
+	    try {
+		wait(Math.max(1, waitInMillis));
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		throw new IOException("Interrupted while waiting for simulated trace", e);
+	    }
+	}
+	return false;
+    }
+
+    private void loadNextLineIfDue() {
+	if (position >= currentLine.length && System.nanoTime() >= nextLineTime) {
+	    currentLine = (device.nextTraceLine() + "\n").getBytes(StandardCharsets.UTF_8);
+	    position = 0;
+	    nextLineTime += intervalInNanos;
+	}
+    }
+}
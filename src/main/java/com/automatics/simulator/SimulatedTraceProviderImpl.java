@@ -0,0 +1,71 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.automatics.device.Device;
+import com.automatics.device.Dut;
+import com.automatics.providers.connection.Connection;
+import com.automatics.providers.trace.AbstractTraceProviderImpl;
+
+/**
+ * Trace provider for simulated devices. Uses the trace handling of {@link AbstractTraceProviderImpl} over the
+ * simulated device connection, so that trace buffering and search can be load tested with many devices.
+ *
+ */
+public class SimulatedTraceProviderImpl extends AbstractTraceProviderImpl {
+
+    /** Trace command logged for simulated devices */
+    private static final String SIMULATED_TRACE_COMMAND = "tail -F /rdklogs/logs/*.txt";
+
+    /** Crash signatures emitted by simulated devices */
+    private static final String CRASH_REGEX = "(Segmentation fault|core dumped)";
+
+    @Override
+    public void cleanupDeviceTrace() {
+	// Simulated trace has no device side process to clean up
+    }
+
+    @Override
+    public void processTraceData(Dut device, String eventData) {
+	// No additional processing for simulated trace
+    }
+
+    @Override
+    public String getTraceStartCommand(Dut dut) {
+	return SIMULATED_TRACE_COMMAND;
+    }
+
+    @Override
+    public void writeDataToTraceOutputStream(Dut device, Connection connection, OutputStream outputStream,
+	    String eventData) throws IOException {
+	// Simulated trace does not prompt for input
+    }
+
+    @Override
+    public String getRegexForCrashDetection() {
+	return CRASH_REGEX;
+    }
+
+    @Override
+    public boolean isTraceConnectionAlive(Device device) {
+	return null != DeviceSimulator.get().getDevice(device.getHostMacAddress());
+    }
+}
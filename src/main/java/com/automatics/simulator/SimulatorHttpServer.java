@@ -0,0 +1,364 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.simulator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.codehaus.jettison.json.JSONArray;
+import org.codehaus.jettison.json.JSONException;
+import org.codehaus.jettison.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.SimulatorConstants;
+import com.automatics.providers.objects.DeviceAccountResponse;
+import com.automatics.providers.objects.DeviceAllocationResponse;
+import com.automatics.providers.objects.DeviceObject;
+import com.automatics.providers.objects.DeviceResponse;
+import com.automatics.providers.objects.StatusResponse;
+import com.automatics.providers.objects.enums.DeviceAllocationStatus;
+import com.automatics.providers.objects.enums.StatusMessage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Localhost http server of the device simulator. Serves the rack device management api used by
+ * DeviceManagerRestImpl and the WebPA config api used by WebPaConnectionHandler, so that the real rest clients are
+ * exercised against simulated devices.
+ *
+ */
+public class SimulatorHttpServer {
+
+    /** SLF4j logger instance. */
+    private static final Logger LOGGER = LoggerFactory.getLogger(SimulatorHttpServer.class);
+
+    private static final String CONTENT_TYPE_JSON = "application/json";
+
+    /** WebPA data type for string */
+    private static final int WEBPA_DATA_TYPE_STRING = 0;
+
+    /** WebPA data type for object/table get responses */
+    private static final int WEBPA_DATA_TYPE_OBJECT = 11;
+
+    /** WebPA status code for invalid parameter */
+    private static final int WEBPA_STATUS_INVALID_PARAMETER = 520;
+
+    private static final int HTTP_OK = 200;
+
+    private static final int HTTP_NOT_FOUND = 404;
+
+    private final DeviceSimulator simulator;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Set<String> lockedDevices = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    /**
+     * Creates the simulator http server
+     * 
+     * @param simulator
+     *            Device simulator
+     * @param port
+     *            Port to listen, 0 selects a free port
+     * @throws IOException
+     *             If server socket cannot be created
+     */
+    public SimulatorHttpServer(DeviceSimulator simulator, int port) throws IOException {
+	this.simulator = simulator;
+	server = HttpServer.create(new InetSocketAddress(SimulatorConstants.SIMULATOR_HOST, port), 0);
+	final AtomicInteger threadCount = new AtomicInteger();
+	executor = Executors.newCachedThreadPool(new ThreadFactory() {
+	    @Override
+	    public Thread newThread(Runnable runnable) {
+		Thread thread = new Thread(runnable, "SimulatorHttp-" + threadCount.incrementAndGet());
+		thread.setDaemon(true);
+		return thread;
+	    }
+	});
+	server.setExecutor(executor);
+	server.createContext(SimulatorConstants.DEVICE_MANAGEMENT_PATH, new HttpHandler() {
+	    @Override
+	    public void handle(HttpExchange exchange) throws IOException {
+		handleDeviceManagementRequest(exchange);
+	    }
+	});
+	server.createContext(SimulatorConstants.WEBPA_PATH.substring(0, SimulatorConstants.WEBPA_PATH.lastIndexOf('/')),
+		new HttpHandler() {
+		    @Override
+		    public void handle(HttpExchange exchange) throws IOException {
+			handleWebPaRequest(exchange);
+		    }
+		});
+    }
+
+    public void start() {
+	server.start();
+    }
+
+    public void stop() {
+	server.stop(0);
+	executor.shutdownNow();
+    }
+
+    /**
+     * Gets base url of the server
+     * 
+     * @return Base url
+     */
+    public String getBaseUrl() {
+	return "http://" + SimulatorConstants.SIMULATOR_HOST + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Handles rack device management requests
+     */
+    private void handleDeviceManagementRequest(HttpExchange exchange) throws IOException {
+	simulator.simulateLatency();
+	String operation = exchange.getRequestURI().getPath()
+		.substring(SimulatorConstants.DEVICE_MANAGEMENT_PATH.length());
+	try {
+	    JSONObject request = new JSONObject(readBody(exchange));
+	    String mac = request.optString("mac", null);
+	    SimulatedDevice device = simulator.getDevice(mac);
+	    Object response = null;
+
+	    switch (operation) {
+	    case "/getDeviceDetails":
+		DeviceResponse deviceResponse = new DeviceResponse();
+		List<DeviceObject> deviceObjects = new ArrayList<DeviceObject>();
+		if (null != device) {
+		    deviceObjects.add(device.toDeviceObject());
+		}
+		deviceResponse.setDevices(deviceObjects);
+		response = deviceResponse;
+		break;
+	    case "/getDeviceProps":
+		JSONObject props = new JSONObject();
+		JSONArray propNames = request.optJSONArray("deviceProps");
+		if (null != device && null != propNames) {
+		    for (int index = 0; index < propNames.length(); index++) {
+			String value = device.getParameter(propNames.getString(index));
+			if (null != value) {
+			    props.put(propNames.getString(index), value);
+			}
+		    }
+		}
+		response = props.toString();
+		break;
+	    case "/getAccountDetails":
+		DeviceAccountResponse accountResponse = new DeviceAccountResponse();
+		accountResponse.setAccountNumber(request.optString("accountNumber"));
+		accountResponse.setName("Simulated account");
+		response = accountResponse;
+		break;
+	    case "/device/allocationStatus":
+		DeviceAllocationResponse allocationResponse = new DeviceAllocationResponse();
+		allocationResponse.setAllocationStatus(null != mac && lockedDevices.contains(mac.toUpperCase())
+			? DeviceAllocationStatus.LOCKED : DeviceAllocationStatus.AVAILABLE);
+		response = allocationResponse;
+		break;
+	    case "/device/lock":
+	    case "/device/updateAllocationDuration":
+		if (null != mac) {
+		    lockedDevices.add(mac.toUpperCase());
+		}
+		response = getStatusResponse(mac);
+		break;
+	    case "/device/release":
+		if (null != mac) {
+		    lockedDevices.remove(mac.toUpperCase());
+		}
+		response = getStatusResponse(mac);
+		break;
+	    default:
+		sendResponse(exchange, HTTP_NOT_FOUND, "{}");
+		return;
+	    }
+	    sendResponse(exchange, HTTP_OK,
+		    response instanceof String ? (String) response : objectMapper.writeValueAsString(response));
+	} catch (JSONException e) {
+	    LOGGER.error("Invalid device management request for {}", operation, e);
+	    sendResponse(exchange, 400, "{}");
+	}
+    }
+
+    /**
+     * Handles WebPA requests of the form /webpa/api/v2/device/mac:{mac}/config
+     */
+    private void handleWebPaRequest(HttpExchange exchange) throws IOException {
+	simulator.simulateLatency();
+	String path = exchange.getRequestURI().getPath();
+	int macStart = path.indexOf("mac:") + 4;
+	int macEnd = path.indexOf('/', macStart);
+	SimulatedDevice device = simulator.getDevice(path.substring(macStart, macEnd > 0 ? macEnd : path.length()));
+	if (null == device) {
+	    sendResponse(exchange, HTTP_NOT_FOUND, "{}");
+	    return;
+	}
+
+	try {
+	    JSONObject response = new JSONObject();
+	    String method = exchange.getRequestMethod();
+	    if ("GET".equalsIgnoreCase(method)) {
+		response = getWebPaParameters(device, getQueryParameter(exchange, "names"));
+	    } else if ("PATCH".equalsIgnoreCase(method)) {
+		response = setWebPaParameters(device, readBody(exchange));
+	    } else {
+		// Table add, update and delete are acknowledged without changing the state
+		response.put("message", "Success");
+		response.put("statusCode", HTTP_OK);
+		if ("POST".equalsIgnoreCase(method)) {
+		    response.put("row", path.substring(path.indexOf("/config/") + 8) + "1.");
+		    response.put("statusCode", 201);
+		}
+	    }
+	    int statusCode = response.optInt("statusCode", HTTP_OK);
+	    sendResponse(exchange, statusCode == 201 ? HTTP_OK : statusCode, response.toString());
+	} catch (JSONException e) {
+	    LOGGER.error("Invalid webpa request {}", path, e);
+	    sendResponse(exchange, 400, "{}");
+	}
+    }
+
+    private JSONObject getWebPaParameters(SimulatedDevice device, String names) throws JSONException {
+	JSONObject response = new JSONObject();
+	JSONArray parameters = new JSONArray();
+	if (null != names) {
+	    for (String name : names.split(",")) {
+		JSONObject parameter = new JSONObject();
+		parameter.put("name", name);
+		if (name.endsWith(".")) {
+		    Map<String, String> values = device.getParameters(name);
+		    JSONArray valueArray = new JSONArray();
+		    for (Map.Entry<String, String> entry : values.entrySet()) {
+			JSONObject value = new JSONObject();
+			value.put("name", entry.getKey());
+			value.put("value", entry.getValue());
+			value.put("dataType", WEBPA_DATA_TYPE_STRING);
+			valueArray.put(value);
+		    }
+		    parameter.put("value", valueArray);
+		    parameter.put("dataType", WEBPA_DATA_TYPE_OBJECT);
+		    parameter.put("parameterCount", values.size());
+		} else {
+		    String value = device.getParameter(name);
+		    if (null == value) {
+			response.put("message", "Invalid parameter name");
+			response.put("statusCode", WEBPA_STATUS_INVALID_PARAMETER);
+			return response;
+		    }
+		    parameter.put("value", value);
+		    parameter.put("dataType", WEBPA_DATA_TYPE_STRING);
+		    parameter.put("parameterCount", 1);
+		}
+		parameter.put("message", "Success");
+		parameters.put(parameter);
+	    }
+	}
+	response.put("parameters", parameters);
+	response.put("statusCode", HTTP_OK);
+	return response;
+    }
+
+    private JSONObject setWebPaParameters(SimulatedDevice device, String body) throws JSONException {
+	JSONObject response = new JSONObject();
+	JSONArray requestParameters = new JSONObject(body).optJSONArray("parameters");
+	JSONArray parameters = new JSONArray();
+	if (null != requestParameters) {
+	    for (int index = 0; index < requestParameters.length(); index++) {
+		JSONObject requestParameter = requestParameters.getJSONObject(index);
+		device.setParameter(requestParameter.getString("name"), requestParameter.optString("value"));
+		JSONObject parameter = new JSONObject();
+		parameter.put("name", requestParameter.getString("name"));
+		parameter.put("message", "Success");
+		parameters.put(parameter);
+	    }
+	}
+	response.put("parameters", parameters);
+	response.put("statusCode", HTTP_OK);
+	return response;
+    }
+
+    private static StatusResponse getStatusResponse(String mac) {
+	StatusResponse statusResponse = new StatusResponse();
+	statusResponse.setMac(mac);
+	statusResponse.setStatus(StatusMessage.SUCCESS);
+	return statusResponse;
+    }
+
+    private static String getQueryParameter(HttpExchange exchange, String name) throws IOException {
+	String query = exchange.getRequestURI().getRawQuery();
+	if (null != query) {
+	    for (String pair : query.split("&")) {
+		if (pair.startsWith(name + "=")) {
+		    return URLDecoder.decode(pair.substring(name.length() + 1), StandardCharsets.UTF_8.name());
+		}
+	    }
+	}
+	return null;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+	ByteArrayOutputStream body = new ByteArrayOutputStream();
+	InputStream inputStream = exchange.getRequestBody();
+	try {
+	    byte[] buffer = new byte[4096];
+	    int length;
+	    while ((length = inputStream.read(buffer)) != -1) {
+		body.write(buffer, 0, length);
+	    }
+	} finally {
+	    inputStream.close();
+	}
+	return body.size() > 0 ? body.toString(StandardCharsets.UTF_8.name()) : "{}";
+    }
+
+    private static void sendResponse(HttpExchange exchange, int statusCode, String body) throws IOException {
+	byte[] response = body.getBytes(StandardCharsets.UTF_8);
+	exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE_JSON);
+	exchange.sendResponseHeaders(statusCode, response.length);
+	OutputStream outputStream = exchange.getResponseBody();
+	try {
+	    outputStream.write(response);
+	} finally {
+	    outputStream.close();
+	}
+    }
+}
@@ -24,6 +24,8 @@ import com.automatics.constants.AutomaticsConstants;
 import com.automatics.constants.SnmpConstants;
 import com.automatics.device.Device;
 import com.automatics.device.Dut;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.metrics.Timer.TimerContext;
 import com.automatics.providers.connection.DeviceConnectionProvider;
 import com.automatics.providers.connection.ExecuteCommandType;
 import com.automatics.providers.snmp.AbstractSnmpProvider;
@@ -42,6 +44,9 @@ import com.automatics.utils.CommonMethods;
  */
 public class Snmpv2ProviderImpl extends AbstractSnmpProvider {
 
+    /** Metric name for snmp command execution */
+    private static final String METRIC_SNMP_EXECUTE = "snmp.execute";
+
     private DeviceConnectionProvider connectionProvider;
 
     private SnmpDataProvider snmpDataProvider;
@@ -167,7 +172,15 @@ public class Snmpv2ProviderImpl extends AbstractSnmpProvider {
     private String execute(Dut dut, String snmpCommand, SnmpParams snmpParams) {
 	List<String> commands = new ArrayList<String>();
 	commands.add(snmpCommand);
-	String response = connectionProvider.execute((Device) dut, ExecuteCommandType.SNMP_COMMAND, commands);
+	String response = null;
+	TimerContext timerContext = MetricsRegistry.get()
+		.timer(METRIC_SNMP_EXECUTE, MetricsRegistry.tags(dut, String.valueOf(snmpParams.getSnmpCommand())))
+		.start();
+	try {
+	    response = connectionProvider.execute((Device) dut, ExecuteCommandType.SNMP_COMMAND, commands);
+	} finally {
+	    timerContext.stop();
+	}
 
 	if (!snmpParams.isMultiOid() && (snmpParams.getSnmpCommand().equals(SnmpCommand.GET)
 		|| snmpParams.getSnmpCommand().equals(SnmpCommand.SET))) {
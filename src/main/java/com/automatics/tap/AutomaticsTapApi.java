@@ -28,6 +28,7 @@ import com.automatics.constants.ReportsConstants;
 import com.automatics.constants.WebPaConstants;
 import com.automatics.core.SupportedModelHandler;
 import com.automatics.dataobjects.ChannelDetailsDO;
+import com.automatics.dataobjects.DeviceCommandResultDO;
 import com.automatics.device.ConnectedDevices;
 import com.automatics.device.Device;
 import com.automatics.device.Dut;
@@ -36,18 +37,24 @@ import com.automatics.device.DutInfo;
 import com.automatics.enums.ChannelTypes;
 import com.automatics.enums.ExecutionMode;
 import com.automatics.enums.ExecutionStatus;
+import com.automatics.enums.PowerOperation;
 import com.automatics.enums.RackType;
 import com.automatics.enums.RemoteControlType;
+import com.automatics.enums.ScreenColor;
 import com.automatics.enums.TR181AccessMethods;
+import com.automatics.enums.TraceMatchMode;
 import com.automatics.error.GeneralError;
 import com.automatics.exceptions.FailedTransitionException;
 import com.automatics.exceptions.TestException;
+import com.automatics.executor.BatchCommandExecutor;
 import com.automatics.http.ServerCommunicator;
 import com.automatics.http.ServerResponse;
+import com.automatics.image.RegionChangeDetector;
 import com.automatics.image.imagick.MagickComparison;
 import com.automatics.manager.device.DeviceManager;
 import com.automatics.providers.CodeDownloadProvider;
 import com.automatics.providers.DeviceAccessValidator;
+import com.automatics.providers.PowerBatchExecutor;
 import com.automatics.providers.RdkVideoDeviceProvider;
 import com.automatics.providers.connection.DeviceConnectionProvider;
 import com.automatics.providers.connection.DeviceConsoleType;
@@ -61,6 +68,8 @@ import com.automatics.providers.imageupgrade.ImageUpgradeMechanism;
 import com.automatics.providers.imageupgrade.ImageUpgradeProvider;
 import com.automatics.providers.imageupgrade.ImageUpgradeProviderFactory;
 import com.automatics.providers.objects.DevicePropsRequest;
+import com.automatics.providers.objects.PowerOperationResult;
+import com.automatics.providers.objects.RemoteKeyMacro;
 import com.automatics.providers.rack.DeviceProvider;
 import com.automatics.providers.rack.ImageCompareProvider;
 import com.automatics.providers.rack.OcrProvider;
@@ -74,6 +83,7 @@ import com.automatics.providers.snmp.SnmpProviderFactory;
 import com.automatics.providers.tr69.Parameter;
 import com.automatics.providers.tr69.TR69Provider;
 import com.automatics.providers.trace.ConnectionTraceProvider;
+import com.automatics.providers.trace.MultiDeviceTraceSearch;
 import com.automatics.providers.trace.SerialTraceProvider;
 import com.automatics.providers.trace.TraceProvider;
 import com.automatics.rack.RackDeviceValidationManager;
@@ -89,6 +99,7 @@ import com.automatics.snmp.SnmpCommand;
 import com.automatics.snmp.SnmpParams;
 import com.automatics.snmp.SnmpProtocol;
 import com.automatics.test.AutomaticsTestBase;
+import com.automatics.tr181.TR181BatchEngine;
 import com.automatics.tr181.TR181Parameter;
 import com.automatics.tr181.TR181Response;
 import com.automatics.utils.AutomaticsPropertyUtility;
@@ -102,6 +113,11 @@ import com.automatics.utils.FrameworkHelperUtils;
 import com.automatics.utils.ImageRegionUtils;
 import com.automatics.utils.NonRackUtils;
 import com.automatics.utils.TR181Utils;
+import com.automatics.video.FrameSequenceAnalyzer;
+import com.automatics.video.ScreenColorAnalyzer;
+import com.automatics.video.ScreenColorProfile;
+import com.automatics.video.VideoFrameGrabber;
+import com.automatics.video.VideoFrameGrabberManager;
 import com.automatics.webpa.WebPaConnectionHandler;
 import com.automatics.webpa.WebPaEntityResponse;
 import com.automatics.webpa.WebPaParameter;
@@ -131,14 +147,20 @@ import java.nio.charset.Charset;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.Calendar;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
 import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -225,6 +247,19 @@ public class AutomaticsTapApi {
     // Zephyr integration tool url
     private static final String ZEPHYR_INTEGRATION_TOOL_URL = "zit.update.url";
 
+    /** Property to poll image regions locally instead of waiting on the image compare provider */
+    private static final String PROP_IMAGE_REGION_POLL_LOCAL = "image.region.poll.local";
+
+    /** Interval between captures while polling for image region */
+    private static final long IMAGE_REGION_POLL_INTERVAL = 500;
+
+    /** Skips image comparison while polling, when the region did not change since the last comparison */
+    private static final RegionChangeDetector IMAGE_REGION_CHANGE_DETECTOR = new RegionChangeDetector(
+	    "image.region.wait");
+
+    /** Property to enable parallel comparison of frames across cores */
+    private static final String PROP_FRAME_ANALYSIS_PARALLEL = "video.frame.analysis.parallel";
+
     private static final Map<String, TreeMap<Integer, ChannelDetailsDO>> channelDetailsMap = new HashMap<String, TreeMap<Integer, ChannelDetailsDO>>();
 
     /** Map to hold estbMac with out colon **/
@@ -1483,6 +1518,21 @@ public class AutomaticsTapApi {
 	return response;
     }
 
+    /**
+     * Executes linux commands on multiple devices in parallel. Number of devices handled at a time and maximum execution
+     * time per device are configured using batch.command.max.parallel and batch.command.deadline.millis properties.
+     * 
+     * @param devices
+     *            Devices on which commands are executed
+     * @param commands
+     *            Linux commands
+     * 
+     * @return Result of execution on each device, keyed by device mac
+     */
+    public Map<String, DeviceCommandResultDO> executeCommandOnDevices(Collection<Dut> devices, String... commands) {
+	return new BatchCommandExecutor().executeCommands(this, devices, commands);
+    }
+
     /**
      * Method to capture the cureent screen.
      * 
@@ -1492,11 +1542,31 @@ public class AutomaticsTapApi {
      * @return The buffered image
      */
     public BufferedImage captureCurrentScreen(Dut dut) {
-	BufferedImage image = null;
-	if (null != dut.getVideo()) {
-	    image = dut.getVideo().getVideoImage();
-	}
-	return image;
+	// Read from the background frame grabber when running, otherwise capture from video provider
+	return VideoFrameGrabberManager.get().captureImage(dut);
+    }
+
+    /**
+     * Starts the background frame grabber of the device. Screen captures of the device are then served from the
+     * frames captured in the background.
+     * 
+     * @param dut
+     *            The dut whose frames to be captured
+     * 
+     * @return The frame grabber, null if the dut has no video provider
+     */
+    public VideoFrameGrabber startVideoFrameGrabber(Dut dut) {
+	return VideoFrameGrabberManager.get().start(dut);
+    }
+
+    /**
+     * Stops the background frame grabber of the device.
+     * 
+     * @param dut
+     *            The dut whose frame grabber to be stopped
+     */
+    public void stopVideoFrameGrabber(Dut dut) {
+	VideoFrameGrabberManager.get().stop(dut);
     }
 
     public String executeCommandOnAtom(Dut device, String command) {
@@ -1986,6 +2056,29 @@ public class AutomaticsTapApi {
 	}
     }
 
+    /**
+     * Performs the power operation on a batch of devices in parallel, for eg: to power cycle all devices of a home
+     * account or rack. Concurrency, staggering and availability wait timeouts are configured through the power.batch
+     * properties.
+     * 
+     * @param duts
+     *            The {@link Dut} objects
+     * @param operation
+     *            Power operation
+     * @param awaitCompletion
+     *            true to wait until the devices are down after power off, up after power on, and down and up again
+     *            after power cycle
+     * 
+     * @return Result of each device, in the order of the devices
+     */
+    public List<PowerOperationResult> performPowerOperation(List<Dut> duts, PowerOperation operation,
+	    boolean awaitCompletion) {
+	if (NonRackUtils.isNonRack()) {
+	    return new ArrayList<PowerOperationResult>();
+	}
+	return PowerBatchExecutor.get().execute(duts, operation, awaitCompletion);
+    }
+
     /**
      * Start trace method. This will add an entry to the accessHistory table. It will invoke the Trace servlet's start
      * method. If the servlet invocation is success, trace load table is also updated.
@@ -2768,6 +2861,66 @@ public class AutomaticsTapApi {
 	return traceLine;
     }
 
+    /**
+     * Searches the trace of multiple devices concurrently. Waiting time is bounded by the slowest device instead of the
+     * sum of waits on each device. Note:- Make sure you call the startBuffering() if search from start is required
+     * 
+     * @param devicePatterns
+     *            Regular expression to wait for, for each {@link Dut}
+     * @param matchMode
+     *            {@link TraceMatchMode#ANY_OF} to complete when any device matches, {@link TraceMatchMode#ALL_OF} to
+     *            complete when all devices match
+     * @param searchFromStart
+     *            true to search the existing trace buffer before waiting for new trace lines
+     * @param timeoutInMilliSeconds
+     *            Maximum wait time for the whole search
+     * 
+     * @return {@link MultiDeviceTraceSearch} already started, whose result and per device matches are available as
+     *         futures
+     */
+    public MultiDeviceTraceSearch searchAndWaitForTraceOnDevices(Map<Dut, String> devicePatterns,
+	    TraceMatchMode matchMode, boolean searchFromStart, long timeoutInMilliSeconds) {
+	MultiDeviceTraceSearch traceSearch = new MultiDeviceTraceSearch(devicePatterns, matchMode, searchFromStart);
+	traceSearch.start(timeoutInMilliSeconds);
+	return traceSearch;
+    }
+
+    /**
+     * Trace blocks while waiting/searching for an expression on multiple devices concurrently.
+     * 
+     * @param devices
+     *            The devices whose trace is to be searched
+     * @param regExpression
+     *            Regular expression to wait for.
+     * @param matchMode
+     *            {@link TraceMatchMode#ANY_OF} to return when any device matches, {@link TraceMatchMode#ALL_OF} to
+     *            return when all devices match
+     * @param timeoutInMilliSeconds
+     *            timeout for which to wait for
+     * 
+     * @return Matching trace line of each device where expression is found, keyed by device mac
+     */
+    public Map<String, String> searchAndWaitForTrace(Collection<Dut> devices, String regExpression,
+	    TraceMatchMode matchMode, long timeoutInMilliSeconds) {
+	Map<Dut, String> devicePatterns = new LinkedHashMap<Dut, String>();
+	for (Dut device : devices) {
+	    devicePatterns.put(device, regExpression);
+	}
+	MultiDeviceTraceSearch traceSearch = new MultiDeviceTraceSearch(devicePatterns, matchMode, false);
+	Map<String, String> matchedLines = new LinkedHashMap<String, String>();
+	try {
+	    matchedLines = traceSearch.start(timeoutInMilliSeconds).get(
+		    timeoutInMilliSeconds + AutomaticsConstants.TEN_SECONDS, TimeUnit.MILLISECONDS);
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	    traceSearch.cancel();
+	} catch (ExecutionException | TimeoutException e) {
+	    LOGGER.error("searchAndWaitForTrace(): Failed to complete trace search on devices.", e);
+	    traceSearch.cancel();
+	}
+	return matchedLines;
+    }
+
     /**
      * Wait after hard reboot initiated based on box model.
      * 
@@ -3012,7 +3165,7 @@ public class AutomaticsTapApi {
      * @return BufferedImage the image captured
      */
     public BufferedImage getCurrentScreen(Dut dut) {
-	return dut.getVideo().getVideoImage();
+	return VideoFrameGrabberManager.get().captureImage(dut);
     }
 
     /**
@@ -4006,8 +4159,8 @@ public class AutomaticsTapApi {
 
 	boolean status = false;
 	BufferedImage referenceImage = regionInfo.getRefImage();
-	BufferedImage liveImage = dut.getVideo()
-		.getVideoImage(new Dimension(referenceImage.getWidth(), referenceImage.getHeight()));
+	BufferedImage liveImage = VideoFrameGrabberManager.get().captureImage(dut,
+		new Dimension(referenceImage.getWidth(), referenceImage.getHeight()));
 
 	BufferedImage currentImage = liveImage.getSubimage(regionInfo.getX(), regionInfo.getY(), regionInfo.getWidth(),
 		regionInfo.getHeight());
@@ -4232,8 +4385,9 @@ public class AutomaticsTapApi {
 
 	    public void run() {
 		try {
-
-		    responseData[0] = dut.getImageCompareProvider().waitForImageRegion(imageXml, regionName, timeOut);
+		    Boolean regionFound = waitForImageRegionOnChange(dut, imageXml, regionName, timeOut);
+		    responseData[0] = null != regionFound ? regionFound
+			    : dut.getImageCompareProvider().waitForImageRegion(imageXml, regionName, timeOut);
 		    LOGGER.info("waitForImageRegion(Dut,String,String) - Obtained IC response as - " + responseData[0]);
 		} catch (ImageCompareException e) {
 		    LOGGER.error("image comparision failed.", e);
@@ -4260,6 +4414,60 @@ public class AutomaticsTapApi {
 
     }
 
+    /**
+     * Polls the screen for the image region when image.region.poll.local is true, comparing the region with the
+     * reference image only when its perceptual hash or mean luminance changed since the last comparison. The screen is
+     * captured at the dimension of the reference image.
+     * 
+     * @param dut
+     *            The {@link Dut} object
+     * @param imageXml
+     *            The image xml file name.
+     * @param regionName
+     *            The name of the region to be compared.
+     * @param timeOut
+     *            The timeout in milliseconds.
+     * @return True if the region is on the screen within the timeout, false if not, null if local polling is not
+     *         enabled or screen or reference image is not available locally
+     */
+    private Boolean waitForImageRegionOnChange(Dut dut, String imageXml, String regionName, long timeOut) {
+	if (!Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_IMAGE_REGION_POLL_LOCAL, "false"))) {
+	    return null;
+	}
+	RegionInfo region = ImageRegionUtils.getRegionInfo(getResourceLocator().getResource(imageXml, dut),
+		regionName);
+	if (!(region instanceof ImageCompareRegionInfo) || null == region.getRefImage()) {
+	    return null;
+	}
+	ImageCompareRegionInfo regionInfo = (ImageCompareRegionInfo) region;
+	Dimension dimension = new Dimension(regionInfo.getRefImage().getWidth(), regionInfo.getRefImage().getHeight());
+	BufferedImage image = VideoFrameGrabberManager.get().captureImage(dut, dimension);
+	if (null == image) {
+	    return null;
+	}
+
+	boolean isRegionFound = false;
+	String changeKey = dut.getHostMacAddress() + AutomaticsConstants.COLON + imageXml
+		+ AutomaticsConstants.COLON + regionName;
+	IMAGE_REGION_CHANGE_DETECTOR.reset(changeKey);
+	long endTime = System.currentTimeMillis() + timeOut;
+	while (true) {
+	    if (null != image && IMAGE_REGION_CHANGE_DETECTOR.hasChanged(changeKey, image, regionInfo)) {
+		isRegionFound = dut.getImageCompareProvider().compareImages(image, regionInfo.getRefImage(),
+			regionInfo);
+	    }
+	    if (isRegionFound || System.currentTimeMillis() + IMAGE_REGION_POLL_INTERVAL >= endTime) {
+		break;
+	    }
+	    AutomaticsUtils.sleep(IMAGE_REGION_POLL_INTERVAL);
+	    image = VideoFrameGrabberManager.get().captureImage(dut, dimension);
+	}
+	IMAGE_REGION_CHANGE_DETECTOR.reset(changeKey);
+	LOGGER.info("Image region {} found: {}, comparisons skipped so far: {}", regionName, isRegionFound,
+		IMAGE_REGION_CHANGE_DETECTOR.getSkippedCount());
+	return isRegionFound;
+    }
+
     /**
      * Compares the current image with specified image to be on screen. This function uses the match percent, RGB
      * tolerances, and x & y tolerances from the imgXMLPath file.
@@ -4449,8 +4657,8 @@ public class AutomaticsTapApi {
 
 	boolean status = false;
 	BufferedImage referenceImage = regionInfo.getRefImage();
-	BufferedImage liveImage = dut.getVideo()
-		.getVideoImage(new Dimension(referenceImage.getWidth(), referenceImage.getHeight()));
+	BufferedImage liveImage = VideoFrameGrabberManager.get().captureImage(dut,
+		new Dimension(referenceImage.getWidth(), referenceImage.getHeight()));
 
 	BufferedImage currentImage = liveImage.getSubimage(regionInfo.getX(), regionInfo.getY(), regionInfo.getWidth(),
 		regionInfo.getHeight());
@@ -4504,62 +4712,101 @@ public class AutomaticsTapApi {
     public boolean detectClosedCaptionOnSettopVideo(Dut dut, long imageSequenceDuration, String xmlOfStaticScreen,
 	    String... regionsToBeMasked) {
 
-	// Location where closed caption images are to be saved
-	String ccImageSaveLocation = dut.getImageCompareProvider().getClosedCaptionImageSaveLocation();
-	File ccImageDir = new File(ccImageSaveLocation);
+	// Frames are streamed through the analyzer in memory, masking is done on the pixel data
+	FrameSequenceAnalyzer analyzer = new FrameSequenceAnalyzer(
+		getMaskRectangles(dut, xmlOfStaticScreen, regionsToBeMasked), AVConstants.RMSE_ERROR_CLOSED_CAPTION,
+		isParallelFrameAnalysisEnabled());
+	sampleFrames(dut, imageSequenceDuration, analyzer);
+
+	int frameCount = analyzer.getFrameCount();
+	int matchedSamples = analyzer.getFramesMatchingFirst();
+	boolean isClosedCaptionPresent = frameCount > 0 && matchedSamples <= frameCount / 2;
+	LOGGER.info("Closed caption detection: {} of {} frames matched first frame, max RMSE {}, CC present: {}",
+		matchedSamples, frameCount, analyzer.getMaxRmseFromFirst(), isClosedCaptionPresent);
 
-	// The CC images are saved in /ccImageSaveLocation/HostMacAddress
-	String savedCCimagesFolder = ccImageSaveLocation + AutomaticsConstants.PATH_SEPARATOR
-		+ AutomaticsUtils.getCleanMac(dut.getHostMacAddress()) + AutomaticsConstants.PATH_SEPARATOR;
-	ccImageDir.mkdirs();
+	if (!isClosedCaptionPresent) {
+	    saveFailureFrames(dut, analyzer, "ClosedCaptionNotDetected");
+	}
+	return isClosedCaptionPresent;
+    }
 
-	BufferedImage actualImage = null;
-	BufferedImage expectedImage = null;
-	long currentTime = System.currentTimeMillis();
+    /**
+     * Verifies whether the video on screen is frozen. Frames are captured for the given duration and compared with
+     * their previous frame in memory, the screen is considered frozen if no consecutive frames differ by more than
+     * {@link AVConstants#RMSE_ERROR_FROZEN_SCREEN}.
+     * 
+     * @param dut
+     *            The {@link Dut} object
+     * @param durationInMillis
+     *            Duration for which the frames are captured
+     * @param regionsToBeMasked
+     *            Regions to be ignored in comparison, like clock or progress bar, may be null
+     * 
+     * @return true if screen is frozen, false otherwise.
+     */
+    public boolean isScreenFrozen(Dut dut, long durationInMillis, List<Rectangle> regionsToBeMasked) {
+	FrameSequenceAnalyzer analyzer = new FrameSequenceAnalyzer(regionsToBeMasked,
+		AVConstants.RMSE_ERROR_FROZEN_SCREEN, isParallelFrameAnalysisEnabled());
+	sampleFrames(dut, durationInMillis, analyzer);
 
-	// Clean destination folder before proceedings.
-	if (ccImageDir.exists()) {
+	boolean isFrozen = analyzer.isFrozen();
+	LOGGER.info("Frozen screen detection: {} of {} frames matched previous frame, max RMSE {}, frozen: {}",
+		analyzer.getFramesMatchingPrevious(), analyzer.getFrameCount(), analyzer.getMaxRmseFromPrevious(),
+		isFrozen);
 
-	    try {
-		org.apache.commons.io.FileUtils.cleanDirectory(ccImageDir);
-	    } catch (IOException ioex) {
-		LOGGER.error("Failed to clean the directory before saving new images.", ioex);
-	    }
+	if (isFrozen) {
+	    saveFailureFrames(dut, analyzer, "FrozenScreen");
 	}
-	// Capture a sequence of frames for a particular duration
-	while (System.currentTimeMillis() < (currentTime + imageSequenceDuration)) {
-	    saveVideoImage(ccImageSaveLocation, dut);
-	}
-	// Store the list of saved images in an array
-	File[] savedImages = new File(savedCCimagesFolder).listFiles();
-	int matchedSamples = 0;
-	// if images are saved mask the moving regions
-	if (savedImages.length > 0) {
-	    maskRegion(savedImages, dut, xmlOfStaticScreen, regionsToBeMasked);
-	    MagickComparison magicComparison = new MagickComparison();
-	    magicComparison.setRmseError(AVConstants.RMSE_ERROR_CLOSED_CAPTION);
+	return isFrozen;
+    }
 
-	    for (int index = 0; index < savedImages.length; index++) {
+    /**
+     * Streams the device frames for the given duration to the analyzer
+     */
+    private void sampleFrames(Dut dut, long durationInMillis, final FrameSequenceAnalyzer analyzer) {
+	VideoFrameGrabberManager.get().sampleFrames(dut, durationInMillis, new VideoFrameGrabberManager.FrameHandler() {
 
-		try {
-		    // get the first and last frame from the masked images
-		    actualImage = ImageIO.read(savedImages[index]);
-		    expectedImage = ImageIO.read(savedImages[0]);
-		} catch (IOException e) {
-		    LOGGER.error(e.getMessage(), e);
-		}
-		// Compare the first image with all samples.
-		if (magicComparison.doRmseComparison(expectedImage, actualImage)) {
-		    matchedSamples++;
-		    LOGGER.info("matchedSamples =" + matchedSamples);
+	    @Override
+	    public void onFrame(BufferedImage image, long timestamp) {
+		analyzer.addFrame(image);
+	    }
+	});
+    }
+
+    /**
+     * Reads the regions to be masked from the static screen XML
+     */
+    private List<Rectangle> getMaskRectangles(Dut dut, String xmlOfStaticScreen, String... regionsToBeMasked) {
+	List<Rectangle> maskRectangles = new ArrayList<Rectangle>();
+	if (null != regionsToBeMasked && regionsToBeMasked.length > 0) {
+	    String xmlPath = getResourceLocator().getResource(xmlOfStaticScreen, dut);
+	    for (String regionName : regionsToBeMasked) {
+		RegionInfo maskRegionInfo = ImageRegionUtils.getRegionInfo(xmlPath, regionName);
+		if (null != maskRegionInfo) {
+		    maskRectangles.add(new Rectangle(maskRegionInfo.getX(), maskRegionInfo.getY(),
+			    maskRegionInfo.getWidth(), maskRegionInfo.getHeight()));
 		}
 	    }
+	}
+	return maskRectangles;
+    }
 
+    /**
+     * Saves the first frame of the analyzed sequence and the current screen as failure artifacts
+     */
+    private void saveFailureFrames(Dut dut, FrameSequenceAnalyzer analyzer, String imageName) {
+	BufferedImage firstFrame = analyzer.getFirstFrame();
+	if (null != firstFrame) {
+	    LOGGER.info("Saved first frame at {}", saveImages(dut, firstFrame, imageName + "_first"));
+	    BufferedImage currentFrame = VideoFrameGrabberManager.get().captureImage(dut);
+	    if (null != currentFrame) {
+		LOGGER.info("Saved last frame at {}", saveImages(dut, currentFrame, imageName + "_last"));
+	    }
 	}
-	LOGGER.info("matchedSamples %% " + matchedSamples);
-	LOGGER.info("savedImages.length / 2 " + savedImages.length / 2);
-	LOGGER.info("Matches " + (matchedSamples <= savedImages.length / 2));
-	return (matchedSamples <= savedImages.length / 2);
+    }
+
+    private static boolean isParallelFrameAnalysisEnabled() {
+	return Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_FRAME_ANALYSIS_PARALLEL, "true"));
     }
 
     /**
@@ -5002,7 +5249,8 @@ public class AutomaticsTapApi {
     }
 
     /**
-     * Method to extract color from image
+     * Method to extract color from image. The colors are classified locally, the format matches the OCR color
+     * extraction, eg: black=95.2, blue=4.8
      * 
      * @param dut
      *            instance of STB
@@ -5018,31 +5266,8 @@ public class AutomaticsTapApi {
 	String color = null;
 
 	try {
-
-	    // Creating dummy OCR Region info for CATS API
-	    OcrRegionInfo ocrRegionInfo = new OcrRegionInfo();
-	    ocrRegionInfo.setX(0);
-	    ocrRegionInfo.setY(0);
-	    ocrRegionInfo.setWidth(image.getWidth());
-	    ocrRegionInfo.setHeight(image.getHeight());
-	    ocrRegionInfo.setUrl("sample_url");
-	    ocrRegionInfo.setExpectedText("sample_expected");
-	    ocrRegionInfo.setFilepath("sample_file_path");
-	    ocrRegionInfo.setName("sample_name");
-	    ocrRegionInfo.setSuccessTolerance(80);
-	    ocrRegionInfo.setTimeout(30);
-	    ocrRegionInfo.setXTolerance(90);
-	    ocrRegionInfo.setYTolerance(90);
-
-	    // Formatting BufferedImage properties
-	    BufferedImage formattedImg = new BufferedImage(image.getWidth(), image.getHeight(),
-		    BufferedImage.TYPE_INT_RGB);
-	    formattedImg.getGraphics().drawImage(image, 0, 0, null);
-
-	    color = dut.getOcrProvider().extractColorFromGivenImage(ocrRegionInfo, image);
-
+	    color = ScreenColorAnalyzer.analyze(image).toString();
 	    LOGGER.info("getColorFromImage() - Color captured from the image - " + color);
-
 	} catch (Exception exception) {
 	    LOGGER.error("Exception occured in getColorFromImage() - " + exception.getMessage());
 	    color = null;
@@ -5062,26 +5287,27 @@ public class AutomaticsTapApi {
 	LOGGER.info("STARTING METHOD: processImagesAndVerifyAV()");
 	boolean status = false;
 
-	String capturedColors[] = new String[5];
+	ScreenColorProfile previousProfile = null;
 	for (int i = 0; i < 5; i++) {
-	    BufferedImage bufferedImage = tapApi.captureCurrentScreen(dut);
-	    if (bufferedImage != null) {
-		capturedColors[i] = processImageAndExtractColor(dut, bufferedImage);
-		if (CommonMethods.isNotNull(capturedColors[i])) {
-		    LOGGER.info("Not able to capture any color");
-		}
+	    if (i > 0) {
+		AutomaticsUtils.sleep(AutomaticsConstants.FIVE_SECONDS);
 	    }
-
-	    AutomaticsUtils.sleep(AutomaticsConstants.FIVE_SECONDS);
-	}
-	for (int i = 1; i < capturedColors.length; i++) {
-	    if (capturedColors[i - 1].equalsIgnoreCase(capturedColors[i])) {
+	    BufferedImage bufferedImage = tapApi.captureCurrentScreen(dut);
+	    if (bufferedImage == null) {
+		LOGGER.info("Not able to capture the screen");
 		status = false;
-		LOGGER.info("Screen freeze is observed while verifying AV");
 		break;
-	    } else {
+	    }
+	    ScreenColorProfile profile = ScreenColorAnalyzer.analyze(bufferedImage);
+	    if (null != previousProfile) {
+		if (previousProfile.isSameScreen(profile, AVConstants.FROZEN_SCREEN_SIGNATURE_TOLERANCE)) {
+		    status = false;
+		    LOGGER.info("Screen freeze is observed while verifying AV");
+		    break;
+		}
 		status = true;
 	    }
+	    previousProfile = profile;
 	}
 	LOGGER.info("Ending Method: processImagesAndVerifyAV");
 	return status;
@@ -5097,29 +5323,12 @@ public class AutomaticsTapApi {
     public boolean processImagesAndVerifyNoInputSignalScreen(Dut dut, BufferedImage bufferedImage) {
 	LOGGER.info("STARTING METHOD: processImagesAndVerifyNoInputSignalScreen()");
 	boolean status = false;
-	String capturedColors = null;
-	int bluePercentage = 0;
 	if (bufferedImage != null) {
-	    capturedColors = processImageAndExtractColor(dut, bufferedImage);
-	    if (CommonMethods.isNotNull(capturedColors)) {
-		String bluePattern = "blue\\s*=\\s*(\\d*.\\d*)";
-		String bluePercent = CommonMethods.patternFinder(capturedColors, bluePattern);
-		if (CommonMethods.isNotNull(bluePercent)) {
-		    try {
-			bluePercentage = Integer.parseInt(bluePercent);
-		    } catch (Exception e) {
-			try {
-			    bluePercentage = (int) Double.parseDouble(bluePercent);
-			} catch (Exception ex) {
-			    bluePercentage = (int) Float.parseFloat(bluePercent);
-			}
-		    }
-		    LOGGER.info("Obtained Blue percent Int value as : " + bluePercentage);
-		    if (bluePercentage >= 90) {
-			LOGGER.info("No input signal screen found");
-			status = true;
-		    }
-		}
+	    ScreenColorProfile profile = ScreenColorAnalyzer.analyze(bufferedImage);
+	    LOGGER.info("Obtained Blue percent value as : " + profile.getPercentage(ScreenColor.BLUE));
+	    if (profile.isNoInputSignalScreen(AVConstants.NO_INPUT_SIGNAL_MIN_BLUE_PERCENTAGE)) {
+		LOGGER.info("No input signal screen found");
+		status = true;
 	    }
 	}
 	LOGGER.info("Ending Method: processImagesAndVerifyNoInputSignalScreen : " + status);
@@ -5136,11 +5345,10 @@ public class AutomaticsTapApi {
     public boolean processImageAndVerifyBlackScreen(Dut dut, BufferedImage bufferedImage) {
 	LOGGER.info("STARTING METHOD: processImageAndVerifyBlackScreen()");
 	boolean status = false;
-	String colorToValidate = "black=100.0";
-	String capturedColors = null;
 	if (bufferedImage != null) {
-	    capturedColors = processImageAndExtractColor(dut, bufferedImage);
-	    if (CommonMethods.isNotNull(capturedColors) && capturedColors.contains(colorToValidate)) {
+	    ScreenColorProfile profile = ScreenColorAnalyzer.analyze(bufferedImage);
+	    LOGGER.info("Obtained Black percent value as : " + profile.getPercentage(ScreenColor.BLACK));
+	    if (profile.isBlackScreen(AVConstants.BLACK_SCREEN_MIN_PERCENTAGE)) {
 		status = true;
 		LOGGER.info("Black screen is observed");
 	    }
@@ -5151,34 +5359,25 @@ public class AutomaticsTapApi {
 
     /**
      * 
-     * Helper method to process images and verify if screen is frozen
+     * Helper method to process images taken five seconds apart and verify if screen is frozen
      * 
      * @param dut
-     * @return return true if screen is frozen, else false
+     * @return return false if screen is frozen or could not be captured, true if screen is changing
      */
     public boolean processImagesAndVerifyFrozenScreen(Dut dut) {
 	LOGGER.info("STARTING METHOD: processImagesAndVerifyFrozenScreen()");
 	boolean status = false;
-	String capturedColors = null;
-	String capturedColors_after_five_sec = null;
 	BufferedImage bufferedImage = tapApi.captureCurrentScreen(dut);
-	if (bufferedImage != null) {
-	    capturedColors = processImageAndExtractColor(dut, bufferedImage);
-	}
-	if (CommonMethods.isNotNull(capturedColors)) {
-	    capturedColors = "";
-	    LOGGER.info("Not able to capture any color");
-	}
-	AutomaticsUtils.sleep(AutomaticsConstants.FIVE_SECONDS);
-	bufferedImage = tapApi.captureCurrentScreen(dut);
-	if (bufferedImage != null) {
-	    capturedColors_after_five_sec = processImageAndExtractColor(dut, bufferedImage);
-	}
-	if (CommonMethods.isNotNull(capturedColors_after_five_sec)) {
-	    capturedColors_after_five_sec = "";
-	    LOGGER.info("Not able to capture any color after 5 seconds to verify AV freeze");
+	ScreenColorProfile profile = null != bufferedImage ? ScreenColorAnalyzer.analyze(bufferedImage) : null;
+	if (null == profile) {
+	    LOGGER.info("Not able to capture the screen");
 	} else {
-	    if (capturedColors.equalsIgnoreCase(capturedColors_after_five_sec)) {
+	    AutomaticsUtils.sleep(AutomaticsConstants.FIVE_SECONDS);
+	    bufferedImage = tapApi.captureCurrentScreen(dut);
+	    if (null == bufferedImage) {
+		LOGGER.info("Not able to capture the screen after 5 seconds to verify AV freeze");
+	    } else if (profile.isSameScreen(ScreenColorAnalyzer.analyze(bufferedImage),
+		    AVConstants.FROZEN_SCREEN_SIGNATURE_TOLERANCE)) {
 		status = false;
 		LOGGER.info("Screen freeze is observed");
 	    } else {
@@ -5522,9 +5721,7 @@ public class AutomaticsTapApi {
      *            - Delay in milliseconds between key presses.
      */
     public void pressKeys(Dut dut, List<String> commands, Integer delay, RemoteControlType type) {
-	for (String remoteCommand : commands) {
-	    pressKey(dut, remoteCommand, delay, type);
-	}
+	pressKeyMacro(dut, new RemoteKeyMacro().addKeys(commands, delay, 0), type, true);
     }
 
     /**
@@ -5540,11 +5737,14 @@ public class AutomaticsTapApi {
      *            - Array of Remote Commands
      */
     public void pressKey(Dut dut, Integer count, Integer delay, String[] commands, RemoteControlType type) {
-	List<String> remoteCommandList = Arrays.asList(commands);
+	RemoteKeyMacro macro = new RemoteKeyMacro();
 	for (int noOfTimes = 0; noOfTimes < count; noOfTimes++) {
-	    pressKeys(dut, remoteCommandList, delay, type);
-	    tapApi.waitTill(delay);
+	    for (int index = 0; index < commands.length; index++) {
+		// Wait for the delay after each set of commands
+		macro.addKey(commands[index], delay, index == commands.length - 1 ? delay : 0);
+	    }
 	}
+	pressKeyMacro(dut, macro, type, true);
     }
 
     /**
@@ -5560,10 +5760,7 @@ public class AutomaticsTapApi {
      *            - Delay time in milliseconds after command.
      */
     public void pressKey(Dut dut, Integer count, String command, Integer delay, RemoteControlType type) {
-	for (int noOfTimes = 0; noOfTimes < count; noOfTimes++) {
-	    pressKey(dut, command, delay, type);
-	    tapApi.waitTill(delay);
-	}
+	pressKeyMacro(dut, new RemoteKeyMacro().addKeys(Collections.nCopies(count, command), delay, delay), type, true);
     }
 
     /**
@@ -5599,10 +5796,7 @@ public class AutomaticsTapApi {
      *            - Remote command
      */
     public void pressKey(Dut dut, Integer count, String command, RemoteControlType type) {
-
-	for (int noOfTimes = 0; noOfTimes < count; noOfTimes++) {
-	    pressKey(dut, command, type);
-	}
+	pressKeyMacro(dut, new RemoteKeyMacro().addKeys(Collections.nCopies(count, command), null, 0), type, false);
     }
 
     /**
@@ -5614,9 +5808,36 @@ public class AutomaticsTapApi {
      *            - List of keys to be sent.
      */
     public void pressKeys(Dut dut, List<String> commands, RemoteControlType type) {
+	pressKeyMacro(dut, new RemoteKeyMacro().addKeys(commands, null, 0), type, false);
+    }
 
-	for (String remoteCommand : commands) {
-	    pressKey(dut, remoteCommand, type);
+    /**
+     * Sends the keys as one macro through the remote provider. When the keys are sent one by one, each key is retried
+     * and sending stops at a failed key if failOnError is true, otherwise each key is sent once and a failed key is
+     * skipped. A macro sent in one request succeeds or fails as a whole and is not retried key by key.
+     * 
+     * @param dut
+     *            The {@link Dut} object
+     * @param macro
+     *            Keys with delays and gaps
+     * @param type
+     *            Remote control type
+     * @param failOnError
+     *            true to throw {@link FailedTransitionException} when a key could not be sent
+     */
+    private void pressKeyMacro(Dut dut, RemoteKeyMacro macro, RemoteControlType type, boolean failOnError) {
+	LOGGER.info("Sending keys {} using remote.", macro);
+	macro.setKeySendAttempts(failOnError ? retries : 1);
+	macro.setStopOnFailure(failOnError);
+	int sentKeys = dut.getRemote().pressKeyMacro(macro, type);
+	LOGGER.info("Presskey status - sent {} of {} keys", sentKeys, macro.size());
+	if (failOnError && 0 == sentKeys && macro.size() > 0) {
+	    throw new FailedTransitionException(GeneralError.KEY_SEND_FAILURE,
+		    "Failed to send keys " + macro.getCommands() + " using remote, no key was sent.");
+	} else if (failOnError && sentKeys < macro.size()) {
+	    throw new FailedTransitionException(GeneralError.KEY_SEND_FAILURE,
+		    "Failed to send key [" + macro.getCommands().get(sentKeys) + "] using remote with delay ["
+			    + macro.getDelays().get(sentKeys) + "].");
 	}
     }
 
@@ -6426,74 +6647,12 @@ public class AutomaticsTapApi {
 	    TR181AccessMethods tr181AccessMethod) {
 
 	List<TR181Parameter> response = null;
-	String resp = null;
 	if (null != parameterList && !parameterList.isEmpty()) {
 
-	    tr181AccessMethod = getTR181AccessMethod(tr181AccessMethod);
-
-	    LOGGER.info("TR181 Access Method: {}", tr181AccessMethod);
-
-	    switch (tr181AccessMethod) {
-	    case WEBPA: {
-
-		for (String webPaParam : parameterList) {
-
-		    WebPaServerResponse webPaServerResponse = getWebPaParameterValue(dut, webPaParam);
-		    if (null != webPaServerResponse) {
-
-			if (null == response) {
-			    response = new ArrayList<TR181Parameter>();
-			}
-
-			response.addAll(TR181Utils.convertWebPaToTR181ParamObject(webPaServerResponse.getParams(),webPaServerResponse.getStatusCode()));
-
-		    }
-		}
-		break;
-	    }
-	    case TR69: {
-
-		String[] paramArray = null;
-
-		List<String> tr69Response = getTr69ParameterValue(dut, parameterList.toArray(paramArray));
-		response = TR181Utils.convertToTR181Response(tr69Response);
-		break;
-	    }
-
-	    case DMCLI: {
-		if (null != deviceConnectionProvider) {
-
-		    String dmcliCommand = null;
-		    String value = null;
-
-		    LOGGER.info("Going to find protocol specific names");
-		    List<TR181Parameter> dmcliParamNames = TR181Utils.getTR181ParameterObjects(parameterList,
-			    TR181AccessMethods.DMCLI);
-
-		    LOGGER.info("Going to execute commands");
-		    for (TR181Parameter param : dmcliParamNames) {
-			dmcliCommand = LinuxCommandConstants.DMCLI_GET_COMMAND + param.getProtocolSpecificParamName();
-			// Execute dmcli command
-			resp = deviceConnectionProvider.execute((Device) dut, dmcliCommand);
-
-			LOGGER.info("Dmcli response : {}", resp);
-			value = TR181Utils.parseResponseAndGetDmcliParamValues(resp);
-			LOGGER.info("Dmcli param value : {}", value);
-			param.setValue(value);
-		    }
-
-		    response = dmcliParamNames;
+	    LOGGER.info("TR181 Access Method: {}", null != tr181AccessMethod ? tr181AccessMethod : "learned");
 
-		} else {
-		    LOGGER.error("DeviceConnectionProvider not configured. Failed to get TR181 parameters.");
-		}
-		break;
-	    }
-	    default:
-		LOGGER.error("TR181 Access Method {} not handled.", tr181AccessMethod);
-		break;
-
-	    }
+	    // Parameters are grouped per access method and each group is fetched in one request
+	    response = TR181BatchEngine.get().getParameterValues(dut, parameterList, tr181AccessMethod);
 	} else {
 	    LOGGER.error("TR181 parameter is null.");
 	}
@@ -6538,114 +6697,10 @@ public class AutomaticsTapApi {
 
     private Map<String, String> setTR181ParameterValue(Dut dut, List<TR181Parameter> parameterList,
 	    TR181AccessMethods tr181AccessMethod) {
-	Map<String, String> response = new HashMap<String, String>();
 
-	tr181AccessMethod = getTR181AccessMethod(tr181AccessMethod);
-
-	switch (tr181AccessMethod) {
-	case WEBPA: {
-
-	    // Convert TR181 param object to webpa param object
-	    List<WebPaParameter> webpaParams = TR181Utils.convertTR181ToWebPaParamObject(parameterList);
-
-	    WebPaServerResponse webPaResponse = null;
-	    if (webpaParams != null) {
-
-		for (WebPaParameter webpaParam : webpaParams) {
-		    // Set webpa param value
-		    LOGGER.info("Setting webpa {} dataType {} value {}", webpaParam.getName(), webpaParam.getDataType(),
-			    webpaParam.getValue());
-		    webPaResponse = setWebPaParameterValue(dut, webpaParam);
-
-		    if (null != webPaResponse) {
-			response.put(webpaParam.getName(), webPaResponse.getMessage());
-		    }
-		}
-	    }
-
-	    break;
-	}
-
-	case TR69: {
-
-	    String tr69Response = null;
-	    List<Parameter> tr69ParamsList = TR181Utils.convertTR181ToTR69ParamObject(parameterList);
-
-	    List<Parameter> singleTr69ParamList = null;
-
-	    for (Parameter parameter : tr69ParamsList) {
-		singleTr69ParamList = new ArrayList<Parameter>();
-		singleTr69ParamList.add(parameter);
-
-		// Set TR69 Parameter value
-		tr69Response = setTR69ParameterValues(dut, singleTr69ParamList);
-		response.put(parameter.getParamName(), tr69Response);
-	    }
-
-	    break;
-	}
-
-	case DMCLI: {
-	    if (null != deviceConnectionProvider) {
-
-		String dmcliResponse = null;
-		String dmcliCommand = null;
-
-		List<TR181Parameter> tr181ParameterList = TR181Utils.mapProtocolDetails(null, parameterList,
-			tr181AccessMethod, null);
-
-		for (TR181Parameter tr181Parameter : tr181ParameterList) {
-
-		    dmcliCommand = new StringBuilder(LinuxCommandConstants.DMCLI_SET_COMMAND)
-			    .append(AutomaticsConstants.SPACE).append(tr181Parameter.getProtocolSpecificParamName())
-			    .append(AutomaticsConstants.SPACE).append(tr181Parameter.getProtocolSpecificDataType())
-			    .append(AutomaticsConstants.SPACE).append(tr181Parameter.getValue()).toString();
-
-		    LOGGER.info("Dmcli Command to be executed: {}", dmcliCommand);
-
-		    dmcliResponse = deviceConnectionProvider.execute((Device) dut, dmcliCommand);
-		    LOGGER.info("Dmcli Response: {}", dmcliResponse);
-
-		    String dmcliStatus = TR181Utils.isDmcliOperationSuccess(dmcliResponse);
-
-		    /**
-		     * Execute dmcli settings command
-		     */
-
-		    if (AutomaticsConstants.SUCCESS.equals(dmcliStatus)) {
-
-			if (TR181Utils.isApplySettingsRequired(tr181Parameter.getProtocolSpecificParamName())) {
-
-			    LOGGER.info("Apply settings dmcli command to be executed");
-
-			    dmcliCommand = new StringBuilder("dmcli eRT setv ")
-				    .append(TR181Utils.getDmcliApplySettingParamName(
-					    tr181Parameter.getProtocolSpecificParamName()))
-				    .append(" bool true").toString();
-
-			    LOGGER.info("Dmcli Command to be executed: {}", dmcliCommand);
-
-			    dmcliResponse = deviceConnectionProvider.execute((Device) dut, dmcliCommand,
-				    DeviceConsoleType.ARM, AutomaticsConstants.FIFTY_SECOND_IN_MILLIS);
-
-			    LOGGER.info("Dmcli Response: {}", dmcliResponse);
-			}
-
-		    }
-
-		    response.put(tr181Parameter.getName(), TR181Utils.isDmcliOperationSuccess(dmcliResponse));
-		}
-	    } else {
-		LOGGER.error("DeviceConnectionProvider not configured. Failed to get TR181 parameters");
-	    }
-	    break;
-	}
-
-	default:
-	    LOGGER.error("TR181AccessMethod {}not handled in setTR181.", tr181AccessMethod);
-	    break;
-
-	}
+	// Parameters are grouped per access method and each group is set in one request
+	Map<String, String> response = TR181BatchEngine.get().setParameterValues(dut, parameterList,
+		tr181AccessMethod);
 
 	LOGGER.info("TR181 Response : {}", response);
 
@@ -90,10 +90,14 @@ import com.automatics.exceptions.FailedTransitionException;
 import com.automatics.executor.RetryAnalyzer;
 import com.automatics.logger.HtmlLogGenerator;
 import com.automatics.manager.device.DeviceManager;
+import com.automatics.metrics.MetricsExporter;
+import com.automatics.metrics.MetricsHttpEndpoint;
 import com.automatics.providers.TestInitilizationProvider;
 import com.automatics.providers.trace.ConnectionTraceProvider;
 import com.automatics.providers.trace.TraceProvider;
 import com.automatics.rack.RackInitializer;
+import com.automatics.reporter.TestDurationHistoryStore;
+import com.automatics.reporter.TestDurationReportGenerator;
 import com.automatics.restclient.RestClient;
 import com.automatics.restclient.RestClientConstants.HttpRequestMethod;
 import com.automatics.restclient.RestClientException;
@@ -253,6 +257,7 @@ public class AutomaticsTestBase {
 	settopList = TestUtils.getCommaSepDeviceMac();
 	final List<Dut> lockedDevices = new ArrayList<Dut>();
 	LOGGER.info(">>>[BEFORE_SUITE]: Perform before suite initialization");
+	MetricsHttpEndpoint.startIfConfigured();
 	if (null == testInitilizationProvider) {
 	    testInitilizationProvider = BeanUtils.getTestInitializationProvider();
 	}
@@ -389,6 +394,7 @@ public class AutomaticsTestBase {
 	    LOGGER.info(">>>[BEFORE_METHOD]: Sending test exection start time to Automatics {}",
 		    device.getHostMacAddress());
 	    captureAutomationScriptExecutionTime(device, testCaseTobeExecuted, true);
+	    TestDurationHistoryStore.get().markTestStart(device, testCaseTobeExecuted);
 	    device.setTestSessionDetails(testSessionDetails);
 
 	    MDC.put(LoggingConstants.LOGGER_LOG_FILE_NAME_KEY, CommonMethods.getSettopDetails(device));
@@ -482,6 +488,7 @@ public class AutomaticsTestBase {
 
 	    LOGGER.info(">>>[AFTER_METHOD]: Sending test execution completion time for {}", device.getHostMacAddress());
 	    captureAutomationScriptExecutionTime(device, testDetailsAnnotation.testUID(), false);
+	    TestDurationHistoryStore.get().markTestCompleted(device, testUID, getTestResultStatus(testResult));
 
 	    LOGGER.info("Restarting Trace in after method");
 	    clearDeviceTraceBuffer(device);
@@ -701,6 +708,13 @@ public class AutomaticsTestBase {
 	    }
 	}
 
+	if (TestDurationHistoryStore.isEnabled()) {
+	    new TestDurationReportGenerator().generateReport();
+	}
+
+	new MetricsExporter().exportToFiles();
+	MetricsHttpEndpoint.stop();
+
 	if (isHtmlLoggingEnabled()) {
 	    String entireLogsLocation = AutomaticsConstants.SETTOP_LOG_DIRECTORY;
 	    String testingBuild = System.getProperty(AutomaticsConstants.BUILD_NAME_SYSTEM_PROPERTY, "").trim();
@@ -1207,6 +1221,31 @@ public class AutomaticsTestBase {
 	}
     }
 
+    /**
+     * Gets the test result status name for duration history
+     * 
+     * @param testResult
+     *            Test result
+     * @return Status name
+     */
+    private static String getTestResultStatus(ITestResult testResult) {
+	String status = null;
+	switch (testResult.getStatus()) {
+	case ITestResult.SUCCESS:
+	    status = "SUCCESS";
+	    break;
+	case ITestResult.FAILURE:
+	    status = "FAILURE";
+	    break;
+	case ITestResult.SKIP:
+	    status = "SKIP";
+	    break;
+	default:
+	    status = String.valueOf(testResult.getStatus());
+	}
+	return status;
+    }
+
     /**
      * Method to copy logs to specified test folder after each test. For easiness of analysis
      * 
@@ -0,0 +1,865 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.tr181;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.constants.LinuxCommandConstants;
+import com.automatics.device.Device;
+import com.automatics.device.Dut;
+import com.automatics.enums.DeviceConsoleType;
+import com.automatics.enums.TR181AccessMethods;
+import com.automatics.exceptions.TestException;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.connection.DeviceConnectionProvider;
+import com.automatics.providers.tr69.Parameter;
+import com.automatics.providers.tr69.TR69Provider;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.AutomaticsUtils;
+import com.automatics.utils.BeanUtils;
+import com.automatics.utils.CommonMethods;
+import com.automatics.utils.TR181Utils;
+import com.automatics.webpa.WebPaConnectionHandler;
+import com.automatics.webpa.WebPaParameter;
+import com.automatics.webpa.WebPaServerResponse;
+
+/**
+ * Executes TR-181 get and set requests in batches. Parameters are grouped per access method and each group is sent
+ * as one WebPA request, one dmcli command or one TR-69 call, with the groups of a request running in parallel.
+ * Results of all groups are merged into a single response.
+ * 
+ * When no access method is requested, the configured default access method is used. Fallback for GET requests can be
+ * enabled with tr181.protocol.fallback.enabled, then the fastest access method that worked earlier for getting the
+ * parameter on the same model is tried first, and parameters failing on an access method are retried on the next
+ * access method configured in tr181.protocol.fallback.order. Learned results expire, so that an access method failing
+ * earlier is tried again later. SET requests never fall back, as a partially applied set must not be repeated on
+ * another access method.
+ * 
+ * WebPA fails the whole request when one parameter is rejected, so a failed WebPA request of several parameters is
+ * repeated for each parameter. An exception of the last access method tried for a parameter is thrown to the caller.
+ *
+ */
+public class TR181BatchEngine {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TR181BatchEngine.class);
+
+    /** Property to enable fallback to other access methods for GET requests without requested access method */
+    private static final String PROP_FALLBACK_ENABLED = "tr181.protocol.fallback.enabled";
+
+    /** Property for order in which access methods are tried when fallback is enabled */
+    private static final String PROP_FALLBACK_ORDER = "tr181.protocol.fallback.order";
+
+    /** Property to enable learning of fastest access method per parameter and model */
+    private static final String PROP_LEARNING_ENABLED = "tr181.protocol.learning.enabled";
+
+    /** Property for time after which learned access method statistics are discarded */
+    private static final String PROP_LEARNING_EXPIRY = "tr181.protocol.learning.expiry.ms";
+
+    private static final String DEFAULT_FALLBACK_ORDER = "WEBPA,DMCLI,TR69";
+
+    private static final long DEFAULT_LEARNING_EXPIRY = 3600000;
+
+    private static final String OPERATION_GET = "get";
+
+    private static final String OPERATION_SET = "set";
+
+    /** Metric name for batched TR-181 requests */
+    private static final String METRIC_TR181_BATCH = "tr181.batch";
+
+    /** Metric tag for access method */
+    private static final String TAG_ACCESS_METHOD = "accessMethod";
+
+    /** Weight of the latest latency in the learned average latency */
+    private static final double LATENCY_WEIGHT = 0.3;
+
+    private static final String DMCLI_APPLY_SETTINGS_TYPE_AND_VALUE = " bool true";
+
+    private static final int TR69_SET_ATTEMPTS = 2;
+
+    /** Shared pool executing access method groups */
+    private static final ExecutorService GROUP_EXECUTOR = Executors.newCachedThreadPool(new ThreadFactory() {
+
+	private final AtomicInteger threadCount = new AtomicInteger();
+
+	@Override
+	public Thread newThread(Runnable runnable) {
+	    Thread thread = new Thread(runnable, "TR181Batch-" + threadCount.incrementAndGet());
+	    thread.setDaemon(true);
+	    return thread;
+	}
+    });
+
+    private static TR181BatchEngine instance = null;
+
+    /** Learned access method statistics keyed by operation, model and parameter name */
+    private final Map<String, Map<TR181AccessMethods, AccessMethodStats>> learnedStats = new ConcurrentHashMap<String, Map<TR181AccessMethods, AccessMethodStats>>();
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private TR181BatchEngine() {
+    }
+
+    /**
+     * Gets the TR181BatchEngine instance
+     * 
+     * @return TR181BatchEngine instance
+     */
+    public static synchronized TR181BatchEngine get() {
+	if (null == instance) {
+	    instance = new TR181BatchEngine();
+	}
+	return instance;
+    }
+
+    /**
+     * Operation executed for one group of parameters on one access method
+     */
+    private interface GroupOperation {
+
+	Map<String, Outcome> execute(Dut dut, TR181AccessMethods accessMethod, List<String> parameterNames);
+    }
+
+    /**
+     * Gets the TR-181 parameter values
+     * 
+     * @param dut
+     *            Device under test
+     * @param parameterNames
+     *            TR-181 parameter names
+     * @param accessMethod
+     *            Access method to be used. If null, configured default access method is used, or learned and
+     *            configured access methods with fallback if enabled.
+     * @return TR-181 parameters read, in the order of given names. Parameters rejected by WebPA are returned with
+     *         the WebPA status code, other parameters which could not be read are left out. Null if no parameter
+     *         was returned.
+     */
+    public List<TR181Parameter> getParameterValues(Dut dut, List<String> parameterNames,
+	    TR181AccessMethods accessMethod) {
+
+	List<String> names = TR181Utils.splitCommaSepValues(parameterNames);
+	Map<String, Outcome> outcomes = execute(dut, names, accessMethod, OPERATION_GET, isFallbackEnabled(),
+		new GroupOperation() {
+
+		    @Override
+		    public Map<String, Outcome> execute(Dut dut, TR181AccessMethods accessMethod,
+			    List<String> parameterNames) {
+			return getValues(dut, accessMethod, parameterNames);
+		    }
+		});
+
+	List<TR181Parameter> response = null;
+	for (String name : names) {
+	    Outcome outcome = outcomes.get(name);
+	    if (null != outcome && null != outcome.parameters) {
+		if (null == response) {
+		    response = new ArrayList<TR181Parameter>(names.size());
+		}
+		response.addAll(outcome.parameters);
+	    } else {
+		LOGGER.error("Failed to get TR181 parameter {}", name);
+	    }
+	}
+	return response;
+    }
+
+    /**
+     * Sets the TR-181 parameter values
+     * 
+     * @param dut
+     *            Device under test
+     * @param parameters
+     *            TR-181 parameters with name, data type and value
+     * @param accessMethod
+     *            Access method to be used. If null, configured default access method is used.
+     * @return Response of the access method keyed by parameter name
+     */
+    public Map<String, String> setParameterValues(Dut dut, List<TR181Parameter> parameters,
+	    TR181AccessMethods accessMethod) {
+
+	final Map<String, TR181Parameter> parametersByName = new LinkedHashMap<String, TR181Parameter>();
+	if (null != parameters) {
+	    for (TR181Parameter parameter : parameters) {
+		parametersByName.put(parameter.getName(), parameter);
+	    }
+	}
+
+	Map<String, Outcome> outcomes = execute(dut, new ArrayList<String>(parametersByName.keySet()), accessMethod,
+		OPERATION_SET, false, new GroupOperation() {
+
+		    @Override
+		    public Map<String, Outcome> execute(Dut dut, TR181AccessMethods accessMethod,
+			    List<String> parameterNames) {
+			List<TR181Parameter> group = new ArrayList<TR181Parameter>(parameterNames.size());
+			for (String name : parameterNames) {
+			    group.add(parametersByName.get(name));
+			}
+			return setValues(dut, accessMethod, group);
+		    }
+		});
+
+	Map<String, String> response = new HashMap<String, String>();
+	for (Map.Entry<String, Outcome> entry : outcomes.entrySet()) {
+	    response.put(entry.getKey(), entry.getValue().response);
+	}
+	return response;
+    }
+
+    /**
+     * Gets the learned fastest access method for getting the parameter on the model of given device
+     * 
+     * @param dut
+     *            Device under test
+     * @param parameterName
+     *            TR-181 parameter name
+     * @return Learned access method, null if nothing learned yet
+     */
+    public TR181AccessMethods getLearnedAccessMethod(Dut dut, String parameterName) {
+	TR181AccessMethods learned = null;
+	Map<TR181AccessMethods, AccessMethodStats> stats = getLearnedStats(
+		getLearningKey(dut, OPERATION_GET, parameterName));
+	if (null != stats && !stats.isEmpty()) {
+	    List<TR181AccessMethods> methods = new ArrayList<TR181AccessMethods>(stats.keySet());
+	    sortByLearnedStats(methods, stats);
+	    AccessMethodStats fastest = stats.get(methods.get(0));
+	    if (fastest.isWorking()) {
+		learned = methods.get(0);
+	    }
+	}
+	return learned;
+    }
+
+    /**
+     * Clears all learned access methods
+     */
+    public void clearLearnedAccessMethods() {
+	learnedStats.clear();
+    }
+
+    /**
+     * Dispatches the parameters grouped per access method until every parameter succeeded or has no access method
+     * left. Only the requested or default access method is used unless fallback is allowed.
+     */
+    private Map<String, Outcome> execute(final Dut dut, List<String> names, TR181AccessMethods accessMethod,
+	    String operationName, boolean isFallbackAllowed, final GroupOperation operation) {
+
+	Map<String, Outcome> outcomes = new HashMap<String, Outcome>();
+	Map<String, RuntimeException> errors = new HashMap<String, RuntimeException>();
+	Map<String, LinkedList<TR181AccessMethods>> candidates = new HashMap<String, LinkedList<TR181AccessMethods>>();
+	isFallbackAllowed = null == accessMethod && isFallbackAllowed;
+	List<TR181AccessMethods> configuredOrder = getConfiguredOrder(accessMethod, isFallbackAllowed);
+	boolean isLearningEnabled = isFallbackAllowed && isLearningEnabled();
+
+	for (String name : names) {
+	    if (!candidates.containsKey(name)) {
+		LinkedList<TR181AccessMethods> methods = new LinkedList<TR181AccessMethods>(configuredOrder);
+		if (isLearningEnabled) {
+		    Map<TR181AccessMethods, AccessMethodStats> stats = getLearnedStats(
+			    getLearningKey(dut, operationName, name));
+		    if (null != stats) {
+			sortByLearnedStats(methods, stats);
+		    }
+		}
+		candidates.put(name, methods);
+	    }
+	}
+
+	Set<String> pending = new LinkedHashSet<String>(names);
+	while (!pending.isEmpty()) {
+
+	    Map<TR181AccessMethods, List<String>> groups = new EnumMap<TR181AccessMethods, List<String>>(
+		    TR181AccessMethods.class);
+	    for (String name : pending) {
+		TR181AccessMethods method = candidates.get(name).poll();
+		if (null != method) {
+		    if (!groups.containsKey(method)) {
+			groups.put(method, new ArrayList<String>());
+		    }
+		    groups.get(method).add(name);
+		}
+	    }
+
+	    if (groups.isEmpty()) {
+		break;
+	    }
+
+	    Map<TR181AccessMethods, Future<GroupResult>> futures = new EnumMap<TR181AccessMethods, Future<GroupResult>>(
+		    TR181AccessMethods.class);
+	    for (final Map.Entry<TR181AccessMethods, List<String>> group : groups.entrySet()) {
+		futures.put(group.getKey(), GROUP_EXECUTOR.submit(new Callable<GroupResult>() {
+
+		    @Override
+		    public GroupResult call() throws Exception {
+			return executeGroup(dut, group.getKey(), group.getValue(), operation);
+		    }
+		}));
+	    }
+
+	    pending = new LinkedHashSet<String>();
+	    for (Map.Entry<TR181AccessMethods, Future<GroupResult>> future : futures.entrySet()) {
+		TR181AccessMethods method = future.getKey();
+		List<String> groupNames = groups.get(method);
+		GroupResult result = getGroupResult(future.getValue(), method);
+		long latencyPerParameter = result.durationInMillis / groupNames.size();
+		boolean isGroupSuccess = true;
+
+		for (String name : groupNames) {
+		    Outcome outcome = result.outcomes.get(name);
+		    // Failure of the whole request is not learned for a parameter unless it was requested alone
+		    boolean isAttributable = null != outcome || 1 == groupNames.size();
+		    if (null == outcome) {
+			outcome = Outcome.failure(null == result.error ? null : result.error.getMessage());
+		    }
+		    outcomes.put(name, outcome);
+		    if (null == result.outcomes.get(name) && null != result.error) {
+			errors.put(name, result.error);
+		    } else {
+			errors.remove(name);
+		    }
+		    if (isLearningEnabled && isAttributable) {
+			learn(dut, operationName, name, method, outcome.success, latencyPerParameter);
+		    }
+		    if (!outcome.success) {
+			isGroupSuccess = false;
+			pending.add(name);
+		    }
+		}
+
+		Map<String, String> tags = MetricsRegistry.tags(dut, operationName);
+		tags.put(TAG_ACCESS_METHOD, method.name());
+		tags.put(MetricsRegistry.TAG_RESULT, isGroupSuccess ? "success" : "failure");
+		MetricsRegistry.get().timer(METRIC_TR181_BATCH, tags).record(result.durationInMillis);
+		LOGGER.info("TR181 {} of {} parameters using {} completed in {} ms, success: {}", operationName,
+			groupNames.size(), method, result.durationInMillis, isGroupSuccess);
+	    }
+	}
+
+	if (!errors.isEmpty()) {
+	    throw errors.values().iterator().next();
+	}
+	return outcomes;
+    }
+
+    private GroupResult executeGroup(Dut dut, TR181AccessMethods method, List<String> names,
+	    GroupOperation operation) {
+	GroupResult result = new GroupResult();
+	long startTime = System.currentTimeMillis();
+	try {
+	    result.outcomes = operation.execute(dut, method, names);
+	} catch (RuntimeException e) {
+	    LOGGER.error("TR181 request using {} failed: {}", method, e.getMessage());
+	    result.outcomes = Collections.emptyMap();
+	    result.error = e;
+	}
+	result.durationInMillis = System.currentTimeMillis() - startTime;
+	return result;
+    }
+
+    private GroupResult getGroupResult(Future<GroupResult> future, TR181AccessMethods method) {
+	GroupResult result = null;
+	try {
+	    result = future.get();
+	} catch (InterruptedException e) {
+	    Thread.currentThread().interrupt();
+	} catch (ExecutionException e) {
+	    LOGGER.error("TR181 request using {} failed: {}", method, e.getMessage());
+	}
+	if (null == result) {
+	    result = new GroupResult();
+	    result.outcomes = Collections.emptyMap();
+	    result.error = new TestException("TR181 request using " + method + " did not complete");
+	}
+	return result;
+    }
+
+    /**
+     * Gets the values of a group of parameters in one request of the access method
+     */
+    private Map<String, Outcome> getValues(Dut dut, TR181AccessMethods accessMethod, List<String> names) {
+	Map<String, Outcome> outcomes = new HashMap<String, Outcome>();
+
+	switch (accessMethod) {
+	case WEBPA: {
+	    WebPaServerResponse webPaResponse = WebPaConnectionHandler.get().getWebPaParamValue(dut,
+		    names.toArray(new String[names.size()]));
+	    if (null != webPaResponse && AutomaticsConstants.CONSTANT_200 == webPaResponse.getStatusCode()) {
+		List<TR181Parameter> parameters = TR181Utils.convertWebPaToTR181ParamObject(webPaResponse.getParams(),
+			webPaResponse.getStatusCode());
+		for (String name : names) {
+		    List<TR181Parameter> matched = new ArrayList<TR181Parameter>();
+		    if (null != parameters) {
+			for (TR181Parameter parameter : parameters) {
+			    if (isMatchingParameter(name, parameter.getName())) {
+				matched.add(parameter);
+			    }
+			}
+		    }
+		    outcomes.put(name, matched.isEmpty() ? Outcome.failure(webPaResponse.getMessage())
+			    : Outcome.success(null, matched));
+		}
+	    } else if (names.size() > 1) {
+		LOGGER.info("WebPA get of {} parameters failed with status {}, getting each parameter", names.size(),
+			null == webPaResponse ? null : webPaResponse.getStatusCode());
+		for (String name : names) {
+		    putWebPaGetOutcome(outcomes, name,
+			    WebPaConnectionHandler.get().getWebPaParamValue(dut, new String[] { name }));
+		}
+	    } else {
+		putWebPaGetOutcome(outcomes, names.get(0), webPaResponse);
+	    }
+	    break;
+	}
+
+	case DMCLI: {
+	    DeviceConnectionProvider connectionProvider = BeanUtils.getDeviceConnetionProvider();
+	    if (null == connectionProvider) {
+		LOGGER.error("DeviceConnectionProvider not configured. Failed to execute TR181 request.");
+		break;
+	    }
+	    Map<String, String> dmcliNames = new LinkedHashMap<String, String>();
+	    StringBuilder command = new StringBuilder(LinuxCommandConstants.DMCLI_GET_COMMAND);
+	    for (String name : names) {
+		String dmcliName = TR181Utils.getProtocolParamName(name, accessMethod);
+		dmcliNames.put(name, dmcliName);
+		command.append(dmcliName).append(AutomaticsConstants.SPACE);
+	    }
+
+	    String dmcliResponse = connectionProvider.execute((Device) dut, command.toString().trim());
+	    LOGGER.debug("Dmcli response : {}", dmcliResponse);
+	    Map<String, String> values = TR181Utils.parseDmcliGetResponse(dmcliResponse);
+
+	    for (Map.Entry<String, String> dmcliName : dmcliNames.entrySet()) {
+		List<TR181Parameter> matched = new ArrayList<TR181Parameter>();
+		for (Map.Entry<String, String> value : values.entrySet()) {
+		    if (isMatchingParameter(dmcliName.getValue(), value.getKey())) {
+			TR181Parameter parameter = new TR181Parameter();
+			parameter.setName(dmcliName.getValue().equals(value.getKey()) ? dmcliName.getKey()
+				: value.getKey());
+			parameter.setProtocolSpecificParamName(value.getKey());
+			parameter.setValue(value.getValue());
+			matched.add(parameter);
+		    }
+		}
+		if (!matched.isEmpty()) {
+		    outcomes.put(dmcliName.getKey(), Outcome.success(null, matched));
+		} else if (!values.isEmpty()) {
+		    // Other parameters of the same command were read, so this parameter failed on its own
+		    outcomes.put(dmcliName.getKey(), Outcome.failure(dmcliResponse));
+		}
+	    }
+	    break;
+	}
+
+	case TR69: {
+	    TR69Provider tr69Provider = BeanUtils.getTR69Provider();
+	    if (null == tr69Provider) {
+		LOGGER.error("TR69Provider not configured. Failed to execute TR181 request.");
+		break;
+	    }
+	    List<String> values = tr69Provider.getTr69ParameterValues(dut, names.toArray(new String[names.size()]));
+	    if (null != values && values.size() == names.size()) {
+		for (int index = 0; index < names.size(); index++) {
+		    if (null != values.get(index)) {
+			TR181Parameter parameter = new TR181Parameter();
+			parameter.setName(names.get(index));
+			parameter.setValue(values.get(index));
+			outcomes.put(names.get(index),
+				Outcome.success(null, Collections.singletonList(parameter)));
+		    } else {
+			outcomes.put(names.get(index), Outcome.failure(null));
+		    }
+		}
+	    }
+	    break;
+	}
+
+	default:
+	    LOGGER.error("TR181 Access Method {} not handled.", accessMethod);
+	    break;
+	}
+
+	return outcomes;
+    }
+
+    /**
+     * Sets the values of a group of parameters in one request of the access method
+     */
+    private Map<String, Outcome> setValues(Dut dut, TR181AccessMethods accessMethod, List<TR181Parameter> parameters) {
+	Map<String, Outcome> outcomes = new HashMap<String, Outcome>();
+
+	switch (accessMethod) {
+	case WEBPA: {
+	    List<WebPaParameter> webPaParameters = TR181Utils.convertTR181ToWebPaParamObject(parameters);
+	    WebPaServerResponse webPaResponse = WebPaConnectionHandler.get().setWebPaParameterValue(dut,
+		    webPaParameters);
+	    if (null != webPaResponse && AutomaticsConstants.CONSTANT_200 == webPaResponse.getStatusCode()) {
+		for (TR181Parameter parameter : parameters) {
+		    outcomes.put(parameter.getName(), Outcome.success(webPaResponse.getMessage(), null));
+		}
+	    } else if (webPaParameters.size() > 1) {
+		LOGGER.info("WebPA set of {} parameters failed with status {}, setting each parameter",
+			webPaParameters.size(), null == webPaResponse ? null : webPaResponse.getStatusCode());
+		for (WebPaParameter webPaParameter : webPaParameters) {
+		    putWebPaSetOutcome(outcomes, webPaParameter.getName(), WebPaConnectionHandler.get()
+			    .setWebPaParameterValue(dut, Collections.singletonList(webPaParameter)));
+		}
+	    } else {
+		putWebPaSetOutcome(outcomes, webPaParameters.get(0).getName(), webPaResponse);
+	    }
+	    break;
+	}
+
+	case DMCLI: {
+	    DeviceConnectionProvider connectionProvider = BeanUtils.getDeviceConnetionProvider();
+	    if (null == connectionProvider) {
+		LOGGER.error("DeviceConnectionProvider not configured. Failed to execute TR181 request.");
+		break;
+	    }
+	    TR181Utils.mapProtocolDetails(null, parameters, accessMethod, null);
+
+	    StringBuilder command = new StringBuilder(LinuxCommandConstants.DMCLI_SET_COMMAND);
+	    Set<String> applySettingParams = new LinkedHashSet<String>();
+	    for (TR181Parameter parameter : parameters) {
+		command.append(AutomaticsConstants.SPACE).append(parameter.getProtocolSpecificParamName())
+			.append(AutomaticsConstants.SPACE).append(parameter.getProtocolSpecificDataType())
+			.append(AutomaticsConstants.SPACE).append(parameter.getValue());
+		if (TR181Utils.isApplySettingsRequired(parameter.getProtocolSpecificParamName())) {
+		    applySettingParams
+			    .add(TR181Utils.getDmcliApplySettingParamName(parameter.getProtocolSpecificParamName()));
+		}
+	    }
+
+	    LOGGER.info("Dmcli Command to be executed: {}", command);
+	    String dmcliResponse = connectionProvider.execute((Device) dut, command.toString());
+	    LOGGER.info("Dmcli Response: {}", dmcliResponse);
+	    String dmcliStatus = TR181Utils.isDmcliOperationSuccess(dmcliResponse);
+
+	    if (AutomaticsConstants.SUCCESS.equals(dmcliStatus) && !applySettingParams.isEmpty()) {
+		StringBuilder applyCommand = new StringBuilder(LinuxCommandConstants.DMCLI_SET_COMMAND);
+		for (String applySettingParam : applySettingParams) {
+		    applyCommand.append(AutomaticsConstants.SPACE).append(applySettingParam)
+			    .append(DMCLI_APPLY_SETTINGS_TYPE_AND_VALUE);
+		}
+		LOGGER.info("Apply settings dmcli command to be executed: {}", applyCommand);
+		dmcliResponse = connectionProvider.execute((Device) dut, applyCommand.toString(),
+			DeviceConsoleType.ARM, AutomaticsConstants.FIFTY_SECOND_IN_MILLIS);
+		LOGGER.info("Dmcli Response: {}", dmcliResponse);
+		dmcliStatus = TR181Utils.isDmcliOperationSuccess(dmcliResponse);
+	    }
+
+	    boolean isSuccess = AutomaticsConstants.SUCCESS.equals(dmcliStatus);
+	    for (TR181Parameter parameter : parameters) {
+		outcomes.put(parameter.getName(), new Outcome(isSuccess, dmcliStatus, null));
+	    }
+	    break;
+	}
+
+	case TR69: {
+	    TR69Provider tr69Provider = BeanUtils.getTR69Provider();
+	    if (null == tr69Provider) {
+		LOGGER.error("TR69Provider not configured. Failed to execute TR181 request.");
+		break;
+	    }
+	    List<Parameter> tr69Parameters = TR181Utils.convertTR181ToTR69ParamObject(parameters);
+	    String tr69Response = null;
+	    for (int attempt = 1; attempt <= TR69_SET_ATTEMPTS; attempt++) {
+		tr69Response = tr69Provider.setTr69ParameterValues(dut, tr69Parameters);
+		LOGGER.info("TR69 set response {}", tr69Response);
+		if (CommonMethods.isNotNull(tr69Response)) {
+		    break;
+		} else if (attempt < TR69_SET_ATTEMPTS) {
+		    AutomaticsUtils.sleep(AutomaticsConstants.THIRTY_SECONDS);
+		}
+	    }
+	    boolean isSuccess = CommonMethods.isNotNull(tr69Response);
+	    for (TR181Parameter parameter : parameters) {
+		outcomes.put(parameter.getName(), new Outcome(isSuccess, tr69Response, null));
+	    }
+	    break;
+	}
+
+	default:
+	    LOGGER.error("TR181AccessMethod {} not handled in setTR181.", accessMethod);
+	    break;
+	}
+
+	return outcomes;
+    }
+
+    /**
+     * Adds the outcome of a WebPA get of one parameter. Parameters of a failed response are retained with the WebPA
+     * status code.
+     */
+    private static void putWebPaGetOutcome(Map<String, Outcome> outcomes, String name,
+	    WebPaServerResponse webPaResponse) {
+	if (null != webPaResponse) {
+	    List<TR181Parameter> parameters = TR181Utils.convertWebPaToTR181ParamObject(webPaResponse.getParams(),
+		    webPaResponse.getStatusCode());
+	    boolean isSuccess = AutomaticsConstants.CONSTANT_200 == webPaResponse.getStatusCode() && null != parameters;
+	    outcomes.put(name, new Outcome(isSuccess, webPaResponse.getMessage(), parameters));
+	}
+    }
+
+    /**
+     * Adds the outcome of a WebPA set of one parameter
+     */
+    private static void putWebPaSetOutcome(Map<String, Outcome> outcomes, String name,
+	    WebPaServerResponse webPaResponse) {
+	if (null != webPaResponse) {
+	    outcomes.put(name, new Outcome(AutomaticsConstants.CONSTANT_200 == webPaResponse.getStatusCode(),
+		    webPaResponse.getMessage(), null));
+	}
+    }
+
+    /**
+     * Checks whether the response parameter belongs to the requested parameter, which may be a partial path
+     */
+    private static boolean isMatchingParameter(String requestedName, String responseName) {
+	return null != responseName && (responseName.equals(requestedName)
+		|| (requestedName.endsWith(AutomaticsConstants.DOT_STRING) && responseName.startsWith(requestedName)));
+    }
+
+    /**
+     * Gets the access methods to be tried, in order. Only the requested access method is used when given, otherwise
+     * the configured default access method. With fallback, the default access method is followed by the fallback
+     * order, skipping access methods whose provider is not configured.
+     */
+    private List<TR181AccessMethods> getConfiguredOrder(TR181AccessMethods accessMethod, boolean isFallbackAllowed) {
+	List<TR181AccessMethods> order = new ArrayList<TR181AccessMethods>();
+	if (null != accessMethod) {
+	    order.add(accessMethod);
+	} else if (!isFallbackAllowed) {
+	    order.add(getDefaultAccessMethod());
+	} else {
+	    addAccessMethod(order, getDefaultAccessMethod().name());
+	    for (String method : AutomaticsPropertyUtility.getProperty(PROP_FALLBACK_ORDER, DEFAULT_FALLBACK_ORDER)
+		    .split(AutomaticsConstants.COMMA)) {
+		addAccessMethod(order, method);
+	    }
+	}
+	return order;
+    }
+
+    /**
+     * Gets the access method configured in DEFAULT_TR181_ACCESS_METHOD, dmcli if not configured
+     */
+    private static TR181AccessMethods getDefaultAccessMethod() {
+	String defaultMethod = AutomaticsPropertyUtility.getProperty(AutomaticsConstants.DEFAULT_TR181_ACCESS_METHOD);
+	LOGGER.debug("TR181 Access Method configured in Automatics Props: {}", defaultMethod);
+	return CommonMethods.isNull(defaultMethod) ? TR181AccessMethods.DMCLI
+		: TR181AccessMethods.valueOf(defaultMethod.trim().toUpperCase());
+    }
+
+    private static void addAccessMethod(List<TR181AccessMethods> order, String method) {
+	TR181AccessMethods accessMethod = null;
+	try {
+	    accessMethod = TR181AccessMethods.valueOf(method.trim().toUpperCase());
+	} catch (IllegalArgumentException e) {
+	    LOGGER.error("Invalid TR181 access method {} configured", method);
+	}
+
+	boolean isAvailable = false;
+	if (null != accessMethod && !order.contains(accessMethod)) {
+	    switch (accessMethod) {
+	    case WEBPA:
+		isAvailable = true;
+		break;
+	    case DMCLI:
+		isAvailable = null != BeanUtils.getDeviceConnetionProvider();
+		break;
+	    case TR69:
+		isAvailable = null != BeanUtils.getTR69Provider();
+		break;
+	    default:
+		break;
+	    }
+	}
+
+	if (isAvailable) {
+	    order.add(accessMethod);
+	}
+    }
+
+    private static boolean isFallbackEnabled() {
+	return Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_FALLBACK_ENABLED, "false"));
+    }
+
+    private static boolean isLearningEnabled() {
+	return Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_LEARNING_ENABLED, "true"));
+    }
+
+    private static String getLearningKey(Dut dut, String operationName, String parameterName) {
+	return operationName + AutomaticsConstants.COLON + dut.getModel() + AutomaticsConstants.COLON + parameterName;
+    }
+
+    /**
+     * Gets the learned statistics, discarding statistics not updated within the expiry time
+     */
+    private Map<TR181AccessMethods, AccessMethodStats> getLearnedStats(String key) {
+	Map<TR181AccessMethods, AccessMethodStats> stats = learnedStats.get(key);
+	if (null != stats) {
+	    long expiryTime = System.currentTimeMillis()
+		    - AutomaticsPropertyUtility.getLongProperty(PROP_LEARNING_EXPIRY, DEFAULT_LEARNING_EXPIRY);
+	    Iterator<AccessMethodStats> iterator = stats.values().iterator();
+	    while (iterator.hasNext()) {
+		if (iterator.next().getLastUpdateTime() < expiryTime) {
+		    iterator.remove();
+		}
+	    }
+	}
+	return stats;
+    }
+
+    private void learn(Dut dut, String operationName, String parameterName, TR181AccessMethods method,
+	    boolean isSuccess, long latencyInMillis) {
+	String key = getLearningKey(dut, operationName, parameterName);
+	Map<TR181AccessMethods, AccessMethodStats> stats = learnedStats.get(key);
+	if (null == stats) {
+	    stats = new ConcurrentHashMap<TR181AccessMethods, AccessMethodStats>();
+	    Map<TR181AccessMethods, AccessMethodStats> existing = learnedStats.putIfAbsent(key, stats);
+	    if (null != existing) {
+		stats = existing;
+	    }
+	}
+	AccessMethodStats methodStats = new AccessMethodStats();
+	AccessMethodStats existingStats = stats.putIfAbsent(method, methodStats);
+	if (null != existingStats) {
+	    methodStats = existingStats;
+	}
+	methodStats.record(isSuccess, latencyInMillis);
+    }
+
+    /**
+     * Orders working access methods by learned latency first, then access methods not tried yet, then failing
+     * access methods. Order among equals is retained.
+     */
+    private static void sortByLearnedStats(List<TR181AccessMethods> methods,
+	    final Map<TR181AccessMethods, AccessMethodStats> stats) {
+	Collections.sort(methods, new Comparator<TR181AccessMethods>() {
+
+	    @Override
+	    public int compare(TR181AccessMethods first, TR181AccessMethods second) {
+		AccessMethodStats firstStats = stats.get(first);
+		AccessMethodStats secondStats = stats.get(second);
+		int result = Integer.compare(getRank(firstStats), getRank(secondStats));
+		if (0 == result && 0 == getRank(firstStats)) {
+		    result = Double.compare(firstStats.getAverageLatency(), secondStats.getAverageLatency());
+		}
+		return result;
+	    }
+	});
+    }
+
+    private static int getRank(AccessMethodStats stats) {
+	return null == stats ? 1 : stats.isWorking() ? 0 : 2;
+    }
+
+    /**
+     * Learned statistics of an access method for one operation, parameter and model
+     */
+    private static class AccessMethodStats {
+
+	private double averageLatency = -1;
+
+	private boolean isWorking = false;
+
+	private long lastUpdateTime = 0;
+
+	synchronized void record(boolean isSuccess, long latencyInMillis) {
+	    isWorking = isSuccess;
+	    lastUpdateTime = System.currentTimeMillis();
+	    if (isSuccess) {
+		averageLatency = averageLatency < 0 ? latencyInMillis
+			: (LATENCY_WEIGHT * latencyInMillis) + ((1 - LATENCY_WEIGHT) * averageLatency);
+	    }
+	}
+
+	synchronized boolean isWorking() {
+	    return isWorking;
+	}
+
+	synchronized double getAverageLatency() {
+	    return averageLatency;
+	}
+
+	synchronized long getLastUpdateTime() {
+	    return lastUpdateTime;
+	}
+    }
+
+    /**
+     * Outcome of a request for one parameter
+     */
+    private static class Outcome {
+
+	private final boolean success;
+
+	private final String response;
+
+	private final List<TR181Parameter> parameters;
+
+	Outcome(boolean success, String response, List<TR181Parameter> parameters) {
+	    this.success = success;
+	    this.response = response;
+	    this.parameters = parameters;
+	}
+
+	static Outcome success(String response, List<TR181Parameter> parameters) {
+	    return new Outcome(true, response, parameters);
+	}
+
+	static Outcome failure(String response) {
+	    return new Outcome(false, response, null);
+	}
+    }
+
+    /**
+     * Result of one access method group
+     */
+    private static class GroupResult {
+
+	private Map<String, Outcome> outcomes;
+
+	private RuntimeException error;
+
+	private long durationInMillis;
+    }
+}
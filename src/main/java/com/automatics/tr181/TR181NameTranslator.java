@@ -0,0 +1,260 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.tr181;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.constants.AutomaticsConstants;
+import com.automatics.constants.DmcliConstants;
+import com.automatics.constants.WebPaConstants;
+import com.automatics.enums.TR181DataType;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.CommonMethods;
+
+/**
+ * Translates TR-181 parameter names between WebPA and dmcli using lookup tables that are built once from defaults
+ * and configuration. Parameter names are walked segment by segment and each segment is resolved with a single hash
+ * lookup, so translating a parameter does not depend on the number of configured mappings.
+ * 
+ * Additional mappings can be configured as comma separated key:value pairs:
+ * <ul>
+ * <li>tr181.dmcli.wifi.index.mapping - WebPA Wi-Fi table index to dmcli index, e.g. 10009:17</li>
+ * <li>tr181.table.param.data.types - table parameter name to TR-181 data type, e.g. Enable:BOOLEAN</li>
+ * </ul>
+ *
+ */
+public class TR181NameTranslator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TR181NameTranslator.class);
+
+    /** Property for additional WebPA to dmcli Wi-Fi index mappings */
+    private static final String PROP_WIFI_INDEX_MAPPING = "tr181.dmcli.wifi.index.mapping";
+
+    /** Property for additional table parameter data types */
+    private static final String PROP_TABLE_PARAM_DATA_TYPES = "tr181.table.param.data.types";
+
+    private static final String WIFI_TABLE_PREFIX = WebPaConstants.WEBPA_TABLE_DEVICE_WIFI + AutomaticsConstants.DOT;
+
+    private static final char SEGMENT_SEPARATOR = '.';
+
+    private static TR181NameTranslator instance = null;
+
+    /** WebPA Wi-Fi table index to dmcli index */
+    private final Map<String, String> wifiIndexToDmcliIndex;
+
+    /** Wi-Fi tables whose dmcli changes need apply settings */
+    private final Set<String> applySettingTables;
+
+    /** Table parameter name to TR-181 data type */
+    private final Map<String, TR181DataType> tableParamDataTypes;
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private TR181NameTranslator() {
+	Map<String, String> wifiIndexes = new HashMap<String, String>();
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PRIVATE_SSID, "1");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_5_GHZ_PRIVATE_SSID, "2");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PUBLIC_WIFI, "5");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_5_GHZ_PUBLIC_WIFI, "6");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PUBLIC_SSID_AP2, "9");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_5_GHZ_PUBLIC_SSID_AP2, "10");
+	wifiIndexes.put(WebPaConstants.RADIO_24_GHZ_INDEX, "1");
+	wifiIndexes.put(WebPaConstants.RADIO_5_GHZ_INDEX, "2");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10002, "3");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10102, "4");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_2_4_GHZ_OPEN_LNF_AP1, "7");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_5_GHZ_OPEN_LNF_AP2, "8");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10006, "11");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10106, "12");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10007, "13");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10107, "14");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10008, "15");
+	wifiIndexes.put(WebPaConstants.WEBPA_INDEX_10108, "16");
+	for (Map.Entry<String, String> mapping : parseMappings(PROP_WIFI_INDEX_MAPPING).entrySet()) {
+	    wifiIndexes.put(mapping.getKey(), mapping.getValue());
+	}
+	wifiIndexToDmcliIndex = Collections.unmodifiableMap(wifiIndexes);
+
+	Set<String> tables = new HashSet<String>();
+	tables.add(getTableSegment(DmcliConstants.DMCLI_WIFI_RADIO));
+	tables.add(getTableSegment(DmcliConstants.DMCLI_WIFI_SSID));
+	tables.add(getTableSegment(DmcliConstants.DMCLI_WIFI_ACCESSPOINT));
+	applySettingTables = Collections.unmodifiableSet(tables);
+
+	Map<String, TR181DataType> dataTypes = new HashMap<String, TR181DataType>();
+	for (Map.Entry<String, String> mapping : parseMappings(PROP_TABLE_PARAM_DATA_TYPES).entrySet()) {
+	    try {
+		dataTypes.put(mapping.getKey(), TR181DataType.valueOf(mapping.getValue().toUpperCase()));
+	    } catch (IllegalArgumentException e) {
+		LOGGER.error("Invalid TR181 data type {} configured for {}", mapping.getValue(), mapping.getKey());
+	    }
+	}
+	tableParamDataTypes = Collections.unmodifiableMap(dataTypes);
+    }
+
+    /**
+     * Gets the TR181NameTranslator instance
+     * 
+     * @return TR181NameTranslator instance
+     */
+    public static synchronized TR181NameTranslator get() {
+	if (null == instance) {
+	    instance = new TR181NameTranslator();
+	}
+	return instance;
+    }
+
+    /**
+     * Converts the WebPA Wi-Fi table indexes in the parameter name to dmcli indexes
+     * 
+     * @param tr181ParamName
+     *            TR-181 parameter name as used in WebPA
+     * @return dmcli parameter name, same instance if nothing to convert
+     */
+    public String toDmcliParamName(String tr181ParamName) {
+	if (!tr181ParamName.startsWith(WIFI_TABLE_PREFIX)) {
+	    return tr181ParamName;
+	}
+
+	StringBuilder dmcliName = null;
+	int segmentStart = WIFI_TABLE_PREFIX.length();
+	while (segmentStart <= tr181ParamName.length()) {
+	    int segmentEnd = tr181ParamName.indexOf(SEGMENT_SEPARATOR, segmentStart);
+	    if (segmentEnd < 0) {
+		segmentEnd = tr181ParamName.length();
+	    }
+	    String dmcliIndex = wifiIndexToDmcliIndex.get(tr181ParamName.substring(segmentStart, segmentEnd));
+	    if (null != dmcliIndex) {
+		if (null == dmcliName) {
+		    dmcliName = new StringBuilder(tr181ParamName.length());
+		    dmcliName.append(tr181ParamName, 0, segmentStart);
+		} else {
+		    dmcliName.append(SEGMENT_SEPARATOR);
+		}
+		dmcliName.append(dmcliIndex);
+	    } else if (null != dmcliName) {
+		dmcliName.append(SEGMENT_SEPARATOR).append(tr181ParamName, segmentStart, segmentEnd);
+	    }
+	    segmentStart = segmentEnd + 1;
+	}
+
+	return null == dmcliName ? tr181ParamName : dmcliName.toString();
+    }
+
+    /**
+     * Checks whether the dmcli parameter belongs to a Wi-Fi table needing apply settings
+     * 
+     * @param dmcliParamName
+     *            dmcli parameter name
+     * @return true if apply settings to be executed
+     */
+    public boolean isApplySettingsRequired(String dmcliParamName) {
+	String table = getTableSegment(dmcliParamName);
+	return null != table && applySettingTables.contains(table);
+    }
+
+    /**
+     * Gets the index of the Wi-Fi table row from dmcli parameter name
+     * 
+     * @param dmcliParamName
+     *            dmcli parameter name
+     * @return Table row index, 0 if the name does not have a numeric index
+     */
+    public int getWifiTableIndex(String dmcliParamName) {
+	int indexStart = 0;
+	String table = getTableSegment(dmcliParamName);
+	if (null != table && applySettingTables.contains(table)) {
+	    indexStart = WIFI_TABLE_PREFIX.length() + table.length() + 1;
+	}
+
+	int index = 0;
+	int position = indexStart;
+	for (; position < dmcliParamName.length() && SEGMENT_SEPARATOR != dmcliParamName.charAt(position); position++) {
+	    char digit = dmcliParamName.charAt(position);
+	    if (digit < '0' || digit > '9' || index > (Integer.MAX_VALUE - 9) / 10) {
+		LOGGER.debug("No index found in dmcli param name: {}", dmcliParamName);
+		return AutomaticsConstants.CONSTANT_0;
+	    }
+	    index = (index * 10) + (digit - '0');
+	}
+	return position == indexStart ? AutomaticsConstants.CONSTANT_0 : index;
+    }
+
+    /**
+     * Gets the dmcli apply settings parameter for the Wi-Fi radio of given dmcli parameter
+     * 
+     * @param dmcliParamName
+     *            dmcli parameter name
+     * @return Apply settings parameter name
+     */
+    public String getApplySettingParamName(String dmcliParamName) {
+	return getWifiTableIndex(dmcliParamName) % AutomaticsConstants.CONSTANT_2 == AutomaticsConstants.CONSTANT_0
+		? DmcliConstants.DEVICE_WIFI_RADIO_2_APPLY_SETTING
+		: DmcliConstants.DEVICE_WIFI_RADIO_1_APPLY_SETTING;
+    }
+
+    /**
+     * Gets the TR-181 data type of a table parameter
+     * 
+     * @param tableParamName
+     *            Table parameter name
+     * @return TR-181 data type, STRING if not configured
+     */
+    public TR181DataType getTableParamDataType(String tableParamName) {
+	TR181DataType dataType = tableParamDataTypes.get(tableParamName);
+	return null == dataType ? TR181DataType.STRING : dataType;
+    }
+
+    /**
+     * Gets the Wi-Fi table name segment, e.g. Radio for Device.WiFi.Radio.1.Enable
+     */
+    private static String getTableSegment(String paramName) {
+	String table = null;
+	if (paramName.startsWith(WIFI_TABLE_PREFIX)) {
+	    int tableEnd = paramName.indexOf(SEGMENT_SEPARATOR, WIFI_TABLE_PREFIX.length());
+	    if (tableEnd > 0) {
+		table = paramName.substring(WIFI_TABLE_PREFIX.length(), tableEnd);
+	    }
+	}
+	return table;
+    }
+
+    private static Map<String, String> parseMappings(String propertyName) {
+	Map<String, String> mappings = new HashMap<String, String>();
+	String configured = AutomaticsPropertyUtility.getProperty(propertyName);
+	if (CommonMethods.isNotNull(configured)) {
+	    for (String mapping : configured.split(AutomaticsConstants.COMMA)) {
+		String[] keyValue = mapping.split(AutomaticsConstants.COLON);
+		if (keyValue.length == 2 && CommonMethods.isNotNull(keyValue[0].trim())) {
+		    mappings.put(keyValue[0].trim(), keyValue[1].trim());
+		} else {
+		    LOGGER.error("Invalid mapping {} configured in {}", mapping, propertyName);
+		}
+	    }
+	}
+	return mappings;
+    }
+}
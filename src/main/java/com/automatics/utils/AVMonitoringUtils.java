@@ -17,17 +17,26 @@
  */
 package com.automatics.utils;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.automatics.audio.AudioLevelListener;
+import com.automatics.audio.AudioLevelMonitor;
+import com.automatics.audio.AudioLevelStream;
 import com.automatics.dataobjects.AVFreezeRegion;
 import com.automatics.dataobjects.AVMonitorData;
+import com.automatics.dataobjects.AVMonitorEvent;
 import com.automatics.device.Dut;
+import com.automatics.enums.AVMonitorEventType;
+import com.automatics.enums.AVMonitorStatus;
 import com.automatics.enums.AVState;
 import com.automatics.enums.VideoMetrics;
 import com.automatics.providers.avanlyzer.AVAnalysisProvider;
+import com.automatics.providers.avanlyzer.AVMonitorEventListener;
+import com.automatics.providers.avanlyzer.AVMonitorEventStream;
 
 /**
  * AVMonitoringUtils
@@ -65,24 +74,126 @@ public class AVMonitoringUtils {
 	return avAnalysisProvider.getAudioDBLevelValue(dut);
     }
 
+    /**
+     * Starts continuous audio level sampling of the device. Recent samples are queried from the returned stream
+     * instead of polling audio level in loops.
+     * 
+     * @param dut
+     *            Device to sample
+     * @param listener
+     *            Listener for silence and clipping events, can be null
+     * @return Audio level stream of the device
+     */
+    public static AudioLevelStream startAudioLevelStream(Dut dut, AudioLevelListener listener) {
+	return null == listener ? AudioLevelMonitor.get().start(dut) : AudioLevelMonitor.get().subscribe(dut, listener);
+    }
+
+    /**
+     * Stops continuous audio level sampling of the device
+     * 
+     * @param dut
+     *            Device
+     */
+    public static void stopAudioLevelStream(Dut dut) {
+	AudioLevelMonitor.get().stop(dut);
+    }
+
     public static void appendFreezeRegionToList(Dut dut, long startTime, long endTime, long freezeDuration,
 	    String avMonitorTaskName, List<AVFreezeRegion> finalVideoFreezeRegionList,
 	    List<AVFreezeRegion> finalAudioFreezeRegionList) {
-	List<AVFreezeRegion> videoFreezeRegion = avAnalysisProvider.getAVFreezeRegions(dut, AVState.NO_MOTION,
-		avMonitorTaskName, freezeDuration, startTime, endTime);
-	List<AVFreezeRegion> audioFreezeRegion = avAnalysisProvider.getAVFreezeRegions(dut, AVState.NO_AUDIO,
-		avMonitorTaskName, freezeDuration, startTime, endTime);
-	if (null != videoFreezeRegion && !videoFreezeRegion.isEmpty()) {
-	    finalVideoFreezeRegionList.addAll(videoFreezeRegion);
-	} else {
+	List<AVMonitorEvent> events = new ArrayList<AVMonitorEvent>();
+	for (AVMonitorEventType type : new AVMonitorEventType[] { AVMonitorEventType.VIDEO_FREEZE,
+		AVMonitorEventType.AUDIO_LOSS }) {
+	    List<AVFreezeRegion> freezeRegions = avAnalysisProvider.getAVFreezeRegions(dut, type.getAvState(),
+		    avMonitorTaskName, freezeDuration, startTime, endTime);
+	    if (null != freezeRegions) {
+		for (AVFreezeRegion freezeRegion : freezeRegions) {
+		    events.add(new AVMonitorEvent(type, avMonitorTaskName, freezeRegion));
+		}
+	    }
+	}
+	appendFreezeRegionToList(events, finalVideoFreezeRegionList, finalAudioFreezeRegionList);
+    }
+
+    /**
+     * Appends the video freeze and audio loss events to the freeze region lists, for eg: events received from
+     * {@link AVMonitorEventStream#getEvents()}
+     * 
+     * @param events
+     *            AV monitor events
+     * @param finalVideoFreezeRegionList
+     *            List to which video freeze regions are added
+     * @param finalAudioFreezeRegionList
+     *            List to which audio freeze regions are added
+     */
+    public static void appendFreezeRegionToList(List<AVMonitorEvent> events,
+	    List<AVFreezeRegion> finalVideoFreezeRegionList, List<AVFreezeRegion> finalAudioFreezeRegionList) {
+	int videoFreezeCount = 0;
+	int audioFreezeCount = 0;
+	for (AVMonitorEvent event : events) {
+	    if (AVMonitorEventType.VIDEO_FREEZE == event.getType()) {
+		finalVideoFreezeRegionList.add(event.toFreezeRegion());
+		videoFreezeCount++;
+	    } else if (AVMonitorEventType.AUDIO_LOSS == event.getType()) {
+		finalAudioFreezeRegionList.add(event.toFreezeRegion());
+		audioFreezeCount++;
+	    }
+	}
+	if (0 == videoFreezeCount) {
 	    LOGGER.info("Couldn't find any video freeze regions");
 	}
-	if (null != audioFreezeRegion && !audioFreezeRegion.isEmpty()) {
-	    finalAudioFreezeRegionList.addAll(audioFreezeRegion);
+	if (0 == audioFreezeCount) {
+	    LOGGER.info("Couldn't find any audio freeze regions");
+	}
+    }
+
+    /**
+     * Starts AV monitoring and reads its events while monitoring is running. Video freeze and audio loss are reported
+     * to the listener as they happen, and monitoring can be stopped early with
+     * {@link #stopAVMonitorStream(AVMonitorEventStream)}.
+     * 
+     * @param dut
+     *            Device to monitor
+     * @param jobName
+     *            Name of the AV monitor task
+     * @param durationInMinutes
+     *            Monitoring duration
+     * @param minFreezeDurationInSecs
+     *            Minimum duration of freeze regions reported
+     * @param listener
+     *            Listener for AV monitor events, can be null
+     * @return Event stream of the monitor, null if monitoring failed to start
+     */
+    public static AVMonitorEventStream startAVMonitorStream(Dut dut, String jobName, long durationInMinutes,
+	    long minFreezeDurationInSecs, AVMonitorEventListener listener) {
+	AVMonitorEventStream stream = null;
+	AVMonitorData monitorData = avAnalysisProvider.startAVMonitor(dut, jobName, durationInMinutes);
+	if (null != monitorData && AVMonitorStatus.STARTED == monitorData.getStatus()) {
+	    String monitorName = null != monitorData.getMonitorName() ? monitorData.getMonitorName() : jobName;
+	    stream = new AVMonitorEventStream(avAnalysisProvider, dut, monitorName, minFreezeDurationInSecs,
+		    durationInMinutes * 60 * 1000);
+	    if (null != listener) {
+		stream.addListener(listener);
+	    }
+	    stream.start();
 	} else {
-	    LOGGER.info("Couldn't find any video freeze regions");
+	    LOGGER.error("AV monitoring not started for device {}", dut.getHostMacAddress());
 	}
+	return stream;
+    }
 
+    /**
+     * Stops AV monitoring started with
+     * {@link #startAVMonitorStream(Dut, String, long, long, AVMonitorEventListener)}. Events received so far remain
+     * available from the stream.
+     * 
+     * @param stream
+     *            Event stream of the monitor
+     * @return AV monitor data
+     */
+    public static AVMonitorData stopAVMonitorStream(AVMonitorEventStream stream) {
+	stream.stop();
+	return avAnalysisProvider.stopAVMonitor(stream.getDut(), stream.getMonitorName());
     }
 
     public static boolean startMonitorVideoCapture(Dut dut, String jobName) {
@@ -174,6 +174,31 @@ public final class AutomaticsPropertyUtility {
 		return propertyValue;
 	}
 
+	/**
+	 * Method to obtain a numeric property value. If not obtained or not a valid
+	 * number, the default value will be returned
+	 * 
+	 * @param propertyName
+	 * @param defaultValue
+	 * @return propertyValue
+	 */
+	public static long getLongProperty(String propertyName, long defaultValue) {
+
+		long propertyValue = defaultValue;
+		String value = getProperty(propertyName, String.valueOf(defaultValue));
+
+		if (CommonMethods.isNotNull(value)) {
+			try {
+				propertyValue = Long.parseLong(value);
+			} catch (NumberFormatException e) {
+				LOGGER.error("Invalid value {} for property {}, using default {}", value, propertyName,
+						defaultValue);
+			}
+		}
+
+		return propertyValue;
+	}
+
 	/**
 	 * Method to set the property
 	 * 
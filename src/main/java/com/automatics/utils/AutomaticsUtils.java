@@ -50,6 +50,7 @@ import com.automatics.enums.ServiceType;
 import com.automatics.enums.TestType;
 import com.automatics.http.ServerCommunicator;
 import com.automatics.http.ServerResponse;
+import com.automatics.reporter.TestDurationHistoryStore;
 import com.automatics.tap.AutomaticsTapApi;
 import com.automatics.test.AutomaticsTestBase;
 
@@ -447,11 +448,13 @@ public class AutomaticsUtils {
      */
     public static void sleep(long milliseconds) {
 
+	long sleepStartTime = System.currentTimeMillis();
 	try {
 	    Thread.sleep(milliseconds);
 	} catch (InterruptedException e) {
 	    LOGGER.error("Sleep interrupted " + e.getMessage());
 	}
+	TestDurationHistoryStore.recordSleep(System.currentTimeMillis() - sleepStartTime);
     }
 
     /**
@@ -25,6 +25,9 @@ public class BeanConstants {
     /** Spring xml config file name for Partner **/
     public static final String PARTNER_SPRING_CONFIG_FILE_NAME = "partner-applicationContext.xml";
 
+    /** Spring xml config file name replacing partner config when device simulator is enabled **/
+    public static final String SIMULATOR_SPRING_CONFIG_FILE_NAME = "simulator-applicationContext.xml";
+
     /** Bean name for test initializer **/
     public static final String BEAN_ID_TEST_INITIALIZER = "testInitializer";
 
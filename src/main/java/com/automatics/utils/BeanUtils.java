@@ -47,6 +47,7 @@ import com.automatics.providers.tr69.TR69Provider;
 import com.automatics.providers.trace.TraceProvider;
 import com.automatics.providers.webpa.WebpaProvider;
 import com.automatics.providers.xconf.XConfDataProvider;
+import com.automatics.simulator.DeviceSimulator;
 
 /**
  * 
@@ -90,6 +91,12 @@ public class BeanUtils {
     }
 
     public static void startContext() {
+	if (null == partnerContext && DeviceSimulator.isEnabled()) {
+	    DeviceSimulator.get().start();
+	    LOGGER.info("Initializing application context {}", BeanConstants.SIMULATOR_SPRING_CONFIG_FILE_NAME);
+	    partnerContext = new ClassPathXmlApplicationContext(BeanConstants.SIMULATOR_SPRING_CONFIG_FILE_NAME);
+	}
+
 	if (null == partnerContext) {
 	    try {
 		LOGGER.info("Initializing application context {}", BeanConstants.PARTNER_SPRING_CONFIG_FILE_NAME);
@@ -116,6 +123,10 @@ public class BeanUtils {
 	    LOGGER.info("Closing core application context");
 	    coreContext.close();
 	}
+
+	if (DeviceSimulator.isEnabled()) {
+	    DeviceSimulator.get().stop();
+	}
     }
 
     /**
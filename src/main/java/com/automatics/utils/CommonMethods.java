@@ -94,6 +94,7 @@ import com.automatics.device.Device;
 import com.automatics.device.Dut;
 import com.automatics.device.DutImpl;
 import com.automatics.device.config.DeviceConfig;
+import com.automatics.enums.DeviceAvailabilityState;
 import com.automatics.enums.DeviceCategory;
 import com.automatics.enums.ExecutionMode;
 import com.automatics.enums.ProcessRestartOption;
@@ -105,6 +106,7 @@ import com.automatics.exceptions.FailedTransitionException;
 import com.automatics.exceptions.TestException;
 import com.automatics.manager.device.DeviceManager;
 import com.automatics.providers.DeviceAccessValidator;
+import com.automatics.providers.DeviceAvailabilityMonitor;
 import com.automatics.providers.connection.DeviceConnectionProvider;
 import com.automatics.providers.objects.DevicePropsRequest;
 import com.automatics.providers.rack.exceptions.PowerProviderException;
@@ -1368,7 +1370,9 @@ public class CommonMethods {
 
 		Dut gateWaySettop = (device).getGateWaySettop();
 		tapEnv.powerOff(gateWaySettop);
-		tapEnv.waitTill(AutomaticsConstants.FIFTEEN_SECONDS);
+		// Returns as soon as the gateway is detected down, instead of always waiting the full duration
+		DeviceAvailabilityMonitor.get().waitForState(gateWaySettop, DeviceAvailabilityState.UNAVAILABLE,
+				AutomaticsConstants.FIFTEEN_SECONDS);
 
 		boolean isGwAccessible = isSTBAccessible(gateWaySettop);
 		if (isGwAccessible) {
@@ -1386,24 +1390,7 @@ public class CommonMethods {
 	 * @return True if given string is valid JSON. Otherwise its false.
 	 */
 	public static boolean isValidJsonString(String givenString) {
-
-		boolean isValidJson = false;
-
-		try {
-			new JSONObject(givenString);
-			isValidJson = true;
-		} catch (JSONException jsone) {
-			LOGGER.error("Invalid JSON Object String, checking whether its JSON ARRAY or not ", jsone.getMessage());
-			try {
-				new JSONArray(givenString);
-				isValidJson = true;
-			} catch (JSONException jse) {
-				isValidJson = false;
-				LOGGER.error("Invalid JSON ARRAY String, so marking as invalid string", jse.getMessage());
-			}
-		}
-
-		return isValidJson;
+		return JsonMapperUtils.isValidJson(givenString);
 	}
 
 	/**
@@ -3886,23 +3873,10 @@ public class CommonMethods {
 	 * @return true if STB rebooted else false
 	 */
 	public static boolean isSTBRebooted(AutomaticsTapApi tapApi, Dut dut, long delay, int maxLoopCount) {
-		// STB accessible status
-		boolean status = false;
-		// validation for device reboot
-		for (int index = 1; index <= maxLoopCount; index++) {
-			LOGGER.info(index + "/" + maxLoopCount + "# verify whether the device is rebooted or not");
-			// verifying whether device is accessible or not
-			if (!isSTBAccessible(dut)) {
-				status = true;
-				break;
-			}
-
-			if (delay > 0) {
-				LOGGER.info("Waiting " + (delay / 1000) + " seconds to device reboot");
-			}
-
-			tapApi.waitTill(delay);
-		}
+		LOGGER.info("Verifying whether the device is rebooted within " + (delay * maxLoopCount / 1000) + " seconds");
+		// STB accessible status, device is probed by availability monitor until it goes down
+		boolean status = DeviceAvailabilityMonitor.get().waitForState(dut, DeviceAvailabilityState.UNAVAILABLE,
+				delay * maxLoopCount);
 		LOGGER.info("Exiting method isSTBRebooted. Status - " + status);
 		return status;
 	}
@@ -3944,23 +3918,10 @@ public class CommonMethods {
 	 * @return true if STB is accessible else false
 	 */
 	public static boolean isSTBAccessible(AutomaticsTapApi tapApi, Dut dut, long delay, int maxLoopCount) {
-		// Device accessible status
-		boolean status = false;
-
-		for (int index = 1; index <= maxLoopCount; index++) {
-			LOGGER.info(index + "/" + maxLoopCount + "# verify whether the device is accessible or not");
-			// verifying whether device is accessible or not
-			if (isSTBAccessible(dut)) {
-				status = true;
-				break;
-			}
-
-			if (delay > 0) {
-				LOGGER.info("Waiting " + (delay / 1000) + " seconds to device up");
-			}
-
-			tapApi.waitTill(delay);
-		}
+		LOGGER.info("Verifying whether the device is accessible within " + (delay * maxLoopCount / 1000) + " seconds");
+		// Device accessible status, device is probed by availability monitor until it comes up
+		boolean status = DeviceAvailabilityMonitor.get().waitForState(dut, DeviceAvailabilityState.AVAILABLE,
+				delay * maxLoopCount);
 		LOGGER.info("Exiting method isSTBAccessible. Status - " + status);
 		return status;
 	}
@@ -4802,7 +4763,6 @@ public class CommonMethods {
 	public static boolean rebootUsingSnmpAndVerify(Dut dut) {
 
 		boolean status = false;
-		boolean stbAccessible = true;
 		AutomaticsTapApi tapEnv = AutomaticsTapApi.getInstance();
 
 		SnmpParams snmpParams = new SnmpParams();
@@ -4829,20 +4789,15 @@ public class CommonMethods {
 		String response = tapEnv.executeSnmpCommand(dut, snmpParams);
 
 		if (CommonMethods.isNotNull(response) && !response.contains(SnmpConstants.NO_SUCH_OID_RESPONSE)) {
-			for (int i = 0; i < 2; i++) {
-				// Checking whether the device is up. If the device is still up,
-				// then reboot did not happen.
-				stbAccessible = isSTBAccessible(dut);
-				if (stbAccessible) {
-					LOGGER.error("Device is still up after executing snmp command to reset the device. Retry: " + i);
-				} else {
-					LOGGER.info("Successfully initiated reboot on device usin snmp");
-					status = true;
-					break;
-				}
-				// Wait for some time for the device to get reboot
-				LOGGER.info("Waiting for 30 seconds for the device to initiate reboot");
-				tapEnv.waitTill(AutomaticsConstants.FIFTEEN_SECONDS);
+			// Checking whether the device goes down. If the device is still up,
+			// then reboot did not happen.
+			LOGGER.info("Waiting for 30 seconds for the device to initiate reboot");
+			status = DeviceAvailabilityMonitor.get().waitForState(dut, DeviceAvailabilityState.UNAVAILABLE,
+					AutomaticsConstants.THIRTY_SECONDS);
+			if (status) {
+				LOGGER.info("Successfully initiated reboot on device usin snmp");
+			} else {
+				LOGGER.error("Device is still up after executing snmp command to reset the device.");
 			}
 
 		} else {
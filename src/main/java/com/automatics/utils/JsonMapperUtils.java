@@ -0,0 +1,148 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Holds the shared Jackson mapper and json factory used across automatics. {@link ObjectMapper} and
+ * {@link JsonFactory} are thread safe once configured, so a single instance avoids rebuilding the serializer and
+ * deserializer caches for every response.
+ *
+ */
+public class JsonMapperUtils {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JsonMapperUtils.class);
+
+    /** Shared object mapper */
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /** Shared json factory backing the object mapper */
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+
+    /**
+     * Gets the shared object mapper. Callers must not change its configuration.
+     * 
+     * @return Shared object mapper
+     */
+    public static ObjectMapper getObjectMapper() {
+	return OBJECT_MAPPER;
+    }
+
+    /**
+     * Gets the shared json factory for streaming parsers and generators.
+     * 
+     * @return Shared json factory
+     */
+    public static JsonFactory getJsonFactory() {
+	return JSON_FACTORY;
+    }
+
+    /**
+     * Creates a streaming parser for the given json string.
+     * 
+     * @param json
+     *            Json string
+     * @return Streaming json parser
+     * @throws IOException
+     */
+    public static JsonParser createParser(String json) throws IOException {
+	return JSON_FACTORY.createParser(json);
+    }
+
+    /**
+     * Validates the given string as a json object or json array in a single streaming pass without building any
+     * object tree.
+     * 
+     * @param json
+     *            Json string
+     * @return True if the string is a single well formed json object or array
+     */
+    public static boolean isValidJson(String json) {
+	boolean isValidJson = false;
+	if (CommonMethods.isNotNull(json)) {
+	    JsonParser parser = null;
+	    try {
+		parser = createParser(json);
+		JsonToken token = parser.nextToken();
+		if (JsonToken.START_OBJECT == token || JsonToken.START_ARRAY == token) {
+		    parser.skipChildren();
+		    isValidJson = null == parser.nextToken();
+		}
+	    } catch (IOException e) {
+		LOGGER.error("Invalid JSON string: {}", e.getMessage());
+	    } finally {
+		closeQuietly(parser);
+	    }
+	}
+	return isValidJson;
+    }
+
+    /**
+     * Reads the value at the current token as text. Scalars are returned as their text, nested objects and arrays
+     * are copied as compact json text without building an intermediate tree.
+     * 
+     * @param parser
+     *            Parser positioned on a value token
+     * @return Value as text
+     * @throws IOException
+     */
+    public static String readValueAsText(JsonParser parser) throws IOException {
+	String value = null;
+	JsonToken token = parser.getCurrentToken();
+	if (JsonToken.START_OBJECT == token || JsonToken.START_ARRAY == token) {
+	    StringWriter writer = new StringWriter();
+	    JsonGenerator generator = JSON_FACTORY.createGenerator(writer);
+	    try {
+		generator.copyCurrentStructure(parser);
+	    } finally {
+		generator.close();
+	    }
+	    value = writer.toString();
+	} else if (null != token) {
+	    value = parser.getText();
+	}
+	return value;
+    }
+
+    /**
+     * Closes the parser ignoring any error.
+     * 
+     * @param parser
+     *            Json parser
+     */
+    public static void closeQuietly(JsonParser parser) {
+	if (null != parser) {
+	    try {
+		parser.close();
+	    } catch (IOException e) {
+		LOGGER.debug("Failed to close json parser: {}", e.getMessage());
+	    }
+	}
+    }
+}
@@ -28,6 +28,8 @@ import org.slf4j.LoggerFactory;
 
 import com.automatics.device.Device;
 import com.automatics.device.Dut;
+import com.automatics.providers.connection.SftpTransferResult;
+import com.automatics.providers.connection.SftpTransferService;
 import com.jcraft.jsch.Channel;
 import com.jcraft.jsch.ChannelExec;
 import com.jcraft.jsch.JSch;
@@ -91,11 +93,7 @@ public class NattedClientUtils {
 	String password = ecatsSettop.getPassword();
 	JSch jsch = new JSch();
 	LOGGER.info("Copying source file {} to  host {} port {} ", fileToCopy, host, port);
-	OutputStream out = null;
-	InputStream in = null;
 	Session session = null;
-	FileInputStream fis = null;
-	Channel channel = null;
 	try {
 	    if (CommonMethods.isNotNull(userName) && CommonMethods.isNotNull(host) && CommonMethods.isNotNull(port)
 		    && CommonMethods.isNotNull(password)) {
@@ -108,38 +106,17 @@ public class NattedClientUtils {
 		session.setPassword(password);
 		session.connect();
 
-		// exec 'scp -t remoteFileName' remotely
-		String command = "scp " + " -t " + remoteFileName;
-		channel = session.openChannel("exec");
-		((ChannelExec) channel).setCommand(command);
-
-		// get I/O streams for remote scp
-		out = channel.getOutputStream();
-		in = channel.getInputStream();
-
-		channel.connect();
-
-		File fp = new File(fileToCopy);
-		long fileSize = fp.length();
-		command = "C0644 " + fileSize + " " + remoteFileName + "\n";
-		out.write(command.getBytes());
-		out.flush();
-
-		ischeckCopyAcknowledgementSuccess(in);
-
-		fis = new FileInputStream(fileToCopy);
-		byte[] buf = new byte[1024];
-		while (true) {
-		    int len = fis.read(buf, 0, buf.length);
-		    if (len <= 0)
-			break;
-		    out.write(buf, 0, len); // out.flush();
+		SftpTransferResult result = null;
+		try {
+		    result = new SftpTransferService(session).upload(fileToCopy, remoteFileName, true);
+		} catch (JSchException e) {
+		    // Clients without sftp subsystem are copied using scp
+		    LOGGER.info("Sftp not available on {}:{} ({}), copying using scp", host, port, e.getMessage());
+		    copyfileUsingScp(session, fileToCopy, remoteFileName);
+		}
+		if (null != result && !result.isSuccess()) {
+		    throw new JSchException(result.getErrorMessage());
 		}
-		// send '\0'
-		buf[0] = 0;
-		out.write(buf, 0, 1);
-		out.flush();
-		ischeckCopyAcknowledgementSuccess(in);
 		LOGGER.info("[TEST LOG] : SCP Complete : " + remoteFileName);
 		status = true;
 	    } else {
@@ -152,28 +129,78 @@ public class NattedClientUtils {
 	    LOGGER.error("Error while copying profile " + e.getMessage());
 	    e.printStackTrace();
 	} finally {
-	    try {
-		if (fis != null) {
-		    fis.close();
-		}
-		if (in != null) {
-		    in.close();
-		}
-		if (out != null) {
-		    out.close();
-		}
-		if (channel != null) {
-		    channel.disconnect();
-		}
-		if (session != null) {
-		    session.disconnect();
-		}
-	    } catch (IOException e) {
+	    if (session != null) {
+		session.disconnect();
 	    }
 	}
 	return status;
     }
 
+    /**
+     * Copies the file to client using scp
+     * 
+     * @param session
+     *            Connected session
+     * @param fileToCopy
+     *            Fullpath of file to be copied
+     * @param remoteFileName
+     *            Remote file name
+     */
+    private void copyfileUsingScp(Session session, String fileToCopy, String remoteFileName)
+	    throws JSchException, IOException {
+	OutputStream out = null;
+	InputStream in = null;
+	FileInputStream fis = null;
+	Channel channel = null;
+	try {
+	    // exec 'scp -t remoteFileName' remotely
+	    String command = "scp " + " -t " + remoteFileName;
+	    channel = session.openChannel("exec");
+	    ((ChannelExec) channel).setCommand(command);
+
+	    // get I/O streams for remote scp
+	    out = channel.getOutputStream();
+	    in = channel.getInputStream();
+
+	    channel.connect();
+
+	    File fp = new File(fileToCopy);
+	    long fileSize = fp.length();
+	    command = "C0644 " + fileSize + " " + remoteFileName + "\n";
+	    out.write(command.getBytes());
+	    out.flush();
+
+	    ischeckCopyAcknowledgementSuccess(in);
+
+	    fis = new FileInputStream(fileToCopy);
+	    byte[] buf = new byte[64 * 1024];
+	    while (true) {
+		int len = fis.read(buf, 0, buf.length);
+		if (len <= 0)
+		    break;
+		out.write(buf, 0, len);
+	    }
+	    // send '\0'
+	    buf[0] = 0;
+	    out.write(buf, 0, 1);
+	    out.flush();
+	    ischeckCopyAcknowledgementSuccess(in);
+	} finally {
+	    if (fis != null) {
+		fis.close();
+	    }
+	    if (in != null) {
+		in.close();
+	    }
+	    if (out != null) {
+		out.close();
+	    }
+	    if (channel != null) {
+		channel.disconnect();
+	    }
+	}
+    }
+
     private void ischeckCopyAcknowledgementSuccess(InputStream is) throws IOException, JSchException {
 	boolean status = false;
 	int b = is.read();
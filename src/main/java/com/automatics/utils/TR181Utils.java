@@ -19,6 +19,7 @@ package com.automatics.utils;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -26,14 +27,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.automatics.constants.AutomaticsConstants;
-import com.automatics.constants.DmcliConstants;
-import com.automatics.constants.WebPaConstants;
 import com.automatics.enums.DmcliDataType;
 import com.automatics.enums.TR181AccessMethods;
 import com.automatics.enums.TR181DataType;
 import com.automatics.enums.TR69DataType;
 import com.automatics.enums.WebPaDataType;
 import com.automatics.providers.tr69.Parameter;
+import com.automatics.tr181.TR181NameTranslator;
 import com.automatics.tr181.TR181Parameter;
 import com.automatics.tr181.TR181Response;
 import com.automatics.webpa.WebPaParameter;
@@ -51,6 +51,8 @@ public class TR181Utils {
 
     private static final String GET_RESPONSE_VALUE = "value:";
 
+    private static final String GET_RESPONSE_NAME = "name:";
+
     /**
      * Gets the parameter value from dmcli getv command response
      * 
@@ -89,6 +91,39 @@ public class TR181Utils {
 	return value;
     }
 
+    /**
+     * Gets the values of all parameters from a dmcli getv command response having one or more parameters
+     * 
+     * @param dmcliResponse
+     *            Dmcli response
+     * @return Map of dmcli parameter name and value, in response order
+     */
+    public static Map<String, String> parseDmcliGetResponse(String dmcliResponse) {
+
+	Map<String, String> paramValues = new LinkedHashMap<String, String>();
+
+	if (CommonMethods.isNotNull(dmcliResponse)) {
+
+	    for (String response : dmcliResponse.split("Parameter")) {
+
+		int nameIndex = response.indexOf(GET_RESPONSE_NAME);
+		int valueOfIndex = response.indexOf(GET_RESPONSE_VALUE);
+
+		if (nameIndex >= AutomaticsConstants.CONSTANT_0 && valueOfIndex > nameIndex) {
+		    nameIndex += GET_RESPONSE_NAME.length();
+		    int nameEndIndex = response.indexOf(AutomaticsConstants.NEW_LINE, nameIndex);
+		    if (nameEndIndex < AutomaticsConstants.CONSTANT_0 || nameEndIndex > valueOfIndex) {
+			nameEndIndex = valueOfIndex;
+		    }
+		    paramValues.put(response.substring(nameIndex, nameEndIndex).trim(),
+			    response.substring(valueOfIndex + GET_RESPONSE_VALUE.length()).trim());
+		}
+	    }
+	}
+
+	return paramValues;
+    }
+
     /**
      * Convert WebPa Param Object to TR181 Param Object
      * 
@@ -101,7 +136,7 @@ public class TR181Utils {
 	TR181Parameter parameter = null;
 
 	if (null != webPaParameters && !webPaParameters.isEmpty()) {
-	    parameterList = new ArrayList<TR181Parameter>();
+	    parameterList = new ArrayList<TR181Parameter>(webPaParameters.size());
 
 	    for (WebPaParameter webPaParameter : webPaParameters) {
 		parameter = new TR181Parameter();
@@ -111,7 +146,7 @@ public class TR181Utils {
 			mapWebPaToTR181DataType(webPaParameter.getName(), webPaParameter.getDataType()));
 		parameter.setValue(webPaParameter.getValue());
 		parameter.setStatusCode(webPaParameter.getStatusCode());
-		LOGGER.info("TR181 parametrs status code  added  "+parameter.getStatusCode());
+		LOGGER.debug("TR181 parametrs status code  added {}", parameter.getStatusCode());
 		parameterList.add(parameter);
 	    }
 	}
@@ -211,34 +246,9 @@ public class TR181Utils {
     }
 
     public static TR181DataType getTR181DataType(String webPaParamName) {
-	TR181DataType dataType = TR181DataType.STRING;
-	switch (webPaParamName) {
-	case "MACAddress":
-	case "Type":
-	case "Description":
-	case "Enable":
-	case "ExternalPort":
-	case "ExternalPortEndRange":
-	case "Protocol":
-	case "InternalClient":
-	case "MacAddress":
-	case "DnsIPv4":
-	case "DnsIPv6":
-	case "Tag":
-	case "Yiaddr":
-	case "DeviceName":
-	case "X_RDKCENTRAL-COM_Ipv4PingServerURI":
-	case "X_RDKCENTRAL-COM_Ipv6PingServerURI":
-
-	    dataType = TR181DataType.STRING;
-	    break;
+	TR181DataType dataType = TR181NameTranslator.get().getTableParamDataType(webPaParamName);
 
-	default:
-	    dataType = TR181DataType.STRING;
-	    break;
-	}
-
-	LOGGER.info("Mapping param: {} to TR181 data type: {}", webPaParamName, dataType);
+	LOGGER.debug("Mapping param: {} to TR181 data type: {}", webPaParamName, dataType);
 
 	return dataType;
     }
@@ -430,7 +440,8 @@ public class TR181Utils {
      */
     public static Map<String, String> convertTR181ResponseToMap(List<TR181Parameter> parameterList) {
 
-	Map<String, String> responseMap = new HashMap<String, String>();
+	Map<String, String> responseMap = new HashMap<String, String>(
+		null != parameterList ? Math.max(16, (int) (parameterList.size() / 0.75f) + 1) : 16);
 
 	if (null != parameterList && !parameterList.isEmpty()) {
 
@@ -526,7 +537,7 @@ public class TR181Utils {
 	TR181DataType tr181DataType = null;
 	WebPaDataType webPaDataType = WebPaDataType.getType(webPaDataTypeValue);
 
-	LOGGER.info("WebPa data type: {}", webPaDataType);
+	LOGGER.debug("WebPa data type: {}", webPaDataType);
 
 	if (null != webPaDataType) {
 	    switch (webPaDataType) {
@@ -689,11 +700,8 @@ public class TR181Utils {
      * @return Param name
      */
     public static String getProtocolParamName(String tr181ParamName, TR181AccessMethods tr181AccessMethod) {
-	String paramName = tr181ParamName;
 	// TR181 - webpa param name to dmcli param name
-	paramName = convertRdkbWebPaWiFiParameterIndexToDmcliParameterIndex(tr181ParamName);
-	return paramName;
-
+	return convertRdkbWebPaWiFiParameterIndexToDmcliParameterIndex(tr181ParamName);
     }
 
     /**
@@ -834,47 +842,7 @@ public class TR181Utils {
      * 
      */
     private static String convertRdkbWebPaWiFiParameterIndexToDmcliParameterIndex(String tr181Parameter) {
-	if (tr181Parameter.contains(WebPaConstants.WEBPA_TABLE_DEVICE_WIFI)) {
-
-	    if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PRIVATE_SSID)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PRIVATE_SSID, "1");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_5_GHZ_PRIVATE_SSID)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_5_GHZ_PRIVATE_SSID, "2");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PUBLIC_WIFI)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PUBLIC_WIFI, "5");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_5_GHZ_PUBLIC_WIFI)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_5_GHZ_PUBLIC_WIFI, "6");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PUBLIC_SSID_AP2)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_2_4_GHZ_PUBLIC_SSID_AP2, "9");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_5_GHZ_PUBLIC_SSID_AP2)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_5_GHZ_PUBLIC_SSID_AP2, "10");
-	    } else if (tr181Parameter.contains(WebPaConstants.RADIO_24_GHZ_INDEX)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.RADIO_24_GHZ_INDEX, "1");
-	    } else if (tr181Parameter.contains(WebPaConstants.RADIO_5_GHZ_INDEX)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.RADIO_5_GHZ_INDEX, "2");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10002)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10002, "3");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10102)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10102, "4");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_2_4_GHZ_OPEN_LNF_AP1)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_2_4_GHZ_OPEN_LNF_AP1, "7");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_5_GHZ_OPEN_LNF_AP2)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_5_GHZ_OPEN_LNF_AP2, "8");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10006)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10006, "11");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10106)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10106, "12");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10007)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10007, "13");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10107)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10107, "14");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10008)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10008, "15");
-	    } else if (tr181Parameter.contains(WebPaConstants.WEBPA_INDEX_10108)) {
-		tr181Parameter = tr181Parameter.replace(WebPaConstants.WEBPA_INDEX_10108, "16");
-	    }
-	}
-	return tr181Parameter;
+	return TR181NameTranslator.get().toDmcliParamName(tr181Parameter);
     }
 
     /**
@@ -884,16 +852,7 @@ public class TR181Utils {
      * @return true if apply settings to be executed
      */
     public static boolean isApplySettingsRequired(String dmcliParamName) {
-	boolean applySettings = false;
-
-	if (dmcliParamName.startsWith(DmcliConstants.DMCLI_WIFI_RADIO)
-		|| dmcliParamName.startsWith(DmcliConstants.DMCLI_WIFI_SSID)
-		|| dmcliParamName.startsWith(DmcliConstants.DMCLI_WIFI_ACCESSPOINT)) {
-	    applySettings = true;
-	}
-
-	return applySettings;
-
+	return TR181NameTranslator.get().isApplySettingsRequired(dmcliParamName);
     }
 
     /**
@@ -903,15 +862,9 @@ public class TR181Utils {
      */
     public static String getDmcliApplySettingParamName(String dmcliParamName) {
 
-	String paramName = DmcliConstants.DEVICE_WIFI_RADIO_1_APPLY_SETTING;
-
-	int indexNum = extractNumberFromDmcliParamName(dmcliParamName);
+	String paramName = TR181NameTranslator.get().getApplySettingParamName(dmcliParamName);
 
-	LOGGER.info("Dmcli param name: {} index identified: {}", dmcliParamName, indexNum);
-
-	if (indexNum % AutomaticsConstants.CONSTANT_2 == AutomaticsConstants.CONSTANT_0) {
-	    paramName = DmcliConstants.DEVICE_WIFI_RADIO_2_APPLY_SETTING;
-	}
+	LOGGER.debug("Dmcli param name: {} apply setting param identified: {}", dmcliParamName, paramName);
 
 	return paramName;
     }
@@ -922,30 +875,7 @@ public class TR181Utils {
      * @param dmcliParamName
      */
     public static int extractNumberFromDmcliParamName(String dmcliParamName) {
-
-	int indexNum = AutomaticsConstants.CONSTANT_0;
-
-	if (dmcliParamName.startsWith(DmcliConstants.DMCLI_WIFI_RADIO)) {
-	    dmcliParamName = dmcliParamName.substring(DmcliConstants.DMCLI_WIFI_RADIO.length());
-	} else if (dmcliParamName.startsWith(DmcliConstants.DMCLI_WIFI_ACCESSPOINT)) {
-	    dmcliParamName = dmcliParamName.substring(DmcliConstants.DMCLI_WIFI_ACCESSPOINT.length());
-	} else if (dmcliParamName.startsWith(DmcliConstants.DMCLI_WIFI_SSID)) {
-	    dmcliParamName = dmcliParamName.substring(DmcliConstants.DMCLI_WIFI_SSID.length());
-	}
-
-	if (dmcliParamName.indexOf(AutomaticsConstants.DOT) != -1) {
-	    dmcliParamName = dmcliParamName.substring(AutomaticsConstants.CONSTANT_0,
-		    dmcliParamName.indexOf(AutomaticsConstants.DOT));
-	}
-
-	try {
-	    indexNum = Integer.parseInt(dmcliParamName);
-	} catch (NumberFormatException e) {
-	    LOGGER.error("Error parsing number in dmcli param name: {} {} ", dmcliParamName, e.getMessage());
-	}
-
-	return indexNum;
-
+	return TR181NameTranslator.get().getWifiTableIndex(dmcliParamName);
     }
 
     public static List<TR181Parameter>  convertWebPaToTR181ParamObject(List<WebPaParameter> webPaParameters,
@@ -955,7 +885,7 @@ public class TR181Utils {
 		TR181Parameter parameter = null;
 
 		if (null != webPaParameters && !webPaParameters.isEmpty()) {
-		    parameterList = new ArrayList<TR181Parameter>();
+		    parameterList = new ArrayList<TR181Parameter>(webPaParameters.size());
 
 		    for (WebPaParameter webPaParameter : webPaParameters) {
 			parameter = new TR181Parameter();
@@ -0,0 +1,314 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.video;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Computes difference metrics of a frame sequence in memory as frames arrive. Masked regions are blacked out on the
+ * pixel data, and each frame is compared with the first frame and with the previous frame using normalized RMSE. The
+ * metric is the same one ImageMagick reports in brackets, so thresholds used with ImageMagick apply unchanged. Only
+ * the pixels of the first, previous and current frame are retained, and their buffers are reused between frames.
+ * Large frames can be compared in parallel across cores.
+ *
+ */
+public class FrameSequenceAnalyzer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FrameSequenceAnalyzer.class);
+
+    /** Minimum number of pixels for which the comparison is split across cores */
+    private static final int PARALLEL_MIN_PIXELS = 1 << 18;
+
+    private static final double MAX_CHANNEL_VALUE = 255.0;
+
+    private static final int CHANNELS = 3;
+
+    private final List<Rectangle> maskRegions;
+
+    private final double rmseThreshold;
+
+    private final boolean isParallel;
+
+    private int width = -1;
+
+    private int height = -1;
+
+    private int[] firstPixels;
+
+    private int[] previousPixels;
+
+    private int[] currentPixels;
+
+    private BufferedImage firstFrame;
+
+    private int frameCount = 0;
+
+    private int framesMatchingFirst = 0;
+
+    private int framesMatchingPrevious = 0;
+
+    private double maxRmseFromFirst = 0;
+
+    private double maxRmseFromPrevious = 0;
+
+    /**
+     * Creates analyzer
+     * 
+     * @param maskRegions
+     *            Regions blacked out before comparison, may be null
+     * @param rmseThreshold
+     *            Normalized RMSE up to which two frames are considered matching
+     * @param isParallel
+     *            true to compare large frames in parallel across cores
+     */
+    public FrameSequenceAnalyzer(List<Rectangle> maskRegions, double rmseThreshold, boolean isParallel) {
+	this.maskRegions = null == maskRegions ? Collections.<Rectangle> emptyList()
+		: new ArrayList<Rectangle>(maskRegions);
+	this.rmseThreshold = rmseThreshold;
+	this.isParallel = isParallel;
+    }
+
+    /**
+     * Adds the next frame of the sequence. The image is read immediately and not retained, except the first frame
+     * which is copied for failure artifacts.
+     * 
+     * @param frame
+     *            Frame image
+     * @return Normalized RMSE from the previous frame, 0 for the first frame
+     */
+    public synchronized double addFrame(BufferedImage frame) {
+	if (frame.getWidth() != width || frame.getHeight() != height) {
+	    if (frameCount > 0) {
+		LOGGER.info("Frame size changed from {}x{} to {}x{}, treating frame as different", width, height,
+			frame.getWidth(), frame.getHeight());
+		frameCount++;
+		maxRmseFromFirst = 1;
+		maxRmseFromPrevious = 1;
+		reset(frame);
+		return 1;
+	    }
+	    reset(frame);
+	}
+
+	readPixels(frame, currentPixels);
+	applyMask(currentPixels);
+	frameCount++;
+
+	double rmseFromPrevious = 0;
+	if (null == firstPixels) {
+	    firstPixels = currentPixels.clone();
+	    firstFrame = copy(frame);
+	    framesMatchingFirst++;
+	    framesMatchingPrevious++;
+	} else {
+	    double rmseFromFirst = computeRmse(firstPixels, currentPixels);
+	    rmseFromPrevious = computeRmse(previousPixels, currentPixels);
+	    maxRmseFromFirst = Math.max(maxRmseFromFirst, rmseFromFirst);
+	    maxRmseFromPrevious = Math.max(maxRmseFromPrevious, rmseFromPrevious);
+	    if (rmseFromFirst <= rmseThreshold) {
+		framesMatchingFirst++;
+	    }
+	    if (rmseFromPrevious <= rmseThreshold) {
+		framesMatchingPrevious++;
+	    }
+	    LOGGER.debug("Frame {} RMSE from first: {}, from previous: {}", frameCount, rmseFromFirst,
+		    rmseFromPrevious);
+	}
+
+	// Current frame becomes previous, its old buffer is reused for the next frame
+	int[] swap = previousPixels;
+	previousPixels = currentPixels;
+	currentPixels = null == swap ? new int[previousPixels.length] : swap;
+	return rmseFromPrevious;
+    }
+
+    /**
+     * Gets the number of frames added
+     * 
+     * @return Frame count
+     */
+    public synchronized int getFrameCount() {
+	return frameCount;
+    }
+
+    /**
+     * Gets the number of frames matching the first frame, including the first frame
+     * 
+     * @return Number of frames matching first frame
+     */
+    public synchronized int getFramesMatchingFirst() {
+	return framesMatchingFirst;
+    }
+
+    /**
+     * Gets the number of frames matching their previous frame, including the first frame
+     * 
+     * @return Number of frames matching previous frame
+     */
+    public synchronized int getFramesMatchingPrevious() {
+	return framesMatchingPrevious;
+    }
+
+    /**
+     * Gets the largest normalized RMSE of any frame from the first frame
+     * 
+     * @return Maximum RMSE from first frame
+     */
+    public synchronized double getMaxRmseFromFirst() {
+	return maxRmseFromFirst;
+    }
+
+    /**
+     * Gets the largest normalized RMSE between consecutive frames
+     * 
+     * @return Maximum RMSE between consecutive frames
+     */
+    public synchronized double getMaxRmseFromPrevious() {
+	return maxRmseFromPrevious;
+    }
+
+    /**
+     * Checks whether every frame matched its previous frame, ie the sequence shows a frozen screen
+     * 
+     * @return true if at least two frames were added and none differed from its previous frame
+     */
+    public synchronized boolean isFrozen() {
+	return frameCount > 1 && framesMatchingPrevious == frameCount;
+    }
+
+    /**
+     * Gets a copy of the first frame, unmasked, for failure artifacts
+     * 
+     * @return First frame, null if no frame added
+     */
+    public synchronized BufferedImage getFirstFrame() {
+	return firstFrame;
+    }
+
+    private void reset(BufferedImage frame) {
+	width = frame.getWidth();
+	height = frame.getHeight();
+	firstPixels = null;
+	previousPixels = null;
+	currentPixels = new int[width * height];
+	if (frameCount > 0) {
+	    readPixels(frame, currentPixels);
+	    applyMask(currentPixels);
+	    firstPixels = currentPixels.clone();
+	    firstFrame = copy(frame);
+	    previousPixels = currentPixels;
+	    currentPixels = new int[previousPixels.length];
+	}
+    }
+
+    /**
+     * Reads RGB pixels into the buffer, directly from the data buffer for packed int images
+     */
+    private void readPixels(BufferedImage frame, int[] pixels) {
+	int type = frame.getType();
+	DataBuffer dataBuffer = frame.getRaster().getDataBuffer();
+	if ((BufferedImage.TYPE_INT_RGB == type || BufferedImage.TYPE_INT_ARGB == type)
+		&& dataBuffer instanceof DataBufferInt && 1 == dataBuffer.getNumBanks()
+		&& frame.getRaster().getSampleModel() instanceof SinglePixelPackedSampleModel
+		&& ((SinglePixelPackedSampleModel) frame.getRaster().getSampleModel()).getScanlineStride() == width
+		&& 0 == frame.getRaster().getSampleModelTranslateX()
+		&& 0 == frame.getRaster().getSampleModelTranslateY() && 0 == dataBuffer.getOffset()) {
+	    System.arraycopy(((DataBufferInt) dataBuffer).getData(), 0, pixels, 0, pixels.length);
+	} else {
+	    frame.getRGB(0, 0, width, height, pixels, 0, width);
+	}
+    }
+
+    private void applyMask(int[] pixels) {
+	for (Rectangle region : maskRegions) {
+	    Rectangle clipped = region.intersection(new Rectangle(0, 0, width, height));
+	    for (int y = clipped.y; y < clipped.y + clipped.height; y++) {
+		int rowStart = y * width + clipped.x;
+		Arrays.fill(pixels, rowStart, rowStart + clipped.width, 0);
+	    }
+	}
+    }
+
+    private double computeRmse(final int[] expected, final int[] actual) {
+	long sumOfSquares = 0;
+	if (isParallel && expected.length >= PARALLEL_MIN_PIXELS) {
+	    ForkJoinPool pool = ForkJoinPool.commonPool();
+	    int chunks = Math.max(1, pool.getParallelism());
+	    int chunkSize = (expected.length + chunks - 1) / chunks;
+	    List<Future<Long>> sums = new ArrayList<Future<Long>>(chunks);
+	    for (int start = 0; start < expected.length; start += chunkSize) {
+		final int from = start;
+		final int to = Math.min(expected.length, start + chunkSize);
+		sums.add(pool.submit(new Callable<Long>() {
+
+		    @Override
+		    public Long call() {
+			return sumOfSquares(expected, actual, from, to);
+		    }
+		}));
+	    }
+	    try {
+		for (Future<Long> sum : sums) {
+		    sumOfSquares += sum.get();
+		}
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		sumOfSquares = sumOfSquares(expected, actual, 0, expected.length);
+	    } catch (ExecutionException e) {
+		sumOfSquares = sumOfSquares(expected, actual, 0, expected.length);
+	    }
+	} else {
+	    sumOfSquares = sumOfSquares(expected, actual, 0, expected.length);
+	}
+	return Math.sqrt((double) sumOfSquares / ((long) expected.length * CHANNELS)) / MAX_CHANNEL_VALUE;
+    }
+
+    private static long sumOfSquares(int[] expected, int[] actual, int from, int to) {
+	long sum = 0;
+	for (int index = from; index < to; index++) {
+	    int first = expected[index];
+	    int second = actual[index];
+	    if (first != second) {
+		int red = ((first >> 16) & 0xFF) - ((second >> 16) & 0xFF);
+		int green = ((first >> 8) & 0xFF) - ((second >> 8) & 0xFF);
+		int blue = (first & 0xFF) - (second & 0xFF);
+		sum += (red * red) + (green * green) + (blue * blue);
+	    }
+	}
+	return sum;
+    }
+
+    private static BufferedImage copy(BufferedImage image) {
+	return new BufferedImage(image.getColorModel(), image.copyData(null), image.isAlphaPremultiplied(), null);
+    }
+}
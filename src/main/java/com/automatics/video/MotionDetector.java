@@ -0,0 +1,332 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.video;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.video.VideoFrameGrabberManager.FrameHandler;
+
+/**
+ * Detects motion in a frame sequence using block based frame differencing. The analysed area is divided into square
+ * blocks whose size is the location tolerance, and the mean color of each block is compared with the same block of
+ * the previous frame. A block has changed if any mean color channel differs by more than the color tolerance, and a
+ * frame has motion if the percentage of changed blocks exceeds the motion tolerance. Comparing block means ignores
+ * shifts smaller than a block. Pixels are read into reusable primitive arrays and large frames are processed in
+ * parallel tiles of block rows.
+ *
+ */
+public class MotionDetector implements FrameHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MotionDetector.class);
+
+    /** Minimum number of pixels for which the frame is split into tiles across cores */
+    private static final int PARALLEL_MIN_PIXELS = 1 << 18;
+
+    /** Smallest block size in pixels */
+    private static final int MIN_BLOCK_SIZE = 4;
+
+    private static final double MAX_CHANNEL_VALUE = 255.0;
+
+    /** Factor by which pixel differences are amplified in the diff image */
+    private static final int DIFF_IMAGE_GAIN = 4;
+
+    private final Rectangle region;
+
+    private final double colorThreshold;
+
+    private final float locationTolerance;
+
+    private final float motionTolerance;
+
+    private final long minFrameInterval;
+
+    private final boolean isParallel;
+
+    private int width = -1;
+
+    private int height = -1;
+
+    private int blockSize;
+
+    private int blocksX;
+
+    private int blocksY;
+
+    private int[] currentPixels;
+
+    private int[] previousPixels;
+
+    /** Mean color of each block, packed as RGB */
+    private int[] currentBlocks;
+
+    private int[] previousBlocks;
+
+    private long lastTimestamp = 0;
+
+    private int frameCount = 0;
+
+    private int comparisonCount = 0;
+
+    private int motionCount = 0;
+
+    private double maxMotionPercentage = 0;
+
+    /**
+     * Creates motion detector
+     * 
+     * @param region
+     *            Area of the frame analysed, null for the full frame
+     * @param colorTolerance
+     *            Percentage by which a block mean color channel may change without the block being changed
+     * @param locationTolerance
+     *            Block size as percentage of the smaller dimension of the analysed area
+     * @param motionTolerance
+     *            Percentage of changed blocks up to which a frame has no motion
+     * @param minFrameIntervalInMillis
+     *            Minimum time between analysed frames, frames arriving earlier are skipped
+     * @param isParallel
+     *            true to process large frames in parallel across cores
+     */
+    public MotionDetector(Rectangle region, float colorTolerance, float locationTolerance, float motionTolerance,
+	    long minFrameIntervalInMillis, boolean isParallel) {
+	this.region = null == region ? null : new Rectangle(region);
+	this.colorThreshold = colorTolerance / 100.0 * MAX_CHANNEL_VALUE;
+	this.locationTolerance = locationTolerance;
+	this.motionTolerance = motionTolerance;
+	this.minFrameInterval = minFrameIntervalInMillis;
+	this.isParallel = isParallel;
+    }
+
+    @Override
+    public void onFrame(BufferedImage image, long timestamp) {
+	addFrame(image, timestamp);
+    }
+
+    /**
+     * Adds the next frame of the sequence. The image is read immediately and not retained.
+     * 
+     * @param frame
+     *            Frame image
+     * @param timestamp
+     *            Time of frame in millis
+     * @return Percentage of blocks changed from the previous frame, 0 for the first frame or a skipped frame
+     */
+    public synchronized double addFrame(BufferedImage frame, long timestamp) {
+	if (frameCount > 0 && timestamp - lastTimestamp < minFrameInterval) {
+	    return 0;
+	}
+	Rectangle area = new Rectangle(0, 0, frame.getWidth(), frame.getHeight());
+	if (null != region) {
+	    area = region.intersection(area);
+	}
+	if (area.isEmpty()) {
+	    LOGGER.error("Motion detection region {} is outside frame of size {}x{}", region, frame.getWidth(),
+		    frame.getHeight());
+	    return 0;
+	}
+	if (area.width != width || area.height != height) {
+	    if (frameCount > 0) {
+		LOGGER.info("Frame size changed from {}x{} to {}x{}, restarting comparison", width, height,
+			area.width, area.height);
+	    }
+	    reset(area.width, area.height);
+	}
+	lastTimestamp = timestamp;
+	frameCount++;
+	frame.getRGB(area.x, area.y, width, height, currentPixels, 0, width);
+
+	int changedBlocks = processBlocks();
+	double motionPercentage = 0;
+	if (null != previousBlocks) {
+	    comparisonCount++;
+	    motionPercentage = changedBlocks * 100.0 / currentBlocks.length;
+	    maxMotionPercentage = Math.max(maxMotionPercentage, motionPercentage);
+	    if (motionPercentage > motionTolerance) {
+		motionCount++;
+	    }
+	    LOGGER.debug("Frame {} changed blocks: {} of {}, motion {}%", frameCount, changedBlocks,
+		    currentBlocks.length, motionPercentage);
+	}
+
+	// Current frame becomes previous, old buffers are reused for the next frame
+	int[] swapPixels = previousPixels;
+	previousPixels = currentPixels;
+	currentPixels = null == swapPixels ? new int[previousPixels.length] : swapPixels;
+	int[] swapBlocks = previousBlocks;
+	previousBlocks = currentBlocks;
+	currentBlocks = null == swapBlocks ? new int[previousBlocks.length] : swapBlocks;
+	return motionPercentage;
+    }
+
+    /**
+     * @return Number of frames analysed
+     */
+    public synchronized int getFrameCount() {
+	return frameCount;
+    }
+
+    /**
+     * @return Number of consecutive frame pairs compared
+     */
+    public synchronized int getComparisonCount() {
+	return comparisonCount;
+    }
+
+    /**
+     * @return Number of frames with motion from their previous frame
+     */
+    public synchronized int getMotionCount() {
+	return motionCount;
+    }
+
+    /**
+     * @return Largest percentage of blocks changed between consecutive frames
+     */
+    public synchronized double getMaxMotionPercentage() {
+	return maxMotionPercentage;
+    }
+
+    /**
+     * @return true if any frame had motion from its previous frame
+     */
+    public synchronized boolean isMotionDetected() {
+	return motionCount > 0;
+    }
+
+    /**
+     * Creates an image of the difference between the last two analysed frames, amplified for visibility
+     * 
+     * @return Diff image, null if less than two frames were analysed
+     */
+    public synchronized BufferedImage createDiffImage() {
+	if (0 == comparisonCount) {
+	    return null;
+	}
+	// After the last swap previous buffer holds the last frame and current buffer the frame before it
+	int[] diffPixels = new int[previousPixels.length];
+	for (int index = 0; index < diffPixels.length; index++) {
+	    int first = previousPixels[index];
+	    int second = currentPixels[index];
+	    int red = Math.min(255, DIFF_IMAGE_GAIN * Math.abs(((first >> 16) & 0xFF) - ((second >> 16) & 0xFF)));
+	    int green = Math.min(255, DIFF_IMAGE_GAIN * Math.abs(((first >> 8) & 0xFF) - ((second >> 8) & 0xFF)));
+	    int blue = Math.min(255, DIFF_IMAGE_GAIN * Math.abs((first & 0xFF) - (second & 0xFF)));
+	    diffPixels[index] = (red << 16) | (green << 8) | blue;
+	}
+	BufferedImage diffImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+	diffImage.setRGB(0, 0, width, height, diffPixels, 0, width);
+	return diffImage;
+    }
+
+    private void reset(int newWidth, int newHeight) {
+	width = newWidth;
+	height = newHeight;
+	blockSize = Math.max(MIN_BLOCK_SIZE, Math.round(Math.min(width, height) * locationTolerance / 100));
+	blocksX = (width + blockSize - 1) / blockSize;
+	blocksY = (height + blockSize - 1) / blockSize;
+	currentPixels = new int[width * height];
+	previousPixels = null;
+	currentBlocks = new int[blocksX * blocksY];
+	previousBlocks = null;
+    }
+
+    /**
+     * Computes block means of the current frame and counts blocks changed from the previous frame, in parallel tiles
+     * of block rows for large frames
+     */
+    private int processBlocks() {
+	int changedBlocks = 0;
+	if (isParallel && currentPixels.length >= PARALLEL_MIN_PIXELS && blocksY > 1) {
+	    ForkJoinPool pool = ForkJoinPool.commonPool();
+	    int tiles = Math.min(blocksY, Math.max(1, pool.getParallelism()));
+	    int rowsPerTile = (blocksY + tiles - 1) / tiles;
+	    List<Future<Integer>> counts = new ArrayList<Future<Integer>>(tiles);
+	    for (int start = 0; start < blocksY; start += rowsPerTile) {
+		final int from = start;
+		final int to = Math.min(blocksY, start + rowsPerTile);
+		counts.add(pool.submit(new Callable<Integer>() {
+
+		    @Override
+		    public Integer call() {
+			return processBlockRows(from, to);
+		    }
+		}));
+	    }
+	    try {
+		for (Future<Integer> count : counts) {
+		    changedBlocks += count.get();
+		}
+	    } catch (InterruptedException e) {
+		Thread.currentThread().interrupt();
+		changedBlocks = processBlockRows(0, blocksY);
+	    } catch (ExecutionException e) {
+		changedBlocks = processBlockRows(0, blocksY);
+	    }
+	} else {
+	    changedBlocks = processBlockRows(0, blocksY);
+	}
+	return changedBlocks;
+    }
+
+    private int processBlockRows(int fromRow, int toRow) {
+	int changedBlocks = 0;
+	for (int blockY = fromRow; blockY < toRow; blockY++) {
+	    int top = blockY * blockSize;
+	    int bottom = Math.min(height, top + blockSize);
+	    for (int blockX = 0; blockX < blocksX; blockX++) {
+		int left = blockX * blockSize;
+		int right = Math.min(width, left + blockSize);
+		long red = 0;
+		long green = 0;
+		long blue = 0;
+		for (int y = top; y < bottom; y++) {
+		    int rowStart = y * width;
+		    for (int x = left; x < right; x++) {
+			int pixel = currentPixels[rowStart + x];
+			red += (pixel >> 16) & 0xFF;
+			green += (pixel >> 8) & 0xFF;
+			blue += pixel & 0xFF;
+		    }
+		}
+		int pixelCount = (bottom - top) * (right - left);
+		int mean = (int) ((red / pixelCount) << 16 | (green / pixelCount) << 8 | (blue / pixelCount));
+		int blockIndex = blockY * blocksX + blockX;
+		currentBlocks[blockIndex] = mean;
+		if (null != previousBlocks && isBlockChanged(previousBlocks[blockIndex], mean)) {
+		    changedBlocks++;
+		}
+	    }
+	}
+	return changedBlocks;
+    }
+
+    private boolean isBlockChanged(int previousMean, int currentMean) {
+	return Math.abs(((previousMean >> 16) & 0xFF) - ((currentMean >> 16) & 0xFF)) > colorThreshold
+		|| Math.abs(((previousMean >> 8) & 0xFF) - ((currentMean >> 8) & 0xFF)) > colorThreshold
+		|| Math.abs((previousMean & 0xFF) - (currentMean & 0xFF)) > colorThreshold;
+    }
+}
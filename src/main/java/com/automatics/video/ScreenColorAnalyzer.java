@@ -0,0 +1,181 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.video;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+
+import com.automatics.enums.ScreenColor;
+
+/**
+ * Builds {@link ScreenColorProfile} of images locally. Pixels are sampled on a grid bounded by
+ * {@link #MAX_SAMPLES_PER_ROW} x {@link #MAX_SAMPLE_ROWS}, so a full HD frame is classified in a few milliseconds. Only
+ * one row buffer is allocated per image.
+ *
+ */
+public class ScreenColorAnalyzer {
+
+    /** Maximum number of pixels sampled per row */
+    public static final int MAX_SAMPLES_PER_ROW = 320;
+
+    /** Maximum number of rows sampled */
+    public static final int MAX_SAMPLE_ROWS = 180;
+
+    /** Number of grid columns of the spatial signature */
+    private static final int GRID_COLUMNS = 16;
+
+    /** Number of grid rows of the spatial signature */
+    private static final int GRID_ROWS = 9;
+
+    /** Pixels with all channels below this value are black */
+    private static final int BLACK_MAX_VALUE = 40;
+
+    /** Pixels with saturation below this percentage are white or gray */
+    private static final int GRAY_MAX_SATURATION_PERCENT = 20;
+
+    /** Unsaturated pixels with brightest channel from this value are white */
+    private static final int WHITE_MIN_VALUE = 200;
+
+    private static final ScreenColor[] COLORS = ScreenColor.values();
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private ScreenColorAnalyzer() {
+    }
+
+    /**
+     * Analyzes the colors of the image
+     * 
+     * @param image
+     *            Image
+     * @return Color profile of the image
+     */
+    public static ScreenColorProfile analyze(BufferedImage image) {
+	return analyze(image, null);
+    }
+
+    /**
+     * Analyzes the colors of the region of the image
+     * 
+     * @param image
+     *            Image
+     * @param region
+     *            Region to be analyzed, null for the whole image
+     * @return Color profile of the region
+     */
+    public static ScreenColorProfile analyze(BufferedImage image, Rectangle region) {
+	Rectangle bounds = new Rectangle(0, 0, image.getWidth(), image.getHeight());
+	if (null != region) {
+	    bounds = bounds.intersection(region);
+	}
+
+	int[] colorCounts = new int[COLORS.length];
+	long[] gridSums = new long[GRID_COLUMNS * GRID_ROWS * 3];
+	int[] gridCounts = new int[GRID_COLUMNS * GRID_ROWS];
+	int sampleCount = 0;
+
+	if (!bounds.isEmpty()) {
+	    int stepX = Math.max(1, bounds.width / MAX_SAMPLES_PER_ROW);
+	    int stepY = Math.max(1, bounds.height / MAX_SAMPLE_ROWS);
+	    int[] row = new int[bounds.width];
+
+	    for (int y = 0; y < bounds.height; y += stepY) {
+		image.getRGB(bounds.x, bounds.y + y, bounds.width, 1, row, 0, bounds.width);
+		int gridRowOffset = (y * GRID_ROWS / bounds.height) * GRID_COLUMNS;
+		for (int x = 0; x < bounds.width; x += stepX) {
+		    int rgb = row[x];
+		    int red = (rgb >> 16) & 0xFF;
+		    int green = (rgb >> 8) & 0xFF;
+		    int blue = rgb & 0xFF;
+		    colorCounts[classify(red, green, blue).ordinal()]++;
+
+		    int cell = gridRowOffset + (x * GRID_COLUMNS / bounds.width);
+		    gridSums[cell * 3] += red;
+		    gridSums[cell * 3 + 1] += green;
+		    gridSums[cell * 3 + 2] += blue;
+		    gridCounts[cell]++;
+		    sampleCount++;
+		}
+	    }
+	}
+
+	int[] gridMeans = new int[gridSums.length];
+	for (int cell = 0; cell < gridCounts.length; cell++) {
+	    if (gridCounts[cell] > 0) {
+		for (int channel = 0; channel < 3; channel++) {
+		    gridMeans[cell * 3 + channel] = (int) (gridSums[cell * 3 + channel] / gridCounts[cell]);
+		}
+	    }
+	}
+	return new ScreenColorProfile(colorCounts, sampleCount, gridMeans);
+    }
+
+    /**
+     * Classifies a pixel to a named color using its hue, saturation and value
+     * 
+     * @param red
+     *            Red channel
+     * @param green
+     *            Green channel
+     * @param blue
+     *            Blue channel
+     * @return Named color
+     */
+    public static ScreenColor classify(int red, int green, int blue) {
+	int max = Math.max(red, Math.max(green, blue));
+	int min = Math.min(red, Math.min(green, blue));
+	if (max < BLACK_MAX_VALUE) {
+	    return ScreenColor.BLACK;
+	}
+	int delta = max - min;
+	if (delta * 100 < max * GRAY_MAX_SATURATION_PERCENT) {
+	    return max >= WHITE_MIN_VALUE ? ScreenColor.WHITE : ScreenColor.GRAY;
+	}
+
+	int hue;
+	if (max == red) {
+	    hue = 60 * (green - blue) / delta;
+	    if (hue < 0) {
+		hue += 360;
+	    }
+	} else if (max == green) {
+	    hue = 120 + 60 * (blue - red) / delta;
+	} else {
+	    hue = 240 + 60 * (red - green) / delta;
+	}
+
+	ScreenColor color;
+	if (hue < 15 || hue >= 345) {
+	    color = ScreenColor.RED;
+	} else if (hue < 45) {
+	    color = ScreenColor.ORANGE;
+	} else if (hue < 70) {
+	    color = ScreenColor.YELLOW;
+	} else if (hue < 170) {
+	    color = ScreenColor.GREEN;
+	} else if (hue < 200) {
+	    color = ScreenColor.CYAN;
+	} else if (hue < 260) {
+	    color = ScreenColor.BLUE;
+	} else {
+	    color = ScreenColor.MAGENTA;
+	}
+	return color;
+    }
+}
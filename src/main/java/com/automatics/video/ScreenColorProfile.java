@@ -0,0 +1,151 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.video;
+
+import com.automatics.enums.ScreenColor;
+
+/**
+ * Color histogram and coarse spatial signature of a screen image, created by {@link ScreenColorAnalyzer}. Answers
+ * black screen, no input signal, dominant color and same screen queries without the OCR service.
+ *
+ */
+public class ScreenColorProfile {
+
+    private static final double MAX_CHANNEL_VALUE = 255.0;
+
+    private final int[] colorCounts;
+
+    private final int sampleCount;
+
+    private final int[] gridMeans;
+
+    ScreenColorProfile(int[] colorCounts, int sampleCount, int[] gridMeans) {
+	this.colorCounts = colorCounts;
+	this.sampleCount = sampleCount;
+	this.gridMeans = gridMeans;
+    }
+
+    /**
+     * Gets the percentage of the screen classified as the given color
+     * 
+     * @param color
+     *            Screen color
+     * @return Percentage from 0 to 100
+     */
+    public double getPercentage(ScreenColor color) {
+	return 0 == sampleCount ? 0 : colorCounts[color.ordinal()] * 100.0 / sampleCount;
+    }
+
+    /**
+     * Gets the color covering the largest part of the screen
+     * 
+     * @return Dominant color, null if the image had no pixels
+     */
+    public ScreenColor getDominantColor() {
+	ScreenColor dominantColor = null;
+	int maxCount = 0;
+	for (ScreenColor color : ScreenColor.values()) {
+	    if (colorCounts[color.ordinal()] > maxCount) {
+		maxCount = colorCounts[color.ordinal()];
+		dominantColor = color;
+	    }
+	}
+	return dominantColor;
+    }
+
+    /**
+     * Checks whether the given color covers at least the given percentage of the screen
+     * 
+     * @param color
+     *            Screen color
+     * @param minPercentage
+     *            Minimum percentage
+     * @return true if color covers the percentage
+     */
+    public boolean isColorScreen(ScreenColor color, double minPercentage) {
+	return sampleCount > 0 && getPercentage(color) >= minPercentage;
+    }
+
+    /**
+     * Checks whether the screen is black
+     * 
+     * @param minPercentage
+     *            Minimum percentage of black pixels
+     * @return true if black screen
+     */
+    public boolean isBlackScreen(double minPercentage) {
+	return isColorScreen(ScreenColor.BLACK, minPercentage);
+    }
+
+    /**
+     * Checks whether the screen is the blue no input signal screen
+     * 
+     * @param minPercentage
+     *            Minimum percentage of blue pixels
+     * @return true if blue screen
+     */
+    public boolean isNoInputSignalScreen(double minPercentage) {
+	return isColorScreen(ScreenColor.BLUE, minPercentage);
+    }
+
+    /**
+     * Checks whether the other profile shows the same screen, by comparing the mean colors of the screen grid cells
+     * 
+     * @param other
+     *            Profile of another image
+     * @param tolerance
+     *            Maximum mean channel difference from 0 to 1
+     * @return true if both profiles show the same screen
+     */
+    public boolean isSameScreen(ScreenColorProfile other, double tolerance) {
+	return null != other && getDifference(other) <= tolerance;
+    }
+
+    /**
+     * Gets the mean channel difference of the screen grid cells
+     * 
+     * @param other
+     *            Profile of another image
+     * @return Difference from 0 to 1
+     */
+    public double getDifference(ScreenColorProfile other) {
+	long sum = 0;
+	for (int index = 0; index < gridMeans.length; index++) {
+	    sum += Math.abs(gridMeans[index] - other.gridMeans[index]);
+	}
+	return sum / (gridMeans.length * MAX_CHANNEL_VALUE);
+    }
+
+    /**
+     * Gets the color percentages in the format returned by the OCR color extraction, eg: black=95.2, blue=4.8
+     */
+    @Override
+    public String toString() {
+	StringBuilder builder = new StringBuilder();
+	for (ScreenColor color : ScreenColor.values()) {
+	    if (colorCounts[color.ordinal()] > 0) {
+		if (builder.length() > 0) {
+		    builder.append(", ");
+		}
+		builder.append(color.getColorName()).append('=')
+			.append(Math.round(getPercentage(color) * 10) / 10.0);
+	    }
+	}
+	return builder.toString();
+    }
+}
@@ -0,0 +1,108 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.video;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Frame captured by {@link VideoFrameGrabber}. The image is a buffer of the grabber ring which is reused once the
+ * grabber wraps around, so it must only be read while {@link #isValid()} is true. Use {@link #copyImage()} to keep the
+ * image beyond that.
+ *
+ */
+public class VideoFrame {
+
+    private final VideoFrameGrabber grabber;
+
+    private final int slotIndex;
+
+    private final long sequence;
+
+    private final long timestamp;
+
+    private final BufferedImage image;
+
+    VideoFrame(VideoFrameGrabber grabber, int slotIndex, long sequence, long timestamp, BufferedImage image) {
+	this.grabber = grabber;
+	this.slotIndex = slotIndex;
+	this.sequence = sequence;
+	this.timestamp = timestamp;
+	this.image = image;
+    }
+
+    /**
+     * Gets the sequence number of the frame, increasing by one for every frame captured by the grabber
+     * 
+     * @return Frame sequence number
+     */
+    public long getSequence() {
+	return sequence;
+    }
+
+    /**
+     * Gets the time at which frame was captured
+     * 
+     * @return Capture time in milliseconds
+     */
+    public long getTimestamp() {
+	return timestamp;
+    }
+
+    /**
+     * Gets the age of the frame
+     * 
+     * @return Milliseconds elapsed since the frame was captured
+     */
+    public long getAgeInMillis() {
+	return System.currentTimeMillis() - timestamp;
+    }
+
+    /**
+     * Gets the shared ring buffer holding the frame. Must not be modified.
+     * 
+     * @return Frame image
+     */
+    public BufferedImage getImage() {
+	return image;
+    }
+
+    /**
+     * Checks whether the ring buffer still holds this frame
+     * 
+     * @return true if the frame has not been overwritten
+     */
+    public boolean isValid() {
+	return grabber.isSlotHolding(slotIndex, sequence);
+    }
+
+    /**
+     * Copies the frame to a new image owned by the caller
+     * 
+     * @return Copy of the frame image, null if the frame was overwritten before or while copying
+     */
+    public BufferedImage copyImage() {
+	BufferedImage copy = null;
+	if (isValid()) {
+	    copy = new BufferedImage(image.getColorModel(), image.copyData(null), image.isAlphaPremultiplied(), null);
+	    if (!isValid()) {
+		copy = null;
+	    }
+	}
+	return copy;
+    }
+}
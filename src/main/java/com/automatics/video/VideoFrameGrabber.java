@@ -0,0 +1,355 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.video;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Dut;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.providers.rack.VideoProvider;
+
+/**
+ * Captures frames of a device in the background at a fixed interval into a bounded ring of reusable image buffers.
+ * Image compare, OCR, freeze and closed caption checks read frames from the ring instead of requesting a capture from
+ * the video provider each time. Frames are overwritten once the ring wraps around, see {@link VideoFrame}.
+ *
+ */
+public class VideoFrameGrabber {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VideoFrameGrabber.class);
+
+    /** Metric name for frame capture */
+    private static final String METRIC_FRAME_GRAB = "video.frame.grab";
+
+    /** Number of intervals after which the latest frame is no longer considered current */
+    private static final int CURRENT_FRAME_MAX_INTERVALS = 2;
+
+    private final Dut dut;
+
+    private final FrameSlot[] slots;
+
+    private final long intervalInMillis;
+
+    private final Object frameLock = new Object();
+
+    /** Sequence of latest captured frame, -1 till first frame is captured */
+    private volatile long latestSequence = -1;
+
+    private volatile ScheduledFuture<?> grabTask;
+
+    /**
+     * Creates frame grabber
+     * 
+     * @param dut
+     *            Device whose frames are captured
+     * @param ringSize
+     *            Number of frames retained
+     * @param intervalInMillis
+     *            Interval between captures
+     */
+    VideoFrameGrabber(Dut dut, int ringSize, long intervalInMillis) {
+	this.dut = dut;
+	this.intervalInMillis = Math.max(1, intervalInMillis);
+	this.slots = new FrameSlot[Math.max(2, ringSize)];
+	for (int index = 0; index < slots.length; index++) {
+	    slots[index] = new FrameSlot();
+	}
+    }
+
+    /**
+     * Starts capturing frames on the scheduler
+     */
+    synchronized void start(ScheduledExecutorService scheduler) {
+	if (!isRunning()) {
+	    grabTask = scheduler.scheduleAtFixedRate(new Runnable() {
+
+		@Override
+		public void run() {
+		    grab();
+		}
+	    }, 0, intervalInMillis, TimeUnit.MILLISECONDS);
+	    LOGGER.info("Started frame grabber for {} with interval {} ms and {} frames", dut.getHostMacAddress(),
+		    intervalInMillis, slots.length);
+	}
+    }
+
+    /**
+     * Stops capturing frames. Frames already captured remain readable.
+     */
+    synchronized void stop() {
+	if (null != grabTask) {
+	    grabTask.cancel(false);
+	    grabTask = null;
+	    LOGGER.info("Stopped frame grabber for {}", dut.getHostMacAddress());
+	}
+	synchronized (frameLock) {
+	    frameLock.notifyAll();
+	}
+    }
+
+    /**
+     * Checks whether frames are being captured
+     * 
+     * @return true if grabber is running
+     */
+    public boolean isRunning() {
+	ScheduledFuture<?> task = grabTask;
+	return null != task && !task.isDone();
+    }
+
+    /**
+     * Gets the device whose frames are captured
+     * 
+     * @return Device
+     */
+    public Dut getDevice() {
+	return dut;
+    }
+
+    /**
+     * Gets the interval between captures
+     * 
+     * @return Capture interval in milliseconds
+     */
+    public long getIntervalInMillis() {
+	return intervalInMillis;
+    }
+
+    /**
+     * Gets the latest captured frame
+     * 
+     * @return Latest frame, null if no frame captured yet
+     */
+    public VideoFrame getLatestFrame() {
+	long sequence = latestSequence;
+	return sequence < 0 ? null : getFrame(sequence);
+    }
+
+    /**
+     * Gets all frames retained in the ring
+     * 
+     * @return Frames, oldest first
+     */
+    public List<VideoFrame> getFrames() {
+	List<VideoFrame> frames = new ArrayList<VideoFrame>(slots.length);
+	long latest = latestSequence;
+	for (long sequence = latest; sequence >= 0 && sequence > latest - slots.length; sequence--) {
+	    VideoFrame frame = getFrame(sequence);
+	    if (null != frame) {
+		frames.add(frame);
+	    }
+	}
+	Collections.reverse(frames);
+	return frames;
+    }
+
+    /**
+     * Waits for a frame newer than the given sequence
+     * 
+     * @param sequence
+     *            Sequence of the last frame seen by the caller, -1 to wait for first frame
+     * @param timeoutInMillis
+     *            Maximum time to wait
+     * @return Latest frame if newer than the sequence, otherwise null on timeout
+     */
+    public VideoFrame awaitFrameAfter(long sequence, long timeoutInMillis) {
+	long deadline = System.currentTimeMillis() + timeoutInMillis;
+	synchronized (frameLock) {
+	    long remaining = timeoutInMillis;
+	    while (latestSequence <= sequence && remaining > 0 && isRunning()) {
+		try {
+		    frameLock.wait(remaining);
+		} catch (InterruptedException e) {
+		    Thread.currentThread().interrupt();
+		    break;
+		}
+		remaining = deadline - System.currentTimeMillis();
+	    }
+	}
+	VideoFrame frame = getLatestFrame();
+	return null != frame && frame.getSequence() > sequence ? frame : null;
+    }
+
+    /**
+     * Waits for a frame captured at or after the given time
+     * 
+     * @param timestamp
+     *            Time in milliseconds
+     * @param timeoutInMillis
+     *            Maximum time to wait
+     * @return Frame captured at or after the time, null on timeout
+     */
+    public VideoFrame awaitFrameCapturedAfter(long timestamp, long timeoutInMillis) {
+	long deadline = System.currentTimeMillis() + timeoutInMillis;
+	VideoFrame frame = getLatestFrame();
+	while (null == frame || frame.getTimestamp() < timestamp) {
+	    long remaining = deadline - System.currentTimeMillis();
+	    if (remaining <= 0) {
+		return null;
+	    }
+	    VideoFrame next = awaitFrameAfter(null == frame ? -1 : frame.getSequence(), remaining);
+	    if (null == next && !isRunning()) {
+		return null;
+	    }
+	    frame = null != next ? next : frame;
+	}
+	return frame;
+    }
+
+    /**
+     * Gets a copy of the latest frame if it was captured within the last two capture intervals
+     * 
+     * @return Copy of current frame, null if grabber has no current frame
+     */
+    public BufferedImage getCurrentImage() {
+	BufferedImage image = null;
+	VideoFrame frame = getLatestFrame();
+	if (null != frame && frame.getAgeInMillis() <= CURRENT_FRAME_MAX_INTERVALS * intervalInMillis) {
+	    image = frame.copyImage();
+	}
+	return image;
+    }
+
+    /**
+     * Gets a copy of the current frame scaled to the given dimension
+     * 
+     * @param dimension
+     *            Required image dimension
+     * @return Scaled copy of current frame, null if grabber has no current frame
+     */
+    public BufferedImage getCurrentImage(Dimension dimension) {
+	BufferedImage image = getCurrentImage();
+	if (null != image && null != dimension
+		&& (image.getWidth() != dimension.width || image.getHeight() != dimension.height)) {
+	    BufferedImage scaled = new BufferedImage(dimension.width, dimension.height, BufferedImage.TYPE_INT_RGB);
+	    Graphics2D graphics = scaled.createGraphics();
+	    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+	    graphics.drawImage(image, 0, 0, dimension.width, dimension.height, null);
+	    graphics.dispose();
+	    image = scaled;
+	}
+	return image;
+    }
+
+    /**
+     * Checks whether the ring slot still holds the frame with given sequence
+     */
+    boolean isSlotHolding(int slotIndex, long sequence) {
+	return slots[slotIndex].sequence == sequence;
+    }
+
+    private VideoFrame getFrame(long sequence) {
+	int slotIndex = (int) (sequence % slots.length);
+	FrameSlot slot = slots[slotIndex];
+	VideoFrame frame = null;
+	if (slot.sequence == sequence) {
+	    BufferedImage image = slot.image;
+	    long timestamp = slot.timestamp;
+	    if (slot.sequence == sequence) {
+		frame = new VideoFrame(this, slotIndex, sequence, timestamp, image);
+	    }
+	}
+	return frame;
+    }
+
+    /**
+     * Captures one frame into the next ring slot. Executed only on the grabber task, so slots have a single writer.
+     */
+    private void grab() {
+	long startTime = System.currentTimeMillis();
+	BufferedImage captured = null;
+	try {
+	    VideoProvider videoProvider = dut.getVideo();
+	    if (null != videoProvider) {
+		captured = videoProvider.getVideoImage();
+	    }
+	} catch (Exception e) {
+	    LOGGER.debug("Frame capture failed for {}: {}", dut.getHostMacAddress(), e.getMessage());
+	}
+
+	Map<String, String> tags = MetricsRegistry.tags(dut, "grab");
+	tags.put(MetricsRegistry.TAG_RESULT, null != captured ? "success" : "failure");
+	MetricsRegistry.get().timer(METRIC_FRAME_GRAB, tags).record(System.currentTimeMillis() - startTime);
+
+	if (null != captured) {
+	    long sequence = latestSequence + 1;
+	    FrameSlot slot = slots[(int) (sequence % slots.length)];
+
+	    // Invalidate the slot before its buffer is overwritten
+	    slot.sequence = -1;
+	    slot.image = copyInto(captured, slot.image);
+	    slot.timestamp = startTime;
+	    slot.sequence = sequence;
+
+	    synchronized (frameLock) {
+		latestSequence = sequence;
+		frameLock.notifyAll();
+	    }
+	}
+    }
+
+    /**
+     * Copies the captured image into the reusable buffer, allocating a new buffer only when size or type changes
+     */
+    private static BufferedImage copyInto(BufferedImage source, BufferedImage target) {
+	int type = source.getType();
+	boolean isRasterCopyable = BufferedImage.TYPE_CUSTOM != type && BufferedImage.TYPE_BYTE_INDEXED != type
+		&& BufferedImage.TYPE_BYTE_BINARY != type;
+	int targetType = isRasterCopyable ? type : BufferedImage.TYPE_INT_RGB;
+
+	if (null == target || target.getWidth() != source.getWidth() || target.getHeight() != source.getHeight()
+		|| target.getType() != targetType) {
+	    target = new BufferedImage(source.getWidth(), source.getHeight(), targetType);
+	}
+
+	if (isRasterCopyable) {
+	    target.getRaster().setRect(source.getRaster());
+	} else {
+	    Graphics2D graphics = target.createGraphics();
+	    graphics.drawImage(source, 0, 0, null);
+	    graphics.dispose();
+	}
+	return target;
+    }
+
+    /**
+     * Ring slot. Fields are volatile so that readers can validate a slot by reading its sequence before and after
+     * reading the frame.
+     */
+    private static class FrameSlot {
+
+	private volatile long sequence = -1;
+
+	private volatile long timestamp;
+
+	private volatile BufferedImage image;
+    }
+}
@@ -0,0 +1,312 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.video;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.automatics.device.Dut;
+import com.automatics.providers.rack.VideoProvider;
+import com.automatics.utils.AutomaticsPropertyUtility;
+import com.automatics.utils.AutomaticsUtils;
+
+/**
+ * Manages the background frame grabbers of devices. Grabbers are opt-in, either started explicitly or started on
+ * first capture when video.frame.grabber.enabled is true. All grabbers share a small scheduler thread pool.
+ *
+ */
+public class VideoFrameGrabberManager {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VideoFrameGrabberManager.class);
+
+    /** Property to start frame grabber automatically on first capture from a device */
+    private static final String PROP_ENABLED = "video.frame.grabber.enabled";
+
+    /** Property for interval between frame captures */
+    private static final String PROP_INTERVAL = "video.frame.grabber.interval.ms";
+
+    /** Property for number of frames retained per device */
+    private static final String PROP_RING_SIZE = "video.frame.grabber.ring.size";
+
+    /** Property for number of scheduler threads shared by all grabbers */
+    private static final String PROP_THREADS = "video.frame.grabber.threads";
+
+    private static final long DEFAULT_INTERVAL = 500;
+
+    private static final long DEFAULT_RING_SIZE = 16;
+
+    private static final long DEFAULT_THREADS = 2;
+
+    /** Minimum wait between captures from the video provider when no frame grabber is running */
+    private static final long MIN_CAPTURE_INTERVAL = 100;
+
+    private static VideoFrameGrabberManager instance = null;
+
+    private final ScheduledExecutorService scheduler;
+
+    private final Map<String, VideoFrameGrabber> grabbers = new ConcurrentHashMap<String, VideoFrameGrabber>();
+
+    /**
+     * Private constructor for avoid multiple instances.
+     */
+    private VideoFrameGrabberManager() {
+	final AtomicInteger threadCount = new AtomicInteger();
+	scheduler = Executors.newScheduledThreadPool(
+		(int) AutomaticsPropertyUtility.getLongProperty(PROP_THREADS, DEFAULT_THREADS), new ThreadFactory() {
+		    @Override
+		    public Thread newThread(Runnable runnable) {
+			Thread thread = new Thread(runnable, "VideoFrameGrabber-" + threadCount.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		    }
+		});
+    }
+
+    /**
+     * Gets the VideoFrameGrabberManager instance
+     * 
+     * @return VideoFrameGrabberManager instance
+     */
+    public static synchronized VideoFrameGrabberManager get() {
+	if (null == instance) {
+	    instance = new VideoFrameGrabberManager();
+	}
+	return instance;
+    }
+
+    /**
+     * Starts the frame grabber of the device with configured interval and ring size
+     * 
+     * @param dut
+     *            Device whose frames are captured
+     * @return Running frame grabber, null if device has no video provider
+     */
+    public VideoFrameGrabber start(Dut dut) {
+	return start(dut, AutomaticsPropertyUtility.getLongProperty(PROP_INTERVAL, DEFAULT_INTERVAL),
+		(int) AutomaticsPropertyUtility.getLongProperty(PROP_RING_SIZE, DEFAULT_RING_SIZE));
+    }
+
+    /**
+     * Starts the frame grabber of the device. A grabber already running for the device is returned as is.
+     * 
+     * @param dut
+     *            Device whose frames are captured
+     * @param intervalInMillis
+     *            Interval between captures
+     * @param ringSize
+     *            Number of frames retained
+     * @return Running frame grabber, null if device has no video provider
+     */
+    public synchronized VideoFrameGrabber start(Dut dut, long intervalInMillis, int ringSize) {
+	VideoFrameGrabber grabber = grabbers.get(dut.getHostMacAddress());
+	if (null == grabber || !grabber.isRunning()) {
+	    if (null == dut.getVideo()) {
+		LOGGER.error("Video provider not available for {}, frame grabber not started",
+			dut.getHostMacAddress());
+		return null;
+	    }
+	    grabber = new VideoFrameGrabber(dut, ringSize, intervalInMillis);
+	    grabber.start(scheduler);
+	    grabbers.put(dut.getHostMacAddress(), grabber);
+	}
+	return grabber;
+    }
+
+    /**
+     * Stops the frame grabber of the device
+     * 
+     * @param dut
+     *            Device
+     */
+    public synchronized void stop(Dut dut) {
+	VideoFrameGrabber grabber = grabbers.remove(dut.getHostMacAddress());
+	if (null != grabber) {
+	    grabber.stop();
+	}
+    }
+
+    /**
+     * Stops frame grabbers of all devices
+     */
+    public synchronized void stopAll() {
+	for (VideoFrameGrabber grabber : grabbers.values()) {
+	    grabber.stop();
+	}
+	grabbers.clear();
+    }
+
+    /**
+     * Gets the running frame grabber of the device, starting it when video.frame.grabber.enabled is true
+     * 
+     * @param dut
+     *            Device
+     * @return Running frame grabber, null if not running
+     */
+    public VideoFrameGrabber getGrabber(Dut dut) {
+	VideoFrameGrabber grabber = grabbers.get(dut.getHostMacAddress());
+	if ((null == grabber || !grabber.isRunning()) && isAutoStartEnabled() && null != dut.getVideo()) {
+	    grabber = start(dut);
+	}
+	return null != grabber && grabber.isRunning() ? grabber : null;
+    }
+
+    /**
+     * Captures the current screen of the device, from the frame grabber when running, otherwise from the video
+     * provider
+     * 
+     * @param dut
+     *            Device
+     * @return Captured image, null if not available
+     */
+    public BufferedImage captureImage(Dut dut) {
+	return captureImage(dut, null);
+    }
+
+    /**
+     * Captures the current screen of the device scaled to the dimension, from the frame grabber when running,
+     * otherwise from the video provider
+     * 
+     * @param dut
+     *            Device
+     * @param dimension
+     *            Required image dimension, null for native dimension
+     * @return Captured image, null if not available
+     */
+    public BufferedImage captureImage(Dut dut, Dimension dimension) {
+	BufferedImage image = null;
+	VideoFrameGrabber grabber = getGrabber(dut);
+	if (null != grabber) {
+	    image = grabber.getCurrentImage(dimension);
+	}
+	if (null == image) {
+	    VideoProvider videoProvider = dut.getVideo();
+	    if (null != videoProvider) {
+		image = null == dimension ? videoProvider.getVideoImage() : videoProvider.getVideoImage(dimension);
+	    }
+	}
+	return image;
+    }
+
+    /**
+     * Streams the frames of the device screen for the given duration to the handler without saving them. Distinct
+     * frames are taken from the frame grabber when running, otherwise the screen is captured from the video provider
+     * at the minimum capture interval. The image passed to the handler is only valid during the call and must not be
+     * retained.
+     * 
+     * @param dut
+     *            Device
+     * @param durationInMillis
+     *            Sampling duration
+     * @param handler
+     *            Handler receiving each frame
+     * @return Number of frames passed to the handler
+     */
+    public int sampleFrames(Dut dut, long durationInMillis, FrameHandler handler) {
+	return sampleFrames(dut, durationInMillis, MIN_CAPTURE_INTERVAL, handler);
+    }
+
+    /**
+     * Streams the frames of the device screen for the given duration to the handler without saving them. Distinct
+     * frames are taken from the frame grabber when running, otherwise the screen is captured from the video provider
+     * once per frame interval. The image passed to the handler is only valid during the call and must not be
+     * retained.
+     * 
+     * @param dut
+     *            Device
+     * @param durationInMillis
+     *            Sampling duration
+     * @param frameIntervalInMillis
+     *            Interval between captures from the video provider, raised to the minimum capture interval
+     * @param handler
+     *            Handler receiving each frame
+     * @return Number of frames passed to the handler
+     */
+    public int sampleFrames(Dut dut, long durationInMillis, long frameIntervalInMillis, FrameHandler handler) {
+	int frameCount = 0;
+	long endTime = System.currentTimeMillis() + durationInMillis;
+	VideoFrameGrabber grabber = getGrabber(dut);
+	if (null != grabber) {
+	    VideoFrame frame = grabber.getLatestFrame();
+	    long sequence = null == frame ? -1 : frame.getSequence();
+	    long remaining = durationInMillis;
+	    while (remaining > 0 && grabber.isRunning()) {
+		frame = grabber.awaitFrameAfter(sequence, remaining);
+		if (null != frame) {
+		    sequence = frame.getSequence();
+		    if (frame.isValid()) {
+			handler.onFrame(frame.getImage(), frame.getTimestamp());
+			frameCount++;
+		    }
+		}
+		remaining = endTime - System.currentTimeMillis();
+	    }
+	} else {
+	    VideoProvider videoProvider = dut.getVideo();
+	    if (null != videoProvider) {
+		long captureInterval = Math.max(frameIntervalInMillis, MIN_CAPTURE_INTERVAL);
+		long remaining = durationInMillis;
+		do {
+		    long captureTime = System.currentTimeMillis();
+		    BufferedImage image = videoProvider.getVideoImage();
+		    if (null != image) {
+			handler.onFrame(image, System.currentTimeMillis());
+			frameCount++;
+		    }
+		    remaining = endTime - System.currentTimeMillis();
+		    long wait = Math.min(captureTime + captureInterval - System.currentTimeMillis(), remaining);
+		    if (wait > 0) {
+			AutomaticsUtils.sleep(wait);
+		    }
+		} while (remaining > 0);
+	    } else {
+		LOGGER.error("Video provider not available for {}, no frames sampled", dut.getHostMacAddress());
+	    }
+	}
+	LOGGER.info("Sampled {} frames from {} in {} ms", frameCount, dut.getHostMacAddress(), durationInMillis);
+	return frameCount;
+    }
+
+    private static boolean isAutoStartEnabled() {
+	return Boolean.parseBoolean(AutomaticsPropertyUtility.getProperty(PROP_ENABLED, "false"));
+    }
+
+    /**
+     * Receives frames streamed by {@link VideoFrameGrabberManager#sampleFrames(Dut, long, FrameHandler)}
+     */
+    public interface FrameHandler {
+
+	/**
+	 * Called for each sampled frame
+	 * 
+	 * @param image
+	 *            Frame image, valid only during the call
+	 * @param timestamp
+	 *            Capture time in milliseconds
+	 */
+	void onFrame(BufferedImage image, long timestamp);
+    }
+}
@@ -34,6 +34,8 @@ import com.automatics.device.Dut;
 import com.automatics.error.GeneralError;
 import com.automatics.exceptions.FailedTransitionException;
 import com.automatics.exceptions.TestException;
+import com.automatics.metrics.MetricsRegistry;
+import com.automatics.metrics.Timer.TimerContext;
 import com.automatics.providers.webpa.WebpaProvider;
 import com.automatics.restclient.RestClient;
 import com.automatics.restclient.RestClientConstants.HttpRequestMethod;
@@ -77,6 +79,9 @@ public class WebPaConnectionHandler {
      */
     private static final int CONNECTION_TIMEOUT = 60000;
 
+    /** Metric name for WebPA requests. */
+    private static final String METRIC_WEBPA_REQUEST = "webpa.request";
+
     /**
      * Single instance of webpa connection handler.
      */
@@ -147,7 +152,7 @@ public class WebPaConnectionHandler {
 		RestClient restClient = new RestEasyClientImpl();
 		RestRequest request = new RestRequest(completeUrl, HttpRequestMethod.GET, headers);
 		request.setTimeoutInMilliSeconds(CONNECTION_TIMEOUT);
-		response = restClient.executeAndGetResponse(request);
+		response = executeWebPaRequest(restClient, request, MetricsRegistry.tags(dut, null));
 
 		int statusCode = response.getResponseCode();
 		LOGGER.info("RESPONSE RECIEVED FOR WEBPA GET REQUEST: " + statusCode);
@@ -225,7 +230,8 @@ public class WebPaConnectionHandler {
 		RestClient restClient = new RestEasyClientImpl();
 		RestRequest request = new RestRequest(completeUrl.toString(), HttpRequestMethod.GET, headers);
 		request.setTimeoutInMilliSeconds(CONNECTION_TIMEOUT);
-		response = restClient.executeAndGetResponse(request);
+		response = executeWebPaRequest(restClient, request,
+			MetricsRegistry.tags(MetricsRegistry.TAG_MAC, macAddress, null));
 
 		int statusCode = response.getResponseCode();
 
@@ -373,7 +379,7 @@ public class WebPaConnectionHandler {
 		request.setMediaType(MediaType.APPLICATION_JSON_TYPE);
 		request.setContent(paramDetailsJson.toString());
 
-		response = restClient.executeAndGetResponse(request);
+		response = executeWebPaRequest(restClient, request, MetricsRegistry.tags(dut, null));
 
 		LOGGER.info("JSON PAYLOAD DATA BUILD FOR WEBPA PUT REQUEST: " + paramDetailsJson.toString());
 		int statusCode = response.getResponseCode();
@@ -466,7 +472,7 @@ public class WebPaConnectionHandler {
 		request.setTimeoutInMilliSeconds(CONNECTION_TIMEOUT);
 		request.setMediaType(MediaType.APPLICATION_JSON_TYPE);
 		request.setContent(jsonObject.toString());
-		response = restClient.executeAndGetResponse(request);
+		response = executeWebPaRequest(restClient, request, MetricsRegistry.tags(dut, null));
 
 		int statusCode = response.getResponseCode();
 		webpaResponse.setStatusCode(statusCode);
@@ -537,7 +543,7 @@ public class WebPaConnectionHandler {
 		RestClient restClient = new RestEasyClientImpl();
 		RestRequest request = new RestRequest(completeUrl, HttpRequestMethod.DELETE, headers);
 		request.setTimeoutInMilliSeconds(CONNECTION_TIMEOUT);
-		response = restClient.executeAndGetResponse(request);
+		response = executeWebPaRequest(restClient, request, MetricsRegistry.tags(dut, null));
 
 		int statusCode = response.getResponseCode();
 
@@ -720,7 +726,7 @@ public class WebPaConnectionHandler {
 		RestClient restClient = new RestEasyClientImpl();
 		RestRequest request = new RestRequest(completeUrl, HttpRequestMethod.GET, headers);
 		request.setTimeoutInMilliSeconds(CONNECTION_TIMEOUT);
-		response = restClient.executeAndGetResponse(request);
+		response = executeWebPaRequest(restClient, request, MetricsRegistry.tags(dut, null));
 
 		int statusCode = response.getResponseCode();
 		LOGGER.info("RESPONSE RECIEVED FOR WEBPA GET REQUEST: " + statusCode);
@@ -874,7 +880,7 @@ public class WebPaConnectionHandler {
 	    request.setContent(json.toString());
 
 	    // Send request to WebPa
-	    response = restClient.executeAndGetResponse(request);
+	    response = executeWebPaRequest(restClient, request, MetricsRegistry.tags(dut, null));
 
 	} catch (FailedTransitionException e) {
 	    LOGGER.error("FOLLOWING FailedTransitionException OCCURED WHILE WEBPA SET REQUEST: " + e.getMessage());
@@ -909,7 +915,7 @@ public class WebPaConnectionHandler {
 	    request.setTimeoutInMilliSeconds(CONNECTION_TIMEOUT);
 
 	    // Get webpa param values
-	    response = restClient.executeAndGetResponse(request);
+	    response = executeWebPaRequest(restClient, request, MetricsRegistry.tags(dut, null));
 
 	} catch (FailedTransitionException e) {
 	    LOGGER.error("FOLLOWING FailedTransitionException OCCURED WHILE WEBPA GET REQUEST: " + e.getMessage());
@@ -923,4 +929,27 @@ public class WebPaConnectionHandler {
 	return response;
 
     }
+
+    /**
+     * Executes the WebPA request and records its duration
+     * 
+     * @param restClient
+     *            Rest client
+     * @param request
+     *            WebPA request
+     * @param tags
+     *            Metric tags identifying the device
+     * @return The response of WebPA request
+     * @throws RestClientException
+     */
+    private RestResponse executeWebPaRequest(RestClient restClient, RestRequest request, Map<String, String> tags)
+	    throws RestClientException {
+	tags.put(MetricsRegistry.TAG_OPERATION, String.valueOf(request.getRequestType()));
+	TimerContext timerContext = MetricsRegistry.get().timer(METRIC_WEBPA_REQUEST, tags).start();
+	try {
+	    return restClient.executeAndGetResponse(request);
+	} finally {
+	    timerContext.stop();
+	}
+    }
 }
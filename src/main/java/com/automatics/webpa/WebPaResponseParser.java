@@ -0,0 +1,243 @@
+/**
+ * Copyright 2021 Comcast Cable Communications Management, LLC
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+package com.automatics.webpa;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.automatics.error.GeneralError;
+import com.automatics.exceptions.FailedTransitionException;
+import com.automatics.utils.CommonMethods;
+import com.automatics.utils.JsonMapperUtils;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Streaming parser for WebPA server responses. Reads the response token by token with the shared Jackson parser and
+ * maps each entry of the parameters array directly to {@link WebPaParameter}, so large table GETs never build an
+ * intermediate json tree. The whole payload is validated while it is read, any malformed or trailing content is
+ * reported as {@link GeneralError#INCORRECT_JSON}.
+ *
+ * Sample response: {"parameters":[{"name":"param name","value":"param value","dataType":0,"parameterCount":1,
+ * "message":"Success"}],"statusCode":200}
+ *
+ */
+public class WebPaResponseParser {
+
+    private static final String KEY_STATUS_CODE = "statusCode";
+
+    private static final String KEY_CODE = "code";
+
+    private static final String KEY_PARAMETERS = "parameters";
+
+    private static final String KEY_MESSAGE = "message";
+
+    private static final String KEY_ROW = "row";
+
+    private static final String KEY_NAME = "name";
+
+    private static final String KEY_VALUE = "value";
+
+    private static final String KEY_DATA_TYPE = "dataType";
+
+    private static final String KEY_PARAMETER_COUNT = "parameterCount";
+
+    /**
+     * Receives each parameter as soon as it has been read from the stream.
+     */
+    private interface ParameterHandler {
+
+	void onParameter(String name, String value, int dataType, int parameterCount, String message);
+    }
+
+    /**
+     * Parses the WebPA response into the given response object.
+     * 
+     * @param webpaResponse
+     *            WebPA response json
+     * @param response
+     *            Response object to be populated
+     * @return Populated response object
+     * @throws FailedTransitionException
+     *             If the response is not valid json
+     */
+    public static WebPaServerResponse parse(String webpaResponse, WebPaServerResponse response)
+	    throws FailedTransitionException {
+	final List<WebPaParameter> paramList = new ArrayList<WebPaParameter>();
+	ParsedResponse parsed = parse(webpaResponse, new ParameterHandler() {
+
+	    @Override
+	    public void onParameter(String name, String value, int dataType, int parameterCount, String message) {
+		WebPaParameter param = new WebPaParameter();
+		param.setName(name);
+		param.setValue(value);
+		param.setDataType(dataType);
+		param.setParameterCount(parameterCount);
+		param.setMessage(message);
+		paramList.add(param);
+	    }
+	});
+
+	response.setStatusCode(parsed.statusCode);
+	if (parsed.hasParameters) {
+	    response.setParams(paramList);
+	}
+	if (null != parsed.message) {
+	    response.setMessage(parsed.message);
+	}
+	if (null != parsed.row) {
+	    response.setRow(parsed.row);
+	}
+	return response;
+    }
+
+    /**
+     * Walks the response once, handing each parameter to the handler and collecting the top level fields.
+     */
+    private static ParsedResponse parse(String webpaResponse, ParameterHandler handler) {
+	ParsedResponse parsed = new ParsedResponse();
+	JsonParser parser = null;
+	String parameterMessage = null;
+	String responseMessage = null;
+	boolean hasStatusCode = false;
+
+	try {
+	    if (CommonMethods.isNull(webpaResponse)) {
+		throw new FailedTransitionException(GeneralError.INCORRECT_JSON, "Empty WebPA response");
+	    }
+	    parser = JsonMapperUtils.createParser(webpaResponse);
+	    expect(parser.nextToken(), JsonToken.START_OBJECT);
+
+	    while (JsonToken.FIELD_NAME == parser.nextToken()) {
+		String field = parser.getCurrentName();
+		JsonToken token = parser.nextToken();
+
+		if (KEY_STATUS_CODE.equals(field)) {
+		    parsed.statusCode = readInt(parser, token);
+		    hasStatusCode = true;
+		} else if (KEY_CODE.equals(field)) {
+		    int code = readInt(parser, token);
+		    if (!hasStatusCode) {
+			parsed.statusCode = code;
+		    }
+		} else if (KEY_PARAMETERS.equals(field) && JsonToken.START_ARRAY == token) {
+		    parsed.hasParameters = true;
+		    while (JsonToken.END_ARRAY != parser.nextToken()) {
+			String message = readParameter(parser, handler);
+			if (CommonMethods.isNotNull(message)) {
+			    parameterMessage = message;
+			}
+		    }
+		} else if (KEY_MESSAGE.equals(field)) {
+		    responseMessage = JsonMapperUtils.readValueAsText(parser);
+		} else if (KEY_ROW.equals(field)) {
+		    parsed.row = JsonMapperUtils.readValueAsText(parser);
+		} else {
+		    parser.skipChildren();
+		}
+	    }
+
+	    expect(parser.getCurrentToken(), JsonToken.END_OBJECT);
+	    expect(parser.nextToken(), null);
+	} catch (IOException e) {
+	    throw new FailedTransitionException(GeneralError.INCORRECT_JSON, e);
+	} finally {
+	    JsonMapperUtils.closeQuietly(parser);
+	}
+
+	// Top level message takes precedence over the parameter message
+	parsed.message = null != responseMessage ? responseMessage : parameterMessage;
+	return parsed;
+    }
+
+    /**
+     * Reads one entry of the parameters array and returns its message.
+     */
+    private static String readParameter(JsonParser parser, ParameterHandler handler) throws IOException {
+	expect(parser.getCurrentToken(), JsonToken.START_OBJECT);
+	String name = null;
+	String value = null;
+	int dataType = 0;
+	int parameterCount = 0;
+	String message = null;
+
+	while (JsonToken.FIELD_NAME == parser.nextToken()) {
+	    String field = parser.getCurrentName();
+	    JsonToken token = parser.nextToken();
+
+	    if (KEY_NAME.equals(field)) {
+		name = JsonMapperUtils.readValueAsText(parser);
+	    } else if (KEY_VALUE.equals(field)) {
+		value = JsonMapperUtils.readValueAsText(parser);
+	    } else if (KEY_DATA_TYPE.equals(field)) {
+		dataType = readInt(parser, token);
+	    } else if (KEY_PARAMETER_COUNT.equals(field)) {
+		parameterCount = readInt(parser, token);
+	    } else if (KEY_MESSAGE.equals(field)) {
+		message = JsonMapperUtils.readValueAsText(parser);
+	    } else {
+		// attributes and unknown fields are not mapped
+		parser.skipChildren();
+	    }
+	}
+
+	if (null == name) {
+	    throw new FailedTransitionException(GeneralError.INCORRECT_JSON, "WebPA parameter without name");
+	}
+	handler.onParameter(name, value, dataType, parameterCount, message);
+	return message;
+    }
+
+    /**
+     * Reads an integer that may be sent either as a number or as a numeric string.
+     */
+    private static int readInt(JsonParser parser, JsonToken token) throws IOException {
+	if (JsonToken.VALUE_NUMBER_INT != token && JsonToken.VALUE_STRING != token) {
+	    throw new FailedTransitionException(GeneralError.INCORRECT_JSON,
+		    "Expected integer for " + parser.getCurrentName() + " but found " + token);
+	}
+	try {
+	    return JsonToken.VALUE_NUMBER_INT == token ? parser.getIntValue()
+		    : Integer.parseInt(parser.getText().trim());
+	} catch (NumberFormatException e) {
+	    throw new FailedTransitionException(GeneralError.INCORRECT_JSON, e);
+	}
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected) {
+	if (actual != expected) {
+	    throw new FailedTransitionException(GeneralError.INCORRECT_JSON,
+		    "Malformed WebPA response, expected " + expected + " but found " + actual);
+	}
+    }
+
+    /**
+     * Top level fields of the response.
+     */
+    private static class ParsedResponse {
+
+	private int statusCode = 0;
+
+	private boolean hasParameters = false;
+
+	private String message;
+
+	private String row;
+    }
+}
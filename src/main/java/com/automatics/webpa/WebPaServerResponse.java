@@ -17,14 +17,8 @@
  */
 package com.automatics.webpa;
 
-import java.util.ArrayList;
 import java.util.List;
 
-import org.codehaus.jettison.json.JSONArray;
-import org.codehaus.jettison.json.JSONException;
-import org.codehaus.jettison.json.JSONObject;
-
-import com.automatics.error.GeneralError;
 import com.automatics.exceptions.FailedTransitionException;
 
 import org.codehaus.jackson.annotate.JsonIgnoreProperties;
@@ -130,38 +124,6 @@ public class WebPaServerResponse {
      * @throws JSONException
      */
     public WebPaServerResponse fromJson(String webpaResponse) throws FailedTransitionException {
-	try {
-	    JSONObject response = new JSONObject(webpaResponse);
-
-	    if (response.has("statusCode")) {
-		this.setStatusCode(response.getInt("statusCode"));
-	    } else if (response.has("code")) {
-		this.setStatusCode(response.getInt("code"));
-	    }
-	    if (response.has("parameters")) {
-		List<WebPaParameter> paramList = new ArrayList<WebPaParameter>();
-
-		JSONArray arrayOfResponse = response.getJSONArray("parameters");
-		for (int index = 0; index < arrayOfResponse.length(); index++) {
-		    JSONObject jsonParam = arrayOfResponse.getJSONObject(index);
-		    WebPaParameter param = new WebPaParameter();
-		    paramList.add(param.fromJson(jsonParam));
-		    String message = paramList.get(index).getMessage();
-		    if (message != null && message != "") {
-			this.setMessage(message);
-		    }
-		}
-		this.setParams(paramList);
-	    }
-	    if (response.has("message")) {
-		this.setMessage(response.getString("message"));
-	    }
-	    if (response.has("row")) {
-		this.setRow(response.getString("row"));
-	    }
-	} catch (JSONException jasonExp) {
-	    throw new FailedTransitionException(GeneralError.INCORRECT_JSON, jasonExp);
-	}
-	return this;
+	return WebPaResponseParser.parse(webpaResponse, this);
     }
 }